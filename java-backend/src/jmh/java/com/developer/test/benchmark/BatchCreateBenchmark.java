@@ -0,0 +1,72 @@
+package com.developer.test.benchmark;
+
+import com.developer.test.dto.BatchResponse;
+import com.developer.test.model.Task;
+import com.developer.test.service.DataStore;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Creating {@link DataStore#MAX_BATCH_SIZE} tasks one {@code createTask} call at a time versus
+ * in a single {@code createTasks} batch. Each iteration starts from an empty store.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class BatchCreateBenchmark {
+    private static final int USER_COUNT = 10_000;
+
+    private DataStore dataStore;
+    private int round;
+
+    @Setup(Level.Iteration)
+    public void create() {
+        dataStore = new DataStore(new ConcurrentMapCacheManager("tasks"));
+    }
+
+    @TearDown(Level.Iteration)
+    public void close() {
+        dataStore.close();
+    }
+
+    @Benchmark
+    public int loop() {
+        int created = 0;
+        for (Task task : newTasks()) {
+            created += dataStore.createTask(task).getId() > 0 ? 1 : 0;
+        }
+        return created;
+    }
+
+    @Benchmark
+    public List<BatchResponse.Item> batch() {
+        return dataStore.createTasks(newTasks());
+    }
+
+    private List<Task> newTasks() {
+        int current = round++;
+        List<Task> batch = new ArrayList<>(DataStore.MAX_BATCH_SIZE);
+        for (int i = 0; i < DataStore.MAX_BATCH_SIZE; i++) {
+            batch.add(new Task(0, "Import " + current + "-" + i, Task.Status.PENDING, 1 + i % USER_COUNT));
+        }
+        return batch;
+    }
+}
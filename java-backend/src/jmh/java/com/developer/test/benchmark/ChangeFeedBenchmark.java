@@ -0,0 +1,140 @@
+package com.developer.test.benchmark;
+
+import com.developer.test.model.Task;
+import com.developer.test.service.ChangeEvent;
+import com.developer.test.service.ChangeFeed;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.reactivestreams.Subscription;
+import reactor.core.publisher.BaseSubscriber;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Fan-out cost of {@link ChangeFeed}: {@code subscribers} in-process subscribers, one in a hundred
+ * of which never requests more than one event, while a writer publishes {@code writes} task
+ * creates per invocation. Each invocation ends once every healthy subscriber has caught up, so the
+ * score is the time to fan a burst out and {@code delivered} is the event rate. The writer is held
+ * within half a buffer of the healthy subscribers; one of them falling a full buffer behind fails
+ * the run. A burst takes seconds, so every iteration is a single invocation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 3, time = 1)
+@Fork(1)
+public class ChangeFeedBenchmark {
+
+    @Param({"5000"})
+    int subscribers;
+
+    @Param({"20000"})
+    int writes;
+
+    private ChangeFeed feed;
+    private final List<Counter> healthy = new ArrayList<>();
+    private final LongAdder delivered = new LongAdder();
+    private long published;
+
+    @Setup(Level.Trial)
+    public void subscribe() {
+        feed = new ChangeFeed(4096, 0);
+        for (int i = 0; i < subscribers; i++) {
+            boolean slow = i % 100 == 99;
+            Counter counter = new Counter(slow ? 1 : 256, delivered, !slow);
+            feed.subscribe(-1, Collections.emptySet()).subscribe(counter);
+            if (!slow) {
+                healthy.add(counter);
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void close() {
+        feed.close();
+    }
+
+    @Benchmark
+    public void fanOut(Events events) {
+        long before = delivered.sum();
+        for (int i = 0; i < writes; i++) {
+            published++;
+            feed.taskCreated(new Task((int) published, "Task " + published, Task.Status.PENDING, 1));
+            if ((i & 1023) == 1023) {
+                // Every write is a task event and a stats delta.
+                awaitHealthy(published * 2 - feed.getCapacity() / 2);
+            }
+        }
+        awaitHealthy(published * 2);
+        events.delivered += delivered.sum() - before;
+    }
+
+    private void awaitHealthy(long received) {
+        for (Counter counter : healthy) {
+            while (counter.received < received) {
+                if (feed.getResyncCount() != 0) {
+                    throw new IllegalStateException("A healthy subscriber fell a full buffer behind");
+                }
+                Thread.onSpinWait();
+            }
+        }
+    }
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Events {
+        public long delivered;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            delivered = 0;
+        }
+    }
+
+    private static final class Counter extends BaseSubscriber<ChangeEvent> {
+        private final int batch;
+        private final LongAdder delivered;
+        private final boolean replenish;
+        volatile long received;
+        private int outstanding;
+
+        Counter(int batch, LongAdder delivered, boolean replenish) {
+            this.batch = batch;
+            this.delivered = delivered;
+            this.replenish = replenish;
+        }
+
+        @Override
+        protected void hookOnSubscribe(Subscription subscription) {
+            outstanding = batch;
+            request(batch);
+        }
+
+        @Override
+        protected void hookOnNext(ChangeEvent value) {
+            received++;
+            delivered.increment();
+            if (--outstanding == 0 && replenish) {
+                outstanding = batch;
+                request(batch);
+            }
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.developer.test.benchmark;
+
+import com.developer.test.model.Task;
+import com.developer.test.service.DataStore;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.BenchmarkParams;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Heap footprint and full-GC pause of the in-memory store versus the columnar store holding the
+ * same tasks, plus the {@code status}+{@code userId} filter each answers from its own layout:
+ * indexes on the heap store, a column scan on the columnar one. {@code fullGc} times one
+ * {@link System#gc()} over the populated store and reports the retained heap bytes per task
+ * alongside.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g", "-XX:+UseG1GC"})
+public class ColumnarFootprintBenchmark {
+
+    @Param({"2000000"})
+    int size;
+
+    @Param({"heap", "columnar"})
+    String store;
+
+    private DataStore dataStore;
+    private double bytesPerTaskShare;
+
+    @Setup(Level.Trial)
+    public void populate(BenchmarkParams params) {
+        long baseline = usedAfterGc();
+        dataStore = Datasets.populate(store, false, size);
+        // JMH sums event counters over the measured iterations, so each reports its share.
+        bytesPerTaskShare = (usedAfterGc() - baseline) / (double) size / params.getMeasurement().getCount();
+    }
+
+    @TearDown(Level.Trial)
+    public void close() {
+        dataStore.close();
+    }
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Footprint {
+        public double bytesPerTask;
+    }
+
+    @Benchmark
+    public void fullGc(Footprint footprint) {
+        System.gc();
+        footprint.bytesPerTask = bytesPerTaskShare;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @Warmup(iterations = 3, time = 1)
+    @Measurement(iterations = 5, time = 1)
+    public List<Task> filterByStatusAndUser() {
+        return dataStore.getTasks("completed", "42");
+    }
+
+    private static long usedAfterGc() {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        Runtime runtime = Runtime.getRuntime();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,107 @@
+package com.developer.test.benchmark;
+
+import com.developer.test.model.Task;
+import com.developer.test.service.DataStore;
+import com.developer.test.service.DuplicateException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Concurrent read/write mixes: {@code readHeavy} runs three readers per writer and
+ * {@code writeHeavy} the reverse. Writers alternate status updates with new tasks, so cached
+ * queries are invalidated at a realistic rate. Override the split with {@code -tg}, e.g.
+ * {@code -tg 7,1}.
+ */
+@State(Scope.Group)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class DataStoreMixedBenchmark {
+    private static final Task.Status[] STATUSES = Task.Status.values();
+
+    @Param({"10000", "1000000"})
+    int size;
+
+    @Param({"heap", "columnar"})
+    String store;
+
+    @Param({"true", "false"})
+    boolean cached;
+
+    private DataStore dataStore;
+    private int userCount;
+    private final AtomicInteger created = new AtomicInteger();
+
+    @Setup(Level.Trial)
+    public void populate() {
+        dataStore = Datasets.populate(store, cached, size);
+        userCount = Datasets.userCount(size);
+    }
+
+    @Benchmark
+    @Group("readHeavy")
+    @GroupThreads(3)
+    public List<Task> readHeavyRead() {
+        return read();
+    }
+
+    @Benchmark
+    @Group("readHeavy")
+    @GroupThreads(1)
+    public Task readHeavyWrite() {
+        return write();
+    }
+
+    @Benchmark
+    @Group("writeHeavy")
+    @GroupThreads(1)
+    public List<Task> writeHeavyRead() {
+        return read();
+    }
+
+    @Benchmark
+    @Group("writeHeavy")
+    @GroupThreads(3)
+    public Task writeHeavyWrite() {
+        return write();
+    }
+
+    private List<Task> read() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return dataStore.getTasks(STATUSES[random.nextInt(STATUSES.length)].getValue(),
+                String.valueOf(1 + random.nextInt(userCount)));
+    }
+
+    private Task write() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        if (random.nextBoolean()) {
+            return dataStore.createTask(new Task(0, "Bench " + created.incrementAndGet(),
+                    Task.Status.PENDING, 1 + random.nextInt(userCount)));
+        }
+        try {
+            return dataStore.updateTask(1 + random.nextInt(size),
+                    new Task(0, null, STATUSES[random.nextInt(STATUSES.length)], 0));
+        } catch (DuplicateException ex) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.developer.test.benchmark;
+
+import com.developer.test.dto.StatsResponse;
+import com.developer.test.model.Task;
+import com.developer.test.model.User;
+import com.developer.test.service.DataStore;
+import com.developer.test.service.Page;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Read hot paths across dataset sizes, storage backends and with or without the task query
+ * cache. Run with more threads via {@code -t}, e.g. {@code -Djmh.args="DataStoreRead -t 4"}.
+ *
+ * <p>Sizes stop at 1M so every combination fits the 4 GB fork heap. 10M tasks fit only the
+ * columnar store there ({@code -p size=10000000 -p store=columnar}); the heap store needs about
+ * 375 bytes per task before its indexes, so give it a larger heap with {@code -jvmArgsAppend}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class DataStoreReadBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    int size;
+
+    @Param({"heap", "columnar"})
+    String store;
+
+    @Param({"true", "false"})
+    boolean cached;
+
+    private DataStore dataStore;
+    private int userCount;
+
+    @Setup(Level.Trial)
+    public void populate() {
+        dataStore = Datasets.populate(store, cached, size);
+        userCount = Datasets.userCount(size);
+    }
+
+    @Benchmark
+    public List<Task> tasksByUser() {
+        return dataStore.getTasks(null, String.valueOf(randomUser()));
+    }
+
+    @Benchmark
+    public List<Task> tasksByStatusAndUser() {
+        return dataStore.getTasks("completed", String.valueOf(randomUser()));
+    }
+
+    @Benchmark
+    public Page<Task> firstPageByStatus() {
+        return dataStore.getTasksPage("pending", null, null, 50, false);
+    }
+
+    @Benchmark
+    public StatsResponse stats() {
+        return dataStore.getStats();
+    }
+
+    @Benchmark
+    public User userById() {
+        return dataStore.getUserById(randomUser());
+    }
+
+    private int randomUser() {
+        return 1 + ThreadLocalRandom.current().nextInt(userCount);
+    }
+}
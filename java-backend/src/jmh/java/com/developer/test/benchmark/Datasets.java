@@ -0,0 +1,67 @@
+package com.developer.test.benchmark;
+
+import com.developer.test.model.Task;
+import com.developer.test.model.User;
+import com.developer.test.service.ColumnarDataStore;
+import com.developer.test.service.DataStore;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.support.NoOpCacheManager;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Builds populated stores for the benchmarks through the public batch API.
+ */
+final class Datasets {
+    // Same spec as spring.cache.caffeine.spec in application.properties.
+    private static final String CACHE_SPEC = "expireAfterWrite=5m,maximumSize=1000,recordStats";
+
+    private Datasets() {
+    }
+
+    /**
+     * Users scale with the dataset so per-user task lists stay around a hundred entries.
+     */
+    static int userCount(int taskCount) {
+        return Math.max(10, Math.min(100_000, taskCount / 100));
+    }
+
+    static DataStore populate(String store, boolean cached, int taskCount) {
+        CacheManager cacheManager = cached ? caffeine() : new NoOpCacheManager();
+        DataStore dataStore = "columnar".equals(store)
+                ? new ColumnarDataStore(cacheManager)
+                : new DataStore(cacheManager);
+        dataStore.clear();
+
+        int userCount = userCount(taskCount);
+        List<User> users = new ArrayList<>(DataStore.MAX_BATCH_SIZE);
+        for (int i = 0; i < userCount; i++) {
+            users.add(new User(0, "User " + i, "user" + i + "@example.com", "developer"));
+            if (users.size() == DataStore.MAX_BATCH_SIZE) {
+                dataStore.createUsers(users);
+                users = new ArrayList<>(DataStore.MAX_BATCH_SIZE);
+            }
+        }
+        dataStore.createUsers(users);
+
+        Task.Status[] statuses = Task.Status.values();
+        List<Task> tasks = new ArrayList<>(DataStore.MAX_BATCH_SIZE);
+        for (int i = 0; i < taskCount; i++) {
+            tasks.add(new Task(0, "Task " + i, statuses[i % statuses.length], 1 + i % userCount));
+            if (tasks.size() == DataStore.MAX_BATCH_SIZE) {
+                dataStore.createTasks(tasks);
+                tasks = new ArrayList<>(DataStore.MAX_BATCH_SIZE);
+            }
+        }
+        dataStore.createTasks(tasks);
+        return dataStore;
+    }
+
+    private static CacheManager caffeine() {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager("users", "tasks");
+        cacheManager.setCacheSpecification(CACHE_SPEC);
+        return cacheManager;
+    }
+}
@@ -0,0 +1,87 @@
+package com.developer.test.benchmark;
+
+import com.developer.test.model.Task;
+import com.developer.test.service.DataStore;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+/**
+ * Task filters answered from the status and userId indexes versus the full-scan filter they
+ * replaced, which copied every task and streamed the copy through the predicate. The task
+ * query cache is off so every call runs the query.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class IndexedFilterBenchmark {
+
+    @Param({"1000000"})
+    int size;
+
+    private DataStore dataStore;
+    private List<Task> allTasks;
+    private int userCount;
+
+    @Setup(Level.Trial)
+    public void populate() {
+        dataStore = Datasets.populate("heap", false, size);
+        allTasks = dataStore.getTasks(null, null);
+        userCount = Datasets.userCount(size);
+    }
+
+    @TearDown(Level.Trial)
+    public void close() {
+        dataStore.close();
+    }
+
+    @Benchmark
+    public List<Task> indexedByUser() {
+        return dataStore.getTasks(null, String.valueOf(randomUser()));
+    }
+
+    @Benchmark
+    public List<Task> scanByUser() {
+        int userId = randomUser();
+        return scan(task -> task.getUserId() == userId);
+    }
+
+    @Benchmark
+    public List<Task> indexedByStatusAndUser() {
+        return dataStore.getTasks("completed", String.valueOf(randomUser()));
+    }
+
+    @Benchmark
+    public List<Task> scanByStatusAndUser() {
+        int userId = randomUser();
+        return scan(task -> task.getStatus() == Task.Status.COMPLETED && task.getUserId() == userId);
+    }
+
+    private List<Task> scan(Predicate<Task> filter) {
+        return new ArrayList<>(allTasks).stream().filter(filter).collect(Collectors.toList());
+    }
+
+    private int randomUser() {
+        return 1 + ThreadLocalRandom.current().nextInt(userCount);
+    }
+}
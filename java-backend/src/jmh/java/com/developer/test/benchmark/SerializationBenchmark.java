@@ -0,0 +1,62 @@
+package com.developer.test.benchmark;
+
+import com.developer.test.dto.TasksResponse;
+import com.developer.test.model.Task;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson serialization of {@link TasksResponse}, the body of every task list response.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializationBenchmark {
+
+    @Param({"10", "1000", "100000"})
+    int tasks;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private TasksResponse response;
+    private byte[] json;
+
+    @Setup
+    public void prepare() throws JsonProcessingException {
+        Task.Status[] statuses = Task.Status.values();
+        List<Task> list = new ArrayList<>(tasks);
+        for (int i = 1; i <= tasks; i++) {
+            list.add(new Task(i, "Task " + i, statuses[i % statuses.length], 1 + i % 100));
+        }
+        response = new TasksResponse(list, list.size(), tasks);
+        json = objectMapper.writeValueAsBytes(response);
+    }
+
+    @Benchmark
+    public byte[] serializeTasksResponse() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(response);
+    }
+
+    @Benchmark
+    public TasksResponse deserializeTasksResponse() throws IOException {
+        return objectMapper.readValue(json, TasksResponse.class);
+    }
+}
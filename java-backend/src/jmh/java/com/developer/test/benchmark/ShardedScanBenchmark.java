@@ -0,0 +1,85 @@
+package com.developer.test.benchmark;
+
+import com.developer.test.dto.StatsResponse;
+import com.developer.test.model.Task;
+import com.developer.test.service.ChangeFeed;
+import com.developer.test.service.DataStore;
+import com.developer.test.service.ReadSnapshot;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.cache.support.NoOpCacheManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Full scans of the heap store for each shard count: the unfiltered task list, and stats and the
+ * pending list from a snapshot, which aggregate over every task. A store runs at most one scan task
+ * per processor, so expect the gains to stop at the machine's core count.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class ShardedScanBenchmark {
+
+    @Param({"500000"})
+    int size;
+
+    @Param({"1", "2", "4", "8", "16", "32"})
+    int shards;
+
+    private DataStore dataStore;
+
+    @Setup(Level.Trial)
+    public void populate() {
+        dataStore = new DataStore(new NoOpCacheManager(), new ChangeFeed(), shards);
+        List<Task> batch = new ArrayList<>(DataStore.MAX_BATCH_SIZE);
+        for (int i = 0; i < size; i++) {
+            batch.add(new Task(0, "Task " + i, i % 2 == 0 ? Task.Status.PENDING : Task.Status.COMPLETED, 1 + i % 3));
+            if (batch.size() == DataStore.MAX_BATCH_SIZE) {
+                dataStore.createTasks(batch);
+                batch = new ArrayList<>(DataStore.MAX_BATCH_SIZE);
+            }
+        }
+        dataStore.createTasks(batch);
+    }
+
+    @TearDown(Level.Trial)
+    public void close() {
+        dataStore.close();
+    }
+
+    @Benchmark
+    public List<Task> list() {
+        return dataStore.getTasks(null, null);
+    }
+
+    @Benchmark
+    public StatsResponse snapshotStats() {
+        try (ReadSnapshot snapshot = dataStore.openSnapshot()) {
+            return snapshot.getStats();
+        }
+    }
+
+    @Benchmark
+    public List<Task> snapshotFilter() {
+        try (ReadSnapshot snapshot = dataStore.openSnapshot()) {
+            return snapshot.getTasks("pending", null);
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.developer.test.benchmark;
+
+import com.developer.test.dto.StatsResponse;
+import com.developer.test.model.Task;
+import com.developer.test.service.DataStore;
+import com.developer.test.service.ReadSnapshot;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of MVCC snapshot reads: four writers update random tasks while a dashboard reader fetches
+ * the stats and the pending tasks, either live or both from one snapshot. The {@code inconsistent}
+ * counter is how often the stats disagreed with the listed tasks.
+ */
+@State(Scope.Group)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class SnapshotReadBenchmark {
+    private static final Task.Status[] STATUSES = Task.Status.values();
+
+    @Param({"100000"})
+    int size;
+
+    @Param({"live", "snapshot"})
+    String reads;
+
+    private DataStore dataStore;
+
+    @Setup(Level.Trial)
+    public void populate() {
+        dataStore = Datasets.populate("heap", false, size);
+    }
+
+    @Benchmark
+    @Group("dashboard")
+    @GroupThreads(4)
+    public Task update() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return dataStore.updateTask(1 + random.nextInt(size),
+                new Task(0, null, STATUSES[random.nextInt(STATUSES.length)], 0));
+    }
+
+    @Benchmark
+    @Group("dashboard")
+    @GroupThreads(1)
+    public StatsResponse read(Dashboard dashboard) {
+        StatsResponse stats;
+        int pending;
+        if ("snapshot".equals(reads)) {
+            try (ReadSnapshot snapshot = dataStore.openSnapshot()) {
+                stats = snapshot.getStats();
+                pending = snapshot.getTasks("pending", null).size();
+            }
+        } else {
+            stats = dataStore.getStats();
+            pending = dataStore.getTasks("pending", null).size();
+        }
+        if (stats.getTasks().getPending() != pending) {
+            dashboard.inconsistent++;
+        }
+        return stats;
+    }
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Dashboard {
+        public long inconsistent;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            inconsistent = 0;
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.developer.test.benchmark;
+
+import com.developer.test.model.Task;
+import com.developer.test.service.ColumnarDataStore;
+import com.developer.test.service.DataStore;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Contention on a few hot tasks: 16 writers issue partial updates spread over {@code hotTasks}
+ * ids while two readers page through them. Title and status always change together, so the
+ * {@code torn} counter catches a reader seeing half an update. Run with {@code -bm sample} for
+ * update latency percentiles, or change the split with {@code -tg}.
+ */
+@State(Scope.Group)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TaskUpdateContentionBenchmark {
+    private static final Task.Status[] STATUSES = Task.Status.values();
+
+    @Param({"heap", "columnar"})
+    String store;
+
+    @Param({"4"})
+    int hotTasks;
+
+    private DataStore dataStore;
+    private int firstId;
+
+    @Setup(Level.Trial)
+    public void populate() {
+        dataStore = "columnar".equals(store) ? new ColumnarDataStore() : new DataStore();
+        for (int i = 0; i < hotTasks; i++) {
+            Task task = dataStore.createTask(new Task(0, "t:pending:hot" + i, Task.Status.PENDING, 1));
+            if (i == 0) {
+                firstId = task.getId();
+            }
+        }
+    }
+
+    @Benchmark
+    @Group("hot")
+    @GroupThreads(16)
+    public Task update(Writer writer) {
+        int sequence = writer.sequence++;
+        Task.Status status = STATUSES[(sequence + writer.id) % STATUSES.length];
+        return dataStore.updateTask(firstId + (sequence + writer.id) % hotTasks,
+                new Task(0, "t:" + status.getValue() + ":" + writer.id + ":" + sequence, status, 0));
+    }
+
+    @Benchmark
+    @Group("hot")
+    @GroupThreads(2)
+    public List<Task> read(Reads reads) {
+        List<Task> page = dataStore.getTasksPage(null, null, firstId - 1, hotTasks, false).getItems();
+        for (Task task : page) {
+            if (!task.getTitle().startsWith("t:" + task.getStatus().getValue() + ":")) {
+                reads.torn++;
+            }
+        }
+        return page;
+    }
+
+    @State(Scope.Thread)
+    public static class Writer {
+        private static final AtomicInteger IDS = new AtomicInteger();
+
+        final int id = IDS.getAndIncrement();
+        int sequence;
+    }
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Reads {
+        public long torn;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            torn = 0;
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package com.developer.test.benchmark;
+
+import com.developer.test.Application;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.support.GenericApplicationContext;
+import org.springframework.web.servlet.function.RouterFunction;
+import org.springframework.web.servlet.function.RouterFunctions;
+import org.springframework.web.servlet.function.ServerResponse;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+import reactor.netty.resources.LoopResources;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Requests the servlet stack completes when every handler blocks for {@code stallMillis} on a
+ * simulated downstream call, Tomcat's platform worker pool versus virtual threads. Each invocation
+ * issues {@code connections} requests at once. With a fixed stall the {@code succeeded} rate is
+ * the number of handlers in flight per stall, so it tops out at the pool size on platform threads.
+ * The fork runs at {@code -Xmx512m} so both modes get the same memory budget; add
+ * {@code -prof gc} and {@code -prof hs_thr} for allocation and thread counts. {@code virtual}
+ * needs a Java 21 runtime (build with {@code -Pjava21,jmh}); run {@code -p threads=platform}
+ * on older ones.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 1, time = 10)
+@Measurement(iterations = 3, time = 10)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx512m"})
+public class VirtualThreadLoadBenchmark {
+
+    @Param({"platform", "virtual"})
+    String threads;
+
+    @Param({"5000"})
+    int connections;
+
+    @Param({"1000"})
+    long stallMillis;
+
+    private ConfigurableApplicationContext context;
+    private ConnectionProvider pool;
+    private LoopResources loops;
+    private HttpClient client;
+
+    @Setup(Level.Trial)
+    public void start() {
+        boolean virtual = "virtual".equals(threads);
+        if (virtual && Runtime.version().feature() < 21) {
+            throw new IllegalStateException("Virtual threads need Java 21; running on " + Runtime.version());
+        }
+        SpringApplication application = new SpringApplication(Application.class);
+        application.addInitializers(context -> ((GenericApplicationContext) context)
+                .registerBean("stallRoute", RouterFunction.class, this::stallRoute));
+        context = application.run(
+                "--server.port=0",
+                "--spring.threads.virtual.enabled=" + virtual,
+                "--logging.level.com.developer.test.logging=WARN",
+                "--server.tomcat.max-connections=" + (connections + 100),
+                "--server.tomcat.accept-count=" + connections);
+        int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+        pool = ConnectionProvider.builder("stall")
+                .maxConnections(connections)
+                .pendingAcquireMaxCount(-1)
+                .pendingAcquireTimeout(Duration.ofMinutes(5))
+                .build();
+        loops = LoopResources.create("stall-client", 4, true);
+        client = HttpClient.create(pool).runOn(loops).baseUrl("http://localhost:" + port)
+                .responseTimeout(Duration.ofMinutes(5));
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        pool.dispose();
+        loops.dispose();
+        context.close();
+    }
+
+    private RouterFunction<ServerResponse> stallRoute() {
+        return RouterFunctions.route()
+                .GET("/bench/stall", request -> {
+                    Thread.sleep(stallMillis);
+                    return ServerResponse.ok().body("ok");
+                })
+                .build();
+    }
+
+    @Benchmark
+    public void stalledRequests(Requests requests) {
+        AtomicInteger succeeded = new AtomicInteger();
+        AtomicInteger failed = new AtomicInteger();
+        Flux.range(0, connections)
+                .flatMap(i -> client.get().uri("/bench/stall")
+                        .responseSingle((response, body) -> {
+                            (response.status().code() == 200 ? succeeded : failed).incrementAndGet();
+                            return body.then();
+                        })
+                        .onErrorResume(error -> {
+                            failed.incrementAndGet();
+                            return Mono.empty();
+                        }), connections)
+                .blockLast();
+        requests.succeeded += succeeded.get();
+        requests.failed += failed.get();
+    }
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Requests {
+        public long succeeded;
+        public long failed;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            succeeded = 0;
+            failed = 0;
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package com.developer.test.benchmark;
+
+import com.developer.test.Application;
+import io.netty.buffer.Unpooled;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+import reactor.netty.resources.LoopResources;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Task creates over {@code connections} concurrent keep-alive connections, servlet stack
+ * (Tomcat + MVC) versus reactive stack (Netty + WebFlux). Each invocation sends one request on
+ * every connection at once; the {@code succeeded} counter is the request rate. Client and server
+ * share the fork, so it needs roughly two file descriptors per connection. Add
+ * {@code -prof hs_thr} to see how many threads each stack starts.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 1, time = 20)
+@Measurement(iterations = 3, time = 20)
+@Fork(1)
+public class WebStackLoadBenchmark {
+
+    @Param({"servlet", "reactive"})
+    String stack;
+
+    @Param({"10000"})
+    int connections;
+
+    private ConfigurableApplicationContext context;
+    private ConnectionProvider pool;
+    private LoopResources loops;
+    private HttpClient client;
+    private final AtomicInteger sequence = new AtomicInteger();
+
+    @Setup(Level.Trial)
+    public void start() {
+        context = SpringApplication.run(Application.class,
+                "--server.port=0",
+                "--spring.main.web-application-type=" + stack,
+                "--logging.level.com.developer.test.logging=WARN",
+                "--server.tomcat.max-connections=" + (connections + 100),
+                "--server.tomcat.accept-count=" + connections);
+        int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+        pool = ConnectionProvider.builder("load")
+                .maxConnections(connections)
+                .pendingAcquireMaxCount(-1)
+                .pendingAcquireTimeout(Duration.ofMinutes(5))
+                .build();
+        loops = LoopResources.create("load-client", 4, true);
+        client = HttpClient.create(pool).runOn(loops).baseUrl("http://localhost:" + port)
+                .headers(headers -> headers.set(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE));
+
+        // Open every connection first so the measured waves run at full concurrency.
+        Flux.range(0, connections)
+                .flatMap(i -> client.get().uri("/health").responseSingle((r, body) -> body.then()), connections)
+                .onErrorContinue((error, value) -> { })
+                .blockLast();
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        pool.dispose();
+        loops.dispose();
+        context.close();
+    }
+
+    @Benchmark
+    public void createTasks(Requests requests) {
+        AtomicInteger succeeded = new AtomicInteger();
+        AtomicInteger failed = new AtomicInteger();
+        Flux.range(0, connections)
+                .flatMap(i -> client.post().uri("/api/tasks")
+                        .send(Mono.fromSupplier(() -> Unpooled.copiedBuffer("{\"title\":\"" + stack + " load "
+                                + sequence.incrementAndGet() + "\",\"status\":\"pending\",\"userId\":1}",
+                                StandardCharsets.UTF_8)))
+                        .responseSingle((response, body) -> {
+                            (response.status().code() == 201 ? succeeded : failed).incrementAndGet();
+                            return body.then();
+                        })
+                        .onErrorResume(error -> {
+                            failed.incrementAndGet();
+                            return Mono.empty();
+                        }), connections)
+                .blockLast();
+        requests.succeeded += succeeded.get();
+        requests.failed += failed.get();
+    }
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Requests {
+        public long succeeded;
+        public long failed;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            succeeded = 0;
+            failed = 0;
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.developer.test.benchmark;
+
+import com.developer.test.model.Task;
+import com.developer.test.persistence.FsyncPolicy;
+import com.developer.test.persistence.WriteAheadLog;
+import com.developer.test.service.DataStore;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.cache.support.NoOpCacheManager;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Durable {@code createTask} throughput per fsync policy, journaled to a write-ahead log in a
+ * temporary directory. Writers share fsyncs under {@code ALWAYS}, so vary the writer count with
+ * {@code -t}, e.g. {@code -Djmh.args="WriteAheadLog -t 32"}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Threads(8)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class WriteAheadLogBenchmark {
+    private static final int USER_COUNT = 100;
+
+    @Param
+    FsyncPolicy fsync;
+
+    private final AtomicInteger created = new AtomicInteger();
+    private Path dir;
+    private WriteAheadLog wal;
+    private DataStore dataStore;
+
+    @Setup(Level.Trial)
+    public void open() throws IOException {
+        dir = Files.createTempDirectory("wal-benchmark");
+        wal = WriteAheadLog.open(dir.resolve("datastore.wal"), fsync, 10, record -> { });
+        dataStore = new DataStore(new NoOpCacheManager());
+        dataStore.setJournal(wal);
+    }
+
+    @TearDown(Level.Trial)
+    public void close() throws IOException {
+        wal.close();
+        dataStore.close();
+        FileSystemUtils.deleteRecursively(dir);
+    }
+
+    @Benchmark
+    public Task createTask() {
+        return dataStore.createTask(new Task(0, "Task " + created.incrementAndGet(), Task.Status.PENDING,
+                1 + ThreadLocalRandom.current().nextInt(USER_COUNT)));
+    }
+}
@@ -0,0 +1,100 @@
+package com.developer.test.logging;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.OutputStreamAppender;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Time a request log line spends on the calling thread, synchronous console appender versus
+ * {@link AsyncBatchingAppender}, with a sink that costs 20 µs per write like a slow terminal or
+ * pipe. Sample mode reports the percentiles. Lives beside the appender because the sink is set
+ * through a package-private hook.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Threads(8)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AsyncLoggingBenchmark {
+    private static final String PATTERN = "%d{yyyy-MM-dd HH:mm:ss.SSS} %-5level [%thread] %logger{36} - %msg%n";
+
+    @Param({"sync", "async"})
+    String appender;
+
+    private Appender<ILoggingEvent> sink;
+    private Logger logger;
+
+    @Setup(Level.Trial)
+    public void start() {
+        LoggerContext context = new LoggerContext();
+        PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+        encoder.setContext(context);
+        encoder.setPattern(PATTERN);
+        encoder.start();
+
+        if ("async".equals(appender)) {
+            AsyncBatchingAppender batching = new AsyncBatchingAppender();
+            batching.setEncoder(encoder);
+            batching.setOutputStream(new SlowOutputStream());
+            batching.setOverflowPolicy(OverflowPolicy.BLOCK);
+            sink = batching;
+        } else {
+            OutputStreamAppender<ILoggingEvent> console = new OutputStreamAppender<>();
+            console.setEncoder(encoder);
+            console.setOutputStream(new SlowOutputStream());
+            sink = console;
+        }
+        sink.setContext(context);
+        sink.setName(appender);
+        sink.start();
+        logger = context.getLogger(RequestLoggingFilter.class);
+        logger.addAppender(sink);
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        sink.stop();
+    }
+
+    @Benchmark
+    public void requestLine() {
+        logger.info("request method={} path={} status={} durationMs={}", "GET", "/api/tasks", 200, 3);
+    }
+
+    private static final class SlowOutputStream extends OutputStream {
+        @Override
+        public void write(int b) {
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            long deadline = System.nanoTime() + TimeUnit.MICROSECONDS.toNanos(20);
+            while (System.nanoTime() < deadline) {
+                LockSupport.parkNanos(deadline - System.nanoTime());
+            }
+        }
+    }
+}
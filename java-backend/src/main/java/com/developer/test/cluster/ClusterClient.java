@@ -0,0 +1,130 @@
+package com.developer.test.cluster;
+
+import com.developer.test.service.DuplicateException;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * JSON calls to other nodes' {@link ClusterController} endpoints. Every call is asynchronous so a
+ * coordinator can fan out to all nodes before waiting on any of them. A 404 answer completes with
+ * {@code null}, a 409 fails with {@link DuplicateException} like the local store would, and
+ * anything else unexpected fails with {@link RemoteNodeException}. Every call carries the
+ * {@link ClusterSecret}.
+ */
+final class ClusterClient {
+    static final String PATH = "/internal/cluster";
+
+    private final HttpClient http;
+    private final ObjectMapper objectMapper;
+    private final Duration timeout;
+    private final String secret;
+
+    ClusterClient(ObjectMapper objectMapper, Duration timeout, ClusterSecret secret) {
+        this.http = HttpClient.newBuilder().connectTimeout(timeout).build();
+        this.objectMapper = objectMapper;
+        this.timeout = timeout;
+        this.secret = secret.value();
+    }
+
+    JavaType type(Class<?> type) {
+        return objectMapper.getTypeFactory().constructType(type);
+    }
+
+    JavaType listOf(Class<?> type) {
+        return objectMapper.getTypeFactory().constructCollectionType(List.class, type);
+    }
+
+    <T> CompletableFuture<T> get(String node, String path, JavaType type) {
+        return send(node, "GET", path, null, type);
+    }
+
+    <T> CompletableFuture<T> send(String node, String method, String path, Object body, JavaType type) {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(node + PATH + path))
+                .timeout(timeout)
+                .header(ClusterSecret.HEADER, secret)
+                .header("Accept", "application/json");
+        if (body == null) {
+            request.method(method, HttpRequest.BodyPublishers.noBody());
+        } else {
+            byte[] json;
+            try {
+                json = objectMapper.writeValueAsBytes(body);
+            } catch (IOException ex) {
+                return CompletableFuture.failedFuture(ex);
+            }
+            request.header("Content-Type", "application/json")
+                    .method(method, HttpRequest.BodyPublishers.ofByteArray(json));
+        }
+        return http.sendAsync(request.build(), HttpResponse.BodyHandlers.ofByteArray())
+                .handle((response, failure) -> {
+                    if (failure != null) {
+                        throw new RemoteNodeException("Node " + node + " is unreachable",
+                                failure instanceof CompletionException ? failure.getCause() : failure);
+                    }
+                    return read(node, method, path, response, type);
+                });
+    }
+
+    private <T> T read(String node, String method, String path, HttpResponse<byte[]> response, JavaType type) {
+        int status = response.statusCode();
+        if (status == 404) {
+            return null;
+        }
+        try {
+            if (status == 409) {
+                JsonNode error = objectMapper.readTree(response.body()).path("error");
+                throw new DuplicateException(error.asText("Conflict"));
+            }
+            if (status / 100 != 2) {
+                throw new RemoteNodeException("Node " + node + " answered " + status + " to " + method + " " + path);
+            }
+            return objectMapper.readValue(response.body(), type);
+        } catch (IOException ex) {
+            throw new RemoteNodeException("Node " + node + " sent an unreadable answer to " + method + " " + path, ex);
+        }
+    }
+
+    /**
+     * Waits for a call, rethrowing its failure as thrown rather than wrapped.
+     */
+    static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) ex.getCause();
+            }
+            throw ex;
+        }
+    }
+
+    /**
+     * {@code ?name=value&...} for the non-null pairs, or an empty string when there are none.
+     */
+    static String query(Object... pairs) {
+        StringBuilder query = new StringBuilder();
+        for (int i = 0; i < pairs.length; i += 2) {
+            if (pairs[i + 1] == null) {
+                continue;
+            }
+            query.append(query.length() == 0 ? '?' : '&')
+                    .append(pairs[i])
+                    .append('=')
+                    .append(URLEncoder.encode(String.valueOf(pairs[i + 1]), StandardCharsets.UTF_8));
+        }
+        return query.toString();
+    }
+}
@@ -0,0 +1,55 @@
+package com.developer.test.cluster;
+
+import com.developer.test.service.ChangeFeed;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.support.NoOpCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.Arrays;
+
+/**
+ * Cluster mode: {@code datastore.mode=cluster} partitions the store over the nodes listed in
+ * {@code cluster.nodes}, with {@code cluster.self} naming this instance among them and
+ * {@code cluster.secret} shared by all of them; see {@link ClusterDataStore}.
+ */
+@Configuration
+@ConditionalOnProperty(name = "datastore.mode", havingValue = "cluster")
+public class ClusterConfiguration {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ClusterConfiguration.class);
+
+    /**
+     * Replaces the configured caches: cached lists span every node, and a node never hears of the
+     * writes applied elsewhere that would have to evict them.
+     */
+    @Bean
+    public CacheManager cacheManager() {
+        return new NoOpCacheManager();
+    }
+
+    @Bean
+    public ClusterSecret clusterSecret(@Value("${cluster.secret}") String secret) {
+        return new ClusterSecret(secret);
+    }
+
+    @Bean
+    public ClusterDataStore dataStore(CacheManager cacheManager, ChangeFeed changeFeed, ObjectMapper objectMapper,
+                                      ClusterSecret secret,
+                                      @Value("${datastore.shards:0}") int shards,
+                                      @Value("${cluster.self}") String self,
+                                      @Value("${cluster.nodes}") String nodes,
+                                      @Value("${cluster.virtual-nodes:128}") int virtualNodes,
+                                      @Value("${cluster.timeout-ms:5000}") long timeoutMillis) {
+        ConsistentHashRing ring = new ConsistentHashRing(Arrays.asList(nodes.split(",")), virtualNodes);
+        ClusterClient client = new ClusterClient(objectMapper, Duration.ofMillis(timeoutMillis), secret);
+        ClusterDataStore dataStore = new ClusterDataStore(cacheManager, changeFeed, shards, ring, self, client);
+        LOGGER.info("cluster node self={} nodes={} virtualNodes={}", dataStore.getSelf(), ring.nodes(), virtualNodes);
+        return dataStore;
+    }
+}
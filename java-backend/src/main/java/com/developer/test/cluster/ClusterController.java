@@ -0,0 +1,167 @@
+package com.developer.test.cluster;
+
+import com.developer.test.dto.BatchResponse;
+import com.developer.test.dto.StatsResponse;
+import com.developer.test.dto.TasksResponse;
+import com.developer.test.dto.UsersResponse;
+import com.developer.test.model.Task;
+import com.developer.test.model.User;
+import com.developer.test.service.DataStoreOperations;
+import com.developer.test.service.DuplicateException;
+import com.developer.test.service.Page;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+
+import javax.validation.Validator;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * Node-to-node API of cluster mode: every endpoint answers from this node's partition only and
+ * never forwards, so a coordinator can fan out without loops. Callers must present the
+ * {@link ClusterSecret}. Writes are checked again here, validation and routing both, and a body
+ * that the coordinator would not have sent to this node is refused whole with {@code 400}.
+ */
+@RestController
+@RequestMapping(ClusterClient.PATH)
+@ConditionalOnProperty(name = "datastore.mode", havingValue = "cluster")
+public class ClusterController {
+
+    private final ClusterDataStore dataStore;
+    private final Validator validator;
+
+    public ClusterController(ClusterDataStore dataStore, Validator validator) {
+        this.dataStore = dataStore;
+        this.validator = validator;
+    }
+
+    @GetMapping("/users")
+    public UsersResponse getUsers(
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) Integer cursor,
+            @RequestParam(defaultValue = "asc") String order) {
+        if (limit == null) {
+            List<User> users = dataStore.localUsers();
+            return new UsersResponse(users, users.size());
+        }
+        Page<User> page = dataStore.localUsersPage(cursor, limit, "desc".equalsIgnoreCase(order));
+        return new UsersResponse(page.getItems(), page.getItems().size(), page.getNextCursor());
+    }
+
+    @GetMapping("/users/{id}")
+    public ResponseEntity<User> getUserById(@PathVariable int id) {
+        User user = dataStore.localUser(id);
+        return user == null ? ResponseEntity.notFound().build() : ResponseEntity.ok(user);
+    }
+
+    @PostMapping("/users")
+    public Mono<ResponseEntity<User>> createUser(@RequestBody User user) {
+        if (!acceptsUser(user)) {
+            return Mono.just(ResponseEntity.badRequest().build());
+        }
+        return Mono.fromFuture(() -> dataStore.localCreateUser(user)).map(ResponseEntity::ok);
+    }
+
+    @PostMapping("/users/batch")
+    public Mono<ResponseEntity<List<BatchResponse.Item>>> createUsers(@RequestBody List<User> users) {
+        if (!acceptsAll(users, this::acceptsUser)) {
+            return Mono.just(ResponseEntity.badRequest().build());
+        }
+        return Mono.fromFuture(() -> dataStore.localCreateUsers(users)).map(ResponseEntity::ok);
+    }
+
+    @GetMapping("/tasks")
+    public TasksResponse getTasks(
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) String userId,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) Integer cursor,
+            @RequestParam(defaultValue = "asc") String order) {
+        if (limit == null) {
+            List<Task> tasks = dataStore.localTasks(status, userId);
+            return new TasksResponse(tasks, tasks.size());
+        }
+        Page<Task> page = dataStore.localTasksPage(status, userId, cursor, limit, "desc".equalsIgnoreCase(order));
+        return new TasksResponse(page.getItems(), page.getItems().size(), page.getNextCursor());
+    }
+
+    @PostMapping("/tasks")
+    public Mono<ResponseEntity<Task>> createTask(@RequestBody Task task) {
+        if (!acceptsTask(task)) {
+            return Mono.just(ResponseEntity.badRequest().build());
+        }
+        return Mono.fromFuture(() -> dataStore.localCreateTask(task)).map(ResponseEntity::ok);
+    }
+
+    @PutMapping("/tasks/{id}")
+    public Mono<ResponseEntity<Task>> updateTask(@PathVariable int id, @RequestBody Task task) {
+        task.setId(id);
+        if (!acceptsUpdate(task)) {
+            return Mono.just(ResponseEntity.badRequest().build());
+        }
+        return Mono.fromFuture(() -> dataStore.localUpdateTask(id, task))
+                .map(ResponseEntity::ok)
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    @PostMapping("/tasks/batch")
+    public Mono<ResponseEntity<List<BatchResponse.Item>>> createTasks(@RequestBody List<Task> tasks) {
+        if (!acceptsAll(tasks, this::acceptsTask)) {
+            return Mono.just(ResponseEntity.badRequest().build());
+        }
+        return Mono.fromFuture(() -> dataStore.localCreateTasks(tasks)).map(ResponseEntity::ok);
+    }
+
+    @PutMapping("/tasks/batch")
+    public Mono<ResponseEntity<List<BatchResponse.Item>>> updateTasks(@RequestBody List<Task> tasks) {
+        if (!acceptsAll(tasks, this::acceptsUpdate)) {
+            return Mono.just(ResponseEntity.badRequest().build());
+        }
+        return Mono.fromFuture(() -> dataStore.localUpdateTasks(tasks)).map(ResponseEntity::ok);
+    }
+
+    @GetMapping("/stats")
+    public StatsResponse getStats() {
+        return dataStore.localStats();
+    }
+
+    private boolean acceptsUser(User user) {
+        return user != null && validator.validate(user).isEmpty() && dataStore.routesHere(user);
+    }
+
+    private boolean acceptsTask(Task task) {
+        return task != null && validator.validate(task).isEmpty() && dataStore.ownsId(task.getUserId());
+    }
+
+    /**
+     * Updates are partial, so only routing is checked: the task is here, and so is any new user.
+     */
+    private boolean acceptsUpdate(Task update) {
+        return update != null && update.getId() > 0 && dataStore.ownsId(update.getId())
+                && (update.getUserId() == 0 || dataStore.ownsId(update.getUserId()));
+    }
+
+    private static <T> boolean acceptsAll(List<T> batch, Predicate<T> accepts) {
+        return batch.size() <= DataStoreOperations.MAX_BATCH_SIZE && batch.stream().allMatch(accepts);
+    }
+
+    /**
+     * Carries the message across, so the coordinator can fail with the same one.
+     */
+    @ExceptionHandler(DuplicateException.class)
+    public ResponseEntity<?> handleDuplicate(DuplicateException ex) {
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("error", ex.getMessage()));
+    }
+}
@@ -0,0 +1,534 @@
+package com.developer.test.cluster;
+
+import com.developer.test.dto.BatchResponse;
+import com.developer.test.dto.StatsResponse;
+import com.developer.test.dto.TasksResponse;
+import com.developer.test.dto.UsersResponse;
+import com.developer.test.model.Task;
+import com.developer.test.model.User;
+import com.developer.test.service.ChangeFeed;
+import com.developer.test.service.DataStore;
+import com.developer.test.service.Page;
+import com.developer.test.service.ReadSnapshot;
+import com.developer.test.service.SnapshotUnsupportedException;
+import com.fasterxml.jackson.databind.JavaType;
+import org.springframework.cache.CacheManager;
+import org.springframework.http.HttpStatus;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.function.ToIntFunction;
+
+/**
+ * One node of a cluster of {@link DataStore}s partitioned by user id over a
+ * {@link ConsistentHashRing}. A user and all of that user's tasks live on the node owning the
+ * user's id, and each node only mints ids it owns, so a task id routes to the same node as its
+ * user. Any node accepts any request: single-record operations are forwarded to the owner, a task
+ * query filtered by user goes to that user's node only, and everything else is scattered to every
+ * node and merged by id. Selected with {@code datastore.mode=cluster}; see
+ * {@link ClusterConfiguration}.
+ *
+ * <p>A new user's id is not known before it is stored, so user creates are routed by the hash of
+ * the natural key instead, which also sends duplicates to the one node that can detect them.
+ *
+ * <p>Nodes talk to each other through {@link ClusterController}, whose {@code local*} methods
+ * answer from this node's partition only. Reads and writes have asynchronous forms that wait for
+ * other nodes without holding a thread, and the blocking forms join them. Snapshot reads, the
+ * change feed and persistence stay per node.
+ */
+public class ClusterDataStore extends DataStore {
+    private final ConsistentHashRing ring;
+    private final String self;
+    private final ClusterClient client;
+    private final JavaType userType;
+    private final JavaType taskType;
+    private final JavaType usersType;
+    private final JavaType tasksType;
+    private final JavaType statsType;
+    private final JavaType itemsType;
+
+    public ClusterDataStore(CacheManager cacheManager, ChangeFeed changeFeed, int shards,
+                            ConsistentHashRing ring, String self, ClusterClient client) {
+        super(cacheManager, changeFeed, shards);
+        this.ring = ring;
+        this.self = ConsistentHashRing.normalize(self);
+        if (!ring.nodes().contains(this.self)) {
+            throw new IllegalArgumentException("cluster.self " + this.self + " is not one of " + ring.nodes());
+        }
+        this.client = client;
+        this.userType = client.type(User.class);
+        this.taskType = client.type(Task.class);
+        this.usersType = client.type(UsersResponse.class);
+        this.tasksType = client.type(TasksResponse.class);
+        this.statsType = client.type(StatsResponse.class);
+        this.itemsType = client.listOf(BatchResponse.Item.class);
+        // The sample records are seeded under ids this node may not own and would be repeated on
+        // every node, so a cluster starts empty.
+        clear();
+    }
+
+    public String getSelf() {
+        return self;
+    }
+
+    public ConsistentHashRing getRing() {
+        return ring;
+    }
+
+    @Override
+    protected boolean ownsId(int id) {
+        return self.equals(ring.ownerOf(id));
+    }
+
+    private boolean isSelf(String node) {
+        return self.equals(node);
+    }
+
+    /**
+     * Whether a create for {@code user} belongs on this node, the only one that can detect its
+     * duplicates.
+     */
+    boolean routesHere(User user) {
+        return isSelf(ring.ownerOfKey(userRoute(user)));
+    }
+
+    static String userRoute(User user) {
+        return user.getName() + '\n' + user.getEmail() + '\n' + user.getRole();
+    }
+
+    // Reads
+
+    /**
+     * A version for the whole cluster would cost a call to every node on each conditional GET, and
+     * summed per-node counters can repeat a value after a node restarts, so there is none.
+     */
+    @Override
+    public long getVersion() {
+        return UNVERSIONED;
+    }
+
+    @Override
+    public long getUsersVersion() {
+        return UNVERSIONED;
+    }
+
+    @Override
+    public long getTasksVersion() {
+        return UNVERSIONED;
+    }
+
+    @Override
+    public List<User> getUsers() {
+        return ClusterClient.join(getUsersAsync());
+    }
+
+    @Override
+    public CompletableFuture<List<User>> getUsersAsync() {
+        return this.<UsersResponse>gather(() -> new UsersResponse(localUsers(), 0), "/users", usersType)
+                .thenApply(parts -> {
+                    List<User> users = new ArrayList<>();
+                    for (UsersResponse part : parts) {
+                        users.addAll(part.getUsers());
+                    }
+                    users.sort(Comparator.comparingInt(User::getId));
+                    return users;
+                });
+    }
+
+    @Override
+    public Page<User> getUsersPage(Integer cursor, int limit, boolean descending) {
+        return ClusterClient.join(getUsersPageAsync(cursor, limit, descending));
+    }
+
+    @Override
+    public CompletableFuture<Page<User>> getUsersPageAsync(Integer cursor, int limit, boolean descending) {
+        String query = ClusterClient.query("cursor", cursor, "limit", limit, "order", descending ? "desc" : "asc");
+        return this.<UsersResponse>gather(() -> {
+            Page<User> page = localUsersPage(cursor, limit, descending);
+            return new UsersResponse(page.getItems(), page.getItems().size(), page.getNextCursor());
+        }, "/users" + query, usersType).thenApply(parts -> {
+            List<Page<User>> pages = new ArrayList<>(parts.size());
+            for (UsersResponse part : parts) {
+                pages.add(new Page<>(part.getUsers(), part.getNextCursor()));
+            }
+            return merge(pages, User::getId, limit, descending);
+        });
+    }
+
+    /**
+     * Copies the whole cluster's users before visiting them, unlike the streaming local store.
+     */
+    @Override
+    public void forEachUser(Consumer<User> action) {
+        getUsers().forEach(action);
+    }
+
+    @Override
+    public User getUserById(int id) {
+        return ClusterClient.join(getUserByIdAsync(id));
+    }
+
+    @Override
+    public CompletableFuture<User> getUserByIdAsync(int id) {
+        String owner = ring.ownerOf(id);
+        if (isSelf(owner)) {
+            return CompletableFuture.completedFuture(localUser(id));
+        }
+        return client.get(owner, "/users/" + id, userType);
+    }
+
+    @Override
+    public List<Task> getTasks(String status, String userId) {
+        return ClusterClient.join(getTasksAsync(status, userId));
+    }
+
+    @Override
+    public CompletableFuture<List<Task>> getTasksAsync(String status, String userId) {
+        String owner = userOwner(userId);
+        if (owner != null) {
+            if (isSelf(owner)) {
+                return CompletableFuture.completedFuture(localTasks(status, userId));
+            }
+            return client.<TasksResponse>get(owner,
+                    "/tasks" + ClusterClient.query("status", status, "userId", userId), tasksType)
+                    .thenApply(TasksResponse::getTasks);
+        }
+        return this.<TasksResponse>gather(() -> new TasksResponse(localTasks(status, null), 0),
+                "/tasks" + ClusterClient.query("status", status), tasksType).thenApply(parts -> {
+                    List<Task> tasks = new ArrayList<>();
+                    for (TasksResponse part : parts) {
+                        tasks.addAll(part.getTasks());
+                    }
+                    tasks.sort(Comparator.comparingInt(Task::getId));
+                    return tasks;
+                });
+    }
+
+    @Override
+    public Page<Task> getTasksPage(String status, String userId, Integer cursor, int limit, boolean descending) {
+        return ClusterClient.join(getTasksPageAsync(status, userId, cursor, limit, descending));
+    }
+
+    @Override
+    public CompletableFuture<Page<Task>> getTasksPageAsync(String status, String userId, Integer cursor, int limit,
+                                                           boolean descending) {
+        String owner = userOwner(userId);
+        String query = ClusterClient.query("status", status, "userId", userId, "cursor", cursor, "limit", limit,
+                "order", descending ? "desc" : "asc");
+        if (owner != null) {
+            if (isSelf(owner)) {
+                return CompletableFuture.completedFuture(
+                        localTasksPage(status, userId, cursor, limit, descending));
+            }
+            return client.<TasksResponse>get(owner, "/tasks" + query, tasksType)
+                    .thenApply(response -> new Page<>(response.getTasks(), response.getNextCursor()));
+        }
+        return this.<TasksResponse>gather(() -> {
+            Page<Task> page = localTasksPage(status, null, cursor, limit, descending);
+            return new TasksResponse(page.getItems(), page.getItems().size(), page.getNextCursor());
+        }, "/tasks" + query, tasksType).thenApply(parts -> {
+            List<Page<Task>> pages = new ArrayList<>(parts.size());
+            for (TasksResponse part : parts) {
+                pages.add(new Page<>(part.getTasks(), part.getNextCursor()));
+            }
+            return merge(pages, Task::getId, limit, descending);
+        });
+    }
+
+    /**
+     * Copies the matching tasks before visiting them; see {@link #forEachUser}.
+     */
+    @Override
+    public void forEachTask(String status, String userId, Consumer<Task> action) {
+        getTasks(status, userId).forEach(action);
+    }
+
+    /**
+     * The node holding every task of the {@code userId} filter, or {@code null} when the query is
+     * not filtered by user. Malformed ids fail the same way the local store does.
+     */
+    private String userOwner(String userId) {
+        if (userId == null || userId.isEmpty()) {
+            return null;
+        }
+        return ring.ownerOf(Integer.valueOf(userId));
+    }
+
+    @Override
+    public StatsResponse getStats() {
+        return ClusterClient.join(getStatsAsync());
+    }
+
+    @Override
+    public CompletableFuture<StatsResponse> getStatsAsync() {
+        return this.<StatsResponse>gather(this::localStats, "/stats", statsType).thenApply(parts -> {
+            StatsResponse stats = new StatsResponse();
+            for (StatsResponse part : parts) {
+                stats.getUsers().setTotal(stats.getUsers().getTotal() + part.getUsers().getTotal());
+                StatsResponse.TasksStats tasks = stats.getTasks();
+                tasks.setTotal(tasks.getTotal() + part.getTasks().getTotal());
+                tasks.setPending(tasks.getPending() + part.getTasks().getPending());
+                tasks.setInProgress(tasks.getInProgress() + part.getTasks().getInProgress());
+                tasks.setCompleted(tasks.getCompleted() + part.getTasks().getCompleted());
+            }
+            return stats;
+        });
+    }
+
+    @Override
+    public ReadSnapshot openSnapshot() {
+        throw new SnapshotUnsupportedException("Snapshot reads are not available in cluster mode");
+    }
+
+    @Override
+    public ReadSnapshot leasedSnapshot(long version) {
+        return openSnapshot();
+    }
+
+    /**
+     * Asks every other node for its part, answers this node's part meanwhile, and completes with
+     * all of them once the rest have answered.
+     */
+    private <T> CompletableFuture<List<T>> gather(Supplier<T> local, String path, JavaType type) {
+        List<CompletableFuture<T>> remote = new ArrayList<>();
+        for (String node : ring.nodes()) {
+            if (!isSelf(node)) {
+                remote.add(client.get(node, path, type));
+            }
+        }
+        T own = local.get();
+        return CompletableFuture.allOf(remote.toArray(new CompletableFuture<?>[0])).thenApply(ignored -> {
+            List<T> parts = new ArrayList<>(remote.size() + 1);
+            parts.add(own);
+            for (CompletableFuture<T> part : remote) {
+                parts.add(part.join());
+            }
+            return parts;
+        });
+    }
+
+    /**
+     * The first {@code limit} records of several keyset pages taken from the same cursor. Each
+     * node returned its own first {@code limit}, so the overall first {@code limit} are among them.
+     */
+    static <T> Page<T> merge(List<Page<T>> pages, ToIntFunction<T> id, int limit, boolean descending) {
+        List<T> items = new ArrayList<>();
+        boolean more = false;
+        for (Page<T> page : pages) {
+            items.addAll(page.getItems());
+            more |= page.getNextCursor() != null;
+        }
+        Comparator<T> order = Comparator.comparingInt(id);
+        items.sort(descending ? order.reversed() : order);
+        if (items.size() > limit) {
+            items = new ArrayList<>(items.subList(0, limit));
+            more = true;
+        }
+        Integer nextCursor = more && !items.isEmpty() ? id.applyAsInt(items.get(items.size() - 1)) : null;
+        return new Page<>(items, nextCursor);
+    }
+
+    // Writes
+
+    @Override
+    public User createUser(User user) {
+        return ClusterClient.join(createUserAsync(user));
+    }
+
+    @Override
+    public CompletableFuture<User> createUserAsync(User user) {
+        String owner = ring.ownerOfKey(userRoute(user));
+        if (isSelf(owner)) {
+            return localCreateUser(user);
+        }
+        return client.<User>send(owner, "POST", "/users", user, userType).thenApply(created -> {
+            user.setId(created.getId());
+            return user;
+        });
+    }
+
+    @Override
+    public Task createTask(Task task) {
+        return ClusterClient.join(createTaskAsync(task));
+    }
+
+    @Override
+    public CompletableFuture<Task> createTaskAsync(Task task) {
+        String owner = ring.ownerOf(task.getUserId());
+        if (isSelf(owner)) {
+            return localCreateTask(task);
+        }
+        return client.<Task>send(owner, "POST", "/tasks", task, taskType).thenApply(created -> {
+            task.setId(created.getId());
+            return task;
+        });
+    }
+
+    @Override
+    public Task updateTask(int id, Task updated) {
+        return ClusterClient.join(updateTaskAsync(id, updated));
+    }
+
+    @Override
+    public CompletableFuture<Task> updateTaskAsync(int id, Task updated) {
+        String owner = ring.ownerOf(id);
+        if (updated.getUserId() != 0 && !owner.equals(ring.ownerOf(updated.getUserId()))) {
+            return CompletableFuture.failedFuture(new CrossPartitionException(
+                    "Task " + id + " cannot move to user " + updated.getUserId() + " on another node"));
+        }
+        if (isSelf(owner)) {
+            return localUpdateTask(id, updated);
+        }
+        return client.send(owner, "PUT", "/tasks/" + id, updated, taskType);
+    }
+
+    @Override
+    public List<BatchResponse.Item> createUsers(List<User> batch) {
+        return ClusterClient.join(createUsersAsync(batch));
+    }
+
+    @Override
+    public CompletableFuture<List<BatchResponse.Item>> createUsersAsync(List<User> batch) {
+        return scatter(batch, user -> ring.ownerOfKey(userRoute(user)), this::localCreateUsers, "POST", "/users/batch",
+                new BatchResponse.Item[batch.size()]);
+    }
+
+    @Override
+    public List<BatchResponse.Item> createTasks(List<Task> batch) {
+        return ClusterClient.join(createTasksAsync(batch));
+    }
+
+    @Override
+    public CompletableFuture<List<BatchResponse.Item>> createTasksAsync(List<Task> batch) {
+        return scatter(batch, task -> ring.ownerOf(task.getUserId()), this::localCreateTasks, "POST", "/tasks/batch",
+                new BatchResponse.Item[batch.size()]);
+    }
+
+    @Override
+    public List<BatchResponse.Item> updateTasks(List<Task> batch) {
+        return ClusterClient.join(updateTasksAsync(batch));
+    }
+
+    /**
+     * Entries without an id or moving a task to another node's user are answered here; the rest
+     * go to their owners.
+     */
+    @Override
+    public CompletableFuture<List<BatchResponse.Item>> updateTasksAsync(List<Task> batch) {
+        BatchResponse.Item[] results = new BatchResponse.Item[batch.size()];
+        for (int i = 0; i < batch.size(); i++) {
+            Task update = batch.get(i);
+            if (update.getId() <= 0) {
+                results[i] = BatchResponse.Item.failure(i, HttpStatus.BAD_REQUEST.value(), "Task id is required");
+            } else if (update.getUserId() != 0
+                    && !ring.ownerOf(update.getId()).equals(ring.ownerOf(update.getUserId()))) {
+                results[i] = BatchResponse.Item.failure(i, HttpStatus.CONFLICT.value(),
+                        "Task cannot move to a user on another node");
+            }
+        }
+        return scatter(batch, update -> ring.ownerOf(update.getId()), this::localUpdateTasks, "PUT", "/tasks/batch",
+                results);
+    }
+
+    /**
+     * Splits a batch by owner, skipping entries that already have a result, applies each part on
+     * its node and completes with the outcomes placed at the entries' positions in {@code batch}
+     * once every part has answered.
+     */
+    private <T> CompletableFuture<List<BatchResponse.Item>> scatter(
+            List<T> batch, Function<T, String> ownerOf,
+            Function<List<T>, CompletableFuture<List<BatchResponse.Item>>> local, String method, String path,
+            BatchResponse.Item[] results) {
+        Map<String, List<Integer>> positions = new LinkedHashMap<>();
+        for (int i = 0; i < batch.size(); i++) {
+            if (results[i] == null) {
+                positions.computeIfAbsent(ownerOf.apply(batch.get(i)), node -> new ArrayList<>()).add(i);
+            }
+        }
+        List<CompletableFuture<Void>> parts = new ArrayList<>(positions.size());
+        for (Map.Entry<String, List<Integer>> part : positions.entrySet()) {
+            List<T> entries = pick(batch, part.getValue());
+            CompletableFuture<List<BatchResponse.Item>> items = isSelf(part.getKey())
+                    ? local.apply(entries)
+                    : client.send(part.getKey(), method, path, entries, itemsType);
+            // Each part writes disjoint positions, and allOf orders those writes before the read.
+            parts.add(items.thenAccept(answered -> place(answered, part.getValue(), results)));
+        }
+        return CompletableFuture.allOf(parts.toArray(new CompletableFuture<?>[0]))
+                .thenApply(ignored -> Arrays.asList(results));
+    }
+
+    private static <T> List<T> pick(List<T> batch, List<Integer> positions) {
+        List<T> part = new ArrayList<>(positions.size());
+        for (int position : positions) {
+            part.add(batch.get(position));
+        }
+        return part;
+    }
+
+    private static void place(List<BatchResponse.Item> items, List<Integer> positions, BatchResponse.Item[] results) {
+        for (BatchResponse.Item item : items) {
+            int position = positions.get(item.getIndex());
+            item.setIndex(position);
+            results[position] = item;
+        }
+    }
+
+    // This node's partition, for ClusterController.
+
+    public List<User> localUsers() {
+        return super.getUsers();
+    }
+
+    public Page<User> localUsersPage(Integer cursor, int limit, boolean descending) {
+        return super.getUsersPage(cursor, limit, descending);
+    }
+
+    public User localUser(int id) {
+        return super.getUserById(id);
+    }
+
+    public List<Task> localTasks(String status, String userId) {
+        return super.getTasks(status, userId);
+    }
+
+    public Page<Task> localTasksPage(String status, String userId, Integer cursor, int limit, boolean descending) {
+        return super.getTasksPage(status, userId, cursor, limit, descending);
+    }
+
+    public StatsResponse localStats() {
+        return super.getStats();
+    }
+
+    public CompletableFuture<User> localCreateUser(User user) {
+        return super.createUserAsync(user);
+    }
+
+    public CompletableFuture<Task> localCreateTask(Task task) {
+        return super.createTaskAsync(task);
+    }
+
+    public CompletableFuture<Task> localUpdateTask(int id, Task updated) {
+        return super.updateTaskAsync(id, updated);
+    }
+
+    public CompletableFuture<List<BatchResponse.Item>> localCreateUsers(List<User> batch) {
+        return super.createUsersAsync(batch);
+    }
+
+    public CompletableFuture<List<BatchResponse.Item>> localCreateTasks(List<Task> batch) {
+        return super.createTasksAsync(batch);
+    }
+
+    public CompletableFuture<List<BatchResponse.Item>> localUpdateTasks(List<Task> batch) {
+        return super.updateTasksAsync(batch);
+    }
+}
@@ -0,0 +1,45 @@
+package com.developer.test.cluster;
+
+import org.springframework.http.server.PathContainer;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+
+/**
+ * The {@code cluster.secret} every node sends in {@link #HEADER} on its calls to other nodes and
+ * expects on calls to its own {@link ClusterController}, so only cluster members can reach the
+ * endpoints that answer from a partition without routing or duplicate checks.
+ */
+public final class ClusterSecret {
+    public static final String HEADER = "X-Cluster-Secret";
+
+    // Parsed the way handler mappings parse paths, so encoded or parameterized segments that would
+    // still reach ClusterController are guarded too.
+    private static final PathPattern GUARDED = PathPatternParser.defaultInstance.parse(ClusterClient.PATH + "/**");
+
+    private final byte[] value;
+
+    public ClusterSecret(String value) {
+        if (value == null || value.isBlank()) {
+            throw new IllegalArgumentException("cluster.secret must be set in cluster mode");
+        }
+        this.value = value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    String value() {
+        return new String(value, StandardCharsets.UTF_8);
+    }
+
+    static boolean guards(PathContainer pathWithinApplication) {
+        return GUARDED.matches(pathWithinApplication);
+    }
+
+    /**
+     * Compares in constant time, so the answer time does not leak how much of a guess was right.
+     */
+    public boolean matches(String presented) {
+        return presented != null && MessageDigest.isEqual(value, presented.getBytes(StandardCharsets.UTF_8));
+    }
+}
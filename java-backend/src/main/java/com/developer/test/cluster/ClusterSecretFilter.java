@@ -0,0 +1,45 @@
+package com.developer.test.cluster;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.server.RequestPath;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+/**
+ * Answers {@code 403} to node-to-node calls that do not carry the {@link ClusterSecret}.
+ */
+@Component
+@ConditionalOnProperty(name = "datastore.mode", havingValue = "cluster")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class ClusterSecretFilter extends OncePerRequestFilter {
+
+    private final ClusterSecret secret;
+
+    public ClusterSecretFilter(ClusterSecret secret) {
+        this.secret = secret;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !ClusterSecret.guards(
+                RequestPath.parse(request.getRequestURI(), request.getContextPath()).pathWithinApplication());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain chain) throws ServletException, IOException {
+        if (!secret.matches(request.getHeader(ClusterSecret.HEADER))) {
+            response.setStatus(HttpServletResponse.SC_FORBIDDEN);
+            return;
+        }
+        chain.doFilter(request, response);
+    }
+}
@@ -0,0 +1,109 @@
+package com.developer.test.cluster;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Maps user ids and natural keys to the node that owns them. Each node is placed on a 64-bit ring
+ * at {@code virtualNodes} points derived from its URL, and a key belongs to the first node point at
+ * or after the key's hash, wrapping around. Every node computes the same ring from the same node
+ * list, so no coordination is needed to agree on owners, and adding a node only moves the keys
+ * that land on its new points.
+ */
+public final class ConsistentHashRing {
+    private final TreeMap<Long, String> points = new TreeMap<>();
+    private final List<String> nodes;
+
+    public ConsistentHashRing(Collection<String> nodes, int virtualNodes) {
+        if (nodes.isEmpty()) {
+            throw new IllegalArgumentException("A ring needs at least one node");
+        }
+        if (virtualNodes < 1) {
+            throw new IllegalArgumentException("Virtual nodes must be positive: " + virtualNodes);
+        }
+        List<String> normalized = new ArrayList<>(nodes.size());
+        for (String node : nodes) {
+            String url = normalize(node);
+            if (normalized.contains(url)) {
+                throw new IllegalArgumentException("Duplicate node: " + url);
+            }
+            normalized.add(url);
+            for (int i = 0; i < virtualNodes; i++) {
+                String previous = points.putIfAbsent(hash(url + "#" + i), url);
+                if (previous != null) {
+                    // Two 64-bit point hashes colliding is not worth a tie-breaker; refuse the ring.
+                    throw new IllegalArgumentException("Ring point collision between " + previous + " and " + url);
+                }
+            }
+        }
+        this.nodes = Collections.unmodifiableList(normalized);
+    }
+
+    /**
+     * Trims the URL and drops any trailing slash, so {@code cluster.self} and {@code cluster.nodes}
+     * entries compare equal however they were written.
+     */
+    public static String normalize(String node) {
+        String url = node.trim();
+        while (url.endsWith("/")) {
+            url = url.substring(0, url.length() - 1);
+        }
+        if (url.isEmpty()) {
+            throw new IllegalArgumentException("Empty node URL");
+        }
+        return url;
+    }
+
+    public List<String> nodes() {
+        return nodes;
+    }
+
+    /**
+     * The node owning user (or task) id {@code id}.
+     */
+    public String ownerOf(int id) {
+        return owner(mix(id));
+    }
+
+    /**
+     * The node owning a natural key, for records whose id is not chosen yet.
+     */
+    public String ownerOfKey(String key) {
+        return owner(hash(key));
+    }
+
+    private String owner(long hash) {
+        Map.Entry<Long, String> point = points.ceilingEntry(hash);
+        return point != null ? point.getValue() : points.firstEntry().getValue();
+    }
+
+    /**
+     * 64-bit FNV-1a over the UTF-8 bytes, finished with {@link #mix} since FNV alone leaves
+     * similar strings (such as consecutive virtual node names) close together on the ring.
+     */
+    static long hash(String key) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : key.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b & 0xff;
+            hash *= 0x100000001b3L;
+        }
+        return mix(hash);
+    }
+
+    /**
+     * MurmurHash3's 64-bit finalizer: spreads sequential ids evenly over the ring.
+     */
+    static long mix(long value) {
+        value ^= value >>> 33;
+        value *= 0xff51afd7ed558ccdL;
+        value ^= value >>> 33;
+        value *= 0xc4ceb9fe1a85ec53L;
+        value ^= value >>> 33;
+        return value;
+    }
+}
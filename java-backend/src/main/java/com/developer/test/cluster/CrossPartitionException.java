@@ -0,0 +1,15 @@
+package com.developer.test.cluster;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * A task update would reassign the task to a user owned by another node. Tasks live with their
+ * user, so such a move would have to migrate the task, which cluster mode does not do.
+ */
+@ResponseStatus(HttpStatus.CONFLICT)
+public class CrossPartitionException extends RuntimeException {
+    public CrossPartitionException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,35 @@
+package com.developer.test.cluster;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+/**
+ * {@link ClusterSecretFilter} for reactive mode.
+ */
+@Component
+@ConditionalOnProperty(name = "datastore.mode", havingValue = "cluster")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveClusterSecretFilter implements WebFilter {
+
+    private final ClusterSecret secret;
+
+    public ReactiveClusterSecretFilter(ClusterSecret secret) {
+        this.secret = secret;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        if (ClusterSecret.guards(exchange.getRequest().getPath().pathWithinApplication())
+                && !secret.matches(exchange.getRequest().getHeaders().getFirst(ClusterSecret.HEADER))) {
+            exchange.getResponse().setStatusCode(HttpStatus.FORBIDDEN);
+            return exchange.getResponse().setComplete();
+        }
+        return chain.filter(exchange);
+    }
+}
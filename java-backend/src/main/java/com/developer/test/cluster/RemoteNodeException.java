@@ -0,0 +1,18 @@
+package com.developer.test.cluster;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * The node owning part of a request could not be reached or failed to answer it.
+ */
+@ResponseStatus(HttpStatus.BAD_GATEWAY)
+public class RemoteNodeException extends RuntimeException {
+    public RemoteNodeException(String message) {
+        super(message);
+    }
+
+    public RemoteNodeException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
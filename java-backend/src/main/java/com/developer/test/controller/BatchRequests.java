@@ -0,0 +1,59 @@
+package com.developer.test.controller;
+
+import com.developer.test.dto.BatchResponse;
+import org.springframework.http.HttpStatus;
+
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+/**
+ * Validates every entry of a batch request up front, hands only the valid ones to the store
+ * in a single call, and merges both sets of outcomes back into request order once the store's
+ * writes are durable.
+ */
+final class BatchRequests {
+
+    private BatchRequests() {
+    }
+
+    static <T> CompletableFuture<BatchResponse> validateAndApply(
+            List<T> items, Validator validator, Function<List<T>, CompletableFuture<List<BatchResponse.Item>>> store) {
+        BatchResponse.Item[] results = new BatchResponse.Item[items.size()];
+        List<T> valid = new ArrayList<>(items.size());
+        List<Integer> positions = new ArrayList<>(items.size());
+
+        for (int i = 0; i < items.size(); i++) {
+            T item = items.get(i);
+            if (item == null) {
+                results[i] = BatchResponse.Item.failure(i, HttpStatus.BAD_REQUEST.value(), "Invalid request body");
+                continue;
+            }
+            Set<ConstraintViolation<T>> violations = validator.validate(item);
+            if (!violations.isEmpty()) {
+                results[i] = BatchResponse.Item.failure(i, HttpStatus.BAD_REQUEST.value(),
+                        violations.iterator().next().getMessage());
+                continue;
+            }
+            valid.add(item);
+            positions.add(i);
+        }
+
+        if (valid.isEmpty()) {
+            return CompletableFuture.completedFuture(new BatchResponse(Arrays.asList(results)));
+        }
+        return store.apply(valid).thenApply(stored -> {
+            for (BatchResponse.Item result : stored) {
+                int position = positions.get(result.getIndex());
+                result.setIndex(position);
+                results[position] = result;
+            }
+            return new BatchResponse(Arrays.asList(results));
+        });
+    }
+}
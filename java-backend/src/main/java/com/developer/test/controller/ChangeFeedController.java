@@ -0,0 +1,78 @@
+package com.developer.test.controller;
+
+import com.developer.test.service.ChangeEvent;
+import com.developer.test.service.ChangeFeed;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Server-Sent Events stream of task, user and stats changes; see {@link ChangeFeed}. Clients load
+ * {@code /api/tasks} and {@code /api/stats} once and then apply the deltas. On a {@code resync}
+ * event the client reloads and reconnects without {@code Last-Event-ID}.
+ */
+@RestController
+@RequestMapping("/api/changes")
+@CrossOrigin(origins = "*")
+public class ChangeFeedController {
+    private static final List<String> TYPES = Arrays.asList("task", "user", "stats");
+
+    private final ChangeFeed changeFeed;
+    private final ObjectMapper objectMapper;
+
+    public ChangeFeedController(ChangeFeed changeFeed, ObjectMapper objectMapper) {
+        this.changeFeed = changeFeed;
+        this.objectMapper = objectMapper;
+    }
+
+    @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<Flux<ServerSentEvent<String>>> changes(
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId,
+            @RequestParam(required = false) String types) {
+        Set<String> filter = types == null ? Collections.emptySet() : new HashSet<>(Arrays.asList(types.split(",")));
+        if (!TYPES.containsAll(filter)) {
+            return ResponseEntity.badRequest().build();
+        }
+        Flux<ServerSentEvent<String>> events = changeFeed.subscribe(parseSequence(lastEventId), filter)
+                .map(this::toServerSentEvent);
+        return ResponseEntity.ok(events);
+    }
+
+    // A malformed id cannot be resumed from, so it is mapped to one the feed answers with a resync.
+    private static long parseSequence(String lastEventId) {
+        if (lastEventId == null || lastEventId.isEmpty()) {
+            return -1;
+        }
+        try {
+            long sequence = Long.parseLong(lastEventId);
+            return sequence < 0 ? Long.MAX_VALUE - 1 : sequence;
+        } catch (NumberFormatException ex) {
+            return Long.MAX_VALUE - 1;
+        }
+    }
+
+    private ServerSentEvent<String> toServerSentEvent(ChangeEvent event) {
+        if (ChangeEvent.HEARTBEAT.equals(event.getType())) {
+            return ServerSentEvent.<String>builder().comment(ChangeEvent.HEARTBEAT).build();
+        }
+        return ServerSentEvent.<String>builder()
+                .id(Long.toString(event.getSequence()))
+                .event(event.getType())
+                .data(event.toJson(objectMapper))
+                .build();
+    }
+}
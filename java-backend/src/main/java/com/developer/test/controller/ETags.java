@@ -0,0 +1,59 @@
+package com.developer.test.controller;
+
+import com.developer.test.service.DataStoreOperations;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+/**
+ * Strong ETags derived from {@link com.developer.test.service.DataStoreOperations} write versions, so a
+ * conditional GET is answered without running the query or rendering the body. Tags carry a
+ * per-process epoch because versions restart from zero when the server does.
+ */
+final class ETags {
+    private static final String EPOCH = Long.toString(System.currentTimeMillis(), 36);
+
+    private ETags() {
+    }
+
+    /**
+     * The tag for a collection at {@code version}, or {@code null} for
+     * {@link DataStoreOperations#UNVERSIONED}.
+     */
+    static String of(String collection, long version) {
+        if (version == DataStoreOperations.UNVERSIONED) {
+            return null;
+        }
+        return "\"" + collection + "-" + EPOCH + "-" + version + "\"";
+    }
+
+    /**
+     * Whether an {@code If-None-Match} header value names {@code etag}. Weak tags compare equal to
+     * their strong form, as RFC 7232 requires for {@code If-None-Match}.
+     */
+    static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null || etag == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals("*") || tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * A {@code 200} carrying {@code etag} when there is one.
+     */
+    static ResponseEntity.BodyBuilder ok(String etag) {
+        return etag == null ? ResponseEntity.ok() : ResponseEntity.ok().eTag(etag);
+    }
+
+    static <T> ResponseEntity<T> notModified(String etag) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+    }
+}
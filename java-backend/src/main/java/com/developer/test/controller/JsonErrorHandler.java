@@ -8,6 +8,7 @@ import com.fasterxml.jackson.databind.exc.ValueInstantiationException;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.server.ServerWebInputException;
 
 import java.util.Map;
 
@@ -35,4 +36,20 @@ public class JsonErrorHandler {
                 Map.of("error", "Invalid request body")
         );
     }
+
+    /**
+     * WebFlux reports unreadable bodies as {@link ServerWebInputException} wrapping the Jackson
+     * error, so unwrap it to answer the same way as the servlet stack.
+     */
+    @ExceptionHandler(ServerWebInputException.class)
+    public ResponseEntity<?> handleReactiveInputError(ServerWebInputException ex) {
+        for (Throwable cause = ex.getCause(); cause != null; cause = cause.getCause()) {
+            if (cause instanceof ValueInstantiationException) {
+                return handleEnumError((ValueInstantiationException) cause);
+            }
+        }
+        return ResponseEntity.badRequest().body(
+                Map.of("error", ex.getReason() == null ? "Invalid request" : ex.getReason())
+        );
+    }
 }
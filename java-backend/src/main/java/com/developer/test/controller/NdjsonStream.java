@@ -0,0 +1,82 @@
+package com.developer.test.controller;
+
+import com.developer.test.service.Page;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Writes records as newline-delimited JSON straight to the response stream, one at a time,
+ * so an export runs in constant heap regardless of how many records it covers.
+ */
+final class NdjsonStream {
+    static final MediaType APPLICATION_NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
+    private NdjsonStream() {
+    }
+
+    static <T> StreamingResponseBody of(ObjectMapper objectMapper, Consumer<Consumer<T>> source) {
+        return out -> {
+            JsonGenerator generator = objectMapper.getFactory().createGenerator(out);
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.setRootValueSeparator(null);
+            try {
+                source.accept(record -> {
+                    try {
+                        generator.writeObject(record);
+                        generator.writeRaw('\n');
+                    } catch (IOException ex) {
+                        throw new UncheckedIOException(ex);
+                    }
+                });
+            } catch (UncheckedIOException ex) {
+                throw ex.getCause();
+            } finally {
+                generator.close();
+            }
+        };
+    }
+
+    /**
+     * Reactive counterpart of {@link #of}: fetches the next keyset page only when the client has
+     * consumed the previous one and encodes each page into a single buffer, so an export stays
+     * bounded in memory and a slow client never ties up a thread.
+     */
+    static <T> Flux<DataBuffer> pages(ObjectMapper objectMapper, DataBufferFactory buffers,
+                                      Function<Integer, CompletableFuture<Page<T>>> source) {
+        return Mono.fromFuture(() -> source.apply(null))
+                .expand(page -> page.getNextCursor() == null
+                        ? Mono.empty()
+                        : Mono.fromFuture(() -> source.apply(page.getNextCursor())))
+                .filter(page -> !page.getItems().isEmpty())
+                .map(page -> encode(objectMapper, buffers, page.getItems()));
+    }
+
+    private static <T> DataBuffer encode(ObjectMapper objectMapper, DataBufferFactory buffers, List<T> records) {
+        DataBuffer buffer = buffers.allocateBuffer();
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(buffer.asOutputStream())) {
+            generator.setRootValueSeparator(null);
+            for (T record : records) {
+                generator.writeObject(record);
+                generator.writeRaw('\n');
+            }
+        } catch (IOException ex) {
+            DataBufferUtils.release(buffer);
+            throw new UncheckedIOException(ex);
+        }
+        return buffer;
+    }
+}
@@ -0,0 +1,62 @@
+package com.developer.test.controller;
+
+import com.developer.test.model.Task;
+import com.developer.test.model.User;
+import com.developer.test.service.DataStoreOperations;
+import com.developer.test.service.Page;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.web.reactive.function.BodyInserters;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Reactive mode ({@code spring.main.web-application-type=reactive}): the annotated controllers
+ * run on WebFlux over Netty instead of Spring MVC over Tomcat.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveWebConfiguration {
+
+    /**
+     * Both web starters are on the classpath and Boot would otherwise pick Tomcat's reactive
+     * adapter, which still parks a thread per connection.
+     */
+    @Bean
+    public NettyReactiveWebServerFactory nettyReactiveWebServerFactory() {
+        return new NettyReactiveWebServerFactory();
+    }
+
+    /**
+     * NDJSON exports. {@code StreamingResponseBody} only works on servlet stacks; WebFlux consults
+     * router functions before annotated controllers, so these routes take over the export paths.
+     */
+    @Bean
+    public RouterFunction<ServerResponse> exportRoutes(DataStoreOperations dataStore, ObjectMapper objectMapper) {
+        return RouterFunctions.route()
+                .GET("/api/users/export", request -> ndjson(NdjsonStream.<User>pages(objectMapper,
+                        DefaultDataBufferFactory.sharedInstance,
+                        cursor -> dataStore.getUsersPageAsync(cursor, Page.MAX_LIMIT, false))))
+                .GET("/api/tasks/export", request -> {
+                    String status = request.queryParam("status").orElse(null);
+                    String userId = request.queryParam("userId").orElse(null);
+                    return ndjson(NdjsonStream.<Task>pages(objectMapper, DefaultDataBufferFactory.sharedInstance,
+                            cursor -> dataStore.getTasksPageAsync(status, userId, cursor, Page.MAX_LIMIT, false)));
+                })
+                .build();
+    }
+
+    private static Mono<ServerResponse> ndjson(Flux<DataBuffer> body) {
+        return ServerResponse.ok()
+                .contentType(NdjsonStream.APPLICATION_NDJSON)
+                .body(BodyInserters.fromDataBuffers(body));
+    }
+}
@@ -0,0 +1,38 @@
+package com.developer.test.controller;
+
+import com.developer.test.dto.SnapshotResponse;
+import com.developer.test.service.DataStoreOperations;
+import com.developer.test.service.ReadSnapshot;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+
+/**
+ * Pins a store version for a short lease; pass it as {@code asOf} to the users, tasks and stats
+ * endpoints to read them all at that version. Each read renews the lease.
+ */
+@RestController
+@RequestMapping("/api/snapshots")
+@CrossOrigin(origins = "*")
+public class SnapshotController {
+
+    private final DataStoreOperations dataStore;
+
+    public SnapshotController(DataStoreOperations dataStore) {
+        this.dataStore = dataStore;
+    }
+
+    @PostMapping
+    public Mono<ResponseEntity<SnapshotResponse>> openSnapshot() {
+        // Opening waits for the writes in flight, so it runs off the request thread.
+        return SnapshotReads.on(dataStore, () -> {
+            ReadSnapshot snapshot = dataStore.leaseSnapshot();
+            return ResponseEntity.status(HttpStatus.CREATED)
+                    .body(new SnapshotResponse(snapshot.getVersion(), dataStore.getSnapshotLeaseMillis()));
+        });
+    }
+}
@@ -0,0 +1,21 @@
+package com.developer.test.controller;
+
+import com.developer.test.service.DataStoreOperations;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.concurrent.Callable;
+
+/**
+ * Runs snapshot opens and {@code asOf} reads on the store's snapshot executor rather than on the
+ * request thread, which in reactive mode is an event loop.
+ */
+final class SnapshotReads {
+
+    private SnapshotReads() {
+    }
+
+    static <T> Mono<T> on(DataStoreOperations dataStore, Callable<T> read) {
+        return Mono.fromCallable(read).subscribeOn(Schedulers.fromExecutor(dataStore.getSnapshotExecutor()));
+    }
+}
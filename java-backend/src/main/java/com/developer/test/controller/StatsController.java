@@ -1,27 +1,40 @@
 package com.developer.test.controller;
 
 import com.developer.test.dto.StatsResponse;
-import com.developer.test.service.DataStore;
+import com.developer.test.service.DataStoreOperations;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
 
 @RestController
 @RequestMapping("/api/stats")
 @CrossOrigin(origins = "*")
 public class StatsController {
     
-    private final DataStore dataStore;
+    private final DataStoreOperations dataStore;
     
-    public StatsController(DataStore dataStore) {
+    public StatsController(DataStoreOperations dataStore) {
         this.dataStore = dataStore;
     }
     
     @GetMapping
-    public ResponseEntity<StatsResponse> getStats() {
-        StatsResponse stats = dataStore.getStats();
-        return ResponseEntity.ok(stats);
+    public Mono<ResponseEntity<StatsResponse>> getStats(
+            @RequestParam(required = false) Long asOf,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        if (asOf != null) {
+            return SnapshotReads.on(dataStore, () -> ResponseEntity.ok(dataStore.leasedSnapshot(asOf).getStats()));
+        }
+        // Stats span both collections, so they are tagged with the store-wide version.
+        String etag = ETags.of("stats", dataStore.getVersion());
+        if (ETags.matches(ifNoneMatch, etag)) {
+            return Mono.just(ETags.notModified(etag));
+        }
+        return Mono.fromFuture(dataStore::getStatsAsync).map(stats -> ETags.ok(etag).body(stats));
     }
 }
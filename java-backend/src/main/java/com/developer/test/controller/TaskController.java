@@ -1,8 +1,13 @@
 package com.developer.test.controller;
 
+import com.developer.test.dto.BatchResponse;
 import com.developer.test.dto.TasksResponse;
-import com.developer.test.service.DataStore;
+import com.developer.test.service.DataStoreOperations;
 import com.developer.test.model.Task;
+import com.developer.test.service.Page;
+import com.developer.test.service.ReadSnapshot;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
@@ -12,11 +17,14 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import reactor.core.publisher.Mono;
 
+import javax.validation.Validator;
 import java.util.List;
 
 @RestController
@@ -24,40 +32,105 @@ import java.util.List;
 @CrossOrigin(origins = "*")
 public class TaskController {
     
-    private final DataStore dataStore;
+    private final DataStoreOperations dataStore;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
     
-    public TaskController(DataStore dataStore) {
+    public TaskController(DataStoreOperations dataStore, ObjectMapper objectMapper, Validator validator) {
         this.dataStore = dataStore;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
     }
     
     @GetMapping
-    public ResponseEntity<TasksResponse> getTasks(
+    public Mono<ResponseEntity<TasksResponse>> getTasks(
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) String userId,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) Integer cursor,
+            @RequestParam(defaultValue = "asc") String order,
+            @RequestParam(required = false) Long asOf,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        boolean paged = limit != null || cursor != null;
+        int pageSize = limit == null ? Page.MAX_LIMIT : limit;
+        if (paged && (pageSize < 1 || pageSize > Page.MAX_LIMIT || !Page.isValidOrder(order))) {
+            return Mono.just(ResponseEntity.badRequest().build());
+        }
+        if (asOf != null) {
+            // Snapshot reads are pinned to a version, not to the write counters behind the ETags.
+            return SnapshotReads.on(dataStore, () -> {
+                ReadSnapshot snapshot = dataStore.leasedSnapshot(asOf);
+                if (!paged) {
+                    List<Task> tasks = snapshot.getTasks(status, userId);
+                    return ResponseEntity.ok(new TasksResponse(tasks, tasks.size()));
+                }
+                Page<Task> page = snapshot.getTasksPage(status, userId, cursor, pageSize, "desc".equalsIgnoreCase(order));
+                return ResponseEntity.ok(
+                        new TasksResponse(page.getItems(), page.getItems().size(), page.getNextCursor()));
+            });
+        }
+
+        // Read the version before the data so the tag never claims a newer state than the body.
+        String etag = ETags.of("tasks", dataStore.getTasksVersion());
+        if (ETags.matches(ifNoneMatch, etag)) {
+            return Mono.just(ETags.notModified(etag));
+        }
+        if (!paged) {
+            return Mono.fromFuture(() -> dataStore.getTasksAsync(status, userId))
+                    .map(tasks -> ETags.ok(etag).body(new TasksResponse(tasks, tasks.size())));
+        }
+
+        return Mono.fromFuture(() -> dataStore.getTasksPageAsync(status, userId, cursor, pageSize,
+                        "desc".equalsIgnoreCase(order)))
+                .map(page -> ETags.ok(etag).body(
+                        new TasksResponse(page.getItems(), page.getItems().size(), page.getNextCursor())));
+    }
+
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportTasks(
             @RequestParam(required = false) String status,
             @RequestParam(required = false) String userId) {
-        List<com.developer.test.model.Task> tasks = dataStore.getTasks(status, userId);
-        TasksResponse response = new TasksResponse(tasks, tasks.size());
-        return ResponseEntity.ok(response);
+        StreamingResponseBody body = NdjsonStream.<Task>of(objectMapper,
+                sink -> dataStore.forEachTask(status, userId, sink));
+        return ResponseEntity.ok().contentType(NdjsonStream.APPLICATION_NDJSON).body(body);
     }
 
     @PostMapping
     public Mono<ResponseEntity<Task>> createTask(@Validated @RequestBody Task task) {
-        return Mono.fromSupplier(() ->
-                ResponseEntity.status(HttpStatus.CREATED).body(dataStore.createTask(task))
-        );
+        return Mono.fromFuture(() -> dataStore.createTaskAsync(task))
+                .map(created -> ResponseEntity.status(HttpStatus.CREATED).body(created));
     }
 
     @PutMapping("/{id}")
     public Mono<ResponseEntity<Task>> updateTask(@PathVariable int id, @RequestBody Task task) {
-        return Mono.fromSupplier(() -> {
-            if (task.getUserId() != 0 && dataStore.getUserById(task.getUserId()) == null) {
-                return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        Mono<Boolean> userExists = task.getUserId() == 0
+                ? Mono.just(true)
+                : Mono.fromFuture(() -> dataStore.getUserByIdAsync(task.getUserId())).hasElement();
+        return userExists.flatMap(exists -> {
+            if (!exists) {
+                return Mono.just(ResponseEntity.status(HttpStatus.BAD_REQUEST).<Task>build());
             }
-
-            Task updated = dataStore.updateTask(id, task);
-            if (updated == null) {
-                return ResponseEntity.notFound().build();
-            }
-            return ResponseEntity.ok(updated);
+            return Mono.fromFuture(() -> dataStore.updateTaskAsync(id, task))
+                    .map(ResponseEntity::ok)
+                    .defaultIfEmpty(ResponseEntity.notFound().build());
         });
     }
+
+    @PostMapping("/batch")
+    public Mono<ResponseEntity<BatchResponse>> createTasks(@RequestBody List<Task> tasks) {
+        if (tasks.size() > DataStoreOperations.MAX_BATCH_SIZE) {
+            return Mono.just(ResponseEntity.badRequest().build());
+        }
+        return Mono.fromFuture(() -> BatchRequests.validateAndApply(tasks, validator, dataStore::createTasksAsync))
+                .map(ResponseEntity::ok);
+    }
+
+    @PutMapping("/batch")
+    public Mono<ResponseEntity<BatchResponse>> updateTasks(@RequestBody List<Task> tasks) {
+        if (tasks.size() > DataStoreOperations.MAX_BATCH_SIZE || tasks.contains(null)) {
+            return Mono.just(ResponseEntity.badRequest().build());
+        }
+        return Mono.fromFuture(() -> dataStore.updateTasksAsync(tasks))
+                .map(results -> ResponseEntity.ok(new BatchResponse(results)));
+    }
 }
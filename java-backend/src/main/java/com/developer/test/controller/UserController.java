@@ -1,8 +1,13 @@
 package com.developer.test.controller;
 
+import com.developer.test.dto.BatchResponse;
 import com.developer.test.dto.UsersResponse;
 import com.developer.test.model.User;
-import com.developer.test.service.DataStore;
+import com.developer.test.service.DataStoreOperations;
+import com.developer.test.service.Page;
+import com.developer.test.service.ReadSnapshot;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
@@ -11,10 +16,14 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import reactor.core.publisher.Mono;
 
+import javax.validation.Validator;
 import java.util.List;
 
 @RestController
@@ -22,32 +31,87 @@ import java.util.List;
 @CrossOrigin(origins = "*")
 public class UserController {
     
-    private final DataStore dataStore;
+    private final DataStoreOperations dataStore;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
     
-    public UserController(DataStore dataStore) {
+    public UserController(DataStoreOperations dataStore, ObjectMapper objectMapper, Validator validator) {
         this.dataStore = dataStore;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
     }
     
     @GetMapping
-    public ResponseEntity<UsersResponse> getUsers() {
-        List<User> users = dataStore.getUsers();
-        UsersResponse response = new UsersResponse(users, users.size());
-        return ResponseEntity.ok(response);
+    public Mono<ResponseEntity<UsersResponse>> getUsers(
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) Integer cursor,
+            @RequestParam(defaultValue = "asc") String order,
+            @RequestParam(required = false) Long asOf,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        boolean paged = limit != null || cursor != null;
+        int pageSize = limit == null ? Page.MAX_LIMIT : limit;
+        if (paged && (pageSize < 1 || pageSize > Page.MAX_LIMIT || !Page.isValidOrder(order))) {
+            return Mono.just(ResponseEntity.badRequest().build());
+        }
+        if (asOf != null) {
+            return SnapshotReads.on(dataStore, () -> {
+                ReadSnapshot snapshot = dataStore.leasedSnapshot(asOf);
+                if (!paged) {
+                    List<User> users = snapshot.getUsers();
+                    return ResponseEntity.ok(new UsersResponse(users, users.size()));
+                }
+                Page<User> page = snapshot.getUsersPage(cursor, pageSize, "desc".equalsIgnoreCase(order));
+                return ResponseEntity.ok(
+                        new UsersResponse(page.getItems(), page.getItems().size(), page.getNextCursor()));
+            });
+        }
+
+        // Read the version before the data so the tag never claims a newer state than the body.
+        String etag = ETags.of("users", dataStore.getUsersVersion());
+        if (ETags.matches(ifNoneMatch, etag)) {
+            return Mono.just(ETags.notModified(etag));
+        }
+        if (!paged) {
+            return Mono.fromFuture(dataStore::getUsersAsync)
+                    .map(users -> ETags.ok(etag).body(new UsersResponse(users, users.size())));
+        }
+
+        return Mono.fromFuture(() -> dataStore.getUsersPageAsync(cursor, pageSize, "desc".equalsIgnoreCase(order)))
+                .map(page -> ETags.ok(etag).body(
+                        new UsersResponse(page.getItems(), page.getItems().size(), page.getNextCursor())));
     }
     
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportUsers() {
+        StreamingResponseBody body = NdjsonStream.<User>of(objectMapper, dataStore::forEachUser);
+        return ResponseEntity.ok().contentType(NdjsonStream.APPLICATION_NDJSON).body(body);
+    }
+
     @GetMapping("/{id}")
-    public ResponseEntity<User> getUserById(@PathVariable int id) {
-        User user = dataStore.getUserById(id);
-        if (user == null) {
-            return ResponseEntity.notFound().build();
+    public Mono<ResponseEntity<User>> getUserById(
+            @PathVariable int id,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        String etag = ETags.of("users", dataStore.getUsersVersion());
+        if (ETags.matches(ifNoneMatch, etag)) {
+            return Mono.just(ETags.notModified(etag));
         }
-        return ResponseEntity.ok(user);
+        return Mono.fromFuture(() -> dataStore.getUserByIdAsync(id))
+                .map(user -> ETags.ok(etag).body(user))
+                .defaultIfEmpty(ResponseEntity.notFound().build());
     }
 
     @PostMapping
     public Mono<ResponseEntity<User>> createUser(@Validated @RequestBody User user) {
-        return Mono.fromSupplier(() ->
-                ResponseEntity.status(HttpStatus.CREATED).body(dataStore.createUser(user))
-        );
+        return Mono.fromFuture(() -> dataStore.createUserAsync(user))
+                .map(created -> ResponseEntity.status(HttpStatus.CREATED).body(created));
+    }
+
+    @PostMapping("/batch")
+    public Mono<ResponseEntity<BatchResponse>> createUsers(@RequestBody List<User> users) {
+        if (users.size() > DataStoreOperations.MAX_BATCH_SIZE) {
+            return Mono.just(ResponseEntity.badRequest().build());
+        }
+        return Mono.fromFuture(() -> BatchRequests.validateAndApply(users, validator, dataStore::createUsersAsync))
+                .map(ResponseEntity::ok);
     }
 }
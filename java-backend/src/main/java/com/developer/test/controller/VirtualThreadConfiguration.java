@@ -0,0 +1,50 @@
+package com.developer.test.controller;
+
+import org.apache.coyote.ProtocolHandler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Opt-in ({@code spring.threads.virtual.enabled=true}) servlet execution on virtual threads:
+ * Tomcat hands every request to a new virtual thread instead of its bounded worker pool, so a
+ * handler stalled on a slow client or downstream call no longer holds a platform thread.
+ *
+ * <p>The build targets Java 11, so the Java 21 API is looked up reflectively; enabling the mode
+ * on an older runtime fails at startup rather than silently falling back to platform threads.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+public class VirtualThreadConfiguration {
+    private static final Logger LOGGER = LoggerFactory.getLogger(VirtualThreadConfiguration.class);
+
+    @Bean
+    public TomcatProtocolHandlerCustomizer<ProtocolHandler> virtualThreadProtocolHandlerCustomizer() {
+        ThreadFactory threads = virtualThreadFactory("http-vt-");
+        Executor executor = task -> threads.newThread(task).start();
+        LOGGER.info("Serving servlet requests on virtual threads");
+        return protocolHandler -> protocolHandler.setExecutor(executor);
+    }
+
+    static ThreadFactory virtualThreadFactory(String prefix) {
+        try {
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            Class<?> builderType = Class.forName("java.lang.Thread$Builder");
+            builder = builderType.getMethod("name", String.class, long.class).invoke(builder, prefix, 0L);
+            return (ThreadFactory) builderType.getMethod("factory").invoke(builder);
+        } catch (NoSuchMethodException | ClassNotFoundException ex) {
+            throw new IllegalStateException("spring.threads.virtual.enabled requires Java 21 or later, running on "
+                    + Runtime.version(), ex);
+        } catch (ReflectiveOperationException ex) {
+            throw new IllegalStateException("Could not create a virtual thread factory", ex);
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package com.developer.test.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+public class BatchResponse {
+    @JsonProperty("results")
+    private List<Item> results;
+
+    @JsonProperty("succeeded")
+    private int succeeded;
+
+    @JsonProperty("failed")
+    private int failed;
+
+    public BatchResponse() {
+        this.results = new ArrayList<>();
+    }
+
+    public BatchResponse(List<Item> results) {
+        this.results = results;
+        for (Item item : results) {
+            if (item.getStatus() < 300) {
+                succeeded++;
+            } else {
+                failed++;
+            }
+        }
+    }
+
+    public List<Item> getResults() {
+        return results;
+    }
+
+    public void setResults(List<Item> results) {
+        this.results = results;
+    }
+
+    public int getSucceeded() {
+        return succeeded;
+    }
+
+    public void setSucceeded(int succeeded) {
+        this.succeeded = succeeded;
+    }
+
+    public int getFailed() {
+        return failed;
+    }
+
+    public void setFailed(int failed) {
+        this.failed = failed;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        BatchResponse that = (BatchResponse) o;
+        return succeeded == that.succeeded && failed == that.failed && Objects.equals(results, that.results);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(results, succeeded, failed);
+    }
+
+    /**
+     * Outcome of one batch entry. {@code status} mirrors the HTTP status the single-item
+     * endpoint would have returned for the same input.
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public static class Item {
+        @JsonProperty("index")
+        private int index;
+
+        @JsonProperty("status")
+        private int status;
+
+        @JsonProperty("id")
+        private Integer id;
+
+        @JsonProperty("error")
+        private String error;
+
+        public Item() {
+        }
+
+        public Item(int index, int status, Integer id, String error) {
+            this.index = index;
+            this.status = status;
+            this.id = id;
+            this.error = error;
+        }
+
+        public static Item success(int index, int status, int id) {
+            return new Item(index, status, id, null);
+        }
+
+        public static Item failure(int index, int status, String error) {
+            return new Item(index, status, null, error);
+        }
+
+        public int getIndex() {
+            return index;
+        }
+
+        public void setIndex(int index) {
+            this.index = index;
+        }
+
+        public int getStatus() {
+            return status;
+        }
+
+        public void setStatus(int status) {
+            this.status = status;
+        }
+
+        public Integer getId() {
+            return id;
+        }
+
+        public void setId(Integer id) {
+            this.id = id;
+        }
+
+        public String getError() {
+            return error;
+        }
+
+        public void setError(String error) {
+            this.error = error;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            Item item = (Item) o;
+            return index == item.index && status == item.status
+                    && Objects.equals(id, item.id) && Objects.equals(error, item.error);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(index, status, id, error);
+        }
+    }
+}
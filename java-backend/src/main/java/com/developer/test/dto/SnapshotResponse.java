@@ -0,0 +1,35 @@
+package com.developer.test.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+public class SnapshotResponse {
+    @JsonProperty("version")
+    private long version;
+
+    @JsonProperty("leaseMs")
+    private long leaseMs;
+
+    public SnapshotResponse() {
+    }
+
+    public SnapshotResponse(long version, long leaseMs) {
+        this.version = version;
+        this.leaseMs = leaseMs;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
+
+    public long getLeaseMs() {
+        return leaseMs;
+    }
+
+    public void setLeaseMs(long leaseMs) {
+        this.leaseMs = leaseMs;
+    }
+}
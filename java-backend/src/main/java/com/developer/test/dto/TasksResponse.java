@@ -1,6 +1,7 @@
 package com.developer.test.dto;
 
 import com.developer.test.model.Task;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import java.util.List;
 
@@ -11,6 +12,10 @@ public class TasksResponse {
     @JsonProperty("count")
     private int count;
 
+    @JsonProperty("nextCursor")
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Integer nextCursor;
+
     public TasksResponse() {
     }
 
@@ -19,6 +24,12 @@ public class TasksResponse {
         this.count = count;
     }
 
+    public TasksResponse(List<Task> tasks, int count, Integer nextCursor) {
+        this.tasks = tasks;
+        this.count = count;
+        this.nextCursor = nextCursor;
+    }
+
     public List<Task> getTasks() {
         return tasks;
     }
@@ -35,16 +46,25 @@ public class TasksResponse {
         this.count = count;
     }
 
+    public Integer getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(Integer nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
         TasksResponse that = (TasksResponse) o;
-        return count == that.count && java.util.Objects.equals(tasks, that.tasks);
+        return count == that.count && java.util.Objects.equals(tasks, that.tasks)
+                && java.util.Objects.equals(nextCursor, that.nextCursor);
     }
 
     @Override
     public int hashCode() {
-        return java.util.Objects.hash(tasks, count);
+        return java.util.Objects.hash(tasks, count, nextCursor);
     }
 }
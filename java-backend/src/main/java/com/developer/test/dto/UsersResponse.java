@@ -1,6 +1,7 @@
 package com.developer.test.dto;
 
 import com.developer.test.model.User;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import java.util.List;
 
@@ -11,6 +12,10 @@ public class UsersResponse {
     @JsonProperty("count")
     private int count;
 
+    @JsonProperty("nextCursor")
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Integer nextCursor;
+
     public UsersResponse() {
     }
 
@@ -19,6 +24,12 @@ public class UsersResponse {
         this.count = count;
     }
 
+    public UsersResponse(List<User> users, int count, Integer nextCursor) {
+        this.users = users;
+        this.count = count;
+        this.nextCursor = nextCursor;
+    }
+
     public List<User> getUsers() {
         return users;
     }
@@ -35,16 +46,25 @@ public class UsersResponse {
         this.count = count;
     }
 
+    public Integer getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(Integer nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
         UsersResponse that = (UsersResponse) o;
-        return count == that.count && java.util.Objects.equals(users, that.users);
+        return count == that.count && java.util.Objects.equals(users, that.users)
+                && java.util.Objects.equals(nextCursor, that.nextCursor);
     }
 
     @Override
     public int hashCode() {
-        return java.util.Objects.hash(users, count);
+        return java.util.Objects.hash(users, count, nextCursor);
     }
 }
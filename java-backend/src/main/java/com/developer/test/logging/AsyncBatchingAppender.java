@@ -0,0 +1,214 @@
+package com.developer.test.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.UnsynchronizedAppenderBase;
+import ch.qos.logback.core.encoder.Encoder;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Console appender that keeps I/O off the logging thread. Events are encoded on the caller and
+ * pushed into a {@link LogRingBuffer}; a single background thread drains it and writes records in
+ * batches with one write and flush per batch. When the buffer is full the {@link OverflowPolicy}
+ * decides whether to drop, sample or block, and dropped events are counted.
+ */
+public class AsyncBatchingAppender extends UnsynchronizedAppenderBase<ILoggingEvent> {
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+    private static final long BLOCK_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+
+    private Encoder<ILoggingEvent> encoder;
+    private OutputStream outputStream = System.out;
+    private int capacity = 8192;
+    private int batchSize = 256;
+    private OverflowPolicy overflowPolicy = OverflowPolicy.DROP;
+    private int sampleEvery = 10;
+
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder sampledOut = new LongAdder();
+    private final AtomicLong sampleCounter = new AtomicLong();
+    private final LongAdder written = new LongAdder();
+
+    private LogRingBuffer buffer;
+    private Thread worker;
+    private volatile boolean running;
+    private volatile boolean idle;
+    private byte[] batch = new byte[8192];
+
+    @Override
+    public void start() {
+        if (encoder == null) {
+            addError("No encoder set for the appender named [" + name + "].");
+            return;
+        }
+        buffer = new LogRingBuffer(capacity);
+        running = true;
+        worker = new Thread(this::drainLoop, "log-writer-" + name);
+        worker.setDaemon(true);
+        worker.start();
+        super.start();
+    }
+
+    @Override
+    public void stop() {
+        if (!isStarted()) {
+            return;
+        }
+        super.stop();
+        running = false;
+        LockSupport.unpark(worker);
+        try {
+            worker.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    protected void append(ILoggingEvent event) {
+        boolean important = event.getLevel().isGreaterOrEqual(Level.WARN);
+        if (overflowPolicy == OverflowPolicy.SAMPLE && !important
+                && buffer.size() >= buffer.capacity() - (buffer.capacity() >> 2)
+                && sampleCounter.getAndIncrement() % sampleEvery != 0) {
+            sampledOut.increment();
+            return;
+        }
+
+        byte[] record = encoder.encode(event);
+        if (!buffer.offer(record)) {
+            if (overflowPolicy != OverflowPolicy.BLOCK || !awaitRoom(record)) {
+                dropped.increment();
+                return;
+            }
+        }
+        if (idle) {
+            LockSupport.unpark(worker);
+        }
+    }
+
+    private boolean awaitRoom(byte[] record) {
+        while (running) {
+            LockSupport.unpark(worker);
+            LockSupport.parkNanos(this, BLOCK_PARK_NANOS);
+            if (buffer.offer(record)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void drainLoop() {
+        while (true) {
+            int count = drainBatch();
+            if (count == 0) {
+                if (!running) {
+                    break;
+                }
+                idle = true;
+                if (buffer.size() == 0 && running) {
+                    LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+                }
+                idle = false;
+            }
+        }
+        flush();
+    }
+
+    private int drainBatch() {
+        int length = 0;
+        int count = 0;
+        byte[] record;
+        while (count < batchSize && (record = buffer.poll()) != null) {
+            if (length + record.length > batch.length) {
+                batch = Arrays.copyOf(batch, Math.max(batch.length * 2, length + record.length));
+            }
+            System.arraycopy(record, 0, batch, length, record.length);
+            length += record.length;
+            count++;
+        }
+        if (count > 0) {
+            try {
+                outputStream.write(batch, 0, length);
+                outputStream.flush();
+                written.add(count);
+            } catch (IOException ex) {
+                addError("Failed to write log batch", ex);
+            }
+        }
+        return count;
+    }
+
+    private void flush() {
+        try {
+            outputStream.flush();
+        } catch (IOException ex) {
+            addError("Failed to flush log output", ex);
+        }
+    }
+
+    public long getDroppedCount() {
+        return dropped.sum();
+    }
+
+    public long getSampledOutCount() {
+        return sampledOut.sum();
+    }
+
+    public long getWrittenCount() {
+        return written.sum();
+    }
+
+    public int getQueueSize() {
+        return buffer == null ? 0 : buffer.size();
+    }
+
+    public Encoder<ILoggingEvent> getEncoder() {
+        return encoder;
+    }
+
+    public void setEncoder(Encoder<ILoggingEvent> encoder) {
+        this.encoder = encoder;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public void setCapacity(int capacity) {
+        this.capacity = capacity;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public void setBatchSize(int batchSize) {
+        this.batchSize = Math.max(1, batchSize);
+    }
+
+    public OverflowPolicy getOverflowPolicy() {
+        return overflowPolicy;
+    }
+
+    public void setOverflowPolicy(OverflowPolicy overflowPolicy) {
+        this.overflowPolicy = overflowPolicy;
+    }
+
+    public int getSampleEvery() {
+        return sampleEvery;
+    }
+
+    public void setSampleEvery(int sampleEvery) {
+        this.sampleEvery = Math.max(1, sampleEvery);
+    }
+
+    void setOutputStream(OutputStream outputStream) {
+        this.outputStream = outputStream;
+    }
+}
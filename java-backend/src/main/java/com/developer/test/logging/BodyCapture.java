@@ -0,0 +1,96 @@
+package com.developer.test.logging;
+
+import java.nio.charset.Charset;
+import java.util.Arrays;
+
+/**
+ * Bounded prefix of a body passing through a tee wrapper. Bytes written through a stream and
+ * chars written through a writer are kept separately, up to {@code limit} units in total, while
+ * the full size is still counted. Nothing is decoded until {@link #toString(Charset)} is called.
+ */
+final class BodyCapture {
+    private final int limit;
+    private byte[] bytes = new byte[0];
+    private int byteCount;
+    private StringBuilder chars;
+    private long total;
+
+    BodyCapture(int limit) {
+        this.limit = limit;
+    }
+
+    void write(int b) {
+        total++;
+        if (captured() < limit) {
+            ensureBytes(byteCount + 1);
+            bytes[byteCount++] = (byte) b;
+        }
+    }
+
+    void write(byte[] source, int offset, int length) {
+        total += length;
+        int room = Math.min(length, limit - captured());
+        if (room > 0) {
+            ensureBytes(byteCount + room);
+            System.arraycopy(source, offset, bytes, byteCount, room);
+            byteCount += room;
+        }
+    }
+
+    void write(CharSequence source, int offset, int length) {
+        total += length;
+        int room = Math.min(length, limit - captured());
+        if (room > 0) {
+            if (chars == null) {
+                chars = new StringBuilder(Math.min(room, 256));
+            }
+            chars.append(source, offset, offset + room);
+        }
+    }
+
+    void write(char[] source, int offset, int length) {
+        total += length;
+        int room = Math.min(length, limit - captured());
+        if (room > 0) {
+            if (chars == null) {
+                chars = new StringBuilder(Math.min(room, 256));
+            }
+            chars.append(source, offset, room);
+        }
+    }
+
+    /**
+     * Total bytes or chars that passed through, including the part beyond the limit.
+     */
+    long getTotal() {
+        return total;
+    }
+
+    boolean isBlank() {
+        for (int i = 0; i < byteCount; i++) {
+            if (!Character.isWhitespace(bytes[i])) {
+                return false;
+            }
+        }
+        return chars == null || chars.toString().isBlank();
+    }
+
+    String toString(Charset charset) {
+        if (total == 0) {
+            return "";
+        }
+        String text = new String(bytes, 0, byteCount, charset) + (chars == null ? "" : chars);
+        long omitted = total - captured();
+        return omitted > 0 ? text + "... [" + omitted + " more]" : text;
+    }
+
+    private int captured() {
+        return byteCount + (chars == null ? 0 : chars.length());
+    }
+
+    private void ensureBytes(int needed) {
+        if (needed > bytes.length) {
+            bytes = Arrays.copyOf(bytes, Math.min(limit, Math.max(needed, Math.max(256, bytes.length * 2))));
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.developer.test.logging;
+
+import org.springframework.util.AntPathMatcher;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Decides which exchanges get a body log line. Rules are written as a comma-separated list of
+ * {@code pathPattern[@status]=rate}, e.g. {@code /api/tasks/**@2xx=0.01,/**@5xx=1}. The path is an
+ * Ant-style pattern, the status is an exact code or a class such as {@code 4xx}, and the rate is
+ * between 0 and 1. The first matching rule wins; exchanges matching no rule are always logged.
+ */
+class BodyLogSampler {
+    private static final AntPathMatcher MATCHER = new AntPathMatcher();
+
+    private final List<Rule> rules = new ArrayList<>();
+
+    BodyLogSampler(String spec) {
+        if (spec == null || spec.isBlank()) {
+            return;
+        }
+        for (String entry : spec.split(",")) {
+            String trimmed = entry.trim();
+            if (trimmed.isEmpty()) {
+                continue;
+            }
+            int equals = trimmed.lastIndexOf('=');
+            if (equals < 0) {
+                throw new IllegalArgumentException("Invalid body log sampling rule: " + trimmed);
+            }
+            String selector = trimmed.substring(0, equals).trim();
+            double rate = Double.parseDouble(trimmed.substring(equals + 1).trim());
+            if (rate < 0 || rate > 1) {
+                throw new IllegalArgumentException("Sampling rate must be between 0 and 1: " + trimmed);
+            }
+            int at = selector.indexOf('@');
+            String pattern = at < 0 ? selector : selector.substring(0, at);
+            String status = at < 0 ? "" : selector.substring(at + 1).trim().toLowerCase();
+            if (!status.isEmpty() && !status.matches("[1-5](xx|\\d\\d)")) {
+                throw new IllegalArgumentException("Invalid status selector: " + trimmed);
+            }
+            rules.add(new Rule(pattern.isEmpty() ? "/**" : pattern, status, rate));
+        }
+    }
+
+    double rate(String path, int status) {
+        for (Rule rule : rules) {
+            if (rule.matches(path, status)) {
+                return rule.rate;
+            }
+        }
+        return 1.0;
+    }
+
+    boolean sample(String path, int status) {
+        double rate = rate(path, status);
+        return rate >= 1.0 || (rate > 0 && ThreadLocalRandom.current().nextDouble() < rate);
+    }
+
+    private static final class Rule {
+        final String pattern;
+        final String status;
+        final double rate;
+
+        Rule(String pattern, String status, double rate) {
+            this.pattern = pattern;
+            this.status = status;
+            this.rate = rate;
+        }
+
+        boolean matches(String path, int code) {
+            if (!status.isEmpty()) {
+                String actual = String.valueOf(code);
+                boolean statusMatches = status.endsWith("xx")
+                        ? actual.charAt(0) == status.charAt(0)
+                        : actual.equals(status);
+                if (!statusMatches) {
+                    return false;
+                }
+            }
+            return MATCHER.match(pattern, path);
+        }
+    }
+}
@@ -2,11 +2,14 @@ package com.developer.test.logging;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
-import org.springframework.web.util.ContentCachingRequestWrapper;
-import org.springframework.web.util.ContentCachingResponseWrapper;
 
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
 import javax.servlet.FilterChain;
 import javax.servlet.RequestDispatcher;
 import javax.servlet.ServletException;
@@ -14,38 +17,73 @@ import javax.servlet.DispatcherType;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import java.io.IOException;
-import java.nio.charset.StandardCharsets;
 
+/**
+ * Logs request and response bodies without buffering them. Both directions are teed: the
+ * application reads and writes the real streams while only the first {@code max-bytes} are copied
+ * aside, and those are decoded only for exchanges that pass {@link BodyLogSampler}. Requests that
+ * go async are logged when the async cycle completes.
+ */
 @Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class HttpBodyLoggingFilter extends OncePerRequestFilter {
     private static final Logger LOGGER = LoggerFactory.getLogger(HttpBodyLoggingFilter.class);
 
+    static final int DEFAULT_MAX_BODY_BYTES = 4096;
+
+    private final int maxBodyBytes;
+    private final BodyLogSampler sampler;
+
+    public HttpBodyLoggingFilter() {
+        this(DEFAULT_MAX_BODY_BYTES, "");
+    }
+
+    @Autowired
+    public HttpBodyLoggingFilter(@Value("${logging.http-body.max-bytes:4096}") int maxBodyBytes,
+                                 @Value("${logging.http-body.sample-rates:}") String sampleRates) {
+        if (maxBodyBytes < 0) {
+            throw new IllegalArgumentException("logging.http-body.max-bytes must not be negative");
+        }
+        this.maxBodyBytes = maxBodyBytes;
+        this.sampler = new BodyLogSampler(sampleRates);
+    }
+
     @Override
     protected void doFilterInternal(HttpServletRequest request,
                                     HttpServletResponse response,
                                     FilterChain chain)
             throws ServletException, IOException {
 
-        ContentCachingRequestWrapper req = new ContentCachingRequestWrapper(request);
-        ContentCachingResponseWrapper res = new ContentCachingResponseWrapper(response);
+        TeeRequestWrapper req = new TeeRequestWrapper(request, maxBodyBytes);
+        TeeResponseWrapper res = new TeeResponseWrapper(response, maxBodyBytes);
 
         long start = System.currentTimeMillis();
 
         try {
             chain.doFilter(req, res);
         } finally {
-            long duration = System.currentTimeMillis() - start;
-
-            String requestBody = getRequestBody(req);
-            String responseBody = getResponseBody(res);
-            int status = res.getStatus();
-
-            if (shouldLog(request, status, responseBody)) {
-                String path = resolvePath(request);
-                LOGGER.info("HTTP {} {}\nstatus={}\ndurationMs={}\nrequestBody={}\nresponseBody={}", request.getMethod(), path, status, duration, requestBody, responseBody);
+            if (request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(new AsyncListener() {
+                    @Override
+                    public void onComplete(AsyncEvent event) {
+                        log(request, req, res, start);
+                    }
+
+                    @Override
+                    public void onTimeout(AsyncEvent event) {
+                    }
+
+                    @Override
+                    public void onError(AsyncEvent event) {
+                    }
+
+                    @Override
+                    public void onStartAsync(AsyncEvent event) {
+                    }
+                });
+            } else {
+                log(request, req, res, start);
             }
-
-            res.copyBodyToResponse();
         }
     }
 
@@ -54,12 +92,29 @@ public class HttpBodyLoggingFilter extends OncePerRequestFilter {
         return false;
     }
 
-    private boolean shouldLog(HttpServletRequest request, int status, String responseBody) {
+    private void log(HttpServletRequest request, TeeRequestWrapper req, TeeResponseWrapper res, long start) {
+        long duration = System.currentTimeMillis() - start;
+        int status = res.getStatus();
+        String path = resolvePath(request);
+
+        if (!LOGGER.isInfoEnabled() || !shouldLog(request, path, status, res.getCapture())) {
+            return;
+        }
+
+        String requestBody = req.getCapture().toString(req.getCharset());
+        String responseBody = res.getCapture().toString(res.getCharset());
+        LOGGER.info("HTTP {} {}\nstatus={}\ndurationMs={}\nrequestBody={}\nresponseBody={}", request.getMethod(), path, status, duration, requestBody, responseBody);
+    }
+
+    private boolean shouldLog(HttpServletRequest request, String path, int status, BodyCapture responseBody) {
         if (request.getDispatcherType() == DispatcherType.ERROR) {
             return true;
         }
 
-        return status < 500 || !responseBody.isBlank();
+        if (status >= 500 && responseBody.isBlank()) {
+            return false;
+        }
+        return sampler.sample(path, status);
     }
 
     private String resolvePath(HttpServletRequest request) {
@@ -71,14 +126,4 @@ public class HttpBodyLoggingFilter extends OncePerRequestFilter {
         }
         return request.getRequestURI();
     }
-
-    private String getRequestBody(ContentCachingRequestWrapper req) {
-        byte[] buf = req.getContentAsByteArray();
-        return buf.length == 0 ? "" : new String(buf, StandardCharsets.UTF_8);
-    }
-
-    private String getResponseBody(ContentCachingResponseWrapper res) {
-        byte[] buf = res.getContentAsByteArray();
-        return buf.length == 0 ? "" : new String(buf, StandardCharsets.UTF_8);
-    }
 }
@@ -0,0 +1,79 @@
+package com.developer.test.logging;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Bounded lock-free multi-producer, single-consumer ring of preformatted log records. Each slot
+ * carries a sequence number: producers claim a position by CAS on the tail and publish the slot by
+ * advancing its sequence, and the single consumer frees it by moving the sequence one lap ahead.
+ */
+final class LogRingBuffer {
+    private final int capacity;
+    private final int mask;
+    private final AtomicLongArray sequences;
+    private final AtomicReferenceArray<byte[]> slots;
+    private final AtomicLong tail = new AtomicLong();
+    private volatile long head;
+
+    LogRingBuffer(int requestedCapacity) {
+        if (requestedCapacity < 2) {
+            throw new IllegalArgumentException("capacity must be at least 2");
+        }
+        capacity = Integer.highestOneBit(requestedCapacity - 1) << 1;
+        mask = capacity - 1;
+        sequences = new AtomicLongArray(capacity);
+        slots = new AtomicReferenceArray<>(capacity);
+        for (int i = 0; i < capacity; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    /**
+     * Adds a record, or returns false without waiting when the ring is full.
+     */
+    boolean offer(byte[] record) {
+        long position = tail.get();
+        while (true) {
+            int index = (int) (position & mask);
+            long delta = sequences.get(index) - position;
+            if (delta == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    slots.set(index, record);
+                    sequences.set(index, position + 1);
+                    return true;
+                }
+                position = tail.get();
+            } else if (delta < 0) {
+                return false;
+            } else {
+                position = tail.get();
+            }
+        }
+    }
+
+    /**
+     * Removes the oldest published record; must only be called from the consumer thread.
+     */
+    byte[] poll() {
+        long position = head;
+        int index = (int) (position & mask);
+        if (sequences.get(index) != position + 1) {
+            return null;
+        }
+        byte[] record = slots.get(index);
+        slots.set(index, null);
+        sequences.set(index, position + capacity);
+        head = position + 1;
+        return record;
+    }
+
+    int size() {
+        return (int) Math.max(0, tail.get() - head);
+    }
+
+    int capacity() {
+        return capacity;
+    }
+}
@@ -0,0 +1,55 @@
+package com.developer.test.logging;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * Publishes the counters of every {@link AsyncBatchingAppender} in the logback context, tagged by
+ * appender name.
+ */
+@Component
+public class LoggingPipelineMetrics implements MeterBinder {
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        if (!(LoggerFactory.getILoggerFactory() instanceof LoggerContext)) {
+            return;
+        }
+        Map<AsyncBatchingAppender, Boolean> appenders = new IdentityHashMap<>();
+        for (Logger logger : ((LoggerContext) LoggerFactory.getILoggerFactory()).getLoggerList()) {
+            for (Iterator<Appender<ILoggingEvent>> it = logger.iteratorForAppenders(); it.hasNext(); ) {
+                Appender<ILoggingEvent> appender = it.next();
+                if (appender instanceof AsyncBatchingAppender) {
+                    appenders.put((AsyncBatchingAppender) appender, Boolean.TRUE);
+                }
+            }
+        }
+        for (AsyncBatchingAppender appender : appenders.keySet()) {
+            String name = appender.getName();
+            FunctionCounter.builder("logging.async.dropped", appender, AsyncBatchingAppender::getDroppedCount)
+                    .tag("appender", name).description("Log events dropped because the ring buffer was full")
+                    .register(registry);
+            FunctionCounter.builder("logging.async.sampled", appender, AsyncBatchingAppender::getSampledOutCount)
+                    .tag("appender", name).description("Log events skipped by overflow sampling")
+                    .register(registry);
+            FunctionCounter.builder("logging.async.written", appender, AsyncBatchingAppender::getWrittenCount)
+                    .tag("appender", name).description("Log events written by the background writer")
+                    .register(registry);
+            Gauge.builder("logging.async.queue", appender, AsyncBatchingAppender::getQueueSize)
+                    .tag("appender", name).description("Log events waiting in the ring buffer")
+                    .register(registry);
+        }
+    }
+}
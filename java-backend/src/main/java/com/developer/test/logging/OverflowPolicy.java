@@ -0,0 +1,20 @@
+package com.developer.test.logging;
+
+/**
+ * What {@link AsyncBatchingAppender} does with an event when its ring buffer cannot take it.
+ */
+public enum OverflowPolicy {
+    /**
+     * Discard the event and count it as dropped.
+     */
+    DROP,
+    /**
+     * Keep one in {@code sampleEvery} INFO and lower events once the buffer is three quarters full,
+     * then drop when it is full. WARN and ERROR are never sampled out.
+     */
+    SAMPLE,
+    /**
+     * Wait for the writer to make room, applying backpressure to the logging thread.
+     */
+    BLOCK
+}
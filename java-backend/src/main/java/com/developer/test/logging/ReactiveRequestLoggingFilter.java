@@ -0,0 +1,52 @@
+package com.developer.test.logging;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link RequestLoggingFilter} for reactive mode, writing the same line once the exchange
+ * completes instead of when a servlet thread returns.
+ */
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveRequestLoggingFilter implements WebFilter {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ReactiveRequestLoggingFilter.class);
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        long startNanos = System.nanoTime();
+        return chain.filter(exchange)
+                .doOnSuccess(ignored -> log(exchange, startNanos, null))
+                .doOnError(error -> log(exchange, startNanos, error));
+    }
+
+    private void log(ServerWebExchange exchange, long startNanos, Throwable error) {
+        long durationMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+        ServerHttpRequest request = exchange.getRequest();
+        String path = buildPath(request);
+        HttpStatus status = exchange.getResponse().getStatusCode();
+        int code = status == null ? HttpStatus.OK.value() : status.value();
+        if (error == null) {
+            LOGGER.info("request method={} path={} status={} durationMs={}", request.getMethodValue(), path, code, durationMs);
+        } else {
+            int errorStatus = code >= 400 ? code : 500;
+            LOGGER.error("request method={} path={} status={} durationMs={} error={}", request.getMethodValue(), path, errorStatus, durationMs, error, error);
+        }
+    }
+
+    private String buildPath(ServerHttpRequest request) {
+        String path = request.getURI().getRawPath();
+        String query = request.getURI().getRawQuery();
+        return (query == null || query.isBlank()) ? path : path + "?" + query;
+    }
+}
@@ -0,0 +1,98 @@
+package com.developer.test.logging;
+
+import javax.servlet.ReadListener;
+import javax.servlet.ServletInputStream;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletRequestWrapper;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UnsupportedEncodingException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Request wrapper that copies a bounded prefix of whatever the application reads from the body.
+ */
+class TeeRequestWrapper extends HttpServletRequestWrapper {
+    private final BodyCapture capture;
+    private ServletInputStream inputStream;
+    private BufferedReader reader;
+
+    TeeRequestWrapper(HttpServletRequest request, int limit) {
+        super(request);
+        this.capture = new BodyCapture(limit);
+    }
+
+    BodyCapture getCapture() {
+        return capture;
+    }
+
+    Charset getCharset() {
+        String encoding = getCharacterEncoding();
+        return encoding == null ? StandardCharsets.UTF_8 : Charset.forName(encoding);
+    }
+
+    @Override
+    public ServletInputStream getInputStream() throws IOException {
+        if (inputStream == null) {
+            inputStream = new TeeInputStream(super.getInputStream(), capture);
+        }
+        return inputStream;
+    }
+
+    @Override
+    public BufferedReader getReader() throws IOException {
+        if (reader == null) {
+            try {
+                reader = new BufferedReader(new InputStreamReader(getInputStream(), getCharset()));
+            } catch (IllegalArgumentException ex) {
+                throw new UnsupportedEncodingException(getCharacterEncoding());
+            }
+        }
+        return reader;
+    }
+
+    private static final class TeeInputStream extends ServletInputStream {
+        private final ServletInputStream delegate;
+        private final BodyCapture capture;
+
+        TeeInputStream(ServletInputStream delegate, BodyCapture capture) {
+            this.delegate = delegate;
+            this.capture = capture;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = delegate.read();
+            if (b >= 0) {
+                capture.write(b);
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int count = delegate.read(buffer, offset, length);
+            if (count > 0) {
+                capture.write(buffer, offset, count);
+            }
+            return count;
+        }
+
+        @Override
+        public boolean isFinished() {
+            return delegate.isFinished();
+        }
+
+        @Override
+        public boolean isReady() {
+            return delegate.isReady();
+        }
+
+        @Override
+        public void setReadListener(ReadListener readListener) {
+            delegate.setReadListener(readListener);
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package com.developer.test.logging;
+
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpServletResponseWrapper;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Response wrapper that writes straight through to the client while copying a bounded prefix.
+ * Unlike a content-caching wrapper it never holds the full body, and output produced later on an
+ * async dispatch reaches the client without any copy step.
+ */
+class TeeResponseWrapper extends HttpServletResponseWrapper {
+    private final BodyCapture capture;
+    private ServletOutputStream outputStream;
+    private PrintWriter writer;
+
+    TeeResponseWrapper(HttpServletResponse response, int limit) {
+        super(response);
+        this.capture = new BodyCapture(limit);
+    }
+
+    BodyCapture getCapture() {
+        return capture;
+    }
+
+    Charset getCharset() {
+        String encoding = getCharacterEncoding();
+        try {
+            return encoding == null ? StandardCharsets.UTF_8 : Charset.forName(encoding);
+        } catch (IllegalArgumentException ex) {
+            return StandardCharsets.UTF_8;
+        }
+    }
+
+    @Override
+    public ServletOutputStream getOutputStream() throws IOException {
+        if (outputStream == null) {
+            outputStream = new TeeOutputStream(super.getOutputStream(), capture);
+        }
+        return outputStream;
+    }
+
+    @Override
+    public PrintWriter getWriter() throws IOException {
+        if (writer == null) {
+            // Tee at the char level so no extra encoder buffer sits between the app and the client.
+            writer = new PrintWriter(new TeeWriter(super.getWriter(), capture));
+        }
+        return writer;
+    }
+
+    @Override
+    public void flushBuffer() throws IOException {
+        if (writer != null) {
+            writer.flush();
+        }
+        super.flushBuffer();
+    }
+
+    private static final class TeeOutputStream extends ServletOutputStream {
+        private final ServletOutputStream delegate;
+        private final BodyCapture capture;
+
+        TeeOutputStream(ServletOutputStream delegate, BodyCapture capture) {
+            this.delegate = delegate;
+            this.capture = capture;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            delegate.write(b);
+            capture.write(b);
+        }
+
+        @Override
+        public void write(byte[] buffer, int offset, int length) throws IOException {
+            delegate.write(buffer, offset, length);
+            capture.write(buffer, offset, length);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            delegate.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            delegate.close();
+        }
+
+        @Override
+        public boolean isReady() {
+            return delegate.isReady();
+        }
+
+        @Override
+        public void setWriteListener(WriteListener writeListener) {
+            delegate.setWriteListener(writeListener);
+        }
+    }
+
+    private static final class TeeWriter extends Writer {
+        private final PrintWriter delegate;
+        private final BodyCapture capture;
+
+        TeeWriter(PrintWriter delegate, BodyCapture capture) {
+            this.delegate = delegate;
+            this.capture = capture;
+        }
+
+        @Override
+        public void write(char[] buffer, int offset, int length) {
+            delegate.write(buffer, offset, length);
+            capture.write(buffer, offset, length);
+        }
+
+        @Override
+        public void write(String text, int offset, int length) {
+            delegate.write(text, offset, length);
+            capture.write(text, offset, length);
+        }
+
+        @Override
+        public void flush() {
+            delegate.flush();
+        }
+
+        @Override
+        public void close() {
+            delegate.close();
+        }
+    }
+}
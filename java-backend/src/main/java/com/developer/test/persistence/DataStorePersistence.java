@@ -0,0 +1,176 @@
+package com.developer.test.persistence;
+
+import com.developer.test.service.DataStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Owns the durable state of a {@link DataStore}: the optional write-ahead log and the optional
+ * periodic snapshot.
+ *
+ * <p>Startup loads the latest snapshot, if any, then replays only the log segments it does not
+ * cover. Each snapshot rolls the log first, waits for writes already in flight, streams the store
+ * to disk and finally deletes the segments it made redundant; writers are never blocked. Log
+ * records replay as idempotent upserts, so rows the snapshot captured after the roll converge to
+ * the same final state.
+ */
+public class DataStorePersistence implements Closeable {
+    private static final Logger LOGGER = LoggerFactory.getLogger(DataStorePersistence.class);
+
+    private final DataStore dataStore;
+    private final WriteAheadLog wal;
+    private final Path snapshotPath;
+    private final ScheduledExecutorService scheduler;
+
+    // Guarded by this.
+    private long loggedAtLastSnapshot = -1;
+
+    private DataStorePersistence(DataStore dataStore, WriteAheadLog wal, Path snapshotPath, long snapshotIntervalMs) {
+        this.dataStore = dataStore;
+        this.wal = wal;
+        this.snapshotPath = snapshotPath;
+        if (snapshotPath != null && snapshotIntervalMs > 0) {
+            this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread thread = new Thread(r, "datastore-snapshot");
+                thread.setDaemon(true);
+                return thread;
+            });
+            this.scheduler.scheduleWithFixedDelay(this::scheduledSnapshot, snapshotIntervalMs, snapshotIntervalMs,
+                    TimeUnit.MILLISECONDS);
+        } else {
+            this.scheduler = null;
+        }
+    }
+
+    /**
+     * Recovers {@code dataStore} and starts journaling and snapshotting.
+     *
+     * @param walPath         log location, or {@code null} to run without a write-ahead log
+     * @param snapshotPath    snapshot location, or {@code null} to run without snapshots
+     * @param snapshotIntervalMs delay between background snapshots; 0 disables the schedule
+     */
+    public static DataStorePersistence start(DataStore dataStore, Path walPath, FsyncPolicy policy,
+                                             long flushIntervalMs, Path snapshotPath, long snapshotIntervalMs)
+            throws IOException {
+        long startNanos = System.nanoTime();
+        boolean recovered = false;
+        long fromSegment = 1;
+        int snapshotRows = 0;
+
+        if (snapshotPath != null && Files.exists(snapshotPath)) {
+            SnapshotFile snapshot = SnapshotFile.open(snapshotPath);
+            restore(snapshot, dataStore);
+            fromSegment = Math.max(snapshot.getWalSegment(), 1);
+            snapshotRows = snapshot.getUserCount() + snapshot.getTaskCount();
+            recovered = true;
+        }
+
+        WriteAheadLog wal = null;
+        long[] replayed = new long[1];
+        if (walPath != null) {
+            boolean fromSnapshot = recovered;
+            wal = WriteAheadLog.open(walPath, policy, flushIntervalMs, fromSegment, record -> {
+                if (replayed[0]++ == 0 && !fromSnapshot) {
+                    // The log is the source of truth; drop the sample rows seeded by the constructor.
+                    dataStore.clear();
+                }
+                record.applyTo(dataStore);
+            });
+            if (!recovered && replayed[0] == 0) {
+                // Fresh log: journal the seed rows so the next restart recovers them too.
+                dataStore.forEachUser(wal::userCreated);
+                dataStore.forEachTask(null, null, wal::taskCreated);
+                wal.sync();
+            }
+            dataStore.setJournal(wal);
+        }
+
+        LOGGER.info("datastore persistence ready wal={} snapshot={} snapshotRows={} replayedRecords={} durationMs={}",
+                walPath, snapshotPath, snapshotRows, replayed[0],
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
+        return new DataStorePersistence(dataStore, wal, snapshotPath, snapshotIntervalMs);
+    }
+
+    /**
+     * Replaces the contents of {@code dataStore} with {@code snapshot}. Rows are inserted in
+     * parallel through the bulk restore path, which skips duplicate checks, journaling and cache
+     * eviction.
+     */
+    static void restore(SnapshotFile snapshot, DataStore dataStore) {
+        dataStore.clear();
+        IntStream.range(0, snapshot.getUserCount()).parallel()
+                .forEach(i -> dataStore.restoreUser(snapshot.user(i)));
+        IntStream.range(0, snapshot.getTaskCount()).parallel()
+                .forEach(i -> dataStore.restoreTask(snapshot.task(i)));
+        dataStore.restoreIdCounters(snapshot.getNextUserId(), snapshot.getNextTaskId());
+    }
+
+    public WriteAheadLog getWriteAheadLog() {
+        return wal;
+    }
+
+    /**
+     * Takes a snapshot now. Calls are serialized; the background schedule uses the same path.
+     *
+     * @return rows written, users plus tasks
+     */
+    public synchronized long snapshot() throws IOException {
+        if (snapshotPath == null) {
+            throw new IllegalStateException("Snapshots are not enabled");
+        }
+        long startNanos = System.nanoTime();
+        long logged = wal == null ? 0 : wal.size();
+        long segment = wal == null ? 0 : wal.roll();
+        long rows = SnapshotWriter.write(dataStore, snapshotPath, segment);
+        if (wal != null) {
+            // Safe only because write() returns after the rename itself is on disk.
+            wal.deleteSegmentsBefore(segment);
+        }
+        loggedAtLastSnapshot = logged;
+        LOGGER.info("datastore snapshot written path={} rows={} walSegment={} durationMs={}",
+                snapshotPath, rows, segment, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
+        return rows;
+    }
+
+    private void scheduledSnapshot() {
+        try {
+            synchronized (this) {
+                if (wal != null && wal.size() == loggedAtLastSnapshot) {
+                    // Nothing was written since the last snapshot.
+                    return;
+                }
+            }
+            snapshot();
+        } catch (IOException | RuntimeException ex) {
+            LOGGER.error("datastore snapshot failed path={}", snapshotPath, ex);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (scheduler != null) {
+            scheduler.shutdown();
+            try {
+                scheduler.awaitTermination(1, TimeUnit.MINUTES);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        if (snapshotPath != null && wal == null) {
+            // Without a log, the shutdown snapshot is the only record of writes since the last one.
+            snapshot();
+        }
+        if (wal != null) {
+            wal.close();
+        }
+    }
+}
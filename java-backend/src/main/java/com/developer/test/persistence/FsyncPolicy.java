@@ -0,0 +1,21 @@
+package com.developer.test.persistence;
+
+/**
+ * When the write-ahead log forces appended records to stable storage.
+ */
+public enum FsyncPolicy {
+    /**
+     * Every write waits until its record is fsynced. Concurrent writers share one fsync (group commit).
+     */
+    ALWAYS,
+    /**
+     * A background thread fsyncs on a fixed interval; writes never wait, and a crash may lose
+     * up to one interval of acknowledged writes.
+     */
+    INTERVAL,
+    /**
+     * Records are handed to the OS on the flush interval but never fsynced; survives a process
+     * crash but not a power loss.
+     */
+    NONE
+}
@@ -0,0 +1,33 @@
+package com.developer.test.persistence;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Read-replica mode: {@code datastore.mode=mapped} serves a prebuilt snapshot from
+ * {@code datastore.snapshot.path} through {@link MappedDataStore} in place of the in-memory store.
+ */
+@Configuration
+@ConditionalOnProperty(name = "datastore.mode", havingValue = "mapped")
+public class MappedConfiguration {
+    private static final Logger LOGGER = LoggerFactory.getLogger(MappedConfiguration.class);
+
+    @Bean
+    public MappedDataStore dataStore(@Value("${datastore.snapshot.path:data/datastore.snapshot}") String path)
+            throws IOException {
+        long startNanos = System.nanoTime();
+        SnapshotFile snapshot = SnapshotFile.open(Paths.get(path));
+        LOGGER.info("mapped read-only snapshot path={} users={} tasks={} durationMs={}",
+                path, snapshot.getUserCount(), snapshot.getTaskCount(),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
+        return new MappedDataStore(snapshot);
+    }
+}
@@ -0,0 +1,308 @@
+package com.developer.test.persistence;
+
+import com.developer.test.dto.BatchResponse;
+import com.developer.test.dto.StatsResponse;
+import com.developer.test.model.Task;
+import com.developer.test.model.User;
+import com.developer.test.service.DataStoreOperations;
+import com.developer.test.service.Page;
+import com.developer.test.service.ReadOnlyException;
+import com.developer.test.service.ReadSnapshot;
+import com.developer.test.service.SnapshotUnsupportedException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+import java.util.function.IntFunction;
+import java.util.function.IntPredicate;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * Read-only store served straight from a memory-mapped {@link SnapshotFile}.
+ *
+ * <p>It keeps no heap state of its own: nothing is deserialized at startup: lookups binary-search the sorted id column and decode
+ * a row only when it is returned, so startup time and heap use do not depend on the dataset
+ * size. Filters scan the fixed-width task rows without decoding titles. Every write throws
+ * {@link ReadOnlyException}.
+ */
+public class MappedDataStore implements DataStoreOperations {
+    private static final Task.Status[] STATUSES = Task.Status.values();
+
+    private final SnapshotFile snapshot;
+
+    public MappedDataStore(SnapshotFile snapshot) {
+        this.snapshot = snapshot;
+    }
+
+    public SnapshotFile getSnapshot() {
+        return snapshot;
+    }
+
+    /**
+     * The file never changes, so neither do the versions.
+     */
+    @Override
+    public long getVersion() {
+        return 0;
+    }
+
+    @Override
+    public long getUsersVersion() {
+        return 0;
+    }
+
+    @Override
+    public long getTasksVersion() {
+        return 0;
+    }
+
+    @Override
+    public List<User> getUsers() {
+        List<User> result = new ArrayList<>(snapshot.getUserCount());
+        forEachUser(result::add);
+        return result;
+    }
+
+    @Override
+    public Page<User> getUsersPage(Integer cursor, int limit, boolean descending) {
+        return page(snapshot.getUserCount(), snapshot::userIndex, index -> true, snapshot::userId,
+                snapshot::user, cursor, limit, descending);
+    }
+
+    @Override
+    public void forEachUser(Consumer<User> action) {
+        for (int i = 0; i < snapshot.getUserCount(); i++) {
+            action.accept(snapshot.user(i));
+        }
+    }
+
+    @Override
+    public User getUserById(int id) {
+        int index = snapshot.findUser(id);
+        return index < 0 ? null : snapshot.user(index);
+    }
+
+    @Override
+    public List<Task> getTasks(String status, String userId) {
+        List<Task> result = new ArrayList<>();
+        forEachTask(status, userId, result::add);
+        return result;
+    }
+
+    @Override
+    public Page<Task> getTasksPage(String status, String userId, Integer cursor, int limit, boolean descending) {
+        IntPredicate filter = taskFilter(status, userId);
+        if (filter == null) {
+            return new Page<>(new ArrayList<>(), null);
+        }
+        return page(snapshot.getTaskCount(), snapshot::taskIndex, filter, snapshot::taskId,
+                snapshot::task, cursor, limit, descending);
+    }
+
+    @Override
+    public void forEachTask(String status, String userId, Consumer<Task> action) {
+        IntPredicate filter = taskFilter(status, userId);
+        if (filter == null) {
+            return;
+        }
+        for (int i = 0; i < snapshot.getTaskCount(); i++) {
+            if (filter.test(i)) {
+                action.accept(snapshot.task(i));
+            }
+        }
+    }
+
+    @Override
+    public StatsResponse getStats() {
+        StatsResponse stats = new StatsResponse();
+        stats.getUsers().setTotal(snapshot.getUserCount());
+        stats.getTasks().setTotal(snapshot.getTaskCount());
+        stats.getTasks().setPending(snapshot.getStatusCount(Task.Status.PENDING));
+        stats.getTasks().setInProgress(snapshot.getStatusCount(Task.Status.IN_PROGRESS));
+        stats.getTasks().setCompleted(snapshot.getStatusCount(Task.Status.COMPLETED));
+        return stats;
+    }
+
+    @Override
+    public boolean userExists(User user) {
+        for (int i = 0; i < snapshot.getUserCount(); i++) {
+            User candidate = snapshot.user(i);
+            if (Objects.equals(candidate.getName(), user.getName())
+                    && Objects.equals(candidate.getEmail(), user.getEmail())
+                    && Objects.equals(candidate.getRole(), user.getRole())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public boolean taskExists(Task task) {
+        for (int i = 0; i < snapshot.getTaskCount(); i++) {
+            if (snapshot.taskUserId(i) == task.getUserId() && snapshot.taskStatus(i) == task.getStatus()
+                    && Objects.equals(snapshot.taskTitle(i), task.getTitle())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public void snapshot(Consumer<User> userSink, Consumer<Task> taskSink) {
+        forEachUser(userSink);
+        forEachTask(null, null, taskSink);
+    }
+
+    /**
+     * The mapped file never changes, so plain reads are already consistent with each other.
+     */
+    @Override
+    public ReadSnapshot openSnapshot() {
+        throw new SnapshotUnsupportedException("Snapshot reads are not needed on a read-only store");
+    }
+
+    @Override
+    public ReadSnapshot leaseSnapshot() {
+        return openSnapshot();
+    }
+
+    @Override
+    public ReadSnapshot leasedSnapshot(long version) {
+        return openSnapshot();
+    }
+
+    @Override
+    public long getSnapshotLeaseMillis() {
+        return 0;
+    }
+
+    @Override
+    public int getNextUserId() {
+        return snapshot.getNextUserId();
+    }
+
+    @Override
+    public int getNextTaskId() {
+        return snapshot.getNextTaskId();
+    }
+
+    @Override
+    public User createUser(User user) {
+        throw readOnly();
+    }
+
+    @Override
+    public Task createTask(Task task) {
+        throw readOnly();
+    }
+
+    @Override
+    public CompletableFuture<User> createUserAsync(User user) {
+        throw readOnly();
+    }
+
+    @Override
+    public CompletableFuture<Task> createTaskAsync(Task task) {
+        throw readOnly();
+    }
+
+    @Override
+    public List<BatchResponse.Item> createUsers(List<User> batch) {
+        throw readOnly();
+    }
+
+    @Override
+    public CompletableFuture<List<BatchResponse.Item>> createUsersAsync(List<User> batch) {
+        throw readOnly();
+    }
+
+    @Override
+    public List<BatchResponse.Item> createTasks(List<Task> batch) {
+        throw readOnly();
+    }
+
+    @Override
+    public CompletableFuture<List<BatchResponse.Item>> createTasksAsync(List<Task> batch) {
+        throw readOnly();
+    }
+
+    @Override
+    public List<BatchResponse.Item> updateTasks(List<Task> batch) {
+        throw readOnly();
+    }
+
+    @Override
+    public CompletableFuture<List<BatchResponse.Item>> updateTasksAsync(List<Task> batch) {
+        throw readOnly();
+    }
+
+    @Override
+    public Task updateTask(int id, Task updated) {
+        throw readOnly();
+    }
+
+    @Override
+    public CompletableFuture<Task> updateTaskAsync(int id, Task updated) {
+        throw readOnly();
+    }
+
+    /**
+     * Row predicate for the task filters, or {@code null} when the status is unknown and nothing
+     * can match.
+     */
+    private IntPredicate taskFilter(String status, String userId) {
+        boolean filterStatus = status != null && !status.isEmpty();
+        boolean filterUser = userId != null && !userId.isEmpty();
+
+        Task.Status statusFilter = filterStatus ? parseStatus(status) : null;
+        if (filterStatus && statusFilter == null) {
+            return null;
+        }
+        int userFilter = filterUser ? Integer.parseInt(userId) : 0;
+
+        return index -> (statusFilter == null || snapshot.taskStatus(index) == statusFilter)
+                && (!filterUser || snapshot.taskUserId(index) == userFilter);
+    }
+
+    private static <T> Page<T> page(int count, IntUnaryOperator indexOf, IntPredicate filter, IntUnaryOperator idAt,
+                                    IntFunction<T> decode, Integer cursor, int limit, boolean descending) {
+        int step = descending ? -1 : 1;
+        int index;
+        if (cursor == null) {
+            index = descending ? count - 1 : 0;
+        } else {
+            int found = indexOf.applyAsInt(cursor);
+            int insertion = found >= 0 ? found : -found - 1;
+            index = descending ? insertion - 1 : (found >= 0 ? found + 1 : insertion);
+        }
+
+        List<T> items = new ArrayList<>(Math.min(limit, Page.MAX_LIMIT));
+        int lastIndex = -1;
+        for (; index >= 0 && index < count; index += step) {
+            if (!filter.test(index)) {
+                continue;
+            }
+            if (items.size() == limit) {
+                return new Page<>(items, idAt.applyAsInt(lastIndex));
+            }
+            items.add(decode.apply(index));
+            lastIndex = index;
+        }
+        return new Page<>(items, null);
+    }
+
+    private static Task.Status parseStatus(String status) {
+        for (Task.Status s : STATUSES) {
+            if (s.getValue().equalsIgnoreCase(status)) {
+                return s;
+            }
+        }
+        return null;
+    }
+
+    private static ReadOnlyException readOnly() {
+        return new ReadOnlyException("Data store is a read-only snapshot");
+    }
+}
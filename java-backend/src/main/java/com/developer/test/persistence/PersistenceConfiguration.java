@@ -0,0 +1,42 @@
+package com.developer.test.persistence;
+
+import com.developer.test.service.DataStore;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.Locale;
+
+/**
+ * Durable mode. {@code datastore.wal.enabled=true} journals every write to the write-ahead log;
+ * {@code datastore.snapshot.enabled=true} periodically snapshots the store so restarts load the
+ * snapshot and replay only the log written since. Either can be used on its own. Not used by the
+ * read-only {@code datastore.mode=mapped}, see {@link MappedConfiguration}, nor by replicas, which
+ * recover from their leader.
+ */
+@Configuration
+@ConditionalOnExpression("'${datastore.mode:heap}' != 'mapped' and '${datastore.mode:heap}' != 'replica'"
+        + " and (${datastore.wal.enabled:false} or ${datastore.snapshot.enabled:false})")
+public class PersistenceConfiguration {
+
+    @Bean(destroyMethod = "close")
+    public DataStorePersistence dataStorePersistence(
+            DataStore dataStore,
+            @Value("${datastore.wal.enabled:false}") boolean walEnabled,
+            @Value("${datastore.wal.path:data/datastore.wal}") String walPath,
+            @Value("${datastore.wal.fsync:always}") String fsync,
+            @Value("${datastore.wal.flush-interval-ms:10}") long flushIntervalMs,
+            @Value("${datastore.snapshot.enabled:false}") boolean snapshotEnabled,
+            @Value("${datastore.snapshot.path:data/datastore.snapshot}") String snapshotPath,
+            @Value("${datastore.snapshot.interval-ms:300000}") long snapshotIntervalMs) throws IOException {
+        return DataStorePersistence.start(dataStore,
+                walEnabled ? Paths.get(walPath) : null,
+                FsyncPolicy.valueOf(fsync.trim().toUpperCase(Locale.ROOT)),
+                flushIntervalMs,
+                snapshotEnabled ? Paths.get(snapshotPath) : null,
+                snapshotIntervalMs);
+    }
+}
@@ -0,0 +1,217 @@
+package com.developer.test.persistence;
+
+import com.developer.test.model.Task;
+import com.developer.test.model.User;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Read-only, memory-mapped view of a snapshot written by {@link SnapshotWriter}.
+ *
+ * <p>Layout (big-endian):
+ * <pre>
+ *   header   64 bytes: magic, version, walSegment, nextUserId, nextTaskId, userCount, taskCount,
+ *            pending/inProgress/completed counts, stringsOffset
+ *   users    userCount x (int id, int nameRef, int emailRef, int roleRef), ascending id
+ *   tasks    taskCount x (int id, int userId, int statusOrdinal, int titleRef), ascending id
+ *   strings  (int length, UTF-8 bytes)*; a ref is an offset into this section, -1 for null
+ * </pre>
+ * Fixed-width rows make every record addressable by index, so the file can be served in place
+ * without materializing objects.
+ */
+public final class SnapshotFile {
+    static final int MAGIC = 0x44534E50; // "DSNP"
+    static final int VERSION = 1;
+    static final int HEADER_BYTES = 64;
+    static final int ROW_BYTES = 16;
+
+    private static final Task.Status[] STATUSES = Task.Status.values();
+
+    private final Path path;
+    private final ByteBuffer buffer;
+    private final long walSegment;
+    private final int nextUserId;
+    private final int nextTaskId;
+    private final int userCount;
+    private final int taskCount;
+    private final int[] statusCounts = new int[STATUSES.length];
+    private final int usersOffset;
+    private final int tasksOffset;
+    private final int stringsOffset;
+
+    private SnapshotFile(Path path, ByteBuffer buffer) throws IOException {
+        this.path = path;
+        this.buffer = buffer;
+        if (buffer.capacity() < HEADER_BYTES || buffer.getInt(0) != MAGIC) {
+            throw new IOException("Not a DataStore snapshot: " + path);
+        }
+        if (buffer.getInt(4) != VERSION) {
+            throw new IOException("Unsupported snapshot version " + buffer.getInt(4) + ": " + path);
+        }
+        this.walSegment = buffer.getLong(8);
+        this.nextUserId = buffer.getInt(16);
+        this.nextTaskId = buffer.getInt(20);
+        this.userCount = buffer.getInt(24);
+        this.taskCount = buffer.getInt(28);
+        for (int i = 0; i < statusCounts.length; i++) {
+            statusCounts[i] = buffer.getInt(32 + 4 * i);
+        }
+        long strings = buffer.getLong(48);
+        this.usersOffset = HEADER_BYTES;
+        this.tasksOffset = usersOffset + userCount * ROW_BYTES;
+        if (strings != tasksOffset + (long) taskCount * ROW_BYTES || strings > buffer.capacity()) {
+            throw new IOException("Corrupt snapshot header: " + path);
+        }
+        this.stringsOffset = (int) strings;
+    }
+
+    /**
+     * Maps the snapshot at {@code path}. Files above 2 GiB are rejected.
+     */
+    public static SnapshotFile open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("Snapshot larger than 2 GiB is not supported: " + path);
+            }
+            return new SnapshotFile(path, channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    /**
+     * First write-ahead log segment whose records are not covered by this snapshot.
+     */
+    public long getWalSegment() {
+        return walSegment;
+    }
+
+    public int getNextUserId() {
+        return nextUserId;
+    }
+
+    public int getNextTaskId() {
+        return nextTaskId;
+    }
+
+    public int getUserCount() {
+        return userCount;
+    }
+
+    public int getTaskCount() {
+        return taskCount;
+    }
+
+    public int getStatusCount(Task.Status status) {
+        return statusCounts[status.ordinal()];
+    }
+
+    public int userId(int index) {
+        return buffer.getInt(userRow(index));
+    }
+
+    public User user(int index) {
+        int row = userRow(index);
+        return new User(buffer.getInt(row), string(buffer.getInt(row + 4)),
+                string(buffer.getInt(row + 8)), string(buffer.getInt(row + 12)));
+    }
+
+    public int taskId(int index) {
+        return buffer.getInt(taskRow(index));
+    }
+
+    public int taskUserId(int index) {
+        return buffer.getInt(taskRow(index) + 4);
+    }
+
+    public Task.Status taskStatus(int index) {
+        int ordinal = buffer.getInt(taskRow(index) + 8);
+        return ordinal < 0 ? null : STATUSES[ordinal];
+    }
+
+    public String taskTitle(int index) {
+        return string(buffer.getInt(taskRow(index) + 12));
+    }
+
+    public Task task(int index) {
+        int row = taskRow(index);
+        int ordinal = buffer.getInt(row + 8);
+        return new Task(buffer.getInt(row), string(buffer.getInt(row + 12)),
+                ordinal < 0 ? null : STATUSES[ordinal], buffer.getInt(row + 4));
+    }
+
+    /**
+     * Index of the user with {@code id}, or {@code -1}. Rows are sorted, so this is a binary search.
+     */
+    public int findUser(int id) {
+        return Math.max(userIndex(id), -1);
+    }
+
+    public int findTask(int id) {
+        return Math.max(taskIndex(id), -1);
+    }
+
+    /**
+     * Binary search over user ids with {@link java.util.Arrays#binarySearch(int[], int)} semantics:
+     * the row index if present, otherwise {@code -(insertionPoint) - 1}.
+     */
+    public int userIndex(int id) {
+        return search(usersOffset, userCount, id);
+    }
+
+    public int taskIndex(int id) {
+        return search(tasksOffset, taskCount, id);
+    }
+
+    private int search(int offset, int count, int id) {
+        int low = 0;
+        int high = count - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int midId = buffer.getInt(offset + mid * ROW_BYTES);
+            if (midId < id) {
+                low = mid + 1;
+            } else if (midId > id) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -(low + 1);
+    }
+
+    private int userRow(int index) {
+        return usersOffset + checkIndex(index, userCount) * ROW_BYTES;
+    }
+
+    private int taskRow(int index) {
+        return tasksOffset + checkIndex(index, taskCount) * ROW_BYTES;
+    }
+
+    private static int checkIndex(int index, int count) {
+        if (index < 0 || index >= count) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for length " + count);
+        }
+        return index;
+    }
+
+    private String string(int ref) {
+        if (ref < 0) {
+            return null;
+        }
+        int at = stringsOffset + ref;
+        int length = buffer.getInt(at);
+        byte[] bytes = new byte[length];
+        ByteBuffer view = buffer.duplicate();
+        view.position(at + 4);
+        view.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
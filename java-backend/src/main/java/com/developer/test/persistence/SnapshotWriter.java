@@ -0,0 +1,156 @@
+package com.developer.test.persistence;
+
+import com.developer.test.model.Task;
+import com.developer.test.service.DataStoreOperations;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Writes a {@link SnapshotFile} from a live store. Rows are streamed straight to disk
+ * while strings go to a side file that is appended at the end, so memory use stays flat no matter
+ * how large the store is. The snapshot is written to a temporary file and atomically moved into
+ * place once fsynced, so readers only ever see a complete snapshot. The directory is fsynced after
+ * the move, so once {@link #write} returns the new snapshot survives a crash and the log segments
+ * it covers can be deleted.
+ */
+public final class SnapshotWriter {
+    private static final int BUFFER_BYTES = 256 * 1024;
+
+    private SnapshotWriter() {
+    }
+
+    /**
+     * Snapshots {@code dataStore} to {@code target}.
+     *
+     * @param walSegment first write-ahead log segment the snapshot does not cover, or 0 without a log
+     * @return the number of rows written, users plus tasks
+     */
+    public static long write(DataStoreOperations dataStore, Path target, long walSegment) throws IOException {
+        Path parent = target.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        Path rowsFile = target.resolveSibling(target.getFileName() + ".tmp");
+        Path stringsFile = target.resolveSibling(target.getFileName() + ".strings.tmp");
+        try {
+            Counts counts = new Counts();
+            try (DataOutputStream rows = open(rowsFile); DataOutputStream strings = open(stringsFile)) {
+                rows.write(new byte[SnapshotFile.HEADER_BYTES]);
+                StringHeap heap = new StringHeap(strings);
+                // Users are all visited before tasks, so both tables land contiguously in one file.
+                dataStore.snapshot(user -> {
+                    try {
+                        rows.writeInt(user.getId());
+                        rows.writeInt(heap.add(user.getName()));
+                        rows.writeInt(heap.add(user.getEmail()));
+                        rows.writeInt(heap.add(user.getRole()));
+                    } catch (IOException ex) {
+                        throw new UncheckedIOException(ex);
+                    }
+                    counts.users++;
+                }, task -> {
+                    try {
+                        rows.writeInt(task.getId());
+                        rows.writeInt(task.getUserId());
+                        rows.writeInt(task.getStatus() == null ? -1 : task.getStatus().ordinal());
+                        rows.writeInt(heap.add(task.getTitle()));
+                    } catch (IOException ex) {
+                        throw new UncheckedIOException(ex);
+                    }
+                    counts.tasks++;
+                    if (task.getStatus() != null) {
+                        counts.statuses[task.getStatus().ordinal()]++;
+                    }
+                });
+            } catch (UncheckedIOException ex) {
+                throw ex.getCause();
+            }
+
+            try (FileChannel out = FileChannel.open(rowsFile, StandardOpenOption.WRITE);
+                 FileChannel in = FileChannel.open(stringsFile, StandardOpenOption.READ)) {
+                long stringsOffset = out.size();
+                long copied = 0;
+                while (copied < in.size()) {
+                    copied += out.transferFrom(in, stringsOffset + copied, in.size() - copied);
+                }
+                ByteBuffer header = ByteBuffer.allocate(SnapshotFile.HEADER_BYTES);
+                header.putInt(SnapshotFile.MAGIC)
+                        .putInt(SnapshotFile.VERSION)
+                        .putLong(walSegment)
+                        .putInt(dataStore.getNextUserId())
+                        .putInt(dataStore.getNextTaskId())
+                        .putInt(counts.users)
+                        .putInt(counts.tasks);
+                for (int statusCount : counts.statuses) {
+                    header.putInt(statusCount);
+                }
+                header.putLong(48, stringsOffset);
+                header.rewind();
+                while (header.hasRemaining()) {
+                    out.write(header, header.position());
+                }
+                out.force(true);
+            }
+            Files.move(rowsFile, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            forceDirectory(target.toAbsolutePath().getParent());
+            return (long) counts.users + counts.tasks;
+        } finally {
+            Files.deleteIfExists(rowsFile);
+            Files.deleteIfExists(stringsFile);
+        }
+    }
+
+    /**
+     * Makes a rename into {@code directory} durable; without this a crash can leave the old entry.
+     */
+    static void forceDirectory(Path directory) throws IOException {
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        }
+    }
+
+    private static DataOutputStream open(Path file) throws IOException {
+        return new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file,
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING), BUFFER_BYTES));
+    }
+
+    private static final class Counts {
+        int users;
+        int tasks;
+        final int[] statuses = new int[Task.Status.values().length];
+    }
+
+    private static final class StringHeap {
+        private final DataOutputStream out;
+        private long size;
+
+        StringHeap(DataOutputStream out) {
+            this.out = out;
+        }
+
+        int add(String value) throws IOException {
+            if (value == null) {
+                return -1;
+            }
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("Snapshot string section exceeds 2 GiB");
+            }
+            int ref = (int) size;
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            out.writeInt(bytes.length);
+            out.write(bytes);
+            size += 4 + bytes.length;
+            return ref;
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package com.developer.test.persistence;
+
+import com.developer.test.model.Task;
+import com.developer.test.model.User;
+import com.developer.test.service.DataStore;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * One journaled DataStore write. Every record carries the full state of the affected row, so
+ * replay is an idempotent upsert by id.
+ *
+ * <p>Binary layout: {@code byte type, int id}, then for users {@code name, email, role} and for
+ * tasks {@code title, byte status (ordinal, -1 for null), int userId}. Strings are written as
+ * {@code int byteLength} (-1 for null) followed by UTF-8 bytes.
+ */
+public final class WalRecord {
+    static final byte USER_CREATED = 1;
+    static final byte TASK_CREATED = 2;
+    static final byte TASK_UPDATED = 3;
+
+    private static final Task.Status[] STATUSES = Task.Status.values();
+
+    private final byte type;
+    private final User user;
+    private final Task task;
+
+    private WalRecord(byte type, User user, Task task) {
+        this.type = type;
+        this.user = user;
+        this.task = task;
+    }
+
+    public static WalRecord userCreated(User user) {
+        return new WalRecord(USER_CREATED, copy(user), null);
+    }
+
+    public static WalRecord taskCreated(Task task) {
+        return new WalRecord(TASK_CREATED, null, copy(task));
+    }
+
+    public static WalRecord taskUpdated(Task task) {
+        return new WalRecord(TASK_UPDATED, null, copy(task));
+    }
+
+    public byte getType() {
+        return type;
+    }
+
+    public User getUser() {
+        return user;
+    }
+
+    public Task getTask() {
+        return task;
+    }
+
+    public void applyTo(DataStore dataStore) {
+        if (user != null) {
+            dataStore.restoreUser(copy(user));
+        } else {
+            dataStore.restoreTask(copy(task));
+        }
+    }
+
+    public void writeTo(DataOutput out) throws IOException {
+        out.writeByte(type);
+        if (user != null) {
+            out.writeInt(user.getId());
+            writeString(out, user.getName());
+            writeString(out, user.getEmail());
+            writeString(out, user.getRole());
+        } else {
+            out.writeInt(task.getId());
+            writeString(out, task.getTitle());
+            out.writeByte(task.getStatus() == null ? -1 : task.getStatus().ordinal());
+            out.writeInt(task.getUserId());
+        }
+    }
+
+    public static WalRecord readFrom(DataInput in) throws IOException {
+        byte type = in.readByte();
+        int id = in.readInt();
+        switch (type) {
+            case USER_CREATED:
+                return new WalRecord(type, new User(id, readString(in), readString(in), readString(in)), null);
+            case TASK_CREATED:
+            case TASK_UPDATED:
+                String title = readString(in);
+                byte status = in.readByte();
+                int userId = in.readInt();
+                return new WalRecord(type, null, new Task(id, title, status < 0 ? null : STATUSES[status], userId));
+            default:
+                throw new IOException("Unknown record type " + type);
+        }
+    }
+
+    /**
+     * The record's binary encoding, as framed by the write-ahead log and the replication stream.
+     */
+    public byte[] encode() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64);
+        try {
+            writeTo(new DataOutputStream(bytes));
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        return bytes.toByteArray();
+    }
+
+    public static WalRecord decode(byte[] payload) throws IOException {
+        return readFrom(new DataInputStream(new ByteArrayInputStream(payload)));
+    }
+
+    static void writeString(DataOutput out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    static String readString(DataInput in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    // Records are taken while the live object is locked and applied long after, so they must
+    // not share the mutable model instances held by the store.
+    private static User copy(User user) {
+        return new User(user.getId(), user.getName(), user.getEmail(), user.getRole());
+    }
+
+    private static Task copy(Task task) {
+        return new Task(task.getId(), task.getTitle(), task.getStatus(), task.getUserId());
+    }
+}
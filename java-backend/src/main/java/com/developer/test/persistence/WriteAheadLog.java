@@ -0,0 +1,439 @@
+package com.developer.test.persistence;
+
+import com.developer.test.model.Task;
+import com.developer.test.model.User;
+import com.developer.test.service.Journal;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only binary journal of DataStore writes.
+ *
+ * <p>Each record is framed as {@code int length, int crc32, payload} (see {@link WalRecord}).
+ * Appends are encoded outside any lock and copied into a shared buffer; the buffer is written to
+ * the {@link FileChannel} either when it fills or when a writer needs durability. Under
+ * {@link FsyncPolicy#ALWAYS} the first waiting writer flushes and fsyncs on behalf of everyone
+ * queued behind it (group commit), so concurrent writers share the cost of one fsync.
+ *
+ * <p>The log is split into numbered segment files ({@code <path>.000001}, {@code <path>.000002},
+ * ...). {@link #roll()} seals the active segment and starts the next one, so a snapshot can
+ * record the first segment it does not cover and older segments can be deleted once it is
+ * durable. The lsn returned by each append is the number of bytes appended across all segments.
+ */
+public class WriteAheadLog implements Journal, Closeable {
+    private static final Logger LOGGER = LoggerFactory.getLogger(WriteAheadLog.class);
+
+    private static final int HEADER_BYTES = 8;
+    private static final int MAX_RECORD_BYTES = 16 * 1024 * 1024;
+    private static final int BUFFER_BYTES = 256 * 1024;
+
+    private final Path path;
+    private final FsyncPolicy policy;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_BYTES);
+    // A lock rather than a monitor: waiting writers may be virtual threads, which would pin their
+    // carrier while blocked on a monitor held across an fsync.
+    private final ReentrantLock syncLock = new ReentrantLock();
+    private final ScheduledExecutorService flusher;
+    private final ExecutorService syncer;
+
+    // Guarded by this; replaced only by roll(), which also holds syncLock.
+    private FileChannel channel;
+    private long segment;
+
+    // Guarded by this.
+    private long appended;
+    private long written;
+    private boolean closed;
+
+    private volatile long durable;
+
+    private WriteAheadLog(Path path, long segment, FileChannel channel, long length, FsyncPolicy policy,
+                          long flushIntervalMs) {
+        this.path = path;
+        this.segment = segment;
+        this.channel = channel;
+        this.policy = policy;
+        this.appended = length;
+        this.written = length;
+        this.durable = length;
+        if (policy == FsyncPolicy.ALWAYS) {
+            this.flusher = null;
+            this.syncer = Executors.newSingleThreadExecutor(r -> {
+                Thread thread = new Thread(r, "wal-syncer");
+                thread.setDaemon(true);
+                return thread;
+            });
+        } else {
+            this.syncer = null;
+            this.flusher = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread thread = new Thread(r, "wal-flusher");
+                thread.setDaemon(true);
+                return thread;
+            });
+            this.flusher.scheduleWithFixedDelay(this::backgroundFlush, flushIntervalMs, flushIntervalMs,
+                    TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Opens the log at {@code path}, creating it if needed, and hands every intact record to
+     * {@code replay} in append order. A torn or corrupt tail left by a crash is truncated.
+     */
+    public static WriteAheadLog open(Path path, FsyncPolicy policy, long flushIntervalMs,
+                                     Consumer<WalRecord> replay) throws IOException {
+        return open(path, policy, flushIntervalMs, 1, replay);
+    }
+
+    /**
+     * Like {@link #open(Path, FsyncPolicy, long, Consumer)} but replays only segments numbered
+     * {@code fromSegment} or later; older segments are already covered by a snapshot and are
+     * deleted.
+     */
+    public static WriteAheadLog open(Path path, FsyncPolicy policy, long flushIntervalMs, long fromSegment,
+                                     Consumer<WalRecord> replay) throws IOException {
+        Path parent = path.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        long total = 0;
+        long last = 0;
+        for (long existing : segments(path)) {
+            Path file = segmentPath(path, existing);
+            if (existing < fromSegment) {
+                Files.delete(file);
+                continue;
+            }
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                long valid = replay(channel, replay);
+                if (valid < channel.size()) {
+                    LOGGER.warn("Truncating torn write-ahead log tail path={} validBytes={} fileBytes={}",
+                            file, valid, channel.size());
+                    channel.truncate(valid);
+                    channel.force(true);
+                }
+                total += valid;
+            }
+            last = existing;
+        }
+
+        long active = Math.max(last, Math.max(fromSegment, 1));
+        FileChannel channel = FileChannel.open(segmentPath(path, active),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            channel.position(channel.size());
+            return new WriteAheadLog(path, active, channel, total, policy, flushIntervalMs);
+        } catch (IOException | RuntimeException ex) {
+            channel.close();
+            throw ex;
+        }
+    }
+
+    static Path segmentPath(Path path, long segment) {
+        return path.resolveSibling(path.getFileName() + String.format(".%06d", segment));
+    }
+
+    /**
+     * Segment numbers present on disk for the log at {@code path}, in ascending order.
+     */
+    static List<Long> segments(Path path) throws IOException {
+        Path dir = path.toAbsolutePath().getParent();
+        String prefix = path.getFileName() + ".";
+        List<Long> found = new ArrayList<>();
+        if (dir == null || !Files.isDirectory(dir)) {
+            return found;
+        }
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(dir, prefix + "*")) {
+            for (Path file : files) {
+                String suffix = file.getFileName().toString().substring(prefix.length());
+                if (!suffix.isEmpty() && suffix.chars().allMatch(Character::isDigit)) {
+                    found.add(Long.parseLong(suffix));
+                }
+            }
+        }
+        Collections.sort(found);
+        return found;
+    }
+
+    private static long replay(FileChannel channel, Consumer<WalRecord> replay) throws IOException {
+        channel.position(0);
+        InputStream stream = new BufferedInputStream(Channels.newInputStream(channel), BUFFER_BYTES);
+        DataInputStream in = new DataInputStream(stream);
+        long valid = 0;
+        CRC32 crc = new CRC32();
+        while (true) {
+            byte[] payload;
+            try {
+                int length = in.readInt();
+                int checksum = in.readInt();
+                if (length <= 0 || length > MAX_RECORD_BYTES) {
+                    return valid;
+                }
+                payload = new byte[length];
+                in.readFully(payload);
+                crc.reset();
+                crc.update(payload);
+                if ((int) crc.getValue() != checksum) {
+                    return valid;
+                }
+            } catch (EOFException ex) {
+                return valid;
+            }
+            replay.accept(WalRecord.decode(payload));
+            valid += HEADER_BYTES + payload.length;
+        }
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    public FsyncPolicy getPolicy() {
+        return policy;
+    }
+
+    /**
+     * Number of the segment currently receiving appends.
+     */
+    public synchronized long getSegment() {
+        return segment;
+    }
+
+    /**
+     * Seals the active segment (flushed and fsynced) and directs later appends to a new one.
+     *
+     * @return the number of the new active segment; every record appended before this call lives
+     * in an older segment
+     */
+    public long roll() throws IOException {
+        syncLock.lock();
+        try {
+            synchronized (this) {
+                if (closed) {
+                    throw new IllegalStateException("Write-ahead log is closed");
+                }
+                flushBuffer();
+                channel.force(true);
+                FileChannel next = FileChannel.open(segmentPath(path, segment + 1),
+                        StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+                channel.close();
+                channel = next;
+                segment++;
+                durable = written;
+                return segment;
+            }
+        } finally {
+            syncLock.unlock();
+        }
+    }
+
+    /**
+     * Deletes sealed segments numbered below {@code segment}, typically after a snapshot that
+     * covers them has been made durable.
+     */
+    public void deleteSegmentsBefore(long segment) throws IOException {
+        long active = getSegment();
+        for (long existing : segments(path)) {
+            if (existing < segment && existing < active) {
+                Files.deleteIfExists(segmentPath(path, existing));
+            }
+        }
+    }
+
+    /**
+     * Total bytes appended, including records still buffered in memory.
+     */
+    public synchronized long size() {
+        return appended;
+    }
+
+    @Override
+    public long userCreated(User user) {
+        return append(WalRecord.userCreated(user));
+    }
+
+    @Override
+    public long taskCreated(Task task) {
+        return append(WalRecord.taskCreated(task));
+    }
+
+    @Override
+    public long taskUpdated(Task task) {
+        return append(WalRecord.taskUpdated(task));
+    }
+
+    @Override
+    public void await(long lsn) {
+        if (policy == FsyncPolicy.ALWAYS && durable < lsn) {
+            sync(lsn);
+        }
+    }
+
+    /**
+     * Non-blocking {@link #await}: syncs run one at a time on a dedicated thread, so a burst of
+     * callers is still covered by a single fsync and no caller thread waits on the disk.
+     */
+    @Override
+    public CompletableFuture<Void> whenDurable(long lsn) {
+        if (policy != FsyncPolicy.ALWAYS || durable >= lsn) {
+            return CompletableFuture.completedFuture(null);
+        }
+        try {
+            return CompletableFuture.runAsync(() -> sync(lsn), syncer);
+        } catch (RejectedExecutionException ex) {
+            // Closing; close() itself makes every appended record durable.
+            sync(lsn);
+            return CompletableFuture.completedFuture(null);
+        }
+    }
+
+    /**
+     * Flushes and fsyncs everything appended so far, regardless of the fsync policy.
+     */
+    public void sync() {
+        sync(Long.MAX_VALUE);
+    }
+
+    public long append(WalRecord record) {
+        byte[] payload = record.encode();
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        int frameBytes = HEADER_BYTES + payload.length;
+
+        synchronized (this) {
+            if (closed) {
+                throw new IllegalStateException("Write-ahead log is closed");
+            }
+            try {
+                if (buffer.remaining() < frameBytes) {
+                    flushBuffer();
+                }
+                if (buffer.remaining() < frameBytes) {
+                    ByteBuffer frame = ByteBuffer.allocate(frameBytes);
+                    frame.putInt(payload.length).putInt((int) crc.getValue()).put(payload).flip();
+                    writeFully(frame);
+                } else {
+                    buffer.putInt(payload.length).putInt((int) crc.getValue()).put(payload);
+                }
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+            appended += frameBytes;
+            return appended;
+        }
+    }
+
+    /**
+     * Blocks until every record up to {@code lsn} is on stable storage. Whoever holds
+     * {@code syncLock} flushes everything appended so far, so writers queued behind it usually
+     * find their record already durable and return without a second fsync.
+     */
+    private void sync(long lsn) {
+        syncLock.lock();
+        try {
+            if (durable >= lsn) {
+                return;
+            }
+            long target;
+            FileChannel active;
+            synchronized (this) {
+                if (closed) {
+                    return;
+                }
+                flushBuffer();
+                target = written;
+                active = channel;
+            }
+            active.force(false);
+            durable = target;
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        } finally {
+            syncLock.unlock();
+        }
+    }
+
+    private void backgroundFlush() {
+        try {
+            if (policy == FsyncPolicy.INTERVAL) {
+                sync(Long.MAX_VALUE);
+            } else {
+                synchronized (this) {
+                    if (!closed) {
+                        flushBuffer();
+                    }
+                }
+            }
+        } catch (RuntimeException | IOException ex) {
+            LOGGER.error("Background write-ahead log flush failed path={}", path, ex);
+        }
+    }
+
+    // Caller must hold the monitor of this.
+    private void flushBuffer() throws IOException {
+        if (buffer.position() == 0) {
+            return;
+        }
+        buffer.flip();
+        writeFully(buffer);
+        buffer.clear();
+    }
+
+    // Caller must hold the monitor of this.
+    private void writeFully(ByteBuffer source) throws IOException {
+        while (source.hasRemaining()) {
+            written += channel.write(source);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (flusher != null) {
+            flusher.shutdown();
+        }
+        if (syncer != null) {
+            syncer.shutdown();
+        }
+        syncLock.lock();
+        try {
+            synchronized (this) {
+                if (closed) {
+                    return;
+                }
+                flushBuffer();
+                channel.force(true);
+                durable = written;
+                closed = true;
+                channel.close();
+            }
+        } finally {
+            syncLock.unlock();
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.developer.test.replication;
+
+import com.developer.test.service.ChangeFeed;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Follower side of replication: {@code datastore.mode=replica} serves reads from a
+ * {@link ReplicaDataStore} kept in step with the leader at {@code replication.leader}.
+ */
+@Configuration
+@ConditionalOnProperty(name = "datastore.mode", havingValue = "replica")
+public class ReplicaConfiguration {
+
+    @Bean
+    public ReplicaDataStore dataStore(CacheManager cacheManager, ChangeFeed changeFeed,
+                                      @Value("${datastore.shards:0}") int shards) {
+        return new ReplicaDataStore(cacheManager, changeFeed, shards);
+    }
+
+    @Bean(destroyMethod = "close")
+    public ReplicationFollower replicationFollower(
+            ReplicaDataStore dataStore,
+            ObjectProvider<MeterRegistry> registry,
+            @Value("${replication.leader}") String leader,
+            @Value("${replication.timeout-ms:10000}") int timeoutMillis,
+            @Value("${replication.reconnect-ms:1000}") long reconnectMillis) {
+        ReplicationFollower follower = ReplicationFollower.start(dataStore, leader, timeoutMillis, reconnectMillis);
+        // See ReplicationLeaderConfiguration for why this is not a MeterBinder bean.
+        registry.ifAvailable(follower::bindTo);
+        return follower;
+    }
+}
@@ -0,0 +1,205 @@
+package com.developer.test.replication;
+
+import com.developer.test.dto.BatchResponse;
+import com.developer.test.dto.StatsResponse;
+import com.developer.test.model.Task;
+import com.developer.test.model.User;
+import com.developer.test.service.ChangeFeed;
+import com.developer.test.service.DataStore;
+import com.developer.test.service.Journal;
+import com.developer.test.service.Page;
+import com.developer.test.service.ReadOnlyException;
+import com.developer.test.service.ReadSnapshot;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
+/**
+ * A follower's store: the in-memory {@link DataStore}, filled only by its
+ * {@link ReplicationFollower} through the {@code restore*} paths. Reads, snapshot reads and ETags
+ * work as on the leader; client writes throw {@link ReadOnlyException}. Until the first snapshot
+ * from the leader is loaded, and again while a later one replaces the contents, reads throw
+ * {@link ReplicaLoadingException} rather than answer from a partial store.
+ */
+public class ReplicaDataStore extends DataStore {
+    private final Cache usersCache;
+    private final Cache tasksCache;
+    private volatile boolean loading = true;
+
+    public ReplicaDataStore(CacheManager cacheManager, ChangeFeed changeFeed, int shards) {
+        super(cacheManager, changeFeed, shards);
+        this.usersCache = cacheManager.getCache("users");
+        this.tasksCache = cacheManager.getCache("tasks");
+    }
+
+    /**
+     * Empties the store for a snapshot from the leader; reads are refused until
+     * {@link #snapshotLoaded}.
+     */
+    void loadingSnapshot() {
+        loading = true;
+        clear();
+    }
+
+    void snapshotLoaded() {
+        replicated();
+        loading = false;
+    }
+
+    /**
+     * Drops cached query results after a run of replicated records, which bypass the per-write
+     * eviction of the regular write paths.
+     */
+    void replicated() {
+        if (usersCache != null) {
+            usersCache.clear();
+        }
+        if (tasksCache != null) {
+            tasksCache.clear();
+        }
+    }
+
+    @Override
+    public List<User> getUsers() {
+        checkLoaded();
+        return super.getUsers();
+    }
+
+    @Override
+    public Page<User> getUsersPage(Integer cursor, int limit, boolean descending) {
+        checkLoaded();
+        return super.getUsersPage(cursor, limit, descending);
+    }
+
+    @Override
+    public void forEachUser(Consumer<User> action) {
+        checkLoaded();
+        super.forEachUser(action);
+    }
+
+    @Override
+    public User getUserById(int id) {
+        checkLoaded();
+        return super.getUserById(id);
+    }
+
+    @Override
+    public List<Task> getTasks(String status, String userId) {
+        checkLoaded();
+        return super.getTasks(status, userId);
+    }
+
+    @Override
+    public Page<Task> getTasksPage(String status, String userId, Integer cursor, int limit, boolean descending) {
+        checkLoaded();
+        return super.getTasksPage(status, userId, cursor, limit, descending);
+    }
+
+    @Override
+    public void forEachTask(String status, String userId, Consumer<Task> action) {
+        checkLoaded();
+        super.forEachTask(status, userId, action);
+    }
+
+    @Override
+    public StatsResponse getStats() {
+        checkLoaded();
+        return super.getStats();
+    }
+
+    @Override
+    public ReadSnapshot openSnapshot() {
+        checkLoaded();
+        return super.openSnapshot();
+    }
+
+    @Override
+    public ReadSnapshot leaseSnapshot() {
+        checkLoaded();
+        return super.leaseSnapshot();
+    }
+
+    @Override
+    public ReadSnapshot leasedSnapshot(long version) {
+        checkLoaded();
+        return super.leasedSnapshot(version);
+    }
+
+    private void checkLoaded() {
+        if (loading) {
+            throw new ReplicaLoadingException("Replica is loading a snapshot from the leader; try again shortly");
+        }
+    }
+
+    @Override
+    public void setJournal(Journal journal) {
+        throw readOnly();
+    }
+
+    @Override
+    public User createUser(User user) {
+        throw readOnly();
+    }
+
+    @Override
+    public Task createTask(Task task) {
+        throw readOnly();
+    }
+
+    @Override
+    public CompletableFuture<User> createUserAsync(User user) {
+        throw readOnly();
+    }
+
+    @Override
+    public CompletableFuture<Task> createTaskAsync(Task task) {
+        throw readOnly();
+    }
+
+    @Override
+    public List<BatchResponse.Item> createUsers(List<User> batch) {
+        throw readOnly();
+    }
+
+    @Override
+    public CompletableFuture<List<BatchResponse.Item>> createUsersAsync(List<User> batch) {
+        throw readOnly();
+    }
+
+    @Override
+    public List<BatchResponse.Item> createTasks(List<Task> batch) {
+        throw readOnly();
+    }
+
+    @Override
+    public CompletableFuture<List<BatchResponse.Item>> createTasksAsync(List<Task> batch) {
+        throw readOnly();
+    }
+
+    @Override
+    public List<BatchResponse.Item> updateTasks(List<Task> batch) {
+        throw readOnly();
+    }
+
+    @Override
+    public CompletableFuture<List<BatchResponse.Item>> updateTasksAsync(List<Task> batch) {
+        throw readOnly();
+    }
+
+    @Override
+    public Task updateTask(int id, Task updated) {
+        throw readOnly();
+    }
+
+    @Override
+    public CompletableFuture<Task> updateTaskAsync(int id, Task updated) {
+        throw readOnly();
+    }
+
+    private static ReadOnlyException readOnly() {
+        return new ReadOnlyException("Replicas are read-only; send writes to the leader");
+    }
+}
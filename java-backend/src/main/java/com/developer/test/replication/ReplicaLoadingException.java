@@ -0,0 +1,15 @@
+package com.developer.test.replication;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * A read reached a replica that is still loading a snapshot from its leader, so its store holds
+ * only part of the data.
+ */
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class ReplicaLoadingException extends RuntimeException {
+    public ReplicaLoadingException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,261 @@
+package com.developer.test.replication;
+
+import com.developer.test.persistence.WalRecord;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Keeps a {@link ReplicaDataStore} in step with a leader's {@link ReplicationServer}: connects,
+ * applies the snapshot and records it is sent on a single thread, in order, and reconnects after
+ * {@code reconnectMillis} whenever the stream breaks. A reconnect resumes after the last applied
+ * record when the leader still has it.
+ *
+ * <p>Replication lag is published as {@code replication.lag.records}, how many records the leader
+ * has announced that are not applied yet, and {@code replication.lag.seconds}, how old the applied
+ * state is by the leader's clock: 0 while caught up, otherwise the time since the leader logged
+ * the last record applied (or last reported being idle). Both compare against what the leader has
+ * sent so far, so while disconnected only the seconds keep growing.
+ */
+public class ReplicationFollower implements Closeable {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ReplicationFollower.class);
+    private static final int BUFFER_BYTES = 64 * 1024;
+
+    private final ReplicaDataStore dataStore;
+    private final String host;
+    private final int port;
+    private final int timeoutMillis;
+    private final long reconnectMillis;
+    private final Thread thread;
+    private final LongAdder appliedRecords = new LongAdder();
+    private final LongAdder snapshots = new LongAdder();
+    private volatile Socket socket;
+    private volatile boolean closed;
+
+    // Written only by the replication thread.
+    private volatile long epoch;
+    private volatile long applied;
+    private volatile long leaderSequence;
+    private volatile long freshAsOfMillis;
+    private volatile boolean connected;
+
+    private ReplicationFollower(ReplicaDataStore dataStore, String host, int port, int timeoutMillis,
+                                long reconnectMillis) {
+        this.dataStore = dataStore;
+        this.host = host;
+        this.port = port;
+        this.timeoutMillis = timeoutMillis;
+        this.reconnectMillis = reconnectMillis;
+        this.thread = new Thread(this::run, "replication-follower");
+        this.thread.setDaemon(true);
+    }
+
+    /**
+     * Starts following the leader at {@code leader}, written as {@code host:port}.
+     *
+     * @param timeoutMillis connect timeout, and how long a silent leader is waited for; keep it
+     *                      well above the leader's heartbeat interval
+     */
+    public static ReplicationFollower start(ReplicaDataStore dataStore, String leader, int timeoutMillis,
+                                            long reconnectMillis) {
+        int colon = leader.lastIndexOf(':');
+        if (colon <= 0 || colon == leader.length() - 1) {
+            throw new IllegalArgumentException("replication.leader must be host:port, was " + leader);
+        }
+        ReplicationFollower follower = new ReplicationFollower(dataStore, leader.substring(0, colon).trim(),
+                Integer.parseInt(leader.substring(colon + 1).trim()), timeoutMillis, reconnectMillis);
+        follower.thread.start();
+        return follower;
+    }
+
+    public boolean isConnected() {
+        return connected;
+    }
+
+    /**
+     * Sequence of the last record applied; 0 until the first snapshot has been applied.
+     */
+    public long getAppliedSequence() {
+        return applied;
+    }
+
+    public long getLagRecords() {
+        return Math.max(0, leaderSequence - applied);
+    }
+
+    /**
+     * {@code NaN} until the first snapshot has been applied.
+     */
+    public double getLagSeconds() {
+        long fresh = freshAsOfMillis;
+        if (fresh == 0) {
+            return Double.NaN;
+        }
+        if (connected && applied >= leaderSequence) {
+            return 0;
+        }
+        return Math.max(0, System.currentTimeMillis() - fresh) / 1000.0;
+    }
+
+    public long getAppliedCount() {
+        return appliedRecords.sum();
+    }
+
+    public long getSnapshotCount() {
+        return snapshots.sum();
+    }
+
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("replication.lag.records", this, ReplicationFollower::getLagRecords)
+                .description("Records the leader has announced that this follower has not applied")
+                .register(registry);
+        Gauge.builder("replication.lag.seconds", this, ReplicationFollower::getLagSeconds)
+                .description("Age of this follower's data by the leader's clock; 0 when caught up")
+                .register(registry);
+        Gauge.builder("replication.connected", this, follower -> follower.isConnected() ? 1 : 0)
+                .description("1 while streaming from the leader")
+                .register(registry);
+        FunctionCounter.builder("replication.applied", this, ReplicationFollower::getAppliedCount)
+                .description("Streamed records applied, not counting snapshot rows")
+                .register(registry);
+        FunctionCounter.builder("replication.snapshots", this, ReplicationFollower::getSnapshotCount)
+                .description("Full snapshots received from the leader")
+                .register(registry);
+    }
+
+    private void run() {
+        int failures = 0;
+        while (!closed) {
+            try {
+                follow();
+            } catch (IOException | RuntimeException ex) {
+                // Warn once per outage; retries against a leader that is still down log at debug.
+                if (closed) {
+                    return;
+                } else if (connected || failures == 0) {
+                    LOGGER.warn("replication stream from {}:{} broke reason={}", host, port, ex.toString());
+                } else {
+                    LOGGER.debug("replication reconnect to {}:{} failed reason={}", host, port, ex.toString());
+                }
+                failures = connected ? 1 : failures + 1;
+            } finally {
+                connected = false;
+            }
+            try {
+                Thread.sleep(reconnectMillis);
+            } catch (InterruptedException ex) {
+                return;
+            }
+        }
+    }
+
+    private void follow() throws IOException {
+        try (Socket connection = new Socket()) {
+            socket = connection;
+            if (closed) {
+                return;
+            }
+            connection.connect(new InetSocketAddress(host, port), timeoutMillis);
+            connection.setSoTimeout(timeoutMillis);
+            connection.setTcpNoDelay(true);
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(connection.getOutputStream()));
+            out.writeInt(ReplicationProtocol.MAGIC);
+            out.writeLong(epoch);
+            out.writeLong(applied + 1);
+            out.flush();
+
+            DataInputStream in = new DataInputStream(new BufferedInputStream(connection.getInputStream(), BUFFER_BYTES));
+            if (in.readInt() != ReplicationProtocol.MAGIC) {
+                throw new IOException("Not a replication leader");
+            }
+            long leaderEpoch = in.readLong();
+            connected = true;
+            LOGGER.info("replication connected leader={}:{} epoch={} from={}", host, port, leaderEpoch, applied + 1);
+            while (!closed) {
+                byte kind = in.readByte();
+                switch (kind) {
+                    case ReplicationProtocol.SNAPSHOT_BEGIN:
+                        dataStore.loadingSnapshot();
+                        epoch = leaderEpoch;
+                        applied = 0;
+                        leaderSequence = 0;
+                        break;
+                    case ReplicationProtocol.SNAPSHOT_RECORD:
+                        WalRecord.decode(readPayload(in)).applyTo(dataStore);
+                        break;
+                    case ReplicationProtocol.SNAPSHOT_END:
+                        applied = in.readLong();
+                        leaderSequence = applied;
+                        freshAsOfMillis = in.readLong();
+                        snapshots.increment();
+                        dataStore.snapshotLoaded();
+                        LOGGER.info("replication snapshot applied leader={}:{} sequence={}", host, port, applied);
+                        break;
+                    case ReplicationProtocol.RECORD:
+                        long sequence = in.readLong();
+                        long timestamp = in.readLong();
+                        byte[] payload = readPayload(in);
+                        if (sequence != applied + 1) {
+                            throw new IOException("Expected record " + (applied + 1) + " but got " + sequence);
+                        }
+                        leaderSequence = Math.max(leaderSequence, sequence);
+                        WalRecord.decode(payload).applyTo(dataStore);
+                        applied = sequence;
+                        freshAsOfMillis = timestamp;
+                        appliedRecords.increment();
+                        if (in.available() == 0) {
+                            // Evict once per burst rather than per record.
+                            dataStore.replicated();
+                        }
+                        break;
+                    case ReplicationProtocol.HEARTBEAT:
+                        leaderSequence = in.readLong();
+                        long heartbeat = in.readLong();
+                        if (applied >= leaderSequence) {
+                            freshAsOfMillis = heartbeat;
+                        }
+                        break;
+                    default:
+                        throw new IOException("Unknown replication frame " + kind);
+                }
+            }
+        }
+    }
+
+    private static byte[] readPayload(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length <= 0 || length > ReplicationProtocol.MAX_RECORD_BYTES) {
+            throw new IOException("Bad replication record length " + length);
+        }
+        byte[] payload = new byte[length];
+        in.readFully(payload);
+        return payload;
+    }
+
+    @Override
+    public void close() throws IOException {
+        closed = true;
+        Socket current = socket;
+        if (current != null) {
+            current.close();
+        }
+        thread.interrupt();
+        try {
+            thread.join(timeoutMillis);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
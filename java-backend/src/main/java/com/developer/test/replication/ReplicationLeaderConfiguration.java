@@ -0,0 +1,44 @@
+package com.developer.test.replication;
+
+import com.developer.test.persistence.DataStorePersistence;
+import com.developer.test.service.DataStore;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+
+/**
+ * Leader side of replication: {@code replication.port} above 0 streams every write of this
+ * instance's store to followers connecting on that port, on loopback unless
+ * {@code replication.bind-address} names another interface; see {@link ReplicationServer}. Read-only
+ * stores have no writes to stream, and a cluster node holds only part of the data.
+ */
+@Configuration
+@ConditionalOnExpression("${replication.port:0} > 0 and '${datastore.mode:heap}' != 'mapped'"
+        + " and '${datastore.mode:heap}' != 'replica' and '${datastore.mode:heap}' != 'cluster'")
+public class ReplicationLeaderConfiguration {
+
+    @Bean(destroyMethod = "close")
+    public ReplicationServer replicationServer(
+            DataStore dataStore,
+            ObjectProvider<DataStorePersistence> persistence,
+            ObjectProvider<MeterRegistry> registry,
+            @Value("${replication.bind-address:127.0.0.1}") String bindAddress,
+            @Value("${replication.port}") int port,
+            @Value("${replication.buffer-size:65536}") int bufferSize,
+            @Value("${replication.heartbeat-ms:1000}") long heartbeatMillis) throws IOException {
+        // Recover first, so the log wraps the write-ahead log instead of being replaced by it.
+        persistence.getIfAvailable();
+        ReplicationLog log = new ReplicationLog(dataStore.getJournal(), bufferSize);
+        dataStore.setJournal(log);
+        ReplicationServer server = ReplicationServer.start(dataStore, log, bindAddress, port, heartbeatMillis);
+        // Bound here rather than as a MeterBinder bean: the registry binds those while it is being
+        // created, and the store this server needs may itself be waiting on the registry.
+        registry.ifAvailable(server::bindTo);
+        return server;
+    }
+}
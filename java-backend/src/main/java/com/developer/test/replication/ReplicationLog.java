@@ -0,0 +1,141 @@
+package com.developer.test.replication;
+
+import com.developer.test.model.Task;
+import com.developer.test.model.User;
+import com.developer.test.persistence.WalRecord;
+import com.developer.test.service.Journal;
+
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * The leader's journal: passes every write to the journal it wraps (the write-ahead log, or
+ * {@link Journal#NONE}) and then appends the same {@link WalRecord}, encoded once, to a bounded
+ * ring that {@link ReplicationServer} streams to followers. Sequence numbers start at 1 and follow
+ * journal order, which replays to the leader's state.
+ *
+ * <p>Replication is asynchronous: durability is whatever the wrapped journal promises, and no
+ * write waits for a follower. A follower that falls a full ring behind is sent a snapshot instead.
+ */
+public class ReplicationLog implements Journal {
+    private final Journal delegate;
+    private final AtomicReferenceArray<Entry> ring;
+    private final int mask;
+    // Tells a reconnecting follower whether its sequence numbers came from this log.
+    private final long epoch = UUID.randomUUID().getMostSignificantBits();
+
+    // Guarded by this; published is the last sequence whose entry is in the ring.
+    private long nextSequence = 1;
+    private volatile long published;
+
+    public ReplicationLog(Journal delegate, int capacity) {
+        if (capacity < 2) {
+            throw new IllegalArgumentException("replication.buffer-size must be at least 2");
+        }
+        int size = Integer.highestOneBit(capacity - 1) << 1;
+        this.delegate = delegate;
+        this.ring = new AtomicReferenceArray<>(size);
+        this.mask = size - 1;
+    }
+
+    static final class Entry {
+        final long sequence;
+        final long timestampMillis;
+        final byte[] payload;
+
+        Entry(long sequence, long timestampMillis, byte[] payload) {
+            this.sequence = sequence;
+            this.timestampMillis = timestampMillis;
+            this.payload = payload;
+        }
+    }
+
+    @Override
+    public long userCreated(User user) {
+        long lsn = delegate.userCreated(user);
+        append(WalRecord.userCreated(user));
+        return lsn;
+    }
+
+    @Override
+    public long taskCreated(Task task) {
+        long lsn = delegate.taskCreated(task);
+        append(WalRecord.taskCreated(task));
+        return lsn;
+    }
+
+    @Override
+    public long taskUpdated(Task task) {
+        long lsn = delegate.taskUpdated(task);
+        append(WalRecord.taskUpdated(task));
+        return lsn;
+    }
+
+    @Override
+    public void await(long lsn) {
+        delegate.await(lsn);
+    }
+
+    @Override
+    public CompletableFuture<Void> whenDurable(long lsn) {
+        return delegate.whenDurable(lsn);
+    }
+
+    // Called after the wrapped journal accepted the record, so a write it rejects never ships.
+    private void append(WalRecord record) {
+        byte[] payload = record.encode();
+        long now = System.currentTimeMillis();
+        synchronized (this) {
+            long sequence = nextSequence++;
+            ring.set((int) sequence & mask, new Entry(sequence, now, payload));
+            published = sequence;
+            notifyAll();
+        }
+    }
+
+    public long getEpoch() {
+        return epoch;
+    }
+
+    public long getPublished() {
+        return published;
+    }
+
+    public int getCapacity() {
+        return mask + 1;
+    }
+
+    /**
+     * The entry at {@code sequence}, or {@code null} once it has been overwritten.
+     */
+    Entry get(long sequence) {
+        Entry entry = ring.get((int) sequence & mask);
+        return entry != null && entry.sequence == sequence ? entry : null;
+    }
+
+    /**
+     * Whether a stream can resume at {@code sequence} without a snapshot.
+     */
+    boolean canResumeAt(long sequence) {
+        long head = published;
+        return sequence >= 1 && sequence <= head + 1 && head - sequence < ring.length() - 1;
+    }
+
+    /**
+     * Waits until something after {@code sequence} is published or the timeout passes, and
+     * returns the latest published sequence.
+     */
+    synchronized long awaitAfter(long sequence, long timeoutMillis) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        while (published <= sequence) {
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                break;
+            }
+            TimeUnit.NANOSECONDS.timedWait(this, remaining);
+        }
+        return published;
+    }
+}
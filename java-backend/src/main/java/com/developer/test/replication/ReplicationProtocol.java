@@ -0,0 +1,35 @@
+package com.developer.test.replication;
+
+/**
+ * Wire format between a leader's {@link ReplicationServer} and a {@link ReplicationFollower}, in
+ * big-endian {@link java.io.DataOutput} encoding.
+ *
+ * <p>The follower opens with {@code int MAGIC, long epoch, long nextSequence}: the leader epoch
+ * and the first sequence it still needs, or zeros on first contact. The leader answers
+ * {@code int MAGIC, long epoch} and then streams frames, each a {@code byte} kind followed by:
+ * <ul>
+ *   <li>{@link #SNAPSHOT_BEGIN}: nothing; the follower drops its data.</li>
+ *   <li>{@link #SNAPSHOT_RECORD}: {@code int length} and a {@code WalRecord} encoding.</li>
+ *   <li>{@link #SNAPSHOT_END}: {@code long sequence, long timestampMillis}; the snapshot covers
+ *       every record up to {@code sequence} and the stream continues after it.</li>
+ *   <li>{@link #RECORD}: {@code long sequence, long timestampMillis, int length} and a
+ *       {@code WalRecord} encoding.</li>
+ *   <li>{@link #HEARTBEAT}: {@code long sequence, long timestampMillis}, the latest sequence
+ *       the leader has published, sent when no record was for a heartbeat interval.</li>
+ * </ul>
+ * Timestamps are the leader's {@link System#currentTimeMillis()}.
+ */
+final class ReplicationProtocol {
+    // "JTRP"
+    static final int MAGIC = 0x4A545250;
+    static final int MAX_RECORD_BYTES = 16 * 1024 * 1024;
+
+    static final byte SNAPSHOT_BEGIN = 1;
+    static final byte SNAPSHOT_RECORD = 2;
+    static final byte SNAPSHOT_END = 3;
+    static final byte RECORD = 4;
+    static final byte HEARTBEAT = 5;
+
+    private ReplicationProtocol() {
+    }
+}
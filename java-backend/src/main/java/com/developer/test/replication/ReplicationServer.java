@@ -0,0 +1,243 @@
+package com.developer.test.replication;
+
+import com.developer.test.persistence.WalRecord;
+import com.developer.test.service.DataStore;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketAddress;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Streams a leader's {@link ReplicationLog} to followers over TCP, one sender thread per follower;
+ * see {@link ReplicationProtocol} for the frames. A follower resumes where it left off while its
+ * next record is still in the ring. Otherwise, and on first contact, it is sent a snapshot of the
+ * store followed by the records logged since the snapshot began.
+ *
+ * <p>The snapshot is taken the same way {@code DataStorePersistence} takes one: the latest
+ * sequence is read first and {@link DataStore#snapshot} waits for the writes already in flight,
+ * so the snapshot reflects every record up to that sequence. Rows it captured at a newer state are
+ * overwritten again by the records that follow, which are full-row upserts, so the follower
+ * converges.
+ */
+public class ReplicationServer implements Closeable {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ReplicationServer.class);
+    private static final int HANDSHAKE_TIMEOUT_MILLIS = 10_000;
+    private static final int BUFFER_BYTES = 64 * 1024;
+
+    private final DataStore dataStore;
+    private final ReplicationLog log;
+    private final long heartbeatMillis;
+    private final ServerSocket serverSocket;
+    private final Set<Sender> senders = ConcurrentHashMap.newKeySet();
+    private final LongAdder snapshots = new LongAdder();
+    private volatile boolean closed;
+
+    private ReplicationServer(DataStore dataStore, ReplicationLog log, ServerSocket serverSocket, long heartbeatMillis) {
+        this.dataStore = dataStore;
+        this.log = log;
+        this.serverSocket = serverSocket;
+        this.heartbeatMillis = heartbeatMillis;
+    }
+
+    /**
+     * Listens on {@code bindAddress}:{@code port} (0 picks a free port) and starts accepting
+     * followers. Followers are not authenticated and are sent every row, so bind to an interface
+     * only replicas can reach.
+     */
+    public static ReplicationServer start(DataStore dataStore, ReplicationLog log, String bindAddress, int port,
+                                          long heartbeatMillis) throws IOException {
+        ServerSocket serverSocket = new ServerSocket();
+        serverSocket.setReuseAddress(true);
+        serverSocket.bind(new InetSocketAddress(bindAddress, port));
+        ReplicationServer server = new ReplicationServer(dataStore, log, serverSocket, heartbeatMillis);
+        Thread acceptor = new Thread(server::accept, "replication-acceptor");
+        acceptor.setDaemon(true);
+        acceptor.start();
+        LOGGER.info("replication leader listening address={} port={} epoch={} bufferSize={}",
+                serverSocket.getInetAddress().getHostAddress(), server.getPort(), log.getEpoch(), log.getCapacity());
+        return server;
+    }
+
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    public int getFollowerCount() {
+        return senders.size();
+    }
+
+    public long getSnapshotCount() {
+        return snapshots.sum();
+    }
+
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("replication.leader.followers", this, ReplicationServer::getFollowerCount)
+                .description("Followers currently streaming from this leader")
+                .register(registry);
+        Gauge.builder("replication.leader.sequence", log, ReplicationLog::getPublished)
+                .description("Last replication sequence published by this leader")
+                .register(registry);
+        FunctionCounter.builder("replication.leader.snapshots", this, ReplicationServer::getSnapshotCount)
+                .description("Snapshots sent to followers that were new or too far behind to resume")
+                .register(registry);
+    }
+
+    private void accept() {
+        while (!closed) {
+            Socket socket;
+            try {
+                socket = serverSocket.accept();
+            } catch (IOException ex) {
+                if (!closed) {
+                    LOGGER.error("replication accept failed port={}", getPort(), ex);
+                }
+                continue;
+            }
+            Sender sender = new Sender(socket);
+            senders.add(sender);
+            Thread thread = new Thread(sender, "replication-sender-" + socket.getPort());
+            thread.setDaemon(true);
+            thread.start();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        closed = true;
+        serverSocket.close();
+        for (Sender sender : senders) {
+            sender.close();
+        }
+    }
+
+    private final class Sender implements Runnable {
+        final Socket socket;
+        final SocketAddress remote;
+
+        Sender(Socket socket) {
+            this.socket = socket;
+            this.remote = socket.getRemoteSocketAddress();
+        }
+
+        @Override
+        public void run() {
+            try {
+                socket.setTcpNoDelay(true);
+                socket.setSoTimeout(HANDSHAKE_TIMEOUT_MILLIS);
+                DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+                DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream(), BUFFER_BYTES));
+                if (in.readInt() != ReplicationProtocol.MAGIC) {
+                    throw new IOException("Not a replication follower");
+                }
+                long epoch = in.readLong();
+                long next = in.readLong();
+                out.writeInt(ReplicationProtocol.MAGIC);
+                out.writeLong(log.getEpoch());
+                boolean resume = epoch == log.getEpoch() && log.canResumeAt(next);
+                LOGGER.info("replication follower connected remote={} from={} resume={}", remote, next, resume);
+                stream(out, resume ? next : sendSnapshot(out));
+            } catch (IOException | UncheckedIOException ex) {
+                if (!closed) {
+                    LOGGER.info("replication follower disconnected remote={} reason={}", remote, ex.toString());
+                }
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            } finally {
+                close();
+                senders.remove(this);
+            }
+        }
+
+        private void stream(DataOutputStream out, long next) throws IOException, InterruptedException {
+            while (!closed) {
+                out.flush();
+                long head = log.awaitAfter(next - 1, heartbeatMillis);
+                if (head < next) {
+                    out.writeByte(ReplicationProtocol.HEARTBEAT);
+                    out.writeLong(head);
+                    out.writeLong(System.currentTimeMillis());
+                    continue;
+                }
+                while (next <= head) {
+                    ReplicationLog.Entry entry = log.get(next);
+                    if (entry == null) {
+                        // Writers lapped this follower while it was being sent to.
+                        LOGGER.info("replication follower fell behind remote={} at={} head={}", remote, next, head);
+                        next = sendSnapshot(out);
+                        break;
+                    }
+                    out.writeByte(ReplicationProtocol.RECORD);
+                    out.writeLong(entry.sequence);
+                    out.writeLong(entry.timestampMillis);
+                    out.writeInt(entry.payload.length);
+                    out.write(entry.payload);
+                    next++;
+                }
+            }
+        }
+
+        /**
+         * Sends the whole store and returns the sequence to stream from afterwards.
+         */
+        private long sendSnapshot(DataOutputStream out) throws IOException {
+            long startNanos = System.nanoTime();
+            long covered = log.getPublished();
+            long timestamp = System.currentTimeMillis();
+            long[] rows = new long[1];
+            out.writeByte(ReplicationProtocol.SNAPSHOT_BEGIN);
+            try {
+                dataStore.snapshot(user -> {
+                    writeSnapshotRecord(out, WalRecord.userCreated(user));
+                    rows[0]++;
+                }, task -> {
+                    writeSnapshotRecord(out, WalRecord.taskCreated(task));
+                    rows[0]++;
+                });
+            } catch (UncheckedIOException ex) {
+                throw ex.getCause();
+            }
+            out.writeByte(ReplicationProtocol.SNAPSHOT_END);
+            out.writeLong(covered);
+            out.writeLong(timestamp);
+            snapshots.increment();
+            LOGGER.info("replication snapshot sent remote={} rows={} sequence={} durationMs={}",
+                    remote, rows[0], covered, (System.nanoTime() - startNanos) / 1_000_000);
+            return covered + 1;
+        }
+
+        private void writeSnapshotRecord(DataOutputStream out, WalRecord record) {
+            byte[] payload = record.encode();
+            try {
+                out.writeByte(ReplicationProtocol.SNAPSHOT_RECORD);
+                out.writeInt(payload.length);
+                out.write(payload);
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        }
+
+        void close() {
+            try {
+                socket.close();
+            } catch (IOException ex) {
+                // Closing anyway.
+            }
+        }
+    }
+}
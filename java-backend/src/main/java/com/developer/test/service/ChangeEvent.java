@@ -0,0 +1,89 @@
+package com.developer.test.service;
+
+import com.developer.test.dto.StatsResponse;
+import com.developer.test.model.Task;
+import com.developer.test.model.User;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.util.Collections;
+
+/**
+ * One entry of the {@link ChangeFeed}. {@code type} is the SSE event name and {@code data} its
+ * payload: a copy of the created or updated record, or a {@link StatsResponse} holding the change
+ * in each count (negative for decrements). The JSON form is rendered once and shared by every
+ * subscriber.
+ */
+public final class ChangeEvent {
+    public static final String TASK_CREATED = "task.created";
+    public static final String TASK_UPDATED = "task.updated";
+    public static final String USER_CREATED = "user.created";
+    public static final String STATS = "stats";
+    /** Sent once to a subscriber that fell too far behind; it must reload and reconnect. */
+    public static final String RESYNC = "resync";
+    /** Keep-alive with no payload; sent as an SSE comment. */
+    public static final String HEARTBEAT = "heartbeat";
+
+    static final ChangeEvent HEARTBEAT_EVENT = new ChangeEvent(0, HEARTBEAT, null);
+
+    private final long sequence;
+    private final String type;
+    private final Object data;
+    private volatile String json;
+
+    private ChangeEvent(long sequence, String type, Object data) {
+        this.sequence = sequence;
+        this.type = type;
+        this.data = data;
+    }
+
+    static ChangeEvent taskCreated(long sequence, Task task) {
+        return new ChangeEvent(sequence, TASK_CREATED, copy(task));
+    }
+
+    static ChangeEvent taskUpdated(long sequence, Task task) {
+        return new ChangeEvent(sequence, TASK_UPDATED, copy(task));
+    }
+
+    static ChangeEvent userCreated(long sequence, User user) {
+        return new ChangeEvent(sequence, USER_CREATED,
+                new User(user.getId(), user.getName(), user.getEmail(), user.getRole()));
+    }
+
+    static ChangeEvent stats(long sequence, StatsResponse delta) {
+        return new ChangeEvent(sequence, STATS, delta);
+    }
+
+    static ChangeEvent resync(long latestSequence) {
+        return new ChangeEvent(latestSequence, RESYNC, Collections.singletonMap("sequence", latestSequence));
+    }
+
+    private static Task copy(Task task) {
+        return new Task(task.getId(), task.getTitle(), task.getStatus(), task.getUserId());
+    }
+
+    public long getSequence() {
+        return sequence;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public Object getData() {
+        return data;
+    }
+
+    public String toJson(ObjectMapper mapper) {
+        String rendered = json;
+        if (rendered == null) {
+            try {
+                rendered = mapper.writeValueAsString(data);
+            } catch (JsonProcessingException ex) {
+                throw new IllegalStateException("Could not serialize " + type + " event", ex);
+            }
+            json = rendered;
+        }
+        return rendered;
+    }
+}
@@ -0,0 +1,304 @@
+package com.developer.test.service;
+
+import com.developer.test.dto.StatsResponse;
+import com.developer.test.model.Task;
+import com.developer.test.model.User;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.FluxSink;
+
+import javax.annotation.PreDestroy;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+
+/**
+ * Broadcasts {@link DataStore} writes to any number of subscribers through one shared, bounded
+ * ring of {@link ChangeEvent}s. Writers only append to the ring; a single dispatcher thread then
+ * moves each subscriber's cursor forward as far as that subscriber has demand, so a slow client
+ * never holds up writers or other clients. A subscriber whose cursor falls a full ring behind is
+ * sent {@link ChangeEvent#RESYNC} and completed, or simply completed if it has no demand left.
+ *
+ * <p>Every task write publishes the task event followed by a {@link ChangeEvent#STATS} delta;
+ * user creates do the same with a user event. Sequence numbers start at 1 and are the SSE event
+ * ids, so a reconnecting client resumes from its {@code Last-Event-ID} while that event is still
+ * in the ring.
+ */
+@Service
+public class ChangeFeed implements MeterBinder {
+    static final int DEFAULT_CAPACITY = 4096;
+    static final long DEFAULT_HEARTBEAT_MILLIS = 15_000;
+
+    private final AtomicReferenceArray<ChangeEvent> ring;
+    private final int mask;
+    private final long heartbeatMillis;
+
+    // Guarded by this; published is the last sequence whose event is in the ring.
+    private long nextSequence = 1;
+    private volatile long published;
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean dispatchPending = new AtomicBoolean();
+    private final LongAdder resyncs = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private volatile ScheduledExecutorService dispatcher;
+    private volatile boolean closed;
+
+    public ChangeFeed() {
+        this(DEFAULT_CAPACITY, DEFAULT_HEARTBEAT_MILLIS);
+    }
+
+    @Autowired
+    public ChangeFeed(@Value("${changes.buffer-size:4096}") int capacity,
+                      @Value("${changes.heartbeat-ms:15000}") long heartbeatMillis) {
+        if (capacity < 2) {
+            throw new IllegalArgumentException("changes.buffer-size must be at least 2");
+        }
+        int size = Integer.highestOneBit(capacity - 1) << 1;
+        this.ring = new AtomicReferenceArray<>(size);
+        this.mask = size - 1;
+        this.heartbeatMillis = heartbeatMillis;
+    }
+
+    public void taskCreated(Task task) {
+        StatsResponse delta = new StatsResponse();
+        delta.getTasks().setTotal(1);
+        adjust(delta.getTasks(), task.getStatus(), 1);
+        synchronized (this) {
+            append(ChangeEvent.taskCreated(nextSequence++, task));
+            append(ChangeEvent.stats(nextSequence++, delta));
+        }
+        signal();
+    }
+
+    /**
+     * Publishes the post-update state of {@code task}; the stats delta is only sent when the
+     * status changed.
+     */
+    public void taskUpdated(Task task, Task.Status oldStatus) {
+        synchronized (this) {
+            append(ChangeEvent.taskUpdated(nextSequence++, task));
+            if (task.getStatus() != oldStatus) {
+                StatsResponse delta = new StatsResponse();
+                adjust(delta.getTasks(), oldStatus, -1);
+                adjust(delta.getTasks(), task.getStatus(), 1);
+                append(ChangeEvent.stats(nextSequence++, delta));
+            }
+        }
+        signal();
+    }
+
+    public void userCreated(User user) {
+        StatsResponse delta = new StatsResponse();
+        delta.getUsers().setTotal(1);
+        synchronized (this) {
+            append(ChangeEvent.userCreated(nextSequence++, user));
+            append(ChangeEvent.stats(nextSequence++, delta));
+        }
+        signal();
+    }
+
+    private static void adjust(StatsResponse.TasksStats stats, Task.Status status, int by) {
+        if (status == Task.Status.PENDING) {
+            stats.setPending(stats.getPending() + by);
+        } else if (status == Task.Status.IN_PROGRESS) {
+            stats.setInProgress(stats.getInProgress() + by);
+        } else if (status == Task.Status.COMPLETED) {
+            stats.setCompleted(stats.getCompleted() + by);
+        }
+    }
+
+    // Caller must hold this.
+    private void append(ChangeEvent event) {
+        ring.set((int) event.getSequence() & mask, event);
+        published = event.getSequence();
+    }
+
+    /**
+     * Streams events after {@code lastSequence} (or only new events when it is negative) whose
+     * type starts with one of {@code types}; an empty set means every type. A {@code lastSequence}
+     * that is no longer in the ring, or that this feed never issued, yields an immediate
+     * {@link ChangeEvent#RESYNC}. Heartbeats are emitted every {@code changes.heartbeat-ms}.
+     */
+    public Flux<ChangeEvent> subscribe(long lastSequence, Set<String> types) {
+        Predicate<String> filter = types.isEmpty()
+                ? type -> true
+                : type -> types.stream().anyMatch(type::startsWith);
+        return Flux.create(sink -> {
+            if (closed) {
+                sink.complete();
+                return;
+            }
+            Subscriber subscriber = new Subscriber(sink, filter, lastSequence < 0 ? published + 1 : lastSequence + 1);
+            subscribers.add(subscriber);
+            sink.onRequest(n -> subscriber.drain());
+            sink.onDispose(() -> subscribers.remove(subscriber));
+            startDispatcher();
+        }, FluxSink.OverflowStrategy.IGNORE);
+    }
+
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    public long getLatestSequence() {
+        return published;
+    }
+
+    public int getCapacity() {
+        return mask + 1;
+    }
+
+    public long getResyncCount() {
+        return resyncs.sum();
+    }
+
+    public long getDroppedCount() {
+        return dropped.sum();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("changes.subscribers", this, ChangeFeed::getSubscriberCount)
+                .description("Open change feed subscriptions")
+                .register(registry);
+        FunctionCounter.builder("changes.resyncs", this, ChangeFeed::getResyncCount)
+                .description("Subscribers told to resync after falling a full buffer behind")
+                .register(registry);
+        FunctionCounter.builder("changes.dropped", this, ChangeFeed::getDroppedCount)
+                .description("Subscribers disconnected after falling behind with no demand")
+                .register(registry);
+    }
+
+    private void startDispatcher() {
+        if (dispatcher != null) {
+            return;
+        }
+        synchronized (this) {
+            if (dispatcher == null && !closed) {
+                ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(task -> {
+                    Thread thread = new Thread(task, "change-feed");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+                if (heartbeatMillis > 0) {
+                    executor.scheduleAtFixedRate(this::heartbeat, heartbeatMillis, heartbeatMillis, TimeUnit.MILLISECONDS);
+                }
+                dispatcher = executor;
+            }
+        }
+        signal();
+    }
+
+    // Coalesces bursts of writes into one pass over the subscribers.
+    private void signal() {
+        ScheduledExecutorService executor = dispatcher;
+        if (executor != null && dispatchPending.compareAndSet(false, true)) {
+            executor.execute(() -> {
+                dispatchPending.set(false);
+                subscribers.forEach(Subscriber::drain);
+            });
+        }
+    }
+
+    private void heartbeat() {
+        for (Subscriber subscriber : subscribers) {
+            subscriber.heartbeatDue = true;
+            subscriber.drain();
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        ScheduledExecutorService executor;
+        synchronized (this) {
+            closed = true;
+            executor = dispatcher;
+        }
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+        subscribers.forEach(subscriber -> subscriber.sink.complete());
+    }
+
+    private final class Subscriber {
+        final FluxSink<ChangeEvent> sink;
+        final Predicate<String> filter;
+        final AtomicInteger wip = new AtomicInteger();
+        volatile boolean heartbeatDue;
+        // Next sequence to deliver; only touched inside drain.
+        long cursor;
+
+        Subscriber(FluxSink<ChangeEvent> sink, Predicate<String> filter, long cursor) {
+            this.sink = sink;
+            this.filter = filter;
+            this.cursor = cursor;
+        }
+
+        void drain() {
+            if (wip.getAndIncrement() != 0) {
+                return;
+            }
+            do {
+                if (!emit()) {
+                    return;
+                }
+            } while (wip.decrementAndGet() != 0);
+        }
+
+        // Returns false once the subscription has been terminated.
+        private boolean emit() {
+            long demand = sink.requestedFromDownstream();
+            long head = published;
+            if (cursor > head + 1 || cursor <= head - ring.length()) {
+                if (demand == 0) {
+                    dropped.increment();
+                    return terminate(null);
+                }
+                resyncs.increment();
+                return terminate(ChangeEvent.resync(head));
+            }
+            if (heartbeatDue && demand > 0) {
+                heartbeatDue = false;
+                sink.next(ChangeEvent.HEARTBEAT_EVENT);
+                demand--;
+            }
+            while (demand > 0 && cursor <= head && !sink.isCancelled()) {
+                ChangeEvent event = ring.get((int) cursor & mask);
+                if (event == null || event.getSequence() != cursor) {
+                    // Writers lapped us while we were reading.
+                    resyncs.increment();
+                    return terminate(ChangeEvent.resync(published));
+                }
+                cursor++;
+                if (filter.test(event.getType())) {
+                    sink.next(event);
+                    demand--;
+                }
+            }
+            return true;
+        }
+
+        private boolean terminate(ChangeEvent last) {
+            subscribers.remove(this);
+            if (last != null) {
+                sink.next(last);
+            }
+            sink.complete();
+            return false;
+        }
+    }
+}
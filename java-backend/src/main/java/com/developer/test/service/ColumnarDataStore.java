@@ -0,0 +1,470 @@
+package com.developer.test.service;
+
+import com.developer.test.dto.BatchResponse;
+import com.developer.test.dto.StatsResponse;
+import com.developer.test.model.Task;
+import com.developer.test.model.User;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.support.NoOpCacheManager;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.IntPredicate;
+
+/**
+ * {@link DataStore} that keeps tasks in {@link TaskColumns} instead of one heap object per task,
+ * so per-task memory is a few primitive array slots and GC has almost nothing to trace. Users
+ * stay in the inherited in-memory store. Selected with {@code datastore.mode=columnar}.
+ *
+ * <p>Task reads scan the columns under a shared lock and materialize {@link Task} copies only for
+ * returned rows; writes take the exclusive lock. Long visits release the lock between chunks so
+ * a slow consumer never stalls writers.
+ */
+@Service
+@ConditionalOnProperty(name = "datastore.mode", havingValue = "columnar")
+public class ColumnarDataStore extends DataStore {
+    private static final int VISIT_CHUNK = 4096;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final TaskColumns columns = new TaskColumns();
+
+    // Guarded by lock.
+    private int nextTaskId = 1;
+
+    public ColumnarDataStore() {
+        this(new NoOpCacheManager());
+    }
+
+    public ColumnarDataStore(CacheManager cacheManager) {
+        this(cacheManager, new ChangeFeed());
+    }
+
+    @Autowired
+    public ColumnarDataStore(CacheManager cacheManager, ChangeFeed changeFeed) {
+        super(cacheManager, changeFeed);
+
+        // Move the sample tasks seeded by the in-memory store into the columns.
+        List<User> seedUsers = super.getUsers();
+        List<Task> seedTasks = new ArrayList<>();
+        super.forEachTask(null, null, seedTasks::add);
+        int seedNextUserId = super.getNextUserId();
+        int seedNextTaskId = super.getNextTaskId();
+        super.clear();
+        seedUsers.forEach(super::restoreUser);
+        super.restoreIdCounters(seedNextUserId, 1);
+        for (Task task : seedTasks) {
+            columns.put(task.getId(), task.getTitle(), task.getStatus(), task.getUserId());
+        }
+        nextTaskId = seedNextTaskId;
+    }
+
+    @Override
+    public List<Task> getTasks(String status, String userId) {
+        boolean filterStatus = status != null && !status.isEmpty();
+        boolean filterUser = userId != null && !userId.isEmpty();
+
+        Task.Status statusFilter = filterStatus ? parseStatus(status) : null;
+        if (filterStatus && statusFilter == null) {
+            return new ArrayList<>();
+        }
+        Integer userFilter = filterUser ? Integer.valueOf(userId) : null;
+
+        return getTaskCache().get(statusFilter, userFilter, () -> {
+            IntPredicate filter = filter(statusFilter, userFilter);
+            List<Task> result = new ArrayList<>();
+            lock.readLock().lock();
+            try {
+                for (int id = 1; id < columns.limit(); id++) {
+                    if (filter.test(id)) {
+                        result.add(columns.get(id));
+                    }
+                }
+            } finally {
+                lock.readLock().unlock();
+            }
+            return result;
+        });
+    }
+
+    @Override
+    public Page<Task> getTasksPage(String status, String userId, Integer cursor, int limit, boolean descending) {
+        boolean filterStatus = status != null && !status.isEmpty();
+        boolean filterUser = userId != null && !userId.isEmpty();
+
+        Task.Status statusFilter = filterStatus ? parseStatus(status) : null;
+        if (filterStatus && statusFilter == null) {
+            return new Page<>(new ArrayList<>(), null);
+        }
+        IntPredicate filter = filter(statusFilter, filterUser ? Integer.valueOf(userId) : null);
+
+        List<Task> items = new ArrayList<>(Math.min(limit, Page.MAX_LIMIT));
+        lock.readLock().lock();
+        try {
+            int step = descending ? -1 : 1;
+            int id;
+            if (cursor == null) {
+                id = descending ? columns.limit() - 1 : 1;
+            } else {
+                id = descending ? Math.min(cursor - 1, columns.limit() - 1) : Math.max(cursor + 1, 1);
+            }
+            Integer lastId = null;
+            for (; id > 0 && id < columns.limit(); id += step) {
+                if (!filter.test(id)) {
+                    continue;
+                }
+                if (items.size() == limit) {
+                    return new Page<>(items, lastId);
+                }
+                items.add(columns.get(id));
+                lastId = id;
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return new Page<>(items, null);
+    }
+
+    @Override
+    public void forEachTask(String status, String userId, Consumer<Task> action) {
+        boolean filterStatus = status != null && !status.isEmpty();
+        boolean filterUser = userId != null && !userId.isEmpty();
+
+        Task.Status statusFilter = filterStatus ? parseStatus(status) : null;
+        if (filterStatus && statusFilter == null) {
+            return;
+        }
+        visit(filter(statusFilter, filterUser ? Integer.valueOf(userId) : null), action);
+    }
+
+    @Override
+    public StatsResponse getStats() {
+        StatsResponse stats = super.getStats();
+        lock.readLock().lock();
+        try {
+            stats.getTasks().setTotal(columns.size());
+            stats.getTasks().setPending(columns.statusCount(Task.Status.PENDING));
+            stats.getTasks().setInProgress(columns.statusCount(Task.Status.IN_PROGRESS));
+            stats.getTasks().setCompleted(columns.statusCount(Task.Status.COMPLETED));
+        } finally {
+            lock.readLock().unlock();
+        }
+        return stats;
+    }
+
+    @Override
+    public Task createTask(Task task) {
+        getJournal().await(insertNewTask(task));
+        return task;
+    }
+
+    @Override
+    public CompletableFuture<Task> createTaskAsync(Task task) {
+        long lsn = insertNewTask(task);
+        return getJournal().whenDurable(lsn).thenApply(ignored -> task);
+    }
+
+    private long insertNewTask(Task task) {
+        long lsn;
+        lock.writeLock().lock();
+        try {
+            if (columns.findByKey(task.getTitle(), task.getStatus(), task.getUserId()) != 0) {
+                throw new DuplicateException("Task already exists for user");
+            }
+            task.setId(nextTaskId++);
+            lsn = getJournal().taskCreated(task);
+            columns.put(task.getId(), task.getTitle(), task.getStatus(), task.getUserId());
+            getChangeFeed().taskCreated(task);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        tasksChanged();
+        getTaskCache().invalidate(task.getStatus(), task.getUserId());
+        return lsn;
+    }
+
+    /**
+     * Batch counterpart of {@link #createTask}; see {@link DataStore#createUsers} for the contract.
+     * The whole batch is applied under one lock acquisition, so accepted tasks get consecutive ids.
+     */
+    @Override
+    public List<BatchResponse.Item> createTasks(List<Task> batch) {
+        long[] lsn = new long[1];
+        List<BatchResponse.Item> results = insertTasks(batch, lsn);
+        getJournal().await(lsn[0]);
+        return results;
+    }
+
+    @Override
+    public CompletableFuture<List<BatchResponse.Item>> createTasksAsync(List<Task> batch) {
+        long[] lsn = new long[1];
+        List<BatchResponse.Item> results = insertTasks(batch, lsn);
+        return getJournal().whenDurable(lsn[0]).thenApply(ignored -> results);
+    }
+
+    private List<BatchResponse.Item> insertTasks(List<Task> batch, long[] lsn) {
+        BatchResponse.Item[] results = new BatchResponse.Item[batch.size()];
+        Set<List<Object>> seen = new HashSet<>();
+        lock.writeLock().lock();
+        try {
+            for (int i = 0; i < batch.size(); i++) {
+                Task task = batch.get(i);
+                if (!seen.add(Arrays.asList(task.getTitle(), task.getStatus(), task.getUserId()))
+                        || columns.findByKey(task.getTitle(), task.getStatus(), task.getUserId()) != 0) {
+                    results[i] = BatchResponse.Item.failure(i, HttpStatus.CONFLICT.value(), "Task already exists for user");
+                    continue;
+                }
+                task.setId(nextTaskId++);
+                lsn[0] = getJournal().taskCreated(task);
+                columns.put(task.getId(), task.getTitle(), task.getStatus(), task.getUserId());
+                getChangeFeed().taskCreated(task);
+                results[i] = BatchResponse.Item.success(i, HttpStatus.CREATED.value(), task.getId());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        tasksChanged();
+        getTaskCache().clear();
+        return Arrays.asList(results);
+    }
+
+    @Override
+    public List<BatchResponse.Item> updateTasks(List<Task> batch) {
+        long[] lsn = new long[1];
+        List<BatchResponse.Item> results = applyUpdates(batch, lsn);
+        getJournal().await(lsn[0]);
+        return results;
+    }
+
+    @Override
+    public CompletableFuture<List<BatchResponse.Item>> updateTasksAsync(List<Task> batch) {
+        long[] lsn = new long[1];
+        List<BatchResponse.Item> results = applyUpdates(batch, lsn);
+        return getJournal().whenDurable(lsn[0]).thenApply(ignored -> results);
+    }
+
+    private List<BatchResponse.Item> applyUpdates(List<Task> batch, long[] lsn) {
+        List<BatchResponse.Item> results = new ArrayList<>(batch.size());
+        for (int i = 0; i < batch.size(); i++) {
+            Task update = batch.get(i);
+            if (update.getId() <= 0) {
+                results.add(BatchResponse.Item.failure(i, HttpStatus.BAD_REQUEST.value(), "Task id is required"));
+            } else if (update.getUserId() != 0 && super.getUserById(update.getUserId()) == null) {
+                results.add(BatchResponse.Item.failure(i, HttpStatus.BAD_REQUEST.value(), "User not found"));
+            } else {
+                try {
+                    Task updated = applyUpdate(update.getId(), update, lsn);
+                    results.add(updated == null
+                            ? BatchResponse.Item.failure(i, HttpStatus.NOT_FOUND.value(), "Task not found")
+                            : BatchResponse.Item.success(i, HttpStatus.OK.value(), updated.getId()));
+                } catch (DuplicateException ex) {
+                    results.add(BatchResponse.Item.failure(i, HttpStatus.CONFLICT.value(), ex.getMessage()));
+                }
+            }
+        }
+        getTaskCache().clear();
+        return results;
+    }
+
+    @Override
+    public boolean taskExists(Task task) {
+        lock.readLock().lock();
+        try {
+            return columns.findByKey(task.getTitle(), task.getStatus(), task.getUserId()) != 0;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public Task updateTask(int id, Task updated) {
+        long[] lsn = new long[1];
+        Task result = update(id, updated, lsn);
+        getJournal().await(lsn[0]);
+        return result;
+    }
+
+    @Override
+    public CompletableFuture<Task> updateTaskAsync(int id, Task updated) {
+        long[] lsn = new long[1];
+        Task result = update(id, updated, lsn);
+        return getJournal().whenDurable(lsn[0]).thenApply(ignored -> result);
+    }
+
+    private Task update(int id, Task updated, long[] lsn) {
+        Task.Status oldStatus;
+        int oldUserId;
+        Task result;
+        lock.writeLock().lock();
+        try {
+            if (!columns.contains(id)) {
+                return null;
+            }
+            Task existing = columns.get(id);
+            oldStatus = existing.getStatus();
+            oldUserId = existing.getUserId();
+            result = apply(existing, updated, lsn);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        getTaskCache().invalidate(oldStatus, oldUserId, result.getStatus(), result.getUserId());
+        return result;
+    }
+
+    private Task applyUpdate(int id, Task updated, long[] lsn) {
+        lock.writeLock().lock();
+        try {
+            return columns.contains(id) ? apply(columns.get(id), updated, lsn) : null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Caller must hold the write lock.
+    private Task apply(Task existing, Task updated, long[] lsn) {
+        Task result = new Task(existing.getId(),
+                updated.getTitle() != null ? updated.getTitle() : existing.getTitle(),
+                updated.getStatus() != null ? updated.getStatus() : existing.getStatus(),
+                updated.getUserId() != 0 ? updated.getUserId() : existing.getUserId());
+        int owner = columns.findByKey(result.getTitle(), result.getStatus(), result.getUserId());
+        if (owner != 0 && owner != existing.getId()) {
+            throw new DuplicateException("Task already exists for user");
+        }
+        lsn[0] = getJournal().taskUpdated(result);
+        columns.put(result.getId(), result.getTitle(), result.getStatus(), result.getUserId());
+        getChangeFeed().taskUpdated(result, existing.getStatus());
+        tasksChanged();
+        return result;
+    }
+
+    /**
+     * Visits users through the in-memory store, then tasks in chunks. Taking the write lock once
+     * first guarantees every task write journaled before the call has been applied.
+     */
+    @Override
+    public void snapshot(Consumer<User> userSink, Consumer<Task> taskSink) {
+        super.snapshot(userSink, task -> { });
+        lock.writeLock().lock();
+        lock.writeLock().unlock();
+        visit(id -> true, taskSink);
+    }
+
+    /**
+     * Task columns are overwritten in place and keep no older versions to read at.
+     */
+    @Override
+    public ReadSnapshot openSnapshot() {
+        throw new SnapshotUnsupportedException("Snapshot reads need datastore.mode=heap");
+    }
+
+    @Override
+    public ReadSnapshot leasedSnapshot(long version) {
+        return openSnapshot();
+    }
+
+    @Override
+    public int getNextTaskId() {
+        lock.readLock().lock();
+        try {
+            return nextTaskId;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void restoreIdCounters(int nextUserId, int nextTaskId) {
+        super.restoreIdCounters(nextUserId, 1);
+        lock.writeLock().lock();
+        try {
+            this.nextTaskId = Math.max(this.nextTaskId, nextTaskId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void clear() {
+        super.clear();
+        lock.writeLock().lock();
+        try {
+            columns.clear();
+            nextTaskId = 1;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        tasksChanged();
+        getTaskCache().clear();
+    }
+
+    @Override
+    public void restoreTask(Task task) {
+        lock.writeLock().lock();
+        try {
+            columns.put(task.getId(), task.getTitle(), task.getStatus(), task.getUserId());
+            nextTaskId = Math.max(nextTaskId, task.getId() + 1);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        tasksChanged();
+    }
+
+    /**
+     * Approximate heap bytes held by task storage.
+     */
+    public long taskFootprintBytes() {
+        lock.readLock().lock();
+        try {
+            return columns.footprintBytes();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void visit(IntPredicate filter, Consumer<Task> action) {
+        List<Task> chunk = new ArrayList<>(VISIT_CHUNK);
+        int id = 1;
+        while (true) {
+            lock.readLock().lock();
+            try {
+                for (; id < columns.limit() && chunk.size() < VISIT_CHUNK; id++) {
+                    if (filter.test(id)) {
+                        chunk.add(columns.get(id));
+                    }
+                }
+            } finally {
+                lock.readLock().unlock();
+            }
+            if (chunk.isEmpty()) {
+                return;
+            }
+            chunk.forEach(action);
+            chunk.clear();
+        }
+    }
+
+    // Evaluated under the read lock.
+    private IntPredicate filter(Task.Status statusFilter, Integer userFilter) {
+        byte status = TaskColumns.statusCode(statusFilter);
+        int user = userFilter == null ? 0 : userFilter;
+        if (statusFilter != null && userFilter != null) {
+            return id -> columns.statusCode(id) == status && columns.userId(id) == user;
+        }
+        if (statusFilter != null) {
+            return id -> columns.statusCode(id) == status;
+        }
+        if (userFilter != null) {
+            return id -> columns.statusCode(id) != TaskColumns.ABSENT && columns.userId(id) == user;
+        }
+        return id -> columns.statusCode(id) != TaskColumns.ABSENT;
+    }
+}
@@ -2,132 +2,1147 @@ package com.developer.test.service;
 
 import com.developer.test.model.Task;
 import com.developer.test.model.User;
+import com.developer.test.dto.BatchResponse;
 import com.developer.test.dto.StatsResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.support.NoOpCacheManager;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
 
+import javax.annotation.PreDestroy;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.PrimitiveIterator;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
-import java.util.stream.Collectors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+import java.util.function.LongSupplier;
+import java.util.function.Predicate;
 
 @Service
-public class DataStore {
-    private final ConcurrentHashMap<Integer, User> users = new ConcurrentHashMap<>();
-    private final ConcurrentHashMap<Integer, Task> tasks = new ConcurrentHashMap<>();
+@ConditionalOnProperty(name = "datastore.mode", havingValue = "heap", matchIfMissing = true)
+public class DataStore implements DataStoreOperations {
+    // Ordered by id so pages can be served by keyset without materializing the collection. Each
+    // entry is the head of the record's version chain; see ReadSnapshot. Sharded by id so inserts
+    // spread over several monitors and full scans run one task per shard on queryPool.
+    private final ShardedIntObjectMap<Versioned<User>> users;
+    private final ShardedIntObjectMap<Versioned<Task>> tasks;
+    private final ForkJoinPool queryPool;
     private final AtomicInteger nextUserId = new AtomicInteger(1);
     private final AtomicInteger nextTaskId = new AtomicInteger(1);
 
+    // Secondary indexes: task ids by status and by owner. Kept in sync on every task write.
+    private final Map<Task.Status, NavigableSet<Integer>> tasksByStatus = new EnumMap<>(Task.Status.class);
+    private final ConcurrentHashMap<Integer, NavigableSet<Integer>> tasksByUser = new ConcurrentHashMap<>();
+
+    // Natural-key indexes: (name, email, role) -> user id and (title, status, userId) -> task id.
+    // A key is claimed atomically before the record is stored, which is what enforces uniqueness.
+    private final ConcurrentHashMap<List<Object>, Integer> userKeys = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<List<Object>, Integer> taskKeys = new ConcurrentHashMap<>();
+
+    // Per-status task counts, maintained on insert and on status transitions so stats never scan.
+    private final Map<Task.Status, LongAdder> statusCounts = new EnumMap<>(Task.Status.class);
+
+    // Write counters for conditional GETs: one per collection plus one across both. Bumped only
+    // after a write is visible, so a version read before a query never labels older data.
+    private final AtomicLong version = new AtomicLong();
+    private final AtomicLong usersVersion = new AtomicLong();
+    private final AtomicLong tasksVersion = new AtomicLong();
+
+    // MVCC: every stored record version is stamped from this counter inside a write epoch. Open
+    // snapshots, ordered by the oldest version they may read, hold back pruning of older links;
+    // chains that still carry history wait in `retained` until the oldest snapshot moves past them.
+    private final AtomicLong commits = new AtomicLong();
+    private final AtomicLong snapshotSequence = new AtomicLong();
+    private final ConcurrentSkipListMap<ReadSnapshot, Boolean> openSnapshots = new ConcurrentSkipListMap<>(
+            Comparator.<ReadSnapshot>comparingLong(snapshot -> snapshot.horizon).thenComparingLong(snapshot -> snapshot.sequence));
+    private final ConcurrentLinkedQueue<Versioned<?>> retained = new ConcurrentLinkedQueue<>();
+    private final ConcurrentHashMap<Long, ReadSnapshot> leases = new ConcurrentHashMap<>();
+    private volatile long snapshotLeaseNanos = TimeUnit.SECONDS.toNanos(30);
+
+    private final TaskQueryCache taskCache;
+    private final ChangeFeed changeFeed;
+    private volatile Journal journal = Journal.NONE;
+    private final WriteEpochs writeEpochs = new WriteEpochs();
+
     public DataStore() {
+        this(new NoOpCacheManager());
+    }
+
+    public DataStore(CacheManager cacheManager) {
+        this(cacheManager, new ChangeFeed());
+    }
+
+    public DataStore(CacheManager cacheManager, ChangeFeed changeFeed) {
+        this(cacheManager, changeFeed, 0);
+    }
+
+    /**
+     * @param shards number of id shards, and the most scan tasks one query runs at once; 0 means
+     *               one per available processor
+     */
+    @Autowired
+    public DataStore(CacheManager cacheManager, ChangeFeed changeFeed, @Value("${datastore.shards:0}") int shards) {
+        int processors = Runtime.getRuntime().availableProcessors();
+        int shardCount = shards > 0 ? shards : processors;
+        this.users = new ShardedIntObjectMap<>(shardCount);
+        this.tasks = new ShardedIntObjectMap<>(shardCount);
+        // Workers are started on demand, so a single-shard store never creates any.
+        this.queryPool = new ForkJoinPool(Math.min(shardCount, processors));
+        this.taskCache = new TaskQueryCache(cacheManager.getCache("tasks"));
+        this.changeFeed = changeFeed;
+        for (Task.Status status : Task.Status.values()) {
+            tasksByStatus.put(status, new ConcurrentSkipListSet<>());
+            statusCounts.put(status, new LongAdder());
+        }
+
         // Initialize with sample data
-        users.put(1, new User(1, "John Doe", "john@example.com", "developer"));
-        users.put(2, new User(2, "Jane Smith", "jane@example.com", "designer"));
-        users.put(3, new User(3, "Bob Johnson", "bob@example.com", "manager"));
+        insertUser(new User(1, "John Doe", "john@example.com", "developer"));
+        insertUser(new User(2, "Jane Smith", "jane@example.com", "designer"));
+        insertUser(new User(3, "Bob Johnson", "bob@example.com", "manager"));
         
-        tasks.put(1, new Task(1, "Implement authentication", Task.Status.PENDING, 1));
-        tasks.put(2, new Task(2, "Design user interface", Task.Status.IN_PROGRESS, 2));
-        tasks.put(3, new Task(3, "Review code changes", Task.Status.COMPLETED, 3));
+        insertTask(new Task(1, "Implement authentication", Task.Status.PENDING, 1));
+        insertTask(new Task(2, "Design user interface", Task.Status.IN_PROGRESS, 2));
+        insertTask(new Task(3, "Review code changes", Task.Status.COMPLETED, 3));
         
         nextUserId.set(4);
         nextTaskId.set(4);
     }
 
+    /**
+     * Stops the scan workers. Reads that need the pool afterwards fail, so call it only once the
+     * store is no longer served.
+     */
+    @PreDestroy
+    public void close() {
+        queryPool.shutdown();
+    }
+
+    /**
+     * Routes every subsequent write through the given journal. Intended to be called once at
+     * startup, after any recovery has been applied through the {@code restore*} methods.
+     */
+    public void setJournal(Journal journal) {
+        this.journal = journal;
+    }
+
+    /**
+     * The journal writes currently go through, for wrapping it in another one.
+     */
+    public Journal getJournal() {
+        return journal;
+    }
+
+    /**
+     * The task query cache, for subclasses that store tasks themselves and must evict it.
+     */
+    protected TaskQueryCache getTaskCache() {
+        return taskCache;
+    }
+
+    /**
+     * The change feed, for subclasses that store tasks themselves and must publish to it.
+     */
+    protected ChangeFeed getChangeFeed() {
+        return changeFeed;
+    }
+
+    /**
+     * How long a {@link #leaseSnapshot} stays readable after it was last used.
+     */
+    @Value("${datastore.mvcc.lease-ms:30000}")
+    public void setSnapshotLeaseMillis(long leaseMillis) {
+        this.snapshotLeaseNanos = TimeUnit.MILLISECONDS.toNanos(leaseMillis);
+    }
+
+    public long getSnapshotLeaseMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(snapshotLeaseNanos);
+    }
+
+    /**
+     * Increases with every write to either collection; never decreases while the store is alive.
+     */
+    public long getVersion() {
+        return version.get();
+    }
+
+    public long getUsersVersion() {
+        return usersVersion.get();
+    }
+
+    public long getTasksVersion() {
+        return tasksVersion.get();
+    }
+
+    void usersChanged() {
+        usersVersion.incrementAndGet();
+        version.incrementAndGet();
+    }
+
+    void tasksChanged() {
+        tasksVersion.incrementAndGet();
+        version.incrementAndGet();
+    }
+
     @Cacheable(cacheNames = "users")
     public List<User> getUsers() {
-        return new ArrayList<>(users.values());
+        return users.collectInOrder(queryPool, user -> user.value);
+    }
+
+    public Page<User> getUsersPage(Integer cursor, int limit, boolean descending) {
+        return page(users.keys(cursor, descending), this::getUserById, user -> true, limit);
     }
 
-    @Cacheable(cacheNames = "userById", key = "#id")
+    /**
+     * Visits every user in id order without copying the collection. Iteration is weakly
+     * consistent: users created while it runs may or may not be visited.
+     */
+    public void forEachUser(Consumer<User> action) {
+        users.forEachInOrder(user -> action.accept(user.value));
+    }
+
+    /**
+     * Lock-free and allocation-free; not cached, since the lookup is a single array probe.
+     */
     public User getUserById(int id) {
-        return users.get(id);
+        Versioned<User> user = users.get(id);
+        return user == null ? null : user.value;
+    }
+
+    private Task getTask(int id) {
+        Versioned<Task> task = tasks.get(id);
+        return task == null ? null : task.value;
     }
 
-    @Cacheable(cacheNames = "tasks")
     public List<Task> getTasks(String status, String userId) {
-        List<Task> allTasks = new ArrayList<>(tasks.values());
-        
-        return allTasks.stream()
-                .filter(task -> {
-                    boolean matchStatus = status == null || status.isEmpty();
-                    boolean matchUserId = userId == null || userId.isEmpty() || 
-                            task.getUserId() == Integer.parseInt(userId);
-                    return matchStatus && matchUserId;
-                })
-                .collect(Collectors.toList());
+        boolean filterStatus = status != null && !status.isEmpty();
+        boolean filterUser = userId != null && !userId.isEmpty();
+
+        Task.Status statusFilter = filterStatus ? parseStatus(status) : null;
+        if (filterStatus && statusFilter == null) {
+            return new ArrayList<>();
+        }
+        Integer userFilter = filterUser ? Integer.valueOf(userId) : null;
+
+        return taskCache.get(statusFilter, userFilter, () -> findTasks(statusFilter, userFilter));
+    }
+
+    public Page<Task> getTasksPage(String status, String userId, Integer cursor, int limit, boolean descending) {
+        boolean filterStatus = status != null && !status.isEmpty();
+        boolean filterUser = userId != null && !userId.isEmpty();
+
+        Task.Status statusFilter = filterStatus ? parseStatus(status) : null;
+        if (filterStatus && statusFilter == null) {
+            return new Page<>(new ArrayList<>(), null);
+        }
+        Integer userFilter = filterUser ? Integer.valueOf(userId) : null;
+
+        NavigableSet<Integer> candidates = candidateTaskIds(statusFilter, userFilter);
+        PrimitiveIterator.OfInt ordered = candidates == null
+                ? tasks.keys(cursor, descending)
+                : ordered(candidates, cursor, descending);
+        return page(ordered, this::getTask, task -> matches(task, statusFilter, userFilter), limit);
+    }
+
+    /**
+     * Visits every task matching the filters in id order without copying the collection.
+     * Iteration is weakly consistent, like {@link #forEachUser}.
+     */
+    public void forEachTask(String status, String userId, Consumer<Task> action) {
+        boolean filterStatus = status != null && !status.isEmpty();
+        boolean filterUser = userId != null && !userId.isEmpty();
+
+        Task.Status statusFilter = filterStatus ? parseStatus(status) : null;
+        if (filterStatus && statusFilter == null) {
+            return;
+        }
+        Integer userFilter = filterUser ? Integer.valueOf(userId) : null;
+
+        NavigableSet<Integer> candidates = candidateTaskIds(statusFilter, userFilter);
+        if (candidates == null) {
+            tasks.forEachInOrder(task -> action.accept(task.value));
+            return;
+        }
+        for (Integer id : candidates) {
+            Task task = getTask(id);
+            if (task != null && matches(task, statusFilter, userFilter)) {
+                action.accept(task);
+            }
+        }
+    }
+
+    private List<Task> findTasks(Task.Status statusFilter, Integer userFilter) {
+        if (statusFilter == null && userFilter == null) {
+            return tasks.collectInOrder(queryPool, task -> task.value);
+        }
+
+        // Re-check every predicate against the live task, so a reader racing an
+        // updateTask never returns a task that no longer matches.
+        List<Task> result = new ArrayList<>();
+        for (Integer id : candidateTaskIds(statusFilter, userFilter)) {
+            Task task = getTask(id);
+            if (task != null && matches(task, statusFilter, userFilter)) {
+                result.add(task);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Ids of the index that narrows the filters most, or {@code null} when there are no filters
+     * and every task is a candidate.
+     */
+    private NavigableSet<Integer> candidateTaskIds(Task.Status statusFilter, Integer userFilter) {
+        // A user's tasks are usually far fewer than a whole status bucket, so prefer the user index
+        // when both filters are present. Skip-list sizes are O(n) and not worth comparing.
+        if (userFilter != null) {
+            return tasksByUser.getOrDefault(userFilter, Collections.emptyNavigableSet());
+        }
+        if (statusFilter != null) {
+            return tasksByStatus.get(statusFilter);
+        }
+        return null;
+    }
+
+    private static boolean matches(Task task, Task.Status statusFilter, Integer userFilter) {
+        return (statusFilter == null || task.getStatus() == statusFilter)
+                && (userFilter == null || task.getUserId() == userFilter.intValue());
+    }
+
+    private static PrimitiveIterator.OfInt ordered(NavigableSet<Integer> ids, Integer cursor, boolean descending) {
+        NavigableSet<Integer> ordered = descending ? ids.descendingSet() : ids;
+        if (cursor != null) {
+            ordered = ordered.tailSet(cursor, false);
+        }
+        return ordered.stream().mapToInt(Integer::intValue).iterator();
+    }
+
+    private static <T> Page<T> page(PrimitiveIterator.OfInt ordered, IntFunction<T> lookup, Predicate<T> filter,
+                                    int limit) {
+        List<T> items = new ArrayList<>(Math.min(limit, Page.MAX_LIMIT));
+        Integer lastId = null;
+        while (ordered.hasNext()) {
+            int id = ordered.nextInt();
+            T item = lookup.apply(id);
+            if (item == null || !filter.test(item)) {
+                continue;
+            }
+            if (items.size() == limit) {
+                return new Page<>(items, lastId);
+            }
+            items.add(item);
+            lastId = id;
+        }
+        return new Page<>(items, null);
     }
 
-    @Cacheable(cacheNames = "stats")
     public StatsResponse getStats() {
         StatsResponse stats = new StatsResponse();
         stats.getUsers().setTotal(users.size());
         stats.getTasks().setTotal(tasks.size());
-        
-        for (Task task : tasks.values()) {
-            switch (task.getStatus()) {
-                case PENDING:
-                    stats.getTasks().setPending(stats.getTasks().getPending() + 1);
-                    break;
-                case IN_PROGRESS:
-                    stats.getTasks().setInProgress(stats.getTasks().getInProgress() + 1);
-                    break;
-                case COMPLETED:
-                    stats.getTasks().setCompleted(stats.getTasks().getCompleted() + 1);
-                    break;
+        stats.getTasks().setPending(statusCounts.get(Task.Status.PENDING).intValue());
+        stats.getTasks().setInProgress(statusCounts.get(Task.Status.IN_PROGRESS).intValue());
+        stats.getTasks().setCompleted(statusCounts.get(Task.Status.COMPLETED).intValue());
+        return stats;
+    }
+
+    /**
+     * Pins the latest committed version for consistent reads across users, tasks and stats. Writers
+     * are never blocked; the caller must close the snapshot so the versions it holds can be
+     * reclaimed.
+     */
+    public ReadSnapshot openSnapshot() {
+        // Register before choosing the version: a writer that prunes without seeing this snapshot
+        // read the commit counter before it was registered, so it kept everything this version needs.
+        ReadSnapshot snapshot = new ReadSnapshot(this, commits.get(), snapshotSequence.incrementAndGet());
+        openSnapshots.put(snapshot, Boolean.TRUE);
+        snapshot.pinAt(commits.get());
+        // Versions are stamped inside a write epoch, so once the writers in flight now have finished
+        // every version up to this one is installed.
+        writeEpochs.advance();
+        return snapshot;
+    }
+
+    /**
+     * The scan pool, which snapshot reads fan out on anyway.
+     */
+    @Override
+    public Executor getSnapshotExecutor() {
+        return queryPool;
+    }
+
+    /**
+     * Like {@link #openSnapshot}, but held by a lease instead of by the caller, so that separate
+     * requests can read the same version through {@link #leasedSnapshot}. Callers asking in the
+     * same instant share one snapshot.
+     */
+    public ReadSnapshot leaseSnapshot() {
+        expireLeases();
+        ReadSnapshot snapshot = openSnapshot();
+        long deadline = System.nanoTime() + snapshotLeaseNanos;
+        snapshot.renew(deadline);
+        while (true) {
+            ReadSnapshot shared = leases.putIfAbsent(snapshot.getVersion(), snapshot);
+            if (shared == null) {
+                return snapshot;
             }
+            if (shared.renew(deadline)) {
+                snapshot.close();
+                return shared;
+            }
+            leases.remove(shared.getVersion(), shared);
         }
-        
+    }
+
+    /**
+     * The leased snapshot at {@code version}, with its lease extended.
+     *
+     * @throws SnapshotExpiredException if no lease holds that version any more
+     */
+    public ReadSnapshot leasedSnapshot(long version) {
+        ReadSnapshot snapshot = leases.get(version);
+        if (snapshot == null || !snapshot.renew(System.nanoTime() + snapshotLeaseNanos)) {
+            if (snapshot != null) {
+                leases.remove(version, snapshot);
+            }
+            throw new SnapshotExpiredException("Snapshot " + version + " is no longer available");
+        }
+        return snapshot;
+    }
+
+    void release(ReadSnapshot snapshot) {
+        leases.remove(snapshot.getVersion(), snapshot);
+        if (openSnapshots.remove(snapshot) != null) {
+            reclaim(horizon());
+        }
+    }
+
+    private void expireLeases() {
+        long now = System.nanoTime();
+        for (ReadSnapshot snapshot : leases.values()) {
+            if (snapshot.expire(now)) {
+                release(snapshot);
+            }
+        }
+    }
+
+    /**
+     * The oldest version any open snapshot may read, or the latest commit when none is open.
+     * Lapsed leases found at the head are released on the way.
+     */
+    private long horizon() {
+        // Read the counter first; a snapshot registered after the scan below chooses a version at
+        // least this large.
+        long horizon = commits.get();
+        while (true) {
+            Map.Entry<ReadSnapshot, Boolean> oldest = openSnapshots.firstEntry();
+            if (oldest == null) {
+                return horizon;
+            }
+            ReadSnapshot snapshot = oldest.getKey();
+            if (!snapshot.expire(System.nanoTime())) {
+                return Math.min(horizon, snapshot.horizon);
+            }
+            leases.remove(snapshot.getVersion(), snapshot);
+            openSnapshots.remove(snapshot);
+        }
+    }
+
+    /**
+     * Trims a freshly installed chain to what open snapshots can reach, and reclaims chains that
+     * were kept for snapshots since closed.
+     */
+    private void retain(Versioned<?> head) {
+        long horizon = horizon();
+        head.prune(horizon);
+        if (head.hasHistory()) {
+            retained.add(head);
+        }
+        reclaim(horizon);
+    }
+
+    private void reclaim(long horizon) {
+        // Chains are queued roughly in version order; stop at the first one still needed.
+        Versioned<?> chain;
+        while ((chain = retained.peek()) != null && chain.version <= horizon) {
+            if (retained.remove(chain)) {
+                chain.prune(horizon);
+            }
+        }
+    }
+
+    List<User> usersAt(long version) {
+        return users.collectInOrder(queryPool, chain -> chain.at(version));
+    }
+
+    Page<User> usersPageAt(long version, Integer cursor, int limit, boolean descending) {
+        return page(users.keys(cursor, descending), id -> userAt(id, version), user -> true, limit);
+    }
+
+    private User userAt(int id, long version) {
+        Versioned<User> chain = users.get(id);
+        return chain == null ? null : chain.at(version);
+    }
+
+    List<Task> tasksAt(long version, String status, String userId) {
+        boolean filterStatus = status != null && !status.isEmpty();
+        Task.Status statusFilter = filterStatus ? parseStatus(status) : null;
+        if (filterStatus && statusFilter == null) {
+            return new ArrayList<>();
+        }
+        Integer userFilter = userId != null && !userId.isEmpty() ? Integer.valueOf(userId) : null;
+
+        // The secondary indexes only describe the latest versions, so snapshot queries scan.
+        return tasks.collectInOrder(queryPool, chain -> {
+            Task task = chain.at(version);
+            return task != null && matches(task, statusFilter, userFilter) ? task : null;
+        });
+    }
+
+    Page<Task> tasksPageAt(long version, String status, String userId, Integer cursor, int limit,
+                           boolean descending) {
+        boolean filterStatus = status != null && !status.isEmpty();
+        Task.Status statusFilter = filterStatus ? parseStatus(status) : null;
+        if (filterStatus && statusFilter == null) {
+            return new Page<>(new ArrayList<>(), null);
+        }
+        Integer userFilter = userId != null && !userId.isEmpty() ? Integer.valueOf(userId) : null;
+
+        return page(tasks.keys(cursor, descending), id -> taskAt(id, version),
+                task -> matches(task, statusFilter, userFilter), limit);
+    }
+
+    private Task taskAt(int id, long version) {
+        Versioned<Task> chain = tasks.get(id);
+        return chain == null ? null : chain.at(version);
+    }
+
+    StatsResponse statsAt(long version) {
+        int userCount = users.aggregate(queryPool, () -> new int[1], (count, chain) -> {
+            if (chain.at(version) != null) {
+                count[0]++;
+            }
+        }, DataStore::sum)[0];
+        // Per-status counts followed by the total.
+        Task.Status[] statuses = Task.Status.values();
+        int[] taskCounts = tasks.aggregate(queryPool, () -> new int[statuses.length + 1], (counts, chain) -> {
+            Task task = chain.at(version);
+            if (task != null) {
+                counts[statuses.length]++;
+                if (task.getStatus() != null) {
+                    counts[task.getStatus().ordinal()]++;
+                }
+            }
+        }, DataStore::sum);
+        StatsResponse stats = new StatsResponse();
+        stats.getUsers().setTotal(userCount);
+        stats.getTasks().setTotal(taskCounts[statuses.length]);
+        stats.getTasks().setPending(taskCounts[Task.Status.PENDING.ordinal()]);
+        stats.getTasks().setInProgress(taskCounts[Task.Status.IN_PROGRESS.ordinal()]);
+        stats.getTasks().setCompleted(taskCounts[Task.Status.COMPLETED.ordinal()]);
         return stats;
     }
 
-    @CacheEvict(cacheNames = {"users", "stats"}, allEntries = true)
+    private static int[] sum(int[] left, int[] right) {
+        for (int i = 0; i < left.length; i++) {
+            left[i] += right[i];
+        }
+        return left;
+    }
+
+    @CacheEvict(cacheNames = "users", allEntries = true)
     public User createUser(User user) {
-        if (userExists(user)) {
+        journal.await(insertNewUser(user));
+        return user;
+    }
+
+    /**
+     * Non-blocking {@link #createUser}: the user is stored and visible when this returns, and the
+     * future completes once it is as durable as the journal promises.
+     */
+    @CacheEvict(cacheNames = "users", allEntries = true)
+    public CompletableFuture<User> createUserAsync(User user) {
+        long lsn = insertNewUser(user);
+        return journal.whenDurable(lsn).thenApply(ignored -> user);
+    }
+
+    private long insertNewUser(User user) {
+        int epoch = writeEpochs.enter();
+        try {
+            return doCreateUser(user);
+        } finally {
+            writeEpochs.exit(epoch);
+        }
+    }
+
+    // Returns the lsn of the journal record; the caller decides how to wait for it.
+    private long doCreateUser(User user) {
+        List<Object> key = userKey(user);
+        int[] assigned = new int[1];
+        userKeys.computeIfAbsent(key, k -> assigned[0] = allocateId(nextUserId));
+        if (assigned[0] == 0) {
             throw new DuplicateException("User already exists");
         }
-        int id = nextUserId.getAndIncrement();
-        user.setId(id);
-        users.put(id, user);
-        return user;
+        user.setId(assigned[0]);
+        long lsn = journalOrRelease(() -> journal.userCreated(user), userKeys, key, assigned[0]);
+        users.put(assigned[0], new Versioned<>(user, commits.incrementAndGet(), null));
+        changeFeed.userCreated(user);
+        usersChanged();
+        return lsn;
     }
 
-    @CacheEvict(cacheNames = {"tasks", "stats"}, allEntries = true)
     public Task createTask(Task task) {
-        if (taskExists(task)) {
+        journal.await(insertNewTask(task));
+        return task;
+    }
+
+    /**
+     * Non-blocking {@link #createTask}; see {@link #createUserAsync}.
+     */
+    public CompletableFuture<Task> createTaskAsync(Task task) {
+        long lsn = insertNewTask(task);
+        return journal.whenDurable(lsn).thenApply(ignored -> task);
+    }
+
+    private long insertNewTask(Task task) {
+        int epoch = writeEpochs.enter();
+        try {
+            return doCreateTask(task);
+        } finally {
+            writeEpochs.exit(epoch);
+        }
+    }
+
+    private long doCreateTask(Task task) {
+        List<Object> key = taskKey(task);
+        int[] assigned = new int[1];
+        taskKeys.computeIfAbsent(key, k -> assigned[0] = allocateId(nextTaskId));
+        if (assigned[0] == 0) {
             throw new DuplicateException("Task already exists for user");
         }
-        int id = nextTaskId.getAndIncrement();
-        task.setId(id);
-        tasks.put(id, task);
-        return task;
+        task.setId(assigned[0]);
+        long lsn = journalOrRelease(() -> journal.taskCreated(task), taskKeys, key, assigned[0]);
+        insertTask(task);
+        changeFeed.taskCreated(task);
+        tasksChanged();
+        taskCache.invalidate(task.getStatus(), task.getUserId());
+        return lsn;
+    }
+
+    /**
+     * Creates users in one pass: duplicates (against the store and within the batch) are rejected
+     * up front, survivors get ascending ids (one contiguous range unless {@link #ownsId} skips some),
+     * and user caches are evicted once.
+     * Result indexes refer to positions in {@code batch}.
+     */
+    @CacheEvict(cacheNames = "users", allEntries = true)
+    public List<BatchResponse.Item> createUsers(List<User> batch) {
+        long[] lsn = new long[1];
+        List<BatchResponse.Item> results = insertUsers(batch, lsn);
+        journal.await(lsn[0]);
+        return results;
+    }
+
+    /**
+     * Non-blocking {@link #createUsers}; see {@link #createUserAsync}.
+     */
+    @CacheEvict(cacheNames = "users", allEntries = true)
+    public CompletableFuture<List<BatchResponse.Item>> createUsersAsync(List<User> batch) {
+        long[] lsn = new long[1];
+        List<BatchResponse.Item> results = insertUsers(batch, lsn);
+        return journal.whenDurable(lsn[0]).thenApply(ignored -> results);
+    }
+
+    private List<BatchResponse.Item> insertUsers(List<User> batch, long[] lsn) {
+        List<BatchResponse.Item> results;
+        int epoch = writeEpochs.enter();
+        try {
+            results = insertBatch(batch, DataStore::userKey, userKeys, count -> reserveIds(nextUserId, count), (user, id) -> {
+                user.setId(id);
+                lsn[0] = journal.userCreated(user);
+                users.put(id, new Versioned<>(user, commits.incrementAndGet(), null));
+                changeFeed.userCreated(user);
+            }, "User already exists");
+        } finally {
+            writeEpochs.exit(epoch);
+        }
+        usersChanged();
+        return results;
+    }
+
+    /**
+     * Batch counterpart of {@link #createTask}; see {@link #createUsers} for the contract.
+     */
+    public List<BatchResponse.Item> createTasks(List<Task> batch) {
+        long[] lsn = new long[1];
+        List<BatchResponse.Item> results = insertTasks(batch, lsn);
+        journal.await(lsn[0]);
+        return results;
+    }
+
+    /**
+     * Non-blocking {@link #createTasks}; see {@link #createUserAsync}.
+     */
+    public CompletableFuture<List<BatchResponse.Item>> createTasksAsync(List<Task> batch) {
+        long[] lsn = new long[1];
+        List<BatchResponse.Item> results = insertTasks(batch, lsn);
+        return journal.whenDurable(lsn[0]).thenApply(ignored -> results);
+    }
+
+    private List<BatchResponse.Item> insertTasks(List<Task> batch, long[] lsn) {
+        List<BatchResponse.Item> results;
+        int epoch = writeEpochs.enter();
+        try {
+            results = insertBatch(batch, DataStore::taskKey, taskKeys, count -> reserveIds(nextTaskId, count), (task, id) -> {
+                task.setId(id);
+                lsn[0] = journal.taskCreated(task);
+                insertTask(task);
+                changeFeed.taskCreated(task);
+            }, "Task already exists for user");
+        } finally {
+            writeEpochs.exit(epoch);
+        }
+        tasksChanged();
+        taskCache.clear();
+        return results;
+    }
+
+    /**
+     * Applies each entry like {@link #updateTask}, reporting per-item outcomes instead of throwing,
+     * and invalidates the task cache once for the whole batch.
+     */
+    public List<BatchResponse.Item> updateTasks(List<Task> batch) {
+        long[] lsn = new long[1];
+        List<BatchResponse.Item> results = applyUpdates(batch, lsn);
+        journal.await(lsn[0]);
+        return results;
+    }
+
+    /**
+     * Non-blocking {@link #updateTasks}; see {@link #createUserAsync}.
+     */
+    public CompletableFuture<List<BatchResponse.Item>> updateTasksAsync(List<Task> batch) {
+        long[] lsn = new long[1];
+        List<BatchResponse.Item> results = applyUpdates(batch, lsn);
+        return journal.whenDurable(lsn[0]).thenApply(ignored -> results);
+    }
+
+    private List<BatchResponse.Item> applyUpdates(List<Task> batch, long[] lsn) {
+        List<BatchResponse.Item> results = new ArrayList<>(batch.size());
+        for (int i = 0; i < batch.size(); i++) {
+            Task update = batch.get(i);
+            if (update.getId() <= 0) {
+                results.add(BatchResponse.Item.failure(i, HttpStatus.BAD_REQUEST.value(), "Task id is required"));
+            } else if (update.getUserId() != 0 && !users.containsKey(update.getUserId())) {
+                results.add(BatchResponse.Item.failure(i, HttpStatus.BAD_REQUEST.value(), "User not found"));
+            } else {
+                int epoch = writeEpochs.enter();
+                try {
+                    Task updated = applyUpdate(update.getId(), update, false, lsn);
+                    results.add(updated == null
+                            ? BatchResponse.Item.failure(i, HttpStatus.NOT_FOUND.value(), "Task not found")
+                            : BatchResponse.Item.success(i, HttpStatus.OK.value(), updated.getId()));
+                } catch (DuplicateException ex) {
+                    results.add(BatchResponse.Item.failure(i, HttpStatus.CONFLICT.value(), ex.getMessage()));
+                } finally {
+                    writeEpochs.exit(epoch);
+                }
+            }
+        }
+        taskCache.clear();
+        return results;
+    }
+
+    private interface BatchWriter<T> {
+        void store(T item, int id);
+    }
+
+    private static <T> List<BatchResponse.Item> insertBatch(List<T> batch, Function<T, List<Object>> keyOf,
+                                                            ConcurrentHashMap<List<Object>, Integer> keys,
+                                                            IntFunction<int[]> reserveIds, BatchWriter<T> store,
+                                                            String duplicateMessage) {
+        BatchResponse.Item[] results = new BatchResponse.Item[batch.size()];
+        List<List<Object>> batchKeys = new ArrayList<>(batch.size());
+        Set<List<Object>> seen = new HashSet<>();
+        int accepted = 0;
+        for (int i = 0; i < batch.size(); i++) {
+            List<Object> key = keyOf.apply(batch.get(i));
+            batchKeys.add(key);
+            if (!seen.add(key) || keys.containsKey(key)) {
+                results[i] = BatchResponse.Item.failure(i, HttpStatus.CONFLICT.value(), duplicateMessage);
+            } else {
+                accepted++;
+            }
+        }
+
+        // A concurrent single create can still claim a key between the check and the claim below;
+        // that entry loses the race, is reported as a conflict and leaves a gap in the id range.
+        int[] ids = reserveIds.apply(accepted);
+        int next = 0;
+        for (int i = 0; i < batch.size(); i++) {
+            if (results[i] != null) {
+                continue;
+            }
+            int id = ids[next++];
+            if (keys.putIfAbsent(batchKeys.get(i), id) == null) {
+                try {
+                    store.store(batch.get(i), id);
+                } catch (RuntimeException ex) {
+                    keys.remove(batchKeys.get(i), id);
+                    throw ex;
+                }
+                results[i] = BatchResponse.Item.success(i, HttpStatus.CREATED.value(), id);
+            } else {
+                results[i] = BatchResponse.Item.failure(i, HttpStatus.CONFLICT.value(), duplicateMessage);
+            }
+        }
+        return Arrays.asList(results);
+    }
+
+    /**
+     * Whether this store may mint {@code id} for a new record. Always true here; a cluster node
+     * only mints ids in its own partition, see {@code ClusterDataStore}.
+     */
+    protected boolean ownsId(int id) {
+        return true;
+    }
+
+    private int allocateId(AtomicInteger counter) {
+        while (true) {
+            int id = counter.getAndIncrement();
+            if (ownsId(id)) {
+                return id;
+            }
+        }
+    }
+
+    /**
+     * {@code count} ascending ids this store owns, claimed from {@code counter} in as few
+     * increments as possible.
+     */
+    private int[] reserveIds(AtomicInteger counter, int count) {
+        int[] ids = new int[count];
+        int filled = 0;
+        while (filled < count) {
+            int wanted = count - filled;
+            int first = counter.getAndAdd(wanted);
+            for (int id = first; id < first + wanted; id++) {
+                if (ownsId(id)) {
+                    ids[filled++] = id;
+                }
+            }
+        }
+        return ids;
     }
 
     public boolean userExists(User user) {
-        return users.values().contains(user);
+        return userKeys.containsKey(userKey(user));
     }
 
     public boolean taskExists(Task task) {
-        return tasks.values().contains(task);
+        return taskKeys.containsKey(taskKey(task));
     }
 
-    @CacheEvict(cacheNames = {"tasks", "stats"}, allEntries = true)
     public Task updateTask(int id, Task updated) {
-        Task existing = tasks.get(id);
-        if (existing == null) {
-            return null;
+        long[] lsn = new long[1];
+        Task result = update(id, updated, lsn);
+        journal.await(lsn[0]);
+        return result;
+    }
+
+    /**
+     * Non-blocking {@link #updateTask}; the future completes with {@code null} when the task
+     * does not exist.
+     */
+    public CompletableFuture<Task> updateTaskAsync(int id, Task updated) {
+        long[] lsn = new long[1];
+        Task result = update(id, updated, lsn);
+        return journal.whenDurable(lsn[0]).thenApply(ignored -> result);
+    }
+
+    private Task update(int id, Task updated, long[] lsn) {
+        int epoch = writeEpochs.enter();
+        try {
+            return applyUpdate(id, updated, true, lsn);
+        } finally {
+            writeEpochs.exit(epoch);
+        }
+    }
+
+    /**
+     * Applies a partial update by publishing a new task record in place of the current one; stored
+     * records are never mutated, so readers (and cached lists holding them) never see a half-applied
+     * update and never lock. Writers of the same task serialize on its current version: the update
+     * is journaled first, so readers never see one the journal refused, and then swapped in with a
+     * CAS, linked to the one it replaces for open snapshots. The writer keeps the new version's
+     * monitor until the indexes, change feed and cache reflect it, so the next writer of the task
+     * starts from there and per-task journal, index and event order all equal apply order. The
+     * journal lsn is stored in {@code lsn[0]} and the caller awaits durability after the locks are
+     * released.
+     */
+    private Task applyUpdate(int id, Task updated, boolean invalidateCache, long[] lsn) {
+        while (true) {
+            Versioned<Task> current = tasks.get(id);
+            if (current == null) {
+                return null;
+            }
+            synchronized (current) {
+                if (tasks.get(id) != current) {
+                    // Superseded while we waited for the lock; retry against the newer record.
+                    continue;
+                }
+                Task existing = current.value;
+                Task result = new Task(id,
+                        updated.getTitle() != null ? updated.getTitle() : existing.getTitle(),
+                        updated.getStatus() != null ? updated.getStatus() : existing.getStatus(),
+                        updated.getUserId() != 0 ? updated.getUserId() : existing.getUserId());
+
+                List<Object> oldKey = taskKey(existing);
+                List<Object> newKey = taskKey(result);
+                if (!newKey.equals(oldKey)) {
+                    Integer owner = taskKeys.putIfAbsent(newKey, id);
+                    if (owner != null && owner != id) {
+                        throw new DuplicateException("Task already exists for user");
+                    }
+                }
+                try {
+                    lsn[0] = journal.taskUpdated(result);
+                } catch (RuntimeException ex) {
+                    releaseKey(newKey, oldKey, id);
+                    throw ex;
+                }
+                Versioned<Task> next = new Versioned<>(result, commits.incrementAndGet(), current);
+                synchronized (next) {
+                    // Every writer of this id holds the current version's monitor, so only clear()
+                    // can make the swap fail, and it runs only ahead of rebuilding the store from
+                    // its snapshot and journal.
+                    if (!tasks.replace(id, current, next)) {
+                        releaseKey(newKey, oldKey, id);
+                        continue;
+                    }
+                    retain(next);
+                    if (!newKey.equals(oldKey)) {
+                        taskKeys.remove(oldKey, id);
+                    }
+                    reindexTask(id, existing.getStatus(), existing.getUserId(), result.getStatus(), result.getUserId());
+                    changeFeed.taskUpdated(result, existing.getStatus());
+                    tasksChanged();
+                    if (invalidateCache) {
+                        taskCache.invalidate(existing.getStatus(), existing.getUserId(), result.getStatus(), result.getUserId());
+                    }
+                }
+                return result;
+            }
+        }
+    }
+
+    private void releaseKey(List<Object> newKey, List<Object> oldKey, int id) {
+        if (!newKey.equals(oldKey)) {
+            taskKeys.remove(newKey, id);
+        }
+    }
+
+    /**
+     * Visits a private copy of every user and then every task record, in id order, for writing a
+     * snapshot. Task records are immutable and are passed as they are. Iteration starts only after
+     * every write already in flight has completed, so anything journaled before the call is
+     * reflected; writers are never blocked.
+     */
+    public void snapshot(Consumer<User> userSink, Consumer<Task> taskSink) {
+        writeEpochs.advance();
+        users.forEachInOrder(chain -> {
+            User user = chain.value;
+            userSink.accept(new User(user.getId(), user.getName(), user.getEmail(), user.getRole()));
+        });
+        tasks.forEachInOrder(chain -> taskSink.accept(chain.value));
+    }
+
+    public int getNextUserId() {
+        return nextUserId.get();
+    }
+
+    public int getNextTaskId() {
+        return nextTaskId.get();
+    }
+
+    /**
+     * Bulk recovery path: raises the id counters to at least the given values.
+     */
+    public void restoreIdCounters(int nextUserId, int nextTaskId) {
+        this.nextUserId.accumulateAndGet(nextUserId, Math::max);
+        this.nextTaskId.accumulateAndGet(nextTaskId, Math::max);
+    }
+
+    /**
+     * Drops every record and resets the id counters, ahead of rebuilding the store from a
+     * snapshot or journal through the {@code restore*} methods.
+     */
+    public void clear() {
+        // Leased versions would read the rebuilt records as not yet written; expire them instead.
+        for (ReadSnapshot lease : leases.values()) {
+            release(lease);
         }
-        if (updated.getTitle() != null) {
-            existing.setTitle(updated.getTitle());
+        users.clear();
+        tasks.clear();
+        userKeys.clear();
+        taskKeys.clear();
+        tasksByUser.clear();
+        for (Task.Status status : Task.Status.values()) {
+            tasksByStatus.get(status).clear();
+            statusCounts.get(status).reset();
         }
-        if (updated.getStatus() != null) {
-            existing.setStatus(updated.getStatus());
+        nextUserId.set(1);
+        nextTaskId.set(1);
+        taskCache.clear();
+        usersChanged();
+        tasksChanged();
+    }
+
+    /**
+     * Bulk recovery path: stores the user as-is, replacing any record with the same id, without
+     * duplicate checks, journaling or cache eviction. Advances the id counter past the user's id.
+     * A replaced record stays linked behind the new one for snapshots that still read it, which is
+     * what keeps snapshot reads correct on a replica applying the leader's writes through here.
+     */
+    public void restoreUser(User user) {
+        int epoch = writeEpochs.enter();
+        try {
+            Versioned<User> previous = users.get(user.getId());
+            Versioned<User> next = new Versioned<>(user, commits.incrementAndGet(), previous);
+            users.put(user.getId(), next);
+            if (previous != null) {
+                userKeys.remove(userKey(previous.value), previous.value.getId());
+                retain(next);
+            }
+        } finally {
+            writeEpochs.exit(epoch);
         }
-        if (updated.getUserId() != 0) {
-            existing.setUserId(updated.getUserId());
+        userKeys.put(userKey(user), user.getId());
+        nextUserId.accumulateAndGet(user.getId() + 1, Math::max);
+        usersChanged();
+    }
+
+    /**
+     * Bulk recovery path for tasks; see {@link #restoreUser}. Natural keys are claimed
+     * last-writer-wins, since replaying a log in order converges to the final owners.
+     */
+    public void restoreTask(Task task) {
+        int epoch = writeEpochs.enter();
+        try {
+            Versioned<Task> current = tasks.get(task.getId());
+            if (current == null) {
+                taskKeys.put(taskKey(task), task.getId());
+                insertTask(task);
+            } else {
+                synchronized (current) {
+                    Task existing = current.value;
+                    taskKeys.remove(taskKey(existing), existing.getId());
+                    taskKeys.put(taskKey(task), task.getId());
+                    Versioned<Task> next = new Versioned<>(task, commits.incrementAndGet(), current);
+                    tasks.put(task.getId(), next);
+                    retain(next);
+                    reindexTask(existing.getId(), existing.getStatus(), existing.getUserId(), task.getStatus(), task.getUserId());
+                }
+            }
+        } finally {
+            writeEpochs.exit(epoch);
         }
-        return existing;
+        nextTaskId.accumulateAndGet(task.getId() + 1, Math::max);
+        tasksChanged();
+    }
+
+    /**
+     * Stores an already-identified user and claims its natural key.
+     * Bypasses duplicate checks and cache eviction; callers are responsible for both.
+     */
+    void insertUser(User user) {
+        userKeys.putIfAbsent(userKey(user), user.getId());
+        users.put(user.getId(), new Versioned<>(user, commits.incrementAndGet(), null));
     }
-}
 
+    /**
+     * Stores an already-identified task and registers it in the secondary indexes.
+     * Bypasses duplicate checks and cache eviction; callers are responsible for both.
+     */
+    void insertTask(Task task) {
+        taskKeys.putIfAbsent(taskKey(task), task.getId());
+        tasks.put(task.getId(), new Versioned<>(task, commits.incrementAndGet(), null));
+        if (task.getStatus() != null) {
+            tasksByStatus.get(task.getStatus()).add(task.getId());
+            statusCounts.get(task.getStatus()).increment();
+        }
+        tasksByUser.computeIfAbsent(task.getUserId(), k -> new ConcurrentSkipListSet<>()).add(task.getId());
+    }
 
+    private void reindexTask(int id, Task.Status oldStatus, int oldUserId, Task.Status newStatus, int newUserId) {
+        // Add before remove so a concurrent reader sees the task in at least one of the sets.
+        if (newStatus != oldStatus) {
+            if (newStatus != null) {
+                tasksByStatus.get(newStatus).add(id);
+                statusCounts.get(newStatus).increment();
+            }
+            if (oldStatus != null) {
+                tasksByStatus.get(oldStatus).remove(id);
+                statusCounts.get(oldStatus).decrement();
+            }
+        }
+        if (newUserId != oldUserId) {
+            tasksByUser.computeIfAbsent(newUserId, k -> new ConcurrentSkipListSet<>()).add(id);
+            NavigableSet<Integer> previous = tasksByUser.get(oldUserId);
+            if (previous != null) {
+                previous.remove(id);
+            }
+        }
+    }
+
+    private static long journalOrRelease(LongSupplier append, ConcurrentHashMap<List<Object>, Integer> keys,
+                                         List<Object> key, int id) {
+        try {
+            return append.getAsLong();
+        } catch (RuntimeException ex) {
+            keys.remove(key, id);
+            throw ex;
+        }
+    }
+
+    private static List<Object> userKey(User user) {
+        return Arrays.asList(user.getName(), user.getEmail(), user.getRole());
+    }
+
+    private static List<Object> taskKey(Task task) {
+        return Arrays.asList(task.getTitle(), task.getStatus(), task.getUserId());
+    }
+
+    static Task.Status parseStatus(String status) {
+        for (Task.Status s : Task.Status.values()) {
+            if (s.getValue().equalsIgnoreCase(status)) {
+                return s;
+            }
+        }
+        return null;
+    }
+}
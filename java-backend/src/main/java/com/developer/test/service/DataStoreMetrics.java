@@ -0,0 +1,124 @@
+package com.developer.test.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.framework.autoproxy.AbstractBeanFactoryAwareAdvisingPostProcessor;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.StaticMethodMatcherPointcut;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times the operations a {@link DataStoreOperations} bean declares through that interface as
+ * {@code datastore.operations}, tagged with the operation name, the concrete store and the exception
+ * thrown (or {@code none}). Setters, lifecycle methods and the version, id-counter and snapshot
+ * settings accessors are not timed. Methods returning
+ * a {@link CompletableFuture} are timed until the future completes, so async writes include the
+ * wait for durability, and are tagged with the exception they complete with. The advice is
+ * added outermost on the existing cache proxy, so cached reads are timed as callers see them; the
+ * hit/miss split itself is published by the cache metrics as {@code cache.gets}.
+ */
+@Component
+public class DataStoreMetrics extends AbstractBeanFactoryAwareAdvisingPostProcessor {
+    static final String METRIC = "datastore.operations";
+
+    public DataStoreMetrics(ObjectProvider<MeterRegistry> registry) {
+        // The registry is looked up on first use so it is still configured by Boot's meter filters.
+        this.advisor = new DefaultPointcutAdvisor(new DataStoreOperationMethods(), new TimingInterceptor(registry));
+        setBeforeExistingAdvisors(true);
+        setProxyTargetClass(true);
+    }
+
+    private static final class DataStoreOperationMethods extends StaticMethodMatcherPointcut {
+        private static final Set<String> ACCESSORS = Set.of("getVersion", "getUsersVersion", "getTasksVersion",
+                "getSnapshotLeaseMillis", "getSnapshotExecutor", "getNextUserId", "getNextTaskId");
+
+        @Override
+        public boolean matches(Method method, Class<?> targetClass) {
+            return DataStoreOperations.class.isAssignableFrom(targetClass)
+                    && !Modifier.isStatic(method.getModifiers())
+                    && !ACCESSORS.contains(method.getName())
+                    && ClassUtils.hasMethod(DataStoreOperations.class, method.getName(), method.getParameterTypes());
+        }
+    }
+
+    private static final class TimingInterceptor implements MethodInterceptor {
+        private final ObjectProvider<MeterRegistry> registryProvider;
+        // Keyed by the store class first: an inherited method is shared by every store that extends it.
+        private final ConcurrentHashMap<Class<?>, StoreTimers> timers = new ConcurrentHashMap<>();
+        private volatile MeterRegistry registry;
+
+        TimingInterceptor(ObjectProvider<MeterRegistry> registryProvider) {
+            this.registryProvider = registryProvider;
+        }
+
+        @Override
+        public Object invoke(MethodInvocation invocation) throws Throwable {
+            MeterRegistry meters = registry();
+            if (meters == null) {
+                return invocation.proceed();
+            }
+            long start = System.nanoTime();
+            Object result;
+            try {
+                result = invocation.proceed();
+            } catch (Throwable ex) {
+                record(meters, invocation, ex, start);
+                throw ex;
+            }
+            if (result instanceof CompletableFuture) {
+                return ((CompletableFuture<?>) result).whenComplete((value, ex) -> record(meters, invocation,
+                        ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex, start));
+            }
+            record(meters, invocation, null, start);
+            return result;
+        }
+
+        private void record(MeterRegistry meters, MethodInvocation invocation, Throwable failure, long start) {
+            Method method = invocation.getMethod();
+            Object target = invocation.getThis();
+            StoreTimers store = timers.computeIfAbsent(target == null ? Object.class : target.getClass(),
+                    type -> new StoreTimers());
+            Timer timer = failure == null
+                    ? store.success.computeIfAbsent(method, m -> timer(meters, invocation, "none"))
+                    : store.failure.computeIfAbsent(method, m -> new ConcurrentHashMap<>())
+                            .computeIfAbsent(failure.getClass(), type -> timer(meters, invocation, type.getSimpleName()));
+            timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+
+        private MeterRegistry registry() {
+            MeterRegistry meters = registry;
+            if (meters == null) {
+                meters = registryProvider.getIfAvailable();
+                registry = meters;
+            }
+            return meters;
+        }
+
+        private static Timer timer(MeterRegistry meters, MethodInvocation invocation, String exception) {
+            Object target = invocation.getThis();
+            return Timer.builder(METRIC)
+                    .description("DataStore operation latency")
+                    .tag("operation", invocation.getMethod().getName())
+                    .tag("store", target == null ? "unknown" : target.getClass().getSimpleName())
+                    .tag("exception", exception)
+                    .register(meters);
+        }
+    }
+
+    private static final class StoreTimers {
+        final ConcurrentHashMap<Method, Timer> success = new ConcurrentHashMap<>();
+        final ConcurrentHashMap<Method, ConcurrentHashMap<Class<?>, Timer>> failure = new ConcurrentHashMap<>();
+    }
+}
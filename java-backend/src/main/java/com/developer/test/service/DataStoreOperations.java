@@ -0,0 +1,152 @@
+package com.developer.test.service;
+
+import com.developer.test.dto.BatchResponse;
+import com.developer.test.dto.StatsResponse;
+import com.developer.test.model.Task;
+import com.developer.test.model.User;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
+
+/**
+ * What the API needs from a store of users and tasks. {@link DataStore} is the in-memory
+ * implementation that the columnar, cluster and replica modes build on; the read-only mapped mode
+ * serves a snapshot file without any of its heap state.
+ */
+public interface DataStoreOperations {
+    int MAX_BATCH_SIZE = 10_000;
+
+    /**
+     * Returned by the version getters of a store that cannot give a cheap version that never
+     * decreases. Its responses carry no ETag, so every GET is answered in full.
+     */
+    long UNVERSIONED = -1;
+
+    /**
+     * Increases with every write to either collection; never decreases while the store is alive.
+     */
+    long getVersion();
+
+    long getUsersVersion();
+
+    long getTasksVersion();
+
+    List<User> getUsers();
+
+    /**
+     * Non-blocking {@link #getUsers}, as are the other {@code get*Async} reads. A local store
+     * answers at once; a cluster node completes once the other nodes it asked have answered.
+     */
+    default CompletableFuture<List<User>> getUsersAsync() {
+        return CompletableFuture.completedFuture(getUsers());
+    }
+
+    Page<User> getUsersPage(Integer cursor, int limit, boolean descending);
+
+    default CompletableFuture<Page<User>> getUsersPageAsync(Integer cursor, int limit, boolean descending) {
+        return CompletableFuture.completedFuture(getUsersPage(cursor, limit, descending));
+    }
+
+    /**
+     * Visits every user in id order without copying the collection.
+     */
+    void forEachUser(Consumer<User> action);
+
+    User getUserById(int id);
+
+    /**
+     * @return a future completing with the user, or with {@code null} when it does not exist
+     */
+    default CompletableFuture<User> getUserByIdAsync(int id) {
+        return CompletableFuture.completedFuture(getUserById(id));
+    }
+
+    List<Task> getTasks(String status, String userId);
+
+    default CompletableFuture<List<Task>> getTasksAsync(String status, String userId) {
+        return CompletableFuture.completedFuture(getTasks(status, userId));
+    }
+
+    Page<Task> getTasksPage(String status, String userId, Integer cursor, int limit, boolean descending);
+
+    default CompletableFuture<Page<Task>> getTasksPageAsync(String status, String userId, Integer cursor, int limit,
+                                                            boolean descending) {
+        return CompletableFuture.completedFuture(getTasksPage(status, userId, cursor, limit, descending));
+    }
+
+    /**
+     * Visits every task matching the filters in id order without copying the collection.
+     */
+    void forEachTask(String status, String userId, Consumer<Task> action);
+
+    StatsResponse getStats();
+
+    default CompletableFuture<StatsResponse> getStatsAsync() {
+        return CompletableFuture.completedFuture(getStats());
+    }
+
+    /**
+     * @throws SnapshotUnsupportedException if this store keeps no older versions
+     */
+    ReadSnapshot openSnapshot();
+
+    ReadSnapshot leaseSnapshot();
+
+    /**
+     * @throws SnapshotExpiredException if no lease holds that version any more
+     */
+    ReadSnapshot leasedSnapshot(long version);
+
+    long getSnapshotLeaseMillis();
+
+    /**
+     * Where snapshot opens and snapshot reads run: an open waits for the writes in flight and a
+     * read scans every record, so neither belongs on a request thread.
+     */
+    default Executor getSnapshotExecutor() {
+        return ForkJoinPool.commonPool();
+    }
+
+    User createUser(User user);
+
+    CompletableFuture<User> createUserAsync(User user);
+
+    Task createTask(Task task);
+
+    CompletableFuture<Task> createTaskAsync(Task task);
+
+    List<BatchResponse.Item> createUsers(List<User> batch);
+
+    CompletableFuture<List<BatchResponse.Item>> createUsersAsync(List<User> batch);
+
+    List<BatchResponse.Item> createTasks(List<Task> batch);
+
+    CompletableFuture<List<BatchResponse.Item>> createTasksAsync(List<Task> batch);
+
+    List<BatchResponse.Item> updateTasks(List<Task> batch);
+
+    CompletableFuture<List<BatchResponse.Item>> updateTasksAsync(List<Task> batch);
+
+    /**
+     * @return the updated task, or {@code null} when it does not exist
+     */
+    Task updateTask(int id, Task updated);
+
+    CompletableFuture<Task> updateTaskAsync(int id, Task updated);
+
+    boolean userExists(User user);
+
+    boolean taskExists(Task task);
+
+    /**
+     * Visits every user and then every task, in id order, for writing a snapshot.
+     */
+    void snapshot(Consumer<User> userSink, Consumer<Task> taskSink);
+
+    int getNextUserId();
+
+    int getNextTaskId();
+}
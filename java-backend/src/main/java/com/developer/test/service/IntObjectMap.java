@@ -0,0 +1,261 @@
+package com.developer.test.service;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.function.Consumer;
+import java.util.function.IntPredicate;
+
+/**
+ * Concurrent map from positive {@code int} keys to values, stored in open-addressing arrays with
+ * no boxing and no per-entry node.
+ *
+ * <p>Reads are lock-free and allocation-free: a lookup probes the current table with acquire
+ * loads. Inserts serialize on the map's monitor; a new entry's value is written before its key is
+ * released, and a resized table is fully built before it is published, so readers never observe a
+ * half-written slot. {@link #replace} swaps the value of an existing key with a CAS and never takes
+ * the monitor: a resize retires each old slot with a CAS to a forwarding marker once its value is in
+ * the new table, so a swap lands either before the move (and is carried over) or after it (and is
+ * redirected to the new table), never in between. Entries are never removed individually, only by
+ * {@link #clear()}, which keeps probing free of tombstones.
+ *
+ * <p>Key-ordered iteration walks the range {@code [1, maxKey]}; it is meant for densely assigned
+ * ids, where that range is close to {@link #size()}.
+ */
+final class IntObjectMap<V> {
+    private static final VarHandle KEYS = MethodHandles.arrayElementVarHandle(int[].class);
+    private static final VarHandle VALUES = MethodHandles.arrayElementVarHandle(Object[].class);
+    private static final int INITIAL_CAPACITY = 1024;
+    // Value of an old-table slot whose entry now lives in Table.next.
+    private static final Object MOVED = new Object();
+
+    private static final class Table {
+        final int[] keys;
+        final Object[] values;
+        final int mask;
+        // The table being filled by a resize; set before any slot is marked MOVED.
+        volatile Table next;
+
+        Table(int capacity) {
+            keys = new int[capacity];
+            values = new Object[capacity];
+            mask = capacity - 1;
+        }
+    }
+
+    private volatile Table table = new Table(INITIAL_CAPACITY);
+    private volatile int size;
+    private volatile int maxKey;
+
+    V get(int key) {
+        Table current = table;
+        while (true) {
+            int slot = find(current, key);
+            if (slot < 0) {
+                return null;
+            }
+            Object value = VALUES.getAcquire(current.values, slot);
+            if (value != MOVED) {
+                @SuppressWarnings("unchecked")
+                V result = (V) value;
+                return result;
+            }
+            current = current.next;
+        }
+    }
+
+    boolean containsKey(int key) {
+        return get(key) != null;
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Largest key ever stored, or 0 when empty.
+     */
+    int maxKey() {
+        return maxKey;
+    }
+
+    /**
+     * Maps {@code key} to {@code value}, returning the previous value or {@code null}.
+     */
+    synchronized V put(int key, V value) {
+        if (key <= 0) {
+            throw new IllegalArgumentException("Key must be positive: " + key);
+        }
+        if (value == null) {
+            throw new NullPointerException("value");
+        }
+        Table current = table;
+        int slot = slot(key, current.mask);
+        while (true) {
+            int found = current.keys[slot];
+            if (found == key) {
+                @SuppressWarnings("unchecked")
+                V previous = (V) current.values[slot];
+                VALUES.setRelease(current.values, slot, value);
+                return previous;
+            }
+            if (found == 0) {
+                break;
+            }
+            slot = (slot + 1) & current.mask;
+        }
+        current.values[slot] = value;
+        KEYS.setRelease(current.keys, slot, key);
+        size = size + 1;
+        if (key > maxKey) {
+            maxKey = key;
+        }
+        if (size * 2 > current.keys.length) {
+            table = resize(current);
+        }
+        return null;
+    }
+
+    /**
+     * Maps an existing {@code key} to {@code value} if it is currently mapped to {@code expected}
+     * (compared by identity). Returns {@code false} when the key is absent or holds another value.
+     * Every swap must install a distinct instance: with shared ones, such as cached boxes, a swap
+     * that lost a race with a resize cannot tell the winner's value from its own.
+     */
+    boolean replace(int key, V expected, V value) {
+        if (value == null) {
+            throw new NullPointerException("value");
+        }
+        Table current = table;
+        while (true) {
+            int slot = find(current, key);
+            if (slot < 0) {
+                return false;
+            }
+            if (VALUES.compareAndSet(current.values, slot, expected, value)) {
+                return true;
+            }
+            if (VALUES.getVolatile(current.values, slot) != MOVED) {
+                return false;
+            }
+            current = current.next;
+        }
+    }
+
+    synchronized void clear() {
+        Table old = table;
+        Table fresh = new Table(INITIAL_CAPACITY);
+        // Forward the old table to the empty one, so a replace() still holding it fails.
+        old.next = fresh;
+        for (int i = 0; i < old.keys.length; i++) {
+            if (old.keys[i] != 0) {
+                VALUES.setVolatile(old.values, i, MOVED);
+            }
+        }
+        table = fresh;
+        size = 0;
+        maxKey = 0;
+    }
+
+    /**
+     * Visits every value in ascending key order. Weakly consistent: entries added during the walk
+     * may or may not be visited.
+     */
+    void forEachInOrder(Consumer<? super V> action) {
+        int last = maxKey;
+        for (int key = 1; key <= last; key++) {
+            V value = get(key);
+            if (value != null) {
+                action.accept(value);
+            }
+        }
+    }
+
+    /**
+     * Present keys in ascending or descending order, starting just past {@code after} when it is
+     * non-null. Weakly consistent, like {@link #forEachInOrder}.
+     */
+    PrimitiveIterator.OfInt keys(Integer after, boolean descending) {
+        return orderedKeys(this::containsKey, maxKey, after, descending);
+    }
+
+    /**
+     * Keys in {@code [1, last]} for which {@code present} holds, walked in either direction from
+     * just past {@code after}; shared with {@link ShardedIntObjectMap}.
+     */
+    static PrimitiveIterator.OfInt orderedKeys(IntPredicate present, int last, Integer after, boolean descending) {
+        int first = after == null
+                ? (descending ? last : 1)
+                : (descending ? Math.min(after - 1, last) : Math.max(after + 1, 1));
+        return new PrimitiveIterator.OfInt() {
+            private int next = advance(first);
+
+            private int advance(int from) {
+                for (int key = from; key >= 1 && key <= last; key += descending ? -1 : 1) {
+                    if (present.test(key)) {
+                        return key;
+                    }
+                }
+                return 0;
+            }
+
+            @Override
+            public boolean hasNext() {
+                return next != 0;
+            }
+
+            @Override
+            public int nextInt() {
+                if (next == 0) {
+                    throw new NoSuchElementException();
+                }
+                int current = next;
+                next = advance(descending ? current - 1 : current + 1);
+                return current;
+            }
+        };
+    }
+
+    private static int find(Table table, int key) {
+        for (int slot = slot(key, table.mask); ; slot = (slot + 1) & table.mask) {
+            int found = (int) KEYS.getAcquire(table.keys, slot);
+            if (found == key) {
+                return slot;
+            }
+            if (found == 0) {
+                return -1;
+            }
+        }
+    }
+
+    // Runs under the map's monitor, so only replace() races with it.
+    private static Table resize(Table old) {
+        Table grown = new Table(old.keys.length * 2);
+        old.next = grown;
+        for (int i = 0; i < old.keys.length; i++) {
+            int key = old.keys[i];
+            if (key != 0) {
+                int slot = slot(key, grown.mask);
+                while (grown.keys[slot] != 0) {
+                    slot = (slot + 1) & grown.mask;
+                }
+                // Copy, then retire the old slot; if a replace() swapped it in between, copy again.
+                // The entry is complete in the new table before anyone is forwarded to it.
+                Object value = VALUES.getVolatile(old.values, i);
+                VALUES.setRelease(grown.values, slot, value);
+                KEYS.setRelease(grown.keys, slot, key);
+                while (!VALUES.compareAndSet(old.values, i, value, MOVED)) {
+                    value = VALUES.getVolatile(old.values, i);
+                    VALUES.setRelease(grown.values, slot, value);
+                }
+            }
+        }
+        return grown;
+    }
+
+    private static int slot(int key, int mask) {
+        int h = key * 0x9E3779B9;
+        return (h ^ (h >>> 16)) & mask;
+    }
+}
@@ -0,0 +1,57 @@
+package com.developer.test.service;
+
+import com.developer.test.model.Task;
+import com.developer.test.model.User;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Receives every DataStore write, in an order that replays to the same state.
+ * Record methods are called before the write becomes visible, updates while the task is locked
+ * against other writers, and return a log sequence number; {@link #await} then blocks until
+ * that record is as durable as the journal's policy promises, and {@link #whenDurable} signals
+ * the same without blocking the caller.
+ */
+public interface Journal {
+    Journal NONE = new Journal() {
+        @Override
+        public long userCreated(User user) {
+            return 0;
+        }
+
+        @Override
+        public long taskCreated(Task task) {
+            return 0;
+        }
+
+        @Override
+        public long taskUpdated(Task task) {
+            return 0;
+        }
+
+        @Override
+        public void await(long lsn) {
+        }
+    };
+
+    long userCreated(User user);
+
+    long taskCreated(Task task);
+
+    /**
+     * Records the full post-update state of the task.
+     */
+    long taskUpdated(Task task);
+
+    void await(long lsn);
+
+    /**
+     * Completes once the record at {@code lsn} is as durable as {@link #await} would guarantee.
+     * The default waits on the calling thread; journals that block should complete the future
+     * from their own thread instead.
+     */
+    default CompletableFuture<Void> whenDurable(long lsn) {
+        await(lsn);
+        return CompletableFuture.completedFuture(null);
+    }
+}
@@ -0,0 +1,31 @@
+package com.developer.test.service;
+
+import java.util.List;
+
+/**
+ * One keyset page of records ordered by id. {@code nextCursor} is the id to pass as the
+ * cursor of the following request, or {@code null} when this is the last page.
+ */
+public class Page<T> {
+    public static final int MAX_LIMIT = 1000;
+
+    private final List<T> items;
+    private final Integer nextCursor;
+
+    public Page(List<T> items, Integer nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<T> getItems() {
+        return items;
+    }
+
+    public Integer getNextCursor() {
+        return nextCursor;
+    }
+
+    public static boolean isValidOrder(String order) {
+        return "asc".equalsIgnoreCase(order) || "desc".equalsIgnoreCase(order);
+    }
+}
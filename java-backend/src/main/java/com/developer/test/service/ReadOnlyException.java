@@ -0,0 +1,11 @@
+package com.developer.test.service;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.METHOD_NOT_ALLOWED)
+public class ReadOnlyException extends RuntimeException {
+    public ReadOnlyException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,109 @@
+package com.developer.test.service;
+
+import com.developer.test.dto.StatsResponse;
+import com.developer.test.model.Task;
+import com.developer.test.model.User;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Users, tasks and stats as of one committed store version. Reads never lock and never see a
+ * write committed after {@link #getVersion()}, however many land while the snapshot is open; the
+ * versions it needs are kept until it is closed or, for leased snapshots, until the lease runs out.
+ * Snapshot queries scan the collection instead of using the live secondary indexes and counters,
+ * so they cost O(n) where the live ones do not.
+ */
+public final class ReadSnapshot implements AutoCloseable {
+    private static final long CLOSED = Long.MIN_VALUE;
+    private static final long NEVER = Long.MAX_VALUE;
+
+    private final DataStore store;
+    // Oldest version kept for this snapshot, read before it was registered; the version it reads
+    // is chosen afterwards and is never lower. See DataStore.openSnapshot.
+    final long horizon;
+    final long sequence;
+    private long version;
+    // System.nanoTime() deadline, NEVER until a lease is taken, CLOSED once released.
+    private final AtomicLong expiresAt = new AtomicLong(NEVER);
+
+    ReadSnapshot(DataStore store, long horizon, long sequence) {
+        this.store = store;
+        this.horizon = horizon;
+        this.sequence = sequence;
+    }
+
+    void pinAt(long version) {
+        this.version = version;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public List<User> getUsers() {
+        return store.usersAt(version);
+    }
+
+    public Page<User> getUsersPage(Integer cursor, int limit, boolean descending) {
+        return store.usersPageAt(version, cursor, limit, descending);
+    }
+
+    public List<Task> getTasks(String status, String userId) {
+        return store.tasksAt(version, status, userId);
+    }
+
+    public Page<Task> getTasksPage(String status, String userId, Integer cursor, int limit, boolean descending) {
+        return store.tasksPageAt(version, status, userId, cursor, limit, descending);
+    }
+
+    public StatsResponse getStats() {
+        return store.statsAt(version);
+    }
+
+    @Override
+    public void close() {
+        if (expiresAt.getAndSet(CLOSED) != CLOSED) {
+            store.release(this);
+        }
+    }
+
+    /**
+     * Pushes the lease out to at least {@code deadline}; {@code false} once the snapshot has
+     * expired or been closed, after which its versions may already be gone.
+     */
+    boolean renew(long deadline) {
+        while (true) {
+            long current = expiresAt.get();
+            if (current == CLOSED || isPast(current, System.nanoTime())) {
+                return false;
+            }
+            long next = current == NEVER || deadline - current > 0 ? deadline : current;
+            if (expiresAt.compareAndSet(current, next)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Marks a snapshot whose lease ran out as closed, so a racing {@link #renew} cannot revive it.
+     */
+    boolean expire(long now) {
+        while (true) {
+            long current = expiresAt.get();
+            if (current == CLOSED) {
+                return true;
+            }
+            if (!isPast(current, now)) {
+                return false;
+            }
+            if (expiresAt.compareAndSet(current, CLOSED)) {
+                return true;
+            }
+        }
+    }
+
+    private static boolean isPast(long deadline, long now) {
+        return deadline != NEVER && now - deadline > 0;
+    }
+}
@@ -0,0 +1,221 @@
+package com.developer.test.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.PrimitiveIterator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.BiConsumer;
+import java.util.function.BinaryOperator;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * {@link IntObjectMap} split into shards by {@code key % shardCount}. Each shard has its own
+ * table and monitor, so concurrent inserts and resizes of one shard do not stall the others, and
+ * whole-map scans run one task per shard on a {@link ForkJoinPool}.
+ *
+ * <p>Densely assigned ids spread evenly: shard {@code s} holds every {@code shardCount}-th key, so
+ * a shard's scan strides through the key range and collects its hits already in key order, and
+ * the partial results merge without a sort.
+ */
+final class ShardedIntObjectMap<V> {
+    // Below this many keys a scan is cheaper on the calling thread than handed to the pool.
+    static final int PARALLEL_THRESHOLD = 1 << 14;
+
+    private final IntObjectMap<V>[] shards;
+
+    @SuppressWarnings("unchecked")
+    ShardedIntObjectMap(int shardCount) {
+        if (shardCount < 1) {
+            throw new IllegalArgumentException("Shard count must be positive: " + shardCount);
+        }
+        shards = (IntObjectMap<V>[]) new IntObjectMap<?>[shardCount];
+        for (int i = 0; i < shardCount; i++) {
+            shards[i] = new IntObjectMap<>();
+        }
+    }
+
+    int shardCount() {
+        return shards.length;
+    }
+
+    private IntObjectMap<V> shard(int key) {
+        return shards[key % shards.length];
+    }
+
+    V get(int key) {
+        return shard(key).get(key);
+    }
+
+    boolean containsKey(int key) {
+        return shard(key).containsKey(key);
+    }
+
+    V put(int key, V value) {
+        return shard(key).put(key, value);
+    }
+
+    boolean replace(int key, V expected, V value) {
+        return shard(key).replace(key, expected, value);
+    }
+
+    int size() {
+        int size = 0;
+        for (IntObjectMap<V> shard : shards) {
+            size += shard.size();
+        }
+        return size;
+    }
+
+    int maxKey() {
+        int max = 0;
+        for (IntObjectMap<V> shard : shards) {
+            max = Math.max(max, shard.maxKey());
+        }
+        return max;
+    }
+
+    /**
+     * Empties every shard in turn; not atomic across shards.
+     */
+    void clear() {
+        for (IntObjectMap<V> shard : shards) {
+            shard.clear();
+        }
+    }
+
+    /**
+     * Visits every value in ascending key order on the calling thread. Weakly consistent, like
+     * {@link IntObjectMap#forEachInOrder}.
+     */
+    void forEachInOrder(Consumer<? super V> action) {
+        int last = maxKey();
+        for (int key = 1; key <= last; key++) {
+            V value = get(key);
+            if (value != null) {
+                action.accept(value);
+            }
+        }
+    }
+
+    PrimitiveIterator.OfInt keys(Integer after, boolean descending) {
+        return IntObjectMap.orderedKeys(this::containsKey, maxKey(), after, descending);
+    }
+
+    /**
+     * Maps every value and returns the non-null results in ascending key order, scanning the
+     * shards in parallel on {@code pool} when the map is large enough to pay for it. Weakly
+     * consistent, like {@link #forEachInOrder}.
+     */
+    <R> List<R> collectInOrder(ForkJoinPool pool, Function<? super V, ? extends R> mapper) {
+        Hits[] hits = new Hits[shards.length];
+        for (int s = 0; s < shards.length; s++) {
+            hits[s] = new Hits(shards[s].size());
+        }
+        forEachShard(pool, maxKey(), (shard, key, value) -> {
+            R item = mapper.apply(value);
+            if (item != null) {
+                hits[shard].add(key, item);
+            }
+        });
+        return merge(hits);
+    }
+
+    /**
+     * Interleaves the per-shard hits back into key order. Shard {@code s} holds only keys
+     * congruent to {@code s}, so walking the keys tells which shard's next hit comes next.
+     */
+    private static <R> List<R> merge(Hits[] hits) {
+        int remaining = 0;
+        for (Hits shard : hits) {
+            remaining += shard.count;
+        }
+        List<R> result = new ArrayList<>(remaining);
+        int[] next = new int[hits.length];
+        for (int key = 1, s = 1 % hits.length; remaining > 0; key++, s = s + 1 == hits.length ? 0 : s + 1) {
+            Hits shard = hits[s];
+            if (next[s] < shard.count && shard.keys[next[s]] == key) {
+                @SuppressWarnings("unchecked")
+                R item = (R) shard.values[next[s]++];
+                result.add(item);
+                remaining--;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * One shard's scan results in key order, sized for the shard and grown only if writes land
+     * during the scan.
+     */
+    private static final class Hits {
+        int[] keys;
+        Object[] values;
+        int count;
+
+        Hits(int capacity) {
+            keys = new int[Math.max(capacity, 1)];
+            values = new Object[keys.length];
+        }
+
+        void add(int key, Object value) {
+            if (count == keys.length) {
+                keys = Arrays.copyOf(keys, count * 2);
+                values = Arrays.copyOf(values, count * 2);
+            }
+            keys[count] = key;
+            values[count++] = value;
+        }
+    }
+
+    /**
+     * Folds every value into one accumulator per shard, in parallel on {@code pool} when the map
+     * is large enough, and merges the partial results.
+     */
+    <A> A aggregate(ForkJoinPool pool, Supplier<A> identity, BiConsumer<A, ? super V> accumulator,
+                    BinaryOperator<A> merge) {
+        List<A> partials = new ArrayList<>(shards.length);
+        for (int i = 0; i < shards.length; i++) {
+            partials.add(identity.get());
+        }
+        forEachShard(pool, maxKey(), (shard, key, value) -> accumulator.accept(partials.get(shard), value));
+        A result = partials.get(0);
+        for (int i = 1; i < partials.size(); i++) {
+            result = merge.apply(result, partials.get(i));
+        }
+        return result;
+    }
+
+    private interface ShardVisitor<V> {
+        void visit(int shard, int key, V value);
+    }
+
+    private void forEachShard(ForkJoinPool pool, int last, ShardVisitor<? super V> visitor) {
+        if (shards.length == 1 || last < PARALLEL_THRESHOLD) {
+            for (int s = 0; s < shards.length; s++) {
+                scan(s, last, visitor);
+            }
+            return;
+        }
+        List<ForkJoinTask<?>> tasks = new ArrayList<>(shards.length);
+        for (int s = 0; s < shards.length; s++) {
+            int shard = s;
+            tasks.add(ForkJoinTask.adapt(() -> scan(shard, last, visitor)));
+        }
+        // Joining the tasks orders every worker's writes before the caller reads them.
+        pool.invoke(ForkJoinTask.adapt(() -> ForkJoinTask.invokeAll(tasks)));
+    }
+
+    private void scan(int s, int last, ShardVisitor<? super V> visitor) {
+        IntObjectMap<V> shard = shards[s];
+        for (int key = s == 0 ? shards.length : s; key <= last; key += shards.length) {
+            V value = shard.get(key);
+            if (value != null) {
+                visitor.visit(s, key, value);
+            }
+        }
+    }
+}
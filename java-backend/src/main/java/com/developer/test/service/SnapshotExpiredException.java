@@ -0,0 +1,11 @@
+package com.developer.test.service;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.GONE)
+public class SnapshotExpiredException extends RuntimeException {
+    public SnapshotExpiredException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,11 @@
+package com.developer.test.service;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.NOT_IMPLEMENTED)
+public class SnapshotUnsupportedException extends RuntimeException {
+    public SnapshotUnsupportedException(String message) {
+        super(message);
+    }
+}
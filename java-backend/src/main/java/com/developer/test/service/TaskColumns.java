@@ -0,0 +1,220 @@
+package com.developer.test.service;
+
+import com.developer.test.model.Task;
+
+import java.util.Arrays;
+
+/**
+ * Primitive column storage for tasks, addressed directly by id: an int userId column, a byte
+ * status column and an int title column holding {@link TitleDictionary} codes. Ids are assigned
+ * densely, so the id column is implicit in the row position; {@link #ABSENT} marks unused ids.
+ * Natural keys (title, status, userId) are indexed by an open-addressing table of ids.
+ *
+ * <p>Not thread-safe; {@link ColumnarDataStore} guards every call.
+ */
+final class TaskColumns {
+    static final byte ABSENT = -2;
+    private static final byte NO_STATUS = -1;
+    private static final int NO_TITLE = -1;
+    private static final Task.Status[] STATUSES = Task.Status.values();
+
+    private int[] userIds = new int[1024];
+    private byte[] statuses = absent(1024);
+    private int[] titles = new int[1024];
+    private int limit = 1;
+    private int size;
+    private final int[] statusCounts = new int[STATUSES.length];
+    private final TitleDictionary dictionary = new TitleDictionary();
+
+    // id + 1 per slot, 0 for empty; linear probing with backward-shift deletion, at most half full.
+    private int[] keys = new int[1024];
+
+    /**
+     * Exclusive upper bound of the ids stored so far; scans walk {@code [1, limit())}.
+     */
+    int limit() {
+        return limit;
+    }
+
+    int size() {
+        return size;
+    }
+
+    int statusCount(Task.Status status) {
+        return statusCounts[status.ordinal()];
+    }
+
+    boolean contains(int id) {
+        return id > 0 && id < limit && statuses[id] != ABSENT;
+    }
+
+    /**
+     * Raw status byte: the ordinal, {@code -1} for no status or {@link #ABSENT}.
+     */
+    byte statusCode(int id) {
+        return statuses[id];
+    }
+
+    static byte statusCode(Task.Status status) {
+        return status == null ? NO_STATUS : (byte) status.ordinal();
+    }
+
+    int userId(int id) {
+        return userIds[id];
+    }
+
+    Task get(int id) {
+        byte status = statuses[id];
+        return new Task(id, title(id), status < 0 ? null : STATUSES[status], userIds[id]);
+    }
+
+    String title(int id) {
+        return titles[id] == NO_TITLE ? null : dictionary.decode(titles[id]);
+    }
+
+    /**
+     * Id of the task owning the natural key, or 0.
+     */
+    int findByKey(String title, Task.Status status, int userId) {
+        int code = title == null ? NO_TITLE : dictionary.find(title);
+        if (title != null && code < 0) {
+            return 0;
+        }
+        byte statusCode = statusCode(status);
+        int mask = keys.length - 1;
+        for (int slot = keyHash(code, statusCode, userId) & mask; keys[slot] != 0; slot = (slot + 1) & mask) {
+            int id = keys[slot] - 1;
+            if (titles[id] == code && statuses[id] == statusCode && userIds[id] == userId) {
+                return id;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Stores the task under {@code id}, replacing any row there. The natural key is claimed
+     * last-writer-wins; callers that must not steal a key check {@link #findByKey} first.
+     */
+    void put(int id, String title, Task.Status status, int userId) {
+        if (id <= 0) {
+            throw new IllegalArgumentException("Task id must be positive: " + id);
+        }
+        ensureCapacity(id);
+        if (statuses[id] != ABSENT) {
+            removeKey(id);
+            if (statuses[id] >= 0) {
+                statusCounts[statuses[id]]--;
+            }
+        } else {
+            size++;
+        }
+        int owner = findByKey(title, status, userId);
+        if (owner != 0) {
+            removeKey(owner);
+        }
+
+        titles[id] = title == null ? NO_TITLE : dictionary.encode(title);
+        statuses[id] = statusCode(status);
+        userIds[id] = userId;
+        if (status != null) {
+            statusCounts[status.ordinal()]++;
+        }
+        insertKey(id);
+        limit = Math.max(limit, id + 1);
+    }
+
+    void clear() {
+        userIds = new int[1024];
+        statuses = absent(1024);
+        titles = new int[1024];
+        keys = new int[1024];
+        limit = 1;
+        size = 0;
+        Arrays.fill(statusCounts, 0);
+        dictionary.clear();
+    }
+
+    /**
+     * Approximate heap bytes held by the columns, key index and dictionary.
+     */
+    long footprintBytes() {
+        return 9L * userIds.length + 4L * keys.length + dictionary.footprintBytes();
+    }
+
+    private void ensureCapacity(int id) {
+        if (id < statuses.length) {
+            return;
+        }
+        int capacity = (int) Math.min(Integer.MAX_VALUE - 8, Math.max(id + 1L, 2L * statuses.length));
+        int old = statuses.length;
+        userIds = Arrays.copyOf(userIds, capacity);
+        titles = Arrays.copyOf(titles, capacity);
+        statuses = Arrays.copyOf(statuses, capacity);
+        Arrays.fill(statuses, old, capacity, ABSENT);
+    }
+
+    private int keyHash(int id) {
+        return keyHash(titles[id], statuses[id], userIds[id]);
+    }
+
+    private static int keyHash(int titleCode, byte statusCode, int userId) {
+        return TitleDictionary.mix((titleCode * 31 + statusCode) * 31 + userId);
+    }
+
+    private void insertKey(int id) {
+        int[] table = keys;
+        int mask = table.length - 1;
+        int slot = keyHash(id) & mask;
+        while (table[slot] != 0) {
+            slot = (slot + 1) & mask;
+        }
+        table[slot] = id + 1;
+        if (size * 2 > table.length) {
+            rehashKeys();
+        }
+    }
+
+    // Must run while the row still holds the values the key was inserted with.
+    private void removeKey(int id) {
+        int mask = keys.length - 1;
+        int slot = keyHash(id) & mask;
+        while (keys[slot] != id + 1) {
+            if (keys[slot] == 0) {
+                return;
+            }
+            slot = (slot + 1) & mask;
+        }
+        // Backward-shift deletion: pull later entries of the probe run into the hole.
+        int hole = slot;
+        for (int next = (hole + 1) & mask; keys[next] != 0; next = (next + 1) & mask) {
+            int home = keyHash(keys[next] - 1) & mask;
+            boolean movable = hole <= next ? (home <= hole || home > next) : (home <= hole && home > next);
+            if (movable) {
+                keys[hole] = keys[next];
+                hole = next;
+            }
+        }
+        keys[hole] = 0;
+    }
+
+    private void rehashKeys() {
+        int[] old = keys;
+        keys = new int[old.length * 2];
+        int mask = keys.length - 1;
+        for (int entry : old) {
+            if (entry != 0) {
+                int slot = keyHash(entry - 1) & mask;
+                while (keys[slot] != 0) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = entry;
+            }
+        }
+    }
+
+    private static byte[] absent(int capacity) {
+        byte[] column = new byte[capacity];
+        Arrays.fill(column, ABSENT);
+        return column;
+    }
+}
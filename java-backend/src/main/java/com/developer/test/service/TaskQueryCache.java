@@ -0,0 +1,54 @@
+package com.developer.test.service;
+
+import com.developer.test.model.Task;
+import org.springframework.cache.Cache;
+import org.springframework.cache.interceptor.SimpleKey;
+
+import java.util.List;
+import java.util.concurrent.Callable;
+
+/**
+ * Cache of {@code getTasks} results keyed by the normalized (status, userId) filter.
+ * A task write only evicts the four filter combinations the task can appear in,
+ * instead of wiping every cached query.
+ */
+class TaskQueryCache {
+    private final Cache cache;
+
+    TaskQueryCache(Cache cache) {
+        this.cache = cache;
+    }
+
+    List<Task> get(Task.Status status, Integer userId, Callable<List<Task>> loader) {
+        return cache.get(new SimpleKey(status, userId), loader);
+    }
+
+    /**
+     * Drops every cached query. Used once per batch write instead of per-task invalidation.
+     */
+    void clear() {
+        cache.clear();
+    }
+
+    /**
+     * Evicts every query a task with the given status and owner is visible to.
+     */
+    void invalidate(Task.Status status, int userId) {
+        cache.evict(new SimpleKey(null, null));
+        cache.evict(new SimpleKey(status, null));
+        cache.evict(new SimpleKey(null, userId));
+        cache.evict(new SimpleKey(status, userId));
+    }
+
+    /**
+     * Evicts the queries affected by a task moving from one (status, owner) pair to another.
+     */
+    void invalidate(Task.Status oldStatus, int oldUserId, Task.Status newStatus, int newUserId) {
+        invalidate(newStatus, newUserId);
+        if (oldStatus != newStatus || oldUserId != newUserId) {
+            cache.evict(new SimpleKey(oldStatus, null));
+            cache.evict(new SimpleKey(null, oldUserId));
+            cache.evict(new SimpleKey(oldStatus, oldUserId));
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package com.developer.test.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Dictionary encoding for task titles without one object per title. Each distinct title is
+ * stored once in a growable byte arena as {@code int hash, int length, UTF-8 bytes}; its code is
+ * the entry's offset. An open-addressing table of codes finds existing entries.
+ *
+ * <p>Not thread-safe; {@link TaskColumns} guards it.
+ */
+final class TitleDictionary {
+    private static final int ENTRY_HEADER_BYTES = 8;
+
+    private byte[] arena = new byte[1 << 16];
+    private int arenaSize;
+    // code + 1 per slot, 0 for empty; linear probing, kept at most half full.
+    private int[] table = new int[1 << 10];
+    private int count;
+
+    /**
+     * Code of {@code title}, adding it if absent.
+     */
+    int encode(String title) {
+        byte[] bytes = title.getBytes(StandardCharsets.UTF_8);
+        int hash = title.hashCode();
+        int slot = probe(hash, bytes);
+        if (table[slot] != 0) {
+            return table[slot] - 1;
+        }
+        int code = append(hash, bytes);
+        table[slot] = code + 1;
+        if (++count * 2 > table.length) {
+            rehash();
+        }
+        return code;
+    }
+
+    /**
+     * Code of {@code title}, or {@code -1} if it was never encoded.
+     */
+    int find(String title) {
+        int slot = probe(title.hashCode(), title.getBytes(StandardCharsets.UTF_8));
+        return table[slot] - 1;
+    }
+
+    String decode(int code) {
+        return new String(arena, code + ENTRY_HEADER_BYTES, readInt(code + 4), StandardCharsets.UTF_8);
+    }
+
+    int size() {
+        return count;
+    }
+
+    long footprintBytes() {
+        return arena.length + 4L * table.length;
+    }
+
+    void clear() {
+        arena = new byte[1 << 16];
+        arenaSize = 0;
+        table = new int[1 << 10];
+        count = 0;
+    }
+
+    private int probe(int hash, byte[] bytes) {
+        int mask = table.length - 1;
+        int slot = mix(hash) & mask;
+        while (table[slot] != 0) {
+            int code = table[slot] - 1;
+            if (readInt(code) == hash && matches(code, bytes)) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private boolean matches(int code, byte[] bytes) {
+        if (readInt(code + 4) != bytes.length) {
+            return false;
+        }
+        int start = code + ENTRY_HEADER_BYTES;
+        return Arrays.equals(arena, start, start + bytes.length, bytes, 0, bytes.length);
+    }
+
+    private int append(int hash, byte[] bytes) {
+        long needed = (long) arenaSize + ENTRY_HEADER_BYTES + bytes.length;
+        if (needed > Integer.MAX_VALUE - 8) {
+            throw new IllegalStateException("Title dictionary exceeds 2 GiB");
+        }
+        if (needed > arena.length) {
+            arena = Arrays.copyOf(arena, (int) Math.min(Integer.MAX_VALUE - 8, Math.max(needed, 2L * arena.length)));
+        }
+        int code = arenaSize;
+        writeInt(code, hash);
+        writeInt(code + 4, bytes.length);
+        System.arraycopy(bytes, 0, arena, code + ENTRY_HEADER_BYTES, bytes.length);
+        arenaSize = (int) needed;
+        return code;
+    }
+
+    private void rehash() {
+        int[] old = table;
+        table = new int[old.length * 2];
+        int mask = table.length - 1;
+        for (int entry : old) {
+            if (entry != 0) {
+                int slot = mix(readInt(entry - 1)) & mask;
+                while (table[slot] != 0) {
+                    slot = (slot + 1) & mask;
+                }
+                table[slot] = entry;
+            }
+        }
+    }
+
+    private int readInt(int at) {
+        return (arena[at] & 0xFF) << 24 | (arena[at + 1] & 0xFF) << 16 | (arena[at + 2] & 0xFF) << 8 | (arena[at + 3] & 0xFF);
+    }
+
+    private void writeInt(int at, int value) {
+        arena[at] = (byte) (value >>> 24);
+        arena[at + 1] = (byte) (value >>> 16);
+        arena[at + 2] = (byte) (value >>> 8);
+        arena[at + 3] = (byte) value;
+    }
+
+    static int mix(int hash) {
+        int h = hash * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
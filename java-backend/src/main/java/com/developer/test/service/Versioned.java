@@ -0,0 +1,52 @@
+package com.developer.test.service;
+
+/**
+ * One committed version of a stored record, linked to the version it replaced. The head of the
+ * chain is the live record; older links are kept only while a {@link ReadSnapshot} may still need
+ * them and are cut off by {@link #prune}.
+ */
+final class Versioned<T> {
+    final T value;
+    final long version;
+    private volatile Versioned<T> previous;
+
+    Versioned(T value, long version, Versioned<T> previous) {
+        this.value = value;
+        this.version = version;
+        this.previous = previous;
+    }
+
+    /**
+     * The record as of {@code asOf}: the newest link committed at or before it, or {@code null}
+     * when the record did not exist yet.
+     */
+    T at(long asOf) {
+        for (Versioned<T> node = this; node != null; node = node.previous) {
+            if (node.version <= asOf) {
+                return node.value;
+            }
+        }
+        return null;
+    }
+
+    boolean hasHistory() {
+        return previous != null;
+    }
+
+    /**
+     * Drops every link older than the newest one committed at or before {@code horizon}, which is
+     * all a snapshot at {@code horizon} or later can reach. Links are only ever cut, never
+     * restored, so racing prunes of the same chain are harmless.
+     */
+    void prune(long horizon) {
+        Versioned<T> node = this;
+        while (node.version > horizon) {
+            Versioned<T> next = node.previous;
+            if (next == null) {
+                return;
+            }
+            node = next;
+        }
+        node.previous = null;
+    }
+}
@@ -0,0 +1,83 @@
+package com.developer.test.service;
+
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Two-phase epoch counter that lets a background task wait for in-flight writes to finish
+ * without ever blocking writers. Writers {@link #enter} the current epoch and {@link #exit} it
+ * when done; {@link #advance} flips the epoch and parks until the previous one drains, woken by
+ * the writer that leaves it last.
+ */
+class WriteEpochs {
+    private final LongAdder[] active = {new LongAdder(), new LongAdder()};
+    private final ReentrantLock flip = new ReentrantLock();
+    private volatile int epoch;
+    // The epoch being drained, or -1; the drainer is set before it and read only after it.
+    private volatile int draining = -1;
+    private volatile Thread drainer;
+    // Every writer that entered this epoch or an earlier one has exited. Guarded by flip.
+    private int drained = -1;
+
+    int enter() {
+        while (true) {
+            int current = epoch;
+            active[current & 1].increment();
+            if (epoch == current) {
+                return current;
+            }
+            // Raced with advance(); retry so the caller is counted in the epoch it observed.
+            exit(current);
+        }
+    }
+
+    void exit(int entered) {
+        LongAdder writers = active[entered & 1];
+        writers.decrement();
+        // Either this read sees the drain, or the drainer's sum sees the decrement.
+        if (draining == entered && writers.sum() == 0) {
+            LockSupport.unpark(drainer);
+        }
+    }
+
+    /**
+     * Returns once every writer that entered before this call has exited. Callers arriving while
+     * a drain is under way wait for it and share the next one, so a burst of callers costs at
+     * most two drains.
+     */
+    void advance() {
+        int target = epoch;
+        flip.lock();
+        try {
+            // Compared by difference so the counters may wrap.
+            while (drained - target < 0) {
+                int current = epoch;
+                epoch = current + 1;
+                drain(current);
+                drained = current;
+            }
+        } finally {
+            flip.unlock();
+        }
+    }
+
+    private void drain(int current) {
+        LongAdder writers = active[current & 1];
+        drainer = Thread.currentThread();
+        draining = current;
+        boolean interrupted = false;
+        try {
+            while (writers.sum() != 0) {
+                LockSupport.park(this);
+                // A pending interrupt would make park return at once; restore it when done.
+                interrupted |= Thread.interrupted();
+            }
+        } finally {
+            draining = -1;
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
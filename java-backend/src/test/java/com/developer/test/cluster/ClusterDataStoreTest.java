@@ -0,0 +1,116 @@
+package com.developer.test.cluster;
+
+import com.developer.test.dto.BatchResponse;
+import com.developer.test.model.Task;
+import com.developer.test.model.User;
+import com.developer.test.service.ChangeFeed;
+import com.developer.test.service.Page;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.support.NoOpCacheManager;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Routing decisions that stay on one node. The other nodes are never started, so any request
+ * forwarded to them would fail.
+ */
+class ClusterDataStoreTest {
+
+    private static final String SELF = "http://localhost:8401";
+    private static final ConsistentHashRing RING = new ConsistentHashRing(
+            List.of(SELF, "http://localhost:8402", "http://localhost:8403"), 128);
+
+    private static ClusterDataStore node() {
+        ClusterClient client = new ClusterClient(new ObjectMapper(), Duration.ofMillis(200), new ClusterSecret("test"));
+        return new ClusterDataStore(new NoOpCacheManager(), new ChangeFeed(), 2, RING, SELF + "/", client);
+    }
+
+    /**
+     * Users whose creates route to {@link #SELF}.
+     */
+    private static List<User> ownUsers(int count) {
+        List<User> users = new ArrayList<>();
+        for (int i = 0; users.size() < count; i++) {
+            User user = new User(0, "User " + i, "user" + i + "@example.com", "developer");
+            if (RING.ownerOfKey(ClusterDataStore.userRoute(user)).equals(SELF)) {
+                users.add(user);
+            }
+        }
+        return users;
+    }
+
+    @Test
+    void testNodeStartsEmptyAndMintsOnlyIdsItOwns() {
+        ClusterDataStore node = node();
+        assertEquals(0, node.localStats().getUsers().getTotal());
+        assertEquals(0, node.localStats().getTasks().getTotal());
+
+        List<User> users = ownUsers(40);
+        for (User user : users.subList(0, 20)) {
+            node.createUser(user);
+            assertEquals(SELF, RING.ownerOf(user.getId()));
+            Task task = node.createTask(new Task(0, "Task for " + user.getId(), Task.Status.PENDING, user.getId()));
+            assertEquals(SELF, RING.ownerOf(task.getId()));
+        }
+        for (BatchResponse.Item item : node.createUsers(users.subList(20, 40))) {
+            assertEquals(201, item.getStatus());
+            assertEquals(SELF, RING.ownerOf(item.getId()));
+        }
+        assertEquals(40, node.localUsers().size());
+        assertEquals(20, node.localTasks(null, null).size());
+    }
+
+    @Test
+    void testTasksCannotMoveToAnotherNodesUser() {
+        ClusterDataStore node = node();
+        User user = node.createUser(ownUsers(1).get(0));
+        Task task = node.createTask(new Task(0, "Pinned", Task.Status.PENDING, user.getId()));
+        int foreignUser = 1;
+        while (RING.ownerOf(foreignUser).equals(SELF)) {
+            foreignUser++;
+        }
+        int target = foreignUser;
+
+        assertThrows(CrossPartitionException.class,
+                () -> node.updateTask(task.getId(), new Task(0, null, null, target)));
+        List<BatchResponse.Item> results = node.updateTasks(List.of(
+                new Task(task.getId(), null, Task.Status.COMPLETED, 0),
+                new Task(task.getId(), null, null, target),
+                new Task(0, null, Task.Status.PENDING, 0)));
+
+        assertEquals(List.of(200, 409, 400), List.of(results.get(0).getStatus(), results.get(1).getStatus(),
+                results.get(2).getStatus()));
+        assertEquals(List.of(0, 1, 2), List.of(results.get(0).getIndex(), results.get(1).getIndex(),
+                results.get(2).getIndex()));
+        assertEquals(Task.Status.COMPLETED, node.localTasks(null, null).get(0).getStatus());
+    }
+
+    @Test
+    void testPagesMergeInIdOrder() {
+        List<Page<Integer>> pages = List.of(
+                new Page<>(List.of(2, 5, 9), 9),
+                new Page<>(List.of(3), null),
+                new Page<>(List.of(4, 6, 7), 7));
+
+        Page<Integer> first = ClusterDataStore.merge(pages, Integer::intValue, 3, false);
+        assertEquals(List.of(2, 3, 4), first.getItems());
+        assertEquals(Integer.valueOf(4), first.getNextCursor());
+
+        Page<Integer> last = ClusterDataStore.merge(List.of(new Page<>(List.of(8), null), new Page<>(List.of(), null)),
+                Integer::intValue, 3, false);
+        assertEquals(List.of(8), last.getItems());
+        assertNull(last.getNextCursor());
+
+        Page<Integer> descending = ClusterDataStore.merge(List.of(new Page<>(List.of(9, 5), 5), new Page<>(List.of(7), null)),
+                Integer::intValue, 2, true);
+        assertEquals(List.of(9, 7), descending.getItems());
+        assertEquals(Integer.valueOf(7), descending.getNextCursor());
+    }
+}
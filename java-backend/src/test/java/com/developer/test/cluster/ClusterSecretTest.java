@@ -0,0 +1,34 @@
+package com.developer.test.cluster;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.server.RequestPath;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ClusterSecretTest {
+
+    private static boolean guards(String uri) {
+        return ClusterSecret.guards(RequestPath.parse(uri, "").pathWithinApplication());
+    }
+
+    @Test
+    void testGuardsEverySpellingOfTheInternalPath() {
+        assertTrue(guards("/internal/cluster/stats"));
+        assertTrue(guards("/internal/cluster/tasks/batch"));
+        assertTrue(guards("/internal/%63luster/users"));
+        assertTrue(guards("/internal;x=1/cluster/stats"));
+        assertFalse(guards("/api/tasks"));
+        assertFalse(guards("/internal/clusters"));
+    }
+
+    @Test
+    void testMatchesOnlyTheConfiguredSecret() {
+        ClusterSecret secret = new ClusterSecret("s3cret");
+        assertTrue(secret.matches("s3cret"));
+        assertFalse(secret.matches("s3cre"));
+        assertFalse(secret.matches(null));
+        assertThrows(IllegalArgumentException.class, () -> new ClusterSecret(" "));
+    }
+}
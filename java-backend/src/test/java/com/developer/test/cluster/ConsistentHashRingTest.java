@@ -0,0 +1,71 @@
+package com.developer.test.cluster;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ConsistentHashRingTest {
+
+    private static final List<String> NODES = List.of("http://localhost:8401", "http://localhost:8402", "http://localhost:8403");
+
+    @Test
+    void testEveryNodeComputesTheSameOwners() {
+        ConsistentHashRing ring = new ConsistentHashRing(NODES, 128);
+        ConsistentHashRing reordered = new ConsistentHashRing(
+                List.of(" http://localhost:8403/", "http://localhost:8401", "http://localhost:8402/"), 128);
+
+        for (int id = 0; id < 10_000; id++) {
+            assertEquals(ring.ownerOf(id), reordered.ownerOf(id));
+        }
+        assertEquals(ring.ownerOfKey("Jane\njane@example.com\ndesigner"),
+                reordered.ownerOfKey("Jane\njane@example.com\ndesigner"));
+    }
+
+    @Test
+    void testIdsSpreadOverAllNodes() {
+        ConsistentHashRing ring = new ConsistentHashRing(NODES, 128);
+        Map<String, Integer> owned = new HashMap<>();
+        int ids = 30_000;
+        for (int id = 1; id <= ids; id++) {
+            owned.merge(ring.ownerOf(id), 1, Integer::sum);
+        }
+
+        assertEquals(NODES.size(), owned.size());
+        for (int count : owned.values()) {
+            // An even split is 10,000 each; 128 points per node keeps every share well within half of that.
+            assertTrue(count > ids / NODES.size() / 2 && count < ids / NODES.size() * 3 / 2, owned.toString());
+        }
+    }
+
+    @Test
+    void testAddingANodeOnlyMovesIdsToIt() {
+        ConsistentHashRing ring = new ConsistentHashRing(NODES, 128);
+        ConsistentHashRing grown = new ConsistentHashRing(List.of(
+                "http://localhost:8401", "http://localhost:8402", "http://localhost:8403", "http://localhost:8404"), 128);
+
+        int moved = 0;
+        for (int id = 1; id <= 10_000; id++) {
+            String before = ring.ownerOf(id);
+            String after = grown.ownerOf(id);
+            if (!before.equals(after)) {
+                assertEquals("http://localhost:8404", after);
+                moved++;
+            }
+        }
+        assertTrue(moved > 0);
+    }
+
+    @Test
+    void testRejectsInvalidMembership() {
+        assertThrows(IllegalArgumentException.class, () -> new ConsistentHashRing(List.of(), 128));
+        assertThrows(IllegalArgumentException.class, () -> new ConsistentHashRing(NODES, 0));
+        assertThrows(IllegalArgumentException.class,
+                () -> new ConsistentHashRing(List.of("http://localhost:8401", "http://localhost:8401/"), 128));
+    }
+}
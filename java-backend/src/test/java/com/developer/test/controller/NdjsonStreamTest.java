@@ -0,0 +1,39 @@
+package com.developer.test.controller;
+
+import com.developer.test.model.Task;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class NdjsonStreamTest {
+
+    @Test
+    void testWritesOneRecordPerLine() throws IOException {
+        List<Task> tasks = List.of(
+                new Task(1, "Task 1", Task.Status.PENDING, 1),
+                new Task(2, "Task 2", Task.Status.IN_PROGRESS, 2)
+        );
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        NdjsonStream.<Task>of(new ObjectMapper(), tasks::forEach).writeTo(out);
+
+        assertEquals("{\"id\":1,\"title\":\"Task 1\",\"status\":\"pending\",\"userId\":1}\n"
+                        + "{\"id\":2,\"title\":\"Task 2\",\"status\":\"in-progress\",\"userId\":2}\n",
+                out.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void testEmptySourceWritesNothing() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        NdjsonStream.<Task>of(new ObjectMapper(), sink -> { }).writeTo(out);
+
+        assertEquals(0, out.size());
+    }
+}
@@ -1,21 +1,28 @@
 package com.developer.test.controller;
 
+import com.developer.test.dto.BatchResponse;
 import com.developer.test.dto.TasksResponse;
 import com.developer.test.model.Task;
-import com.developer.test.service.DataStore;
+import com.developer.test.service.DataStoreOperations;
+import com.developer.test.service.Page;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.reactive.WebFluxTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.reactive.server.WebTestClient;
 import reactor.core.publisher.Mono;
 
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @WebFluxTest(TaskController.class)
@@ -25,7 +32,7 @@ class TaskControllerTest {
     private WebTestClient webTestClient;
 
     @MockBean
-    private DataStore dataStore;
+    private DataStoreOperations dataStore;
 
     @Test
     void testGetTasks() {
@@ -35,7 +42,7 @@ class TaskControllerTest {
         );
         TasksResponse expectedResponse = new TasksResponse(tasks, tasks.size());
 
-        when(dataStore.getTasks(null, null)).thenReturn(tasks);
+        when(dataStore.getTasksAsync(null, null)).thenReturn(CompletableFuture.completedFuture(tasks));
 
         webTestClient.get()
                 .uri("/api/tasks")
@@ -45,12 +52,73 @@ class TaskControllerTest {
                 .isEqualTo(expectedResponse);
     }
 
+    @Test
+    void testGetTasksHonorsIfNoneMatch() {
+        when(dataStore.getTasksVersion()).thenReturn(7L);
+        when(dataStore.getTasksAsync(null, null))
+                .thenReturn(CompletableFuture.completedFuture(List.of(new Task(1, "Task 1", Task.Status.PENDING, 1))));
+
+        String etag = webTestClient.get()
+                .uri("/api/tasks")
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(TasksResponse.class)
+                .getResponseHeaders().getETag();
+
+        webTestClient.get()
+                .uri("/api/tasks")
+                .header(HttpHeaders.IF_NONE_MATCH, etag)
+                .exchange()
+                .expectStatus().isNotModified()
+                .expectHeader().valueEquals(HttpHeaders.ETAG, etag);
+        verify(dataStore, times(1)).getTasksAsync(null, null);
+
+        when(dataStore.getTasksVersion()).thenReturn(8L);
+        webTestClient.get()
+                .uri("/api/tasks")
+                .header(HttpHeaders.IF_NONE_MATCH, etag)
+                .exchange()
+                .expectStatus().isOk();
+    }
+
+    @Test
+    void testGetTasksPage() {
+        List<Task> tasks = Arrays.asList(
+                new Task(3, "Task 3", Task.Status.PENDING, 1),
+                new Task(4, "Task 4", Task.Status.PENDING, 1)
+        );
+        TasksResponse expectedResponse = new TasksResponse(tasks, tasks.size(), 4);
+
+        when(dataStore.getTasksPageAsync("pending", null, 2, 2, false))
+                .thenReturn(CompletableFuture.completedFuture(new Page<>(tasks, 4)));
+
+        webTestClient.get()
+                .uri("/api/tasks?status=pending&limit=2&cursor=2")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(TasksResponse.class)
+                .isEqualTo(expectedResponse);
+    }
+
+    @Test
+    void testGetTasksPageInvalidLimit() {
+        webTestClient.get()
+                .uri("/api/tasks?limit=0")
+                .exchange()
+                .expectStatus().isBadRequest();
+
+        webTestClient.get()
+                .uri("/api/tasks?limit=10&order=sideways")
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
     @Test
     void testCreateTask() {
         Task task = new Task(0, "New Task", Task.Status.PENDING, 1);
         Task savedTask = new Task(4, "New Task", Task.Status.PENDING, 1);
 
-        when(dataStore.createTask(any(Task.class))).thenReturn(savedTask);
+        when(dataStore.createTaskAsync(any(Task.class))).thenReturn(CompletableFuture.completedFuture(savedTask));
 
         webTestClient.post()
                 .uri("/api/tasks")
@@ -79,8 +147,10 @@ class TaskControllerTest {
         Task updateInfo = new Task(0, "Updated Task", Task.Status.IN_PROGRESS, 1);
         Task updatedTask = new Task(1, "Updated Task", Task.Status.IN_PROGRESS, 1);
 
-        when(dataStore.getUserById(1)).thenReturn(new com.developer.test.model.User());
-        when(dataStore.updateTask(eq(1), any(Task.class))).thenReturn(updatedTask);
+        when(dataStore.getUserByIdAsync(1))
+                .thenReturn(CompletableFuture.completedFuture(new com.developer.test.model.User()));
+        when(dataStore.updateTaskAsync(eq(1), any(Task.class)))
+                .thenReturn(CompletableFuture.completedFuture(updatedTask));
 
         webTestClient.put()
                 .uri("/api/tasks/1")
@@ -96,8 +166,9 @@ class TaskControllerTest {
     void testUpdateTaskNotFound() {
         Task updateInfo = new Task(0, "Updated Task", Task.Status.IN_PROGRESS, 1);
 
-        when(dataStore.getUserById(1)).thenReturn(new com.developer.test.model.User());
-        when(dataStore.updateTask(eq(999), any(Task.class))).thenReturn(null);
+        when(dataStore.getUserByIdAsync(1))
+                .thenReturn(CompletableFuture.completedFuture(new com.developer.test.model.User()));
+        when(dataStore.updateTaskAsync(eq(999), any(Task.class))).thenReturn(CompletableFuture.completedFuture(null));
 
         webTestClient.put()
                 .uri("/api/tasks/999")
@@ -111,7 +182,7 @@ class TaskControllerTest {
     void testUpdateTaskInvalidUser() {
         Task updateInfo = new Task(0, "Updated Task", Task.Status.IN_PROGRESS, 999);
 
-        when(dataStore.getUserById(999)).thenReturn(null);
+        when(dataStore.getUserByIdAsync(999)).thenReturn(CompletableFuture.completedFuture(null));
 
         webTestClient.put()
                 .uri("/api/tasks/1")
@@ -132,4 +203,49 @@ class TaskControllerTest {
                 .exchange()
                 .expectStatus().isBadRequest();
     }
-}
\ No newline at end of file
+
+    @Test
+    void testCreateTasksBatch() {
+        String body = "[{\"title\": \"Task A\", \"status\": \"pending\", \"userId\": 1},"
+                + " {\"title\": \"\", \"status\": \"pending\", \"userId\": 1},"
+                + " {\"title\": \"Task B\", \"status\": \"completed\", \"userId\": 2}]";
+
+        when(dataStore.createTasksAsync(anyList())).thenReturn(CompletableFuture.completedFuture(Arrays.asList(
+                BatchResponse.Item.success(0, 201, 4),
+                BatchResponse.Item.failure(1, 409, "Task already exists for user")
+        )));
+
+        BatchResponse expected = new BatchResponse(Arrays.asList(
+                BatchResponse.Item.success(0, 201, 4),
+                BatchResponse.Item.failure(1, 400, "Name is required"),
+                BatchResponse.Item.failure(2, 409, "Task already exists for user")
+        ));
+
+        webTestClient.post()
+                .uri("/api/tasks/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(body)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(BatchResponse.class)
+                .isEqualTo(expected);
+    }
+
+    @Test
+    void testUpdateTasksBatch() {
+        List<BatchResponse.Item> results = Arrays.asList(
+                BatchResponse.Item.success(0, 200, 1),
+                BatchResponse.Item.failure(1, 404, "Task not found")
+        );
+        when(dataStore.updateTasksAsync(anyList())).thenReturn(CompletableFuture.completedFuture(results));
+
+        webTestClient.put()
+                .uri("/api/tasks/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("[{\"id\": 1, \"status\": \"completed\"}, {\"id\": 99, \"status\": \"completed\"}]")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(BatchResponse.class)
+                .isEqualTo(new BatchResponse(results));
+    }
+}
@@ -2,19 +2,24 @@ package com.developer.test.controller;
 
 import com.developer.test.dto.UsersResponse;
 import com.developer.test.model.User;
-import com.developer.test.service.DataStore;
+import com.developer.test.service.DataStoreOperations;
+import com.developer.test.service.Page;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.reactive.WebFluxTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.reactive.server.WebTestClient;
 import reactor.core.publisher.Mono;
 
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @WebFluxTest(UserController.class)
@@ -24,7 +29,7 @@ class UserControllerTest {
     private WebTestClient webTestClient;
 
     @MockBean
-    private DataStore dataStore;
+    private DataStoreOperations dataStore;
 
     @Test
     void testGetUsers() {
@@ -34,7 +39,7 @@ class UserControllerTest {
         );
         UsersResponse expectedResponse = new UsersResponse(users, users.size());
 
-        when(dataStore.getUsers()).thenReturn(users);
+        when(dataStore.getUsersAsync()).thenReturn(CompletableFuture.completedFuture(users));
 
         webTestClient.get()
                 .uri("/api/users")
@@ -44,11 +49,66 @@ class UserControllerTest {
                 .isEqualTo(expectedResponse);
     }
 
+    @Test
+    void testGetUsersPage() {
+        List<User> users = Arrays.asList(
+                new User(3, "User 3", "user3@example.com", "manager"),
+                new User(2, "User 2", "user2@example.com", "designer")
+        );
+        UsersResponse expectedResponse = new UsersResponse(users, users.size(), 2);
+
+        when(dataStore.getUsersPageAsync(null, 2, true))
+                .thenReturn(CompletableFuture.completedFuture(new Page<>(users, 2)));
+
+        webTestClient.get()
+                .uri("/api/users?limit=2&order=desc")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(UsersResponse.class)
+                .isEqualTo(expectedResponse);
+    }
+
+    @Test
+    void testGetUserByIdHonorsIfNoneMatch() {
+        when(dataStore.getUsersVersion()).thenReturn(3L);
+        when(dataStore.getUserByIdAsync(1))
+                .thenReturn(CompletableFuture.completedFuture(new User(1, "User 1", "user1@example.com", "developer")));
+
+        String etag = webTestClient.get()
+                .uri("/api/users/1")
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(User.class)
+                .getResponseHeaders().getETag();
+
+        webTestClient.get()
+                .uri("/api/users/1")
+                .header(HttpHeaders.IF_NONE_MATCH, "W/" + etag)
+                .exchange()
+                .expectStatus().isNotModified();
+        verify(dataStore, times(1)).getUserByIdAsync(1);
+    }
+
+    @Test
+    void testUnversionedStoreAnswersInFull() {
+        when(dataStore.getUsersVersion()).thenReturn(DataStoreOperations.UNVERSIONED);
+        when(dataStore.getUserByIdAsync(1))
+                .thenReturn(CompletableFuture.completedFuture(new User(1, "User 1", "user1@example.com", "developer")));
+
+        webTestClient.get()
+                .uri("/api/users/1")
+                .header(HttpHeaders.IF_NONE_MATCH, "*")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().doesNotExist(HttpHeaders.ETAG);
+        verify(dataStore, times(1)).getUserByIdAsync(1);
+    }
+
     @Test
     void testGetUserById() {
         User user = new User(1, "User 1", "user1@example.com", "developer");
 
-        when(dataStore.getUserById(1)).thenReturn(user);
+        when(dataStore.getUserByIdAsync(1)).thenReturn(CompletableFuture.completedFuture(user));
 
         webTestClient.get()
                 .uri("/api/users/1")
@@ -60,7 +120,7 @@ class UserControllerTest {
 
     @Test
     void testGetUserById_NotFound() {
-        when(dataStore.getUserById(999)).thenReturn(null);
+        when(dataStore.getUserByIdAsync(999)).thenReturn(CompletableFuture.completedFuture(null));
 
         webTestClient.get()
                 .uri("/api/users/999")
@@ -73,7 +133,7 @@ class UserControllerTest {
         User user = new User(0, "New User", "new@example.com", "developer");
         User savedUser = new User(4, "New User", "new@example.com", "developer");
 
-        when(dataStore.createUser(any(User.class))).thenReturn(savedUser);
+        when(dataStore.createUserAsync(any(User.class))).thenReturn(CompletableFuture.completedFuture(savedUser));
 
         webTestClient.post()
                 .uri("/api/users")
@@ -0,0 +1,159 @@
+package com.developer.test.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.LoggingEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AsyncBatchingAppenderTest {
+
+    private LoggerContext context;
+    private Logger logger;
+    private AsyncBatchingAppender appender;
+
+    @BeforeEach
+    void setUp() {
+        context = new LoggerContext();
+        logger = context.getLogger("test");
+        appender = new AsyncBatchingAppender();
+        appender.setContext(context);
+        appender.setName("test");
+        PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+        encoder.setContext(context);
+        encoder.setPattern("%msg%n");
+        encoder.start();
+        appender.setEncoder(encoder);
+    }
+
+    @AfterEach
+    void tearDown() {
+        appender.stop();
+    }
+
+    @Test
+    void concurrentProducersLoseNothing() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        appender.setOutputStream(out);
+        appender.setCapacity(64);
+        appender.setOverflowPolicy(OverflowPolicy.BLOCK);
+        appender.start();
+
+        int threads = 4;
+        int perThread = 20_000;
+        List<Thread> producers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            int id = t;
+            producers.add(new Thread(() -> {
+                for (int i = 0; i < perThread; i++) {
+                    appender.doAppend(event(Level.INFO, id + "-" + i));
+                }
+            }));
+        }
+        producers.forEach(Thread::start);
+        for (Thread producer : producers) {
+            producer.join();
+        }
+        appender.stop();
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        Set<String> unique = new HashSet<>(List.of(lines));
+        assertEquals(threads * perThread, lines.length);
+        assertEquals(threads * perThread, unique.size());
+        assertEquals(0, appender.getDroppedCount());
+        assertEquals(threads * perThread, appender.getWrittenCount());
+    }
+
+    @Test
+    void dropPolicyCountsEventsThatDoNotFit() throws Exception {
+        BlockingOutputStream out = new BlockingOutputStream();
+        appender.setOutputStream(out);
+        appender.setCapacity(4);
+        appender.setBatchSize(1);
+        appender.start();
+
+        for (int i = 0; i < 100; i++) {
+            appender.doAppend(event(Level.INFO, "event " + i));
+        }
+        long dropped = appender.getDroppedCount();
+        assertTrue(dropped >= 100 - 4 - 1, "dropped=" + dropped);
+
+        out.release();
+        appender.stop();
+        assertEquals(100, appender.getWrittenCount() + dropped);
+    }
+
+    @Test
+    void samplePolicyThinsInfoButKeepsWarnings() throws Exception {
+        BlockingOutputStream out = new BlockingOutputStream();
+        appender.setOutputStream(out);
+        appender.setCapacity(64);
+        appender.setBatchSize(1);
+        appender.setOverflowPolicy(OverflowPolicy.SAMPLE);
+        appender.setSampleEvery(4);
+        appender.start();
+
+        for (int i = 0; i < 48; i++) {
+            appender.doAppend(event(Level.INFO, "fill " + i));
+        }
+        for (int i = 0; i < 40; i++) {
+            appender.doAppend(event(Level.INFO, "info " + i));
+        }
+        appender.doAppend(event(Level.WARN, "warn"));
+
+        assertTrue(appender.getSampledOutCount() >= 20, "sampled=" + appender.getSampledOutCount());
+        out.release();
+        appender.stop();
+        assertTrue(out.toString().contains("warn\n"));
+    }
+
+    private LoggingEvent event(Level level, String message) {
+        return new LoggingEvent(Logger.class.getName(), logger, level, message, null, null);
+    }
+
+    private static final class BlockingOutputStream extends OutputStream {
+        private final CountDownLatch released = new CountDownLatch(1);
+        private final ByteArrayOutputStream content = new ByteArrayOutputStream();
+
+        void release() {
+            released.countDown();
+        }
+
+        @Override
+        public synchronized void write(int b) {
+            content.write(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            try {
+                released.await();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+            synchronized (this) {
+                content.write(b, off, len);
+            }
+        }
+
+        @Override
+        public synchronized String toString() {
+            return content.toString(StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -16,11 +16,13 @@ import javax.servlet.FilterChain;
 import javax.servlet.ServletException;
 import javax.servlet.ServletRequest;
 import javax.servlet.ServletResponse;
+import javax.servlet.http.HttpServletResponse;
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 class HttpBodyLoggingFilterTest {
@@ -105,4 +107,54 @@ class HttpBodyLoggingFilterTest {
         assertTrue(message.contains("requestBody="));
         assertTrue(message.contains("responseBody="));
     }
+
+    @Test
+    void testLargeBodyIsStreamedInFullButLoggedTruncated() throws ServletException, IOException {
+        filter = new HttpBodyLoggingFilter(8, "");
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/large");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        String responseContent = "0123456789abcdef";
+
+        filter.doFilter(request, response, (req, res) -> res.getOutputStream().write(responseContent.getBytes(StandardCharsets.UTF_8)));
+
+        assertEquals(responseContent, response.getContentAsString());
+        String message = listAppender.list.get(0).getFormattedMessage();
+        assertTrue(message.contains("responseBody=01234567... [8 more]"));
+        assertFalse(message.contains("89abcdef"));
+    }
+
+    @Test
+    void testSamplingRulesMatchPathAndStatus() throws ServletException, IOException {
+        filter = new HttpBodyLoggingFilter(4096, "/api/tasks/**@2xx=0, /api/**=1");
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/tasks/1"), new MockHttpServletResponse(), new MockFilterChain());
+        assertEquals(0, listAppender.list.size());
+
+        MockHttpServletResponse notFound = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/tasks/9"), notFound, (req, res) -> ((HttpServletResponse) res).setStatus(404));
+        assertEquals(1, listAppender.list.size());
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/users"), new MockHttpServletResponse(), new MockFilterChain());
+        assertEquals(2, listAppender.list.size());
+    }
+
+    @Test
+    void testAsyncResponseIsLoggedOnCompletion() throws ServletException, IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/async");
+        request.setAsyncSupported(true);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(request, response, (req, res) -> req.startAsync(req, res));
+        assertEquals(0, listAppender.list.size());
+
+        // Output written on the async dispatch goes straight to the client.
+        ServletResponse asyncResponse = request.getAsyncContext().getResponse();
+        asyncResponse.getWriter().write("{\"id\":4}");
+        asyncResponse.flushBuffer();
+        request.getAsyncContext().complete();
+
+        assertEquals("{\"id\":4}", response.getContentAsString());
+        assertEquals(1, listAppender.list.size());
+        assertTrue(listAppender.list.get(0).getFormattedMessage().contains("responseBody={\"id\":4}"));
+    }
 }
@@ -0,0 +1,110 @@
+package com.developer.test.persistence;
+
+import com.developer.test.model.Task;
+import com.developer.test.model.User;
+import com.developer.test.service.DataStore;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class DataStorePersistenceTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void testSnapshotRoundTrip() throws Exception {
+        Path snapshotPath = dir.resolve("datastore.snapshot");
+        DataStore original = new DataStore();
+        original.createUser(new User(0, "Ann", null, "developer"));
+        original.updateTask(2, new Task(0, "Renamed", Task.Status.COMPLETED, 4));
+        SnapshotWriter.write(original, snapshotPath, 0);
+
+        SnapshotFile snapshot = SnapshotFile.open(snapshotPath);
+        assertEquals(4, snapshot.getUserCount());
+        assertEquals(3, snapshot.getTaskCount());
+        assertEquals(2, snapshot.getStatusCount(Task.Status.COMPLETED));
+        assertNull(snapshot.user(snapshot.findUser(4)).getEmail());
+        assertEquals(-1, snapshot.findTask(99));
+
+        DataStore restored = new DataStore();
+        DataStorePersistence.restore(snapshot, restored);
+        assertEquals(original.getUsers(), restored.getUsers());
+        assertEquals(original.getTasks(null, null), restored.getTasks(null, null));
+        assertEquals("Renamed", restored.getTasks("completed", "4").get(0).getTitle());
+        assertEquals(4, restored.createTask(new Task(0, "Next", Task.Status.PENDING, 1)).getId());
+    }
+
+    @Test
+    void testRestartLoadsSnapshotAndReplaysNewerLog() throws Exception {
+        Path walPath = dir.resolve("datastore.wal");
+        Path snapshotPath = dir.resolve("datastore.snapshot");
+        DataStore original = new DataStore();
+        try (DataStorePersistence persistence = start(original, walPath, snapshotPath)) {
+            original.createTask(new Task(0, "Before snapshot", Task.Status.PENDING, 1));
+            persistence.snapshot();
+            original.createTask(new Task(0, "After snapshot", Task.Status.PENDING, 2));
+            original.updateTask(1, new Task(0, null, Task.Status.COMPLETED, 0));
+        }
+        assertEquals(List.of(2L), WriteAheadLog.segments(walPath));
+
+        DataStore recovered = new DataStore();
+        try (DataStorePersistence ignored = start(recovered, walPath, snapshotPath)) {
+            assertEquals(original.getTasks(null, null), recovered.getTasks(null, null));
+            assertEquals(2, recovered.getStats().getTasks().getCompleted());
+            assertEquals(6, recovered.createTask(new Task(0, "Next", Task.Status.PENDING, 1)).getId());
+        }
+    }
+
+    @Test
+    void testSnapshotDuringConcurrentWritesLosesNothing() throws Exception {
+        Path walPath = dir.resolve("datastore.wal");
+        Path snapshotPath = dir.resolve("datastore.snapshot");
+        DataStore original = new DataStore();
+        original.clear();
+        AtomicBoolean running = new AtomicBoolean(true);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try (DataStorePersistence persistence = DataStorePersistence.start(original, walPath, FsyncPolicy.NONE, 10,
+                snapshotPath, 0)) {
+            Future<?>[] writers = new Future<?>[4];
+            for (int t = 0; t < writers.length; t++) {
+                int userId = t + 1;
+                writers[t] = executor.submit(() -> {
+                    for (int i = 0; running.get(); i++) {
+                        Task task = original.createTask(new Task(0, "Task " + i, Task.Status.PENDING, userId));
+                        original.updateTask(task.getId(), new Task(0, null, Task.Status.IN_PROGRESS, 0));
+                    }
+                });
+            }
+            for (int i = 0; i < 5; i++) {
+                persistence.snapshot();
+            }
+            running.set(false);
+            for (Future<?> writer : writers) {
+                writer.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        DataStore recovered = new DataStore();
+        try (DataStorePersistence ignored = start(recovered, walPath, snapshotPath)) {
+            assertEquals(original.getTasks(null, null), recovered.getTasks(null, null));
+            assertEquals(0, recovered.getStats().getTasks().getPending());
+        }
+    }
+
+    private static DataStorePersistence start(DataStore dataStore, Path walPath, Path snapshotPath)
+            throws Exception {
+        return DataStorePersistence.start(dataStore, walPath, FsyncPolicy.ALWAYS, 10, snapshotPath, 0);
+    }
+}
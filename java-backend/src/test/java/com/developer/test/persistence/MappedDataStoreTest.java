@@ -0,0 +1,87 @@
+package com.developer.test.persistence;
+
+import com.developer.test.model.Task;
+import com.developer.test.model.User;
+import com.developer.test.service.DataStore;
+import com.developer.test.service.Page;
+import com.developer.test.service.ReadOnlyException;
+import com.developer.test.service.SnapshotUnsupportedException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MappedDataStoreTest {
+
+    @TempDir
+    Path dir;
+
+    private DataStore heap;
+    private MappedDataStore mapped;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        heap = new DataStore();
+        List<Task> batch = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            batch.add(new Task(0, "Task " + i, Task.Status.values()[i % 3], i % 4 + 1));
+        }
+        heap.createTasks(batch);
+        heap.createUser(new User(0, "Ann", null, "developer"));
+        Path path = dir.resolve("datastore.snapshot");
+        SnapshotWriter.write(heap, path, 0);
+        mapped = new MappedDataStore(SnapshotFile.open(path));
+    }
+
+    @Test
+    void testReadsMatchHeapStore() {
+        assertEquals(heap.getUsers(), mapped.getUsers());
+        assertEquals(heap.getUserById(4), mapped.getUserById(4));
+        assertNull(mapped.getUserById(99));
+        assertEquals(heap.getTasks(null, null), mapped.getTasks(null, null));
+        assertEquals(heap.getTasks("pending", null), mapped.getTasks("pending", null));
+        assertEquals(heap.getTasks("completed", "2"), mapped.getTasks("completed", "2"));
+        assertEquals(0, mapped.getTasks("unknown", null).size());
+        assertEquals(heap.getStats().getTasks().getInProgress(), mapped.getStats().getTasks().getInProgress());
+        assertEquals(heap.getStats().getUsers().getTotal(), mapped.getStats().getUsers().getTotal());
+        assertTrue(mapped.taskExists(new Task(0, "Task 7", Task.Status.IN_PROGRESS, 4)));
+        assertFalse(mapped.userExists(new User(0, "Ann", "ann@example.com", "developer")));
+    }
+
+    @Test
+    void testPagesMatchHeapStore() {
+        for (boolean descending : new boolean[]{false, true}) {
+            for (Integer cursor : new Integer[]{null, 1, 17, 30, 53, 99}) {
+                assertPageEquals(heap.getTasksPage("in-progress", null, cursor, 4, descending),
+                        mapped.getTasksPage("in-progress", null, cursor, 4, descending));
+                assertPageEquals(heap.getTasksPage(null, "3", cursor, 5, descending),
+                        mapped.getTasksPage(null, "3", cursor, 5, descending));
+                assertPageEquals(heap.getUsersPage(cursor, 2, descending), mapped.getUsersPage(cursor, 2, descending));
+            }
+        }
+    }
+
+    @Test
+    void testWritesAreRejected() {
+        assertThrows(ReadOnlyException.class, () -> mapped.createUser(new User(0, "Bo", "bo@example.com", "qa")));
+        assertThrows(ReadOnlyException.class, () -> mapped.updateTask(1, new Task(0, "x", Task.Status.PENDING, 1)));
+        assertThrows(ReadOnlyException.class, () -> mapped.createTasks(new ArrayList<>()));
+        assertThrows(SnapshotUnsupportedException.class, () -> mapped.leaseSnapshot());
+        assertEquals(53, mapped.getTasks(null, null).size());
+    }
+
+    private static <T> void assertPageEquals(Page<T> expected, Page<T> actual) {
+        assertEquals(expected.getItems(), actual.getItems());
+        assertEquals(expected.getNextCursor(), actual.getNextCursor());
+    }
+}
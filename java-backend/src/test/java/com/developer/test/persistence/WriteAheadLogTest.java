@@ -0,0 +1,159 @@
+package com.developer.test.persistence;
+
+import com.developer.test.model.Task;
+import com.developer.test.model.User;
+import com.developer.test.service.DataStore;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class WriteAheadLogTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void testReplayRebuildsDataStore() throws IOException {
+        Path path = dir.resolve("datastore.wal");
+        DataStore original = new DataStore();
+        original.clear();
+        try (WriteAheadLog wal = WriteAheadLog.open(path, FsyncPolicy.ALWAYS, 10, record -> { })) {
+            original.setJournal(wal);
+            original.createUser(new User(0, "Ann", "ann@example.com", "developer"));
+            original.createTask(new Task(0, "Write docs", Task.Status.PENDING, 1));
+            original.createTask(new Task(0, "Ship it", Task.Status.PENDING, 1));
+            original.updateTask(1, new Task(0, "Write more docs", Task.Status.COMPLETED, 0));
+        }
+
+        DataStore recovered = recover(path);
+
+        assertEquals(1, recovered.getUsers().size());
+        assertEquals("Write more docs", recovered.getTasks("completed", null).get(0).getTitle());
+        assertEquals(1, recovered.getStats().getTasks().getPending());
+        assertEquals(3, recovered.createTask(new Task(0, "Next", Task.Status.PENDING, 1)).getId());
+        assertEquals(2, recovered.createUser(new User(0, "Bo", "bo@example.com", "designer")).getId());
+    }
+
+    @Test
+    void testAsyncWritesCompleteWhenDurable() throws Exception {
+        Path path = dir.resolve("datastore.wal");
+        DataStore original = new DataStore();
+        original.clear();
+        try (WriteAheadLog wal = WriteAheadLog.open(path, FsyncPolicy.ALWAYS, 10, record -> { })) {
+            original.setJournal(wal);
+            User user = original.createUserAsync(new User(0, "Ann", "ann@example.com", "developer")).get();
+            Task task = original.createTaskAsync(new Task(0, "Write docs", Task.Status.PENDING, user.getId())).get();
+            original.updateTaskAsync(task.getId(), new Task(0, null, Task.Status.COMPLETED, 0)).get();
+            assertNull(original.updateTaskAsync(99, new Task(0, "Missing", null, 0)).get());
+        }
+
+        DataStore recovered = recover(path);
+        assertEquals(1, recovered.getUsers().size());
+        assertEquals(1, recovered.getTasks("completed", null).size());
+    }
+
+    @Test
+    void testTornTailIsTruncated() throws IOException {
+        Path path = dir.resolve("datastore.wal");
+        try (WriteAheadLog wal = WriteAheadLog.open(path, FsyncPolicy.ALWAYS, 10, record -> { })) {
+            wal.await(wal.userCreated(new User(1, "Ann", "ann@example.com", "developer")));
+            wal.await(wal.taskCreated(new Task(1, "Write docs", Task.Status.PENDING, 1)));
+        }
+        try (FileChannel channel = FileChannel.open(WriteAheadLog.segmentPath(path, 1), StandardOpenOption.WRITE)) {
+            channel.truncate(channel.size() - 3);
+        }
+
+        DataStore recovered = recover(path);
+
+        assertEquals(1, recovered.getUsers().size());
+        assertEquals(0, recovered.getTasks(null, null).size());
+        try (WriteAheadLog wal = WriteAheadLog.open(path, FsyncPolicy.ALWAYS, 10, record -> { })) {
+            wal.await(wal.taskCreated(new Task(1, "Write docs", Task.Status.PENDING, 1)));
+        }
+        assertEquals(1, recover(path).getTasks(null, null).size());
+    }
+
+    @Test
+    void testConcurrentWritersAllRecovered() throws Exception {
+        Path path = dir.resolve("datastore.wal");
+        DataStore original = new DataStore();
+        original.clear();
+        int threads = 8;
+        int tasksPerThread = 500;
+        try (WriteAheadLog wal = WriteAheadLog.open(path, FsyncPolicy.ALWAYS, 10, record -> { })) {
+            original.setJournal(wal);
+            ExecutorService executor = Executors.newFixedThreadPool(threads);
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                int userId = t + 1;
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < tasksPerThread; i++) {
+                        Task task = original.createTask(new Task(0, "Task " + i, Task.Status.PENDING, userId));
+                        original.updateTask(task.getId(), new Task(0, null, Task.Status.COMPLETED, 0));
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+            executor.shutdown();
+        }
+
+        DataStore recovered = recover(path);
+
+        assertEquals(threads * tasksPerThread, recovered.getStats().getTasks().getCompleted());
+        assertEquals(0, recovered.getStats().getTasks().getPending());
+    }
+
+    @Test
+    void testUnknownTaskUpdateReplaysAsUpsert() throws IOException {
+        Path path = dir.resolve("datastore.wal");
+        try (WriteAheadLog wal = WriteAheadLog.open(path, FsyncPolicy.NONE, 10, record -> { })) {
+            wal.taskUpdated(new Task(7, "Orphan", Task.Status.IN_PROGRESS, 2));
+        }
+
+        DataStore recovered = recover(path);
+
+        assertEquals(1, recovered.getTasks("in-progress", "2").size());
+        assertNull(recovered.getUserById(7));
+    }
+
+    @Test
+    void testRollStartsNewSegmentAndReplaysAll() throws IOException {
+        Path path = dir.resolve("datastore.wal");
+        try (WriteAheadLog wal = WriteAheadLog.open(path, FsyncPolicy.ALWAYS, 10, record -> { })) {
+            wal.await(wal.userCreated(new User(1, "Ann", "ann@example.com", "developer")));
+            assertEquals(2, wal.roll());
+            wal.await(wal.taskCreated(new Task(1, "Write docs", Task.Status.PENDING, 1)));
+        }
+
+        assertEquals(List.of(1L, 2L), WriteAheadLog.segments(path));
+        DataStore recovered = recover(path);
+        assertEquals(1, recovered.getUsers().size());
+        assertEquals(1, recovered.getTasks(null, null).size());
+
+        try (WriteAheadLog wal = WriteAheadLog.open(path, FsyncPolicy.ALWAYS, 10, 2, record -> { })) {
+            assertEquals(2, wal.getSegment());
+        }
+        assertEquals(List.of(2L), WriteAheadLog.segments(path));
+    }
+
+    private static DataStore recover(Path path) throws IOException {
+        DataStore dataStore = new DataStore();
+        dataStore.clear();
+        WriteAheadLog.open(path, FsyncPolicy.ALWAYS, 10, record -> record.applyTo(dataStore)).close();
+        return dataStore;
+    }
+}
@@ -0,0 +1,128 @@
+package com.developer.test.replication;
+
+import com.developer.test.model.Task;
+import com.developer.test.model.User;
+import com.developer.test.service.ChangeFeed;
+import com.developer.test.service.DataStore;
+import com.developer.test.service.Journal;
+import com.developer.test.service.ReadOnlyException;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * A leader and a follower in one JVM, talking over a loopback socket.
+ */
+class ReplicationTest {
+    private static final long TIMEOUT_MILLIS = 10_000;
+
+    private static DataStore leader(ReplicationLog log) {
+        DataStore dataStore = new DataStore(new ConcurrentMapCacheManager(), new ChangeFeed(), 2);
+        dataStore.setJournal(log);
+        return dataStore;
+    }
+
+    private static ReplicaDataStore replica() {
+        return new ReplicaDataStore(new ConcurrentMapCacheManager(), new ChangeFeed(), 2);
+    }
+
+    private static void awaitTrue(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.currentTimeMillis() < deadline, "Timed out waiting for the follower");
+            Thread.sleep(10);
+        }
+    }
+
+    /**
+     * Rows with their ids, since {@link Task#equals} leaves the id out.
+     */
+    private static List<String> contents(DataStore dataStore) {
+        List<String> rows = new ArrayList<>();
+        for (User user : dataStore.getUsers()) {
+            rows.add("user " + user.getId() + " " + user.getName() + " " + user.getEmail() + " " + user.getRole());
+        }
+        for (Task task : dataStore.getTasks(null, null)) {
+            rows.add("task " + task.getId() + " " + task.getTitle() + " " + task.getStatus() + " " + task.getUserId());
+        }
+        return rows;
+    }
+
+    private static void write(DataStore dataStore, int count) {
+        for (int i = 0; i < count; i++) {
+            User user = dataStore.createUser(new User(0, "User " + i, "user" + System.nanoTime() + "@example.com", "developer"));
+            Task task = dataStore.createTask(new Task(0, "Task " + i, Task.Status.PENDING, user.getId()));
+            dataStore.updateTask(task.getId(), new Task(0, "Task " + i, Task.Status.COMPLETED, user.getId()));
+        }
+    }
+
+    @Test
+    void testFollowerCatchesUpThenStreams() throws Exception {
+        ReplicationLog log = new ReplicationLog(Journal.NONE, 1024);
+        DataStore leader = leader(log);
+        ReplicaDataStore replica = replica();
+        write(leader, 5);
+        assertThrows(ReplicaLoadingException.class, replica::getUsers);
+
+        try (ReplicationServer server = ReplicationServer.start(leader, log, "127.0.0.1", 0, 50);
+             ReplicationFollower follower = ReplicationFollower.start(replica, "localhost:" + server.getPort(), 2000, 20)) {
+            awaitTrue(() -> follower.getSnapshotCount() == 1 && follower.getAppliedSequence() == log.getPublished());
+            assertEquals(contents(leader), contents(replica));
+
+            write(leader, 50);
+            awaitTrue(() -> follower.getAppliedSequence() == log.getPublished());
+            assertEquals(contents(leader), contents(replica));
+            assertEquals(leader.getStats().getTasks().getCompleted(), replica.getStats().getTasks().getCompleted());
+            assertEquals(150, follower.getAppliedCount());
+            assertEquals(1, server.getSnapshotCount());
+            awaitTrue(() -> follower.getLagSeconds() == 0);
+            assertEquals(0, follower.getLagRecords());
+
+            assertThrows(ReadOnlyException.class,
+                    () -> replica.createUser(new User(0, "Nope", "nope@example.com", "developer")));
+            assertThrows(ReadOnlyException.class,
+                    () -> replica.updateTask(1, new Task(0, "Nope", Task.Status.PENDING, 1)));
+        }
+    }
+
+    @Test
+    void testReconnectResumesWhileInRingAndResyncsOnceLapped() throws Exception {
+        ReplicationLog log = new ReplicationLog(Journal.NONE, 16);
+        DataStore leader = leader(log);
+        ReplicaDataStore replica = replica();
+
+        ReplicationServer server = ReplicationServer.start(leader, log, "127.0.0.1", 0, 50);
+        int port = server.getPort();
+        try (ReplicationFollower follower = ReplicationFollower.start(replica, "localhost:" + port, 2000, 20)) {
+            awaitTrue(() -> follower.getSnapshotCount() == 1);
+            server.close();
+            awaitTrue(() -> !follower.isConnected());
+
+            // 12 records fit in a ring of 16: the follower picks up where it stopped.
+            write(leader, 4);
+            server = ReplicationServer.start(leader, log, "127.0.0.1", port, 50);
+            awaitTrue(() -> follower.getAppliedSequence() == log.getPublished());
+            assertEquals(1, follower.getSnapshotCount());
+            assertEquals(0, server.getSnapshotCount());
+            assertEquals(contents(leader), contents(replica));
+            server.close();
+            awaitTrue(() -> !follower.isConnected());
+
+            // 30 records do not: it is sent a fresh snapshot.
+            write(leader, 10);
+            server = ReplicationServer.start(leader, log, "127.0.0.1", port, 50);
+            awaitTrue(() -> follower.getSnapshotCount() == 2 && follower.getAppliedSequence() == log.getPublished());
+            assertEquals(1, server.getSnapshotCount());
+            assertEquals(contents(leader), contents(replica));
+        } finally {
+            server.close();
+        }
+    }
+}
@@ -0,0 +1,199 @@
+package com.developer.test.service;
+
+import com.developer.test.dto.StatsResponse;
+import com.developer.test.model.Task;
+import com.developer.test.model.User;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.reactivestreams.Subscription;
+import org.springframework.cache.support.NoOpCacheManager;
+import reactor.core.publisher.BaseSubscriber;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ChangeFeedTest {
+
+    private ChangeFeed feed;
+
+    @AfterEach
+    void tearDown() {
+        feed.close();
+    }
+
+    @Test
+    void testWritesPublishRecordAndStatsDeltas() {
+        feed = new ChangeFeed(64, 0);
+        DataStore dataStore = new DataStore(new NoOpCacheManager(), feed);
+        Recorder recorder = new Recorder(Long.MAX_VALUE);
+        feed.subscribe(-1, Collections.emptySet()).subscribe(recorder);
+
+        Task task = dataStore.createTask(new Task(0, "Feed", Task.Status.PENDING, 1));
+        dataStore.updateTask(task.getId(), new Task(0, null, Task.Status.COMPLETED, 0));
+        dataStore.updateTask(task.getId(), new Task(0, "Renamed", null, 0));
+        dataStore.createUser(new User(0, "Feed", "feed@example.com", "developer"));
+
+        await(() -> recorder.events.size() == 7);
+        List<ChangeEvent> events = recorder.events;
+        assertEquals(ChangeEvent.TASK_CREATED, events.get(0).getType());
+        assertEquals(1L, events.get(0).getSequence());
+        StatsResponse created = (StatsResponse) events.get(1).getData();
+        assertEquals(1, created.getTasks().getTotal());
+        assertEquals(1, created.getTasks().getPending());
+
+        assertEquals(ChangeEvent.TASK_UPDATED, events.get(2).getType());
+        StatsResponse completed = (StatsResponse) events.get(3).getData();
+        assertEquals(0, completed.getTasks().getTotal());
+        assertEquals(-1, completed.getTasks().getPending());
+        assertEquals(1, completed.getTasks().getCompleted());
+
+        // A rename does not change any count, so no stats delta follows it.
+        assertEquals(ChangeEvent.TASK_UPDATED, events.get(4).getType());
+        assertEquals("Renamed", ((Task) events.get(4).getData()).getTitle());
+        assertEquals(ChangeEvent.USER_CREATED, events.get(5).getType());
+        assertEquals(1, ((StatsResponse) events.get(6).getData()).getUsers().getTotal());
+    }
+
+    @Test
+    void testEventsArePublishedOnceTheRecordIsReadable() {
+        List<String> unreadable = new CopyOnWriteArrayList<>();
+        DataStore[] stores = new DataStore[1];
+        feed = new ChangeFeed(64, 0) {
+            @Override
+            public void taskCreated(Task task) {
+                if (stores[0].getTasks(null, String.valueOf(task.getUserId())).stream()
+                        .noneMatch(stored -> stored.getId() == task.getId())) {
+                    unreadable.add("task " + task.getId());
+                }
+                super.taskCreated(task);
+            }
+
+            @Override
+            public void taskUpdated(Task task, Task.Status oldStatus) {
+                if (stores[0].getTasks(task.getStatus().getValue(), null).stream()
+                        .noneMatch(stored -> stored.getId() == task.getId())) {
+                    unreadable.add("update " + task.getId());
+                }
+                super.taskUpdated(task, oldStatus);
+            }
+
+            @Override
+            public void userCreated(User user) {
+                if (stores[0].getUserById(user.getId()) == null) {
+                    unreadable.add("user " + user.getId());
+                }
+                super.userCreated(user);
+            }
+        };
+
+        stores[0] = new DataStore(new NoOpCacheManager(), feed);
+        Task task = stores[0].createTask(new Task(0, "Heap", Task.Status.PENDING, 1));
+        stores[0].createTasks(List.of(new Task(0, "Heap batch", Task.Status.PENDING, 2)));
+        stores[0].updateTask(task.getId(), new Task(0, null, Task.Status.COMPLETED, 0));
+        stores[0].createUser(new User(0, "Feed", "feed@example.com", "developer"));
+        stores[0].createUsers(List.of(new User(0, "Batch", "batch@example.com", "developer")));
+
+        stores[0] = new ColumnarDataStore(new NoOpCacheManager(), feed);
+        task = stores[0].createTask(new Task(0, "Columnar", Task.Status.PENDING, 1));
+        stores[0].createTasks(List.of(new Task(0, "Columnar batch", Task.Status.PENDING, 2)));
+        stores[0].updateTask(task.getId(), new Task(0, null, Task.Status.COMPLETED, 0));
+
+        assertEquals(Collections.emptyList(), unreadable);
+    }
+
+    @Test
+    void testResumesAfterLastSequenceWithTypeFilter() {
+        feed = new ChangeFeed(64, 0);
+        for (int i = 0; i < 3; i++) {
+            feed.taskCreated(new Task(i + 1, "Task " + i, Task.Status.PENDING, 1));
+        }
+
+        Recorder recorder = new Recorder(Long.MAX_VALUE);
+        feed.subscribe(2, Collections.singleton("stats")).subscribe(recorder);
+
+        await(() -> recorder.events.size() == 2);
+        assertEquals(4L, recorder.events.get(0).getSequence());
+        assertEquals(6L, recorder.events.get(1).getSequence());
+        assertFalse(recorder.completed);
+    }
+
+    @Test
+    void testSubscriberBehindTheBufferIsToldToResync() {
+        feed = new ChangeFeed(4, 0);
+        for (int i = 0; i < 4; i++) {
+            feed.taskCreated(new Task(i + 1, "Task " + i, Task.Status.PENDING, 1));
+        }
+
+        Recorder recorder = new Recorder(Long.MAX_VALUE);
+        feed.subscribe(1, Collections.emptySet()).subscribe(recorder);
+
+        assertTrue(recorder.completed);
+        assertEquals(1, recorder.events.size());
+        assertEquals(ChangeEvent.RESYNC, recorder.events.get(0).getType());
+        assertEquals(8L, recorder.events.get(0).getSequence());
+        assertEquals(1L, feed.getResyncCount());
+        assertEquals(0, feed.getSubscriberCount());
+    }
+
+    @Test
+    void testSlowSubscriberIsDroppedWithoutBlockingOthers() {
+        feed = new ChangeFeed(8, 0);
+        Recorder slow = new Recorder(1);
+        Recorder fast = new Recorder(Long.MAX_VALUE);
+        feed.subscribe(-1, Collections.emptySet()).subscribe(slow);
+        feed.subscribe(-1, Collections.emptySet()).subscribe(fast);
+
+        for (int i = 0; i < 20; i++) {
+            feed.taskCreated(new Task(i + 1, "Task " + i, Task.Status.PENDING, 1));
+            int delivered = 2 * (i + 1);
+            await(() -> fast.events.size() == delivered);
+        }
+
+        await(() -> slow.completed);
+        assertEquals(1, slow.events.size());
+        assertEquals(1L, feed.getDroppedCount());
+        assertFalse(fast.completed);
+        assertEquals(1, feed.getSubscriberCount());
+    }
+
+    private static void await(BooleanSupplier condition) {
+        long deadline = System.nanoTime() + 5_000_000_000L;
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() > deadline) {
+                throw new AssertionError("Timed out waiting for change events");
+            }
+            Thread.onSpinWait();
+        }
+    }
+
+    private static final class Recorder extends BaseSubscriber<ChangeEvent> {
+        final List<ChangeEvent> events = new CopyOnWriteArrayList<>();
+        final long initialDemand;
+        volatile boolean completed;
+
+        Recorder(long initialDemand) {
+            this.initialDemand = initialDemand;
+        }
+
+        @Override
+        protected void hookOnSubscribe(Subscription subscription) {
+            request(initialDemand);
+        }
+
+        @Override
+        protected void hookOnNext(ChangeEvent value) {
+            events.add(value);
+        }
+
+        @Override
+        protected void hookOnComplete() {
+            completed = true;
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package com.developer.test.service;
+
+import com.developer.test.dto.BatchResponse;
+import com.developer.test.model.Task;
+import com.developer.test.model.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ColumnarDataStoreTest {
+
+    private DataStore heap;
+    private ColumnarDataStore columnar;
+
+    @BeforeEach
+    void setUp() {
+        heap = new DataStore(new ConcurrentMapCacheManager("tasks"));
+        columnar = new ColumnarDataStore(new ConcurrentMapCacheManager("tasks"));
+    }
+
+    @Test
+    void testStartsWithSampleData() {
+        assertSameContents();
+        assertEquals(4, columnar.createTask(new Task(0, "Next", Task.Status.PENDING, 1)).getId());
+        assertEquals(4, columnar.createUser(new User(0, "Ann", "ann@example.com", "developer")).getId());
+    }
+
+    @Test
+    void testSnapshotReadsAreUnsupported() {
+        assertThrows(SnapshotUnsupportedException.class, () -> columnar.leaseSnapshot());
+        assertThrows(SnapshotUnsupportedException.class, () -> columnar.leasedSnapshot(1));
+    }
+
+    @Test
+    void testRandomWritesMatchHeapStore() {
+        Random random = new Random(42);
+        Task.Status[] statuses = Task.Status.values();
+        for (int i = 0; i < 3000; i++) {
+            String title = "Task " + random.nextInt(200);
+            Task.Status status = statuses[random.nextInt(statuses.length)];
+            int userId = 1 + random.nextInt(3);
+            if (random.nextBoolean()) {
+                boolean heapDuplicate = false;
+                boolean columnarDuplicate = false;
+                try {
+                    heap.createTask(new Task(0, title, status, userId));
+                } catch (DuplicateException ex) {
+                    heapDuplicate = true;
+                }
+                try {
+                    columnar.createTask(new Task(0, title, status, userId));
+                } catch (DuplicateException ex) {
+                    columnarDuplicate = true;
+                }
+                assertEquals(heapDuplicate, columnarDuplicate);
+            } else {
+                int id = 1 + random.nextInt(heap.getNextTaskId());
+                Task update = new Task(0, random.nextBoolean() ? title : null, status, 0);
+                Task expected;
+                try {
+                    expected = heap.updateTask(id, update);
+                } catch (DuplicateException ex) {
+                    assertThrows(DuplicateException.class, () -> columnar.updateTask(id, update));
+                    continue;
+                }
+                assertEquals(expected, columnar.updateTask(id, update));
+            }
+        }
+        assertSameContents();
+    }
+
+    @Test
+    void testBatchesMatchHeapStore() {
+        List<Task> batch = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            batch.add(new Task(0, "Import " + i % 90, Task.Status.PENDING, 1 + i % 3));
+        }
+        List<BatchResponse.Item> expected = heap.createTasks(copy(batch));
+        List<BatchResponse.Item> actual = columnar.createTasks(copy(batch));
+        assertEquals(statuses(expected), statuses(actual));
+
+        List<Task> updates = new ArrayList<>();
+        updates.add(new Task(4, null, Task.Status.COMPLETED, 0));
+        updates.add(new Task(5, "Import 6", Task.Status.PENDING, 0));
+        updates.add(new Task(9999, null, Task.Status.COMPLETED, 0));
+        updates.add(new Task(6, null, null, 42));
+        assertEquals(statuses(heap.updateTasks(updates)), statuses(columnar.updateTasks(updates)));
+        assertSameContents();
+    }
+
+    @Test
+    void testKeyIndexSurvivesChurn() {
+        for (int i = 0; i < 5000; i++) {
+            columnar.createTask(new Task(0, "Churn " + i, Task.Status.PENDING, 1));
+        }
+        for (int round = 0; round < 3; round++) {
+            for (int id = 4; id < 5004; id++) {
+                columnar.updateTask(id, new Task(0, "Churn " + id + "/" + round, null, 0));
+            }
+        }
+        for (int id = 4; id < 5004; id++) {
+            assertTrue(columnar.taskExists(new Task(0, "Churn " + id + "/2", Task.Status.PENDING, 1)));
+            assertFalse(columnar.taskExists(new Task(0, "Churn " + id + "/1", Task.Status.PENDING, 1)));
+        }
+        assertThrows(DuplicateException.class,
+                () -> columnar.updateTask(4, new Task(0, "Churn 5/2", null, 0)));
+        assertEquals(5003, columnar.getStats().getTasks().getTotal());
+    }
+
+    @Test
+    void testRestoreIsLastWriterWins() {
+        columnar.clear();
+        columnar.restoreTask(new Task(10, "Same", Task.Status.PENDING, 1));
+        columnar.restoreTask(new Task(11, "Same", Task.Status.PENDING, 1));
+        columnar.restoreTask(new Task(10, "Other", Task.Status.COMPLETED, 1));
+
+        assertEquals(2, columnar.getStats().getTasks().getTotal());
+        assertEquals(1, columnar.getStats().getTasks().getCompleted());
+        assertNull(columnar.getTasksPage(null, null, 11, 10, false).getNextCursor());
+        assertEquals(12, columnar.createTask(new Task(0, "New", Task.Status.PENDING, 1)).getId());
+        assertThrows(DuplicateException.class, () -> columnar.createTask(new Task(0, "Same", Task.Status.PENDING, 1)));
+    }
+
+    private void assertSameContents() {
+        for (String status : new String[]{null, "pending", "in-progress", "completed", "bogus"}) {
+            for (String userId : new String[]{null, "1", "2", "42"}) {
+                assertEquals(heap.getTasks(status, userId), columnar.getTasks(status, userId));
+                for (boolean descending : new boolean[]{false, true}) {
+                    Page<Task> expected = heap.getTasksPage(status, userId, 7, 5, descending);
+                    Page<Task> actual = columnar.getTasksPage(status, userId, 7, 5, descending);
+                    assertEquals(expected.getItems(), actual.getItems());
+                    assertEquals(expected.getNextCursor(), actual.getNextCursor());
+                }
+            }
+        }
+        List<Integer> heapIds = new ArrayList<>();
+        heap.forEachTask(null, null, task -> heapIds.add(task.getId()));
+        List<Integer> columnarIds = new ArrayList<>();
+        columnar.forEachTask(null, null, task -> columnarIds.add(task.getId()));
+        assertEquals(heapIds, columnarIds);
+        assertEquals(heap.getStats().getTasks().getPending(), columnar.getStats().getTasks().getPending());
+        assertEquals(heap.getStats().getTasks().getCompleted(), columnar.getStats().getTasks().getCompleted());
+        assertEquals(heap.getStats().getUsers().getTotal(), columnar.getStats().getUsers().getTotal());
+    }
+
+    private static List<Task> copy(List<Task> tasks) {
+        List<Task> copy = new ArrayList<>();
+        for (Task task : tasks) {
+            copy.add(new Task(task.getId(), task.getTitle(), task.getStatus(), task.getUserId()));
+        }
+        return copy;
+    }
+
+    private static List<Integer> statuses(List<BatchResponse.Item> items) {
+        List<Integer> statuses = new ArrayList<>();
+        for (BatchResponse.Item item : items) {
+            statuses.add(item.getStatus());
+        }
+        return statuses;
+    }
+}
@@ -0,0 +1,126 @@
+package com.developer.test.service;
+
+import com.developer.test.model.Task;
+import com.developer.test.model.User;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class DataStoreMetricsTest {
+
+    private SimpleMeterRegistry registry;
+    private DataStoreMetrics metrics;
+    private DataStore dataStore;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        StaticListableBeanFactory beanFactory = new StaticListableBeanFactory(Map.of("registry", registry));
+        metrics = new DataStoreMetrics(beanFactory.getBeanProvider(MeterRegistry.class));
+        metrics.setBeanFactory(beanFactory);
+        dataStore = (DataStore) metrics.postProcessAfterInitialization(new DataStore(), "dataStore");
+    }
+
+    @Test
+    void timesEachPublicOperation() {
+        dataStore.getUserById(1);
+        dataStore.getUserById(2);
+        dataStore.getTasks(null, null);
+
+        Timer byId = registry.find(DataStoreMetrics.METRIC)
+                .tags("operation", "getUserById", "store", "DataStore", "exception", "none").timer();
+        assertNotNull(byId);
+        assertEquals(2, byId.count());
+        assertEquals(1, registry.find(DataStoreMetrics.METRIC).tag("operation", "getTasks").timer().count());
+    }
+
+    @Test
+    void tagsInheritedOperationsWithEachStore() {
+        DataStore other = (DataStore) metrics.postProcessAfterInitialization(new OtherDataStore(), "otherDataStore");
+        dataStore.getUserById(1);
+        other.getUserById(1);
+        other.getUserById(2);
+
+        assertEquals(1, registry.find(DataStoreMetrics.METRIC)
+                .tags("operation", "getUserById", "store", "DataStore").timer().count());
+        assertEquals(2, registry.find(DataStoreMetrics.METRIC)
+                .tags("operation", "getUserById", "store", "OtherDataStore").timer().count());
+    }
+
+    @Test
+    void skipsMethodsOutsideTheOperations() {
+        dataStore.setJournal(Journal.NONE);
+        dataStore.getNextUserId();
+        dataStore.getVersion();
+        dataStore.getUsers();
+
+        assertNull(registry.find(DataStoreMetrics.METRIC).tag("operation", "setJournal").timer());
+        assertNull(registry.find(DataStoreMetrics.METRIC).tag("operation", "getNextUserId").timer());
+        assertNull(registry.find(DataStoreMetrics.METRIC).tag("operation", "getVersion").timer());
+        assertNotNull(registry.find(DataStoreMetrics.METRIC).tag("operation", "getUsers").timer());
+    }
+
+    @Test
+    void tagsFailuresWithTheException() {
+        dataStore.createUser(new User(0, "Ann", "ann@example.com", "dev"));
+        assertThrows(DuplicateException.class,
+                () -> dataStore.createUser(new User(0, "Ann", "ann@example.com", "dev")));
+
+        Timer failed = registry.find(DataStoreMetrics.METRIC)
+                .tags("operation", "createUser", "exception", "DuplicateException").timer();
+        assertNotNull(failed);
+        assertEquals(1, failed.count());
+    }
+
+    @Test
+    void timesAsyncWritesUntilTheyAreDurable() {
+        CompletableFuture<Void> durable = new CompletableFuture<>();
+        dataStore.setJournal(new Journal() {
+            @Override
+            public long userCreated(User user) {
+                return 1;
+            }
+
+            @Override
+            public long taskCreated(Task task) {
+                return 1;
+            }
+
+            @Override
+            public long taskUpdated(Task task) {
+                return 1;
+            }
+
+            @Override
+            public void await(long lsn) {
+                durable.join();
+            }
+
+            @Override
+            public CompletableFuture<Void> whenDurable(long lsn) {
+                return durable;
+            }
+        });
+
+        CompletableFuture<User> created = dataStore.createUserAsync(new User(0, "Ann", "ann@example.com", "dev"));
+        assertNull(registry.find(DataStoreMetrics.METRIC).tag("operation", "createUserAsync").timer());
+        durable.complete(null);
+        assertEquals("Ann", created.join().getName());
+        assertEquals(1, registry.find(DataStoreMetrics.METRIC)
+                .tags("operation", "createUserAsync", "exception", "none").timer().count());
+    }
+
+    static class OtherDataStore extends DataStore {
+    }
+}
@@ -0,0 +1,628 @@
+package com.developer.test.service;
+
+import com.developer.test.dto.BatchResponse;
+import com.developer.test.dto.StatsResponse;
+import com.developer.test.model.Task;
+import com.developer.test.model.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.cache.support.NoOpCacheManager;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DataStoreTest {
+
+    private DataStore dataStore;
+
+    @BeforeEach
+    void setUp() {
+        dataStore = new DataStore();
+    }
+
+    @Test
+    void testGetTasksWithoutFilters() {
+        assertEquals(3, dataStore.getTasks(null, null).size());
+        assertEquals(3, dataStore.getTasks("", "").size());
+    }
+
+    @Test
+    void testGetTasksByStatus() {
+        List<Task> pending = dataStore.getTasks("pending", null);
+
+        assertEquals(1, pending.size());
+        assertEquals(1, pending.get(0).getId());
+    }
+
+    @Test
+    void testGetTasksByUserId() {
+        dataStore.createTask(new Task(0, "Second task", Task.Status.COMPLETED, 2));
+
+        List<Integer> ids = ids(dataStore.getTasks(null, "2"));
+
+        assertEquals(List.of(2, 4), ids);
+    }
+
+    @Test
+    void testGetTasksByStatusAndUserId() {
+        dataStore.createTask(new Task(0, "Second task", Task.Status.COMPLETED, 2));
+
+        assertEquals(List.of(4), ids(dataStore.getTasks("completed", "2")));
+        assertTrue(dataStore.getTasks("pending", "2").isEmpty());
+    }
+
+    @Test
+    void testGetTasksUnknownStatusReturnsEmpty() {
+        assertTrue(dataStore.getTasks("unknown", null).isEmpty());
+    }
+
+    @Test
+    void testUpdateTaskMovesIndexEntries() {
+        dataStore.updateTask(1, new Task(0, null, Task.Status.COMPLETED, 2));
+
+        assertTrue(dataStore.getTasks("pending", null).isEmpty());
+        assertTrue(dataStore.getTasks(null, "1").isEmpty());
+        assertEquals(List.of(1, 2), ids(dataStore.getTasks(null, "2")));
+        assertEquals(List.of(1, 3), ids(dataStore.getTasks("completed", null)));
+    }
+
+    @Test
+    void testCreateDuplicateUserRejected() {
+        assertThrows(DuplicateException.class,
+                () -> dataStore.createUser(new User(0, "John Doe", "john@example.com", "developer")));
+        assertTrue(dataStore.userExists(new User(0, "John Doe", "john@example.com", "developer")));
+        assertFalse(dataStore.userExists(new User(0, "John Doe", "john@example.com", "manager")));
+    }
+
+    @Test
+    void testUpdateTaskIntoExistingKeyRejected() {
+        assertThrows(DuplicateException.class,
+                () -> dataStore.updateTask(1, new Task(0, "Design user interface", Task.Status.IN_PROGRESS, 2)));
+
+        Task unchanged = dataStore.getTasks(null, "1").get(0);
+        assertEquals("Implement authentication", unchanged.getTitle());
+        assertTrue(dataStore.taskExists(new Task(0, "Implement authentication", Task.Status.PENDING, 1)));
+    }
+
+    @Test
+    void testUpdateTaskReleasesOldKey() {
+        dataStore.updateTask(1, new Task(0, null, Task.Status.COMPLETED, 0));
+
+        assertFalse(dataStore.taskExists(new Task(0, "Implement authentication", Task.Status.PENDING, 1)));
+        dataStore.createTask(new Task(0, "Implement authentication", Task.Status.PENDING, 1));
+    }
+
+    @Test
+    void testUpdateThatFailsToJournalIsUndone() {
+        dataStore.setJournal(new Journal() {
+            @Override
+            public long userCreated(User user) {
+                return 0;
+            }
+
+            @Override
+            public long taskCreated(Task task) {
+                return 0;
+            }
+
+            @Override
+            public long taskUpdated(Task task) {
+                throw new IllegalStateException("disk full");
+            }
+
+            @Override
+            public void await(long lsn) {
+            }
+        });
+
+        assertThrows(IllegalStateException.class,
+                () -> dataStore.updateTask(1, new Task(0, null, Task.Status.COMPLETED, 0)));
+
+        Task unchanged = dataStore.getTasks(null, "1").get(0);
+        assertEquals(Task.Status.PENDING, unchanged.getStatus());
+        assertTrue(dataStore.taskExists(unchanged));
+        assertFalse(dataStore.taskExists(new Task(0, "Implement authentication", Task.Status.COMPLETED, 1)));
+        dataStore.setJournal(Journal.NONE);
+        assertEquals(Task.Status.COMPLETED, dataStore.updateTask(1, new Task(0, null, Task.Status.COMPLETED, 0)).getStatus());
+    }
+
+    @Test
+    void testConcurrentIngestAdmitsNoDuplicates() throws Exception {
+        int threads = 8;
+        int distinctKeys = 2_000;
+        int attemptsPerThread = 10_000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger created = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+
+        List<Callable<Void>> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            int offset = t;
+            workers.add(() -> {
+                start.await();
+                for (int i = 0; i < attemptsPerThread; i++) {
+                    int key = (i + offset * 7) % distinctKeys;
+                    try {
+                        dataStore.createUser(new User(0, "user" + key, "user" + key + "@example.com", "developer"));
+                        dataStore.createTask(new Task(0, "task" + key, Task.Status.PENDING, 1));
+                        created.incrementAndGet();
+                    } catch (DuplicateException ex) {
+                        rejected.incrementAndGet();
+                    }
+                }
+                return null;
+            });
+        }
+        List<Future<Void>> futures = new ArrayList<>();
+        for (Callable<Void> worker : workers) {
+            futures.add(executor.submit(worker));
+        }
+        start.countDown();
+        for (Future<Void> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        assertEquals(distinctKeys, created.get());
+        assertEquals(threads * attemptsPerThread - distinctKeys, rejected.get());
+
+        List<User> users = dataStore.getUsers();
+        Set<User> uniqueUsers = new HashSet<>(users);
+        assertEquals(3 + distinctKeys, users.size());
+        assertEquals(users.size(), uniqueUsers.size());
+
+        List<Task> userOneTasks = dataStore.getTasks(null, "1");
+        assertEquals(1 + distinctKeys, userOneTasks.size());
+        assertEquals(userOneTasks.size(), new HashSet<>(userOneTasks).size());
+    }
+
+    @Test
+    void testStatsTrackCreatesAndStatusTransitions() {
+        dataStore.createUser(new User(0, "New User", "new@example.com", "developer"));
+        dataStore.createTask(new Task(0, "Another task", Task.Status.PENDING, 1));
+        dataStore.updateTask(2, new Task(0, null, Task.Status.COMPLETED, 0));
+        dataStore.updateTask(3, new Task(0, "Renamed", null, 0));
+
+        StatsResponse stats = dataStore.getStats();
+
+        assertEquals(4, stats.getUsers().getTotal());
+        assertEquals(4, stats.getTasks().getTotal());
+        assertEquals(2, stats.getTasks().getPending());
+        assertEquals(0, stats.getTasks().getInProgress());
+        assertEquals(2, stats.getTasks().getCompleted());
+    }
+
+    @Test
+    void testTaskWriteEvictsOnlyAffectedQueries() {
+        DataStore cached = new DataStore(new ConcurrentMapCacheManager("tasks"));
+        List<Task> userOne = cached.getTasks(null, "1");
+        List<Task> inProgress = cached.getTasks("in-progress", null);
+        List<Task> all = cached.getTasks(null, null);
+
+        cached.updateTask(2, new Task(0, null, Task.Status.COMPLETED, 0));
+
+        assertSame(userOne, cached.getTasks(null, "1"));
+        assertNotSame(inProgress, cached.getTasks("in-progress", null));
+        assertNotSame(all, cached.getTasks(null, null));
+        assertTrue(cached.getTasks("in-progress", null).isEmpty());
+        assertEquals(List.of(2, 3), ids(cached.getTasks("completed", null)));
+    }
+
+    @Test
+    void testTasksPageWalksByCursor() {
+        Page<Task> first = dataStore.getTasksPage(null, null, null, 2, false);
+        Page<Task> second = dataStore.getTasksPage(null, null, first.getNextCursor(), 2, false);
+
+        assertEquals(List.of(1, 2), ids(first.getItems()));
+        assertEquals(Integer.valueOf(2), first.getNextCursor());
+        assertEquals(List.of(3), ids(second.getItems()));
+        assertNull(second.getNextCursor());
+    }
+
+    @Test
+    void testTasksPageDescendingWithFilter() {
+        dataStore.createTask(new Task(0, "Second task", Task.Status.COMPLETED, 2));
+        dataStore.createTask(new Task(0, "Third task", Task.Status.COMPLETED, 3));
+
+        Page<Task> page = dataStore.getTasksPage("completed", null, 5, 1, true);
+
+        assertEquals(List.of(4), ids(page.getItems()));
+        assertEquals(Integer.valueOf(4), page.getNextCursor());
+        assertEquals(List.of(3), ids(dataStore.getTasksPage("completed", null, 4, 1, true).getItems()));
+    }
+
+    @Test
+    void testUsersPage() {
+        Page<User> page = dataStore.getUsersPage(1, 10, false);
+
+        assertEquals(2, page.getItems().size());
+        assertEquals(2, page.getItems().get(0).getId());
+        assertNull(page.getNextCursor());
+    }
+
+    @Test
+    void testForEachTaskAppliesFilters() {
+        dataStore.createTask(new Task(0, "Second task", Task.Status.COMPLETED, 2));
+        List<Task> visited = new ArrayList<>();
+
+        dataStore.forEachTask(null, "2", visited::add);
+
+        assertEquals(List.of(2, 4), ids(visited));
+    }
+
+    @Test
+    void testCreateTasksBatchAssignsContiguousIds() {
+        List<BatchResponse.Item> results = dataStore.createTasks(List.of(
+                new Task(0, "Batch 1", Task.Status.PENDING, 1),
+                new Task(0, "Implement authentication", Task.Status.PENDING, 1),
+                new Task(0, "Batch 2", Task.Status.PENDING, 1),
+                new Task(0, "Batch 1", Task.Status.PENDING, 1)
+        ));
+
+        assertEquals(201, results.get(0).getStatus());
+        assertEquals(Integer.valueOf(4), results.get(0).getId());
+        assertEquals(409, results.get(1).getStatus());
+        assertEquals(201, results.get(2).getStatus());
+        assertEquals(Integer.valueOf(5), results.get(2).getId());
+        assertEquals(409, results.get(3).getStatus());
+        assertEquals(List.of(1, 4, 5), ids(dataStore.getTasks("pending", "1")));
+        assertEquals(6, dataStore.createTask(new Task(0, "After batch", Task.Status.PENDING, 1)).getId());
+    }
+
+    @Test
+    void testCreateUsersBatchRejectsDuplicates() {
+        List<BatchResponse.Item> results = dataStore.createUsers(List.of(
+                new User(0, "Ann", "ann@example.com", "developer"),
+                new User(0, "John Doe", "john@example.com", "developer")
+        ));
+
+        assertEquals(201, results.get(0).getStatus());
+        assertEquals(409, results.get(1).getStatus());
+        assertEquals(4, dataStore.getUsers().size());
+    }
+
+    @Test
+    void testUpdateTasksBatchReportsPerItem() {
+        Task toComplete = new Task(1, null, Task.Status.COMPLETED, 0);
+        Task missing = new Task(99, null, Task.Status.COMPLETED, 0);
+        Task unknownUser = new Task(2, null, null, 42);
+        Task collision = new Task(2, "Review code changes", Task.Status.COMPLETED, 3);
+
+        List<BatchResponse.Item> results = dataStore.updateTasks(List.of(toComplete, missing, unknownUser, collision));
+
+        assertEquals(List.of(200, 404, 400, 409),
+                results.stream().map(BatchResponse.Item::getStatus).collect(Collectors.toList()));
+        assertEquals(2, dataStore.getStats().getTasks().getCompleted());
+    }
+
+    @Test
+    void testConcurrentUpdatesAreAtomicAndJournaledInApplyOrder() throws Exception {
+        Map<Integer, Task> lastJournaled = new ConcurrentHashMap<>();
+        dataStore.setJournal(new Journal() {
+            @Override
+            public long userCreated(User user) {
+                return 0;
+            }
+
+            @Override
+            public long taskCreated(Task task) {
+                return 0;
+            }
+
+            @Override
+            public long taskUpdated(Task task) {
+                lastJournaled.put(task.getId(), task);
+                return 0;
+            }
+
+            @Override
+            public void await(long lsn) {
+            }
+        });
+        int writers = 4;
+        int updatesPerWriter = 5_000;
+        Task.Status[] statuses = Task.Status.values();
+        AtomicBoolean done = new AtomicBoolean();
+        ExecutorService executor = Executors.newFixedThreadPool(writers + 1);
+        try {
+            // Title and status always change together, so a torn read shows a mismatched pair.
+            Future<Integer> reader = executor.submit(() -> {
+                int torn = 0;
+                while (!done.get()) {
+                    for (Task task : dataStore.getTasks(null, null)) {
+                        if (task.getTitle().startsWith("t:") && !task.getTitle().startsWith("t:" + task.getStatus().getValue() + ":")) {
+                            torn++;
+                        }
+                    }
+                }
+                return torn;
+            });
+            List<Future<?>> futures = new ArrayList<>();
+            for (int w = 0; w < writers; w++) {
+                int writer = w;
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < updatesPerWriter; i++) {
+                        int id = 1 + i % 2;
+                        Task.Status status = statuses[(i + writer) % statuses.length];
+                        String title = "t:" + status.getValue() + ":" + writer + ":" + i;
+                        dataStore.updateTask(id, new Task(0, title, status, 0));
+                        // A userId-only update must keep whatever title/status pair is current.
+                        dataStore.updateTask(id, new Task(0, null, null, 1 + (i + writer) % 3));
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+            done.set(true);
+            assertEquals(0, (int) reader.get());
+        } finally {
+            executor.shutdown();
+        }
+
+        for (int id = 1; id <= 2; id++) {
+            // The journal saw the same final state the store holds: no update was lost or reordered.
+            assertSame(lastJournaled.get(id), dataStore.getTasks(null, null).get(id - 1));
+        }
+        StatsResponse.TasksStats stats = dataStore.getStats().getTasks();
+        assertEquals(stats.getTotal(), stats.getPending() + stats.getInProgress() + stats.getCompleted());
+        assertEquals(dataStore.getTasks(null, null).size(),
+                Arrays.stream(statuses).mapToInt(status -> dataStore.getTasks(status.getValue(), null).size()).sum());
+    }
+
+    @Test
+    void testContendedUpdatesPublishAndIndexInApplyOrder() throws Exception {
+        List<Task.Status[]> transitions = new ArrayList<>();
+        List<Task> published = new ArrayList<>();
+        ChangeFeed feed = new ChangeFeed(64, 0) {
+            @Override
+            public void taskUpdated(Task task, Task.Status oldStatus) {
+                // Reentrant with the feed's own lock, so this list is in feed sequence order.
+                synchronized (this) {
+                    transitions.add(new Task.Status[]{oldStatus, task.getStatus()});
+                    published.add(task);
+                    super.taskUpdated(task, oldStatus);
+                }
+            }
+        };
+        DataStore contended = new DataStore(new NoOpCacheManager(), feed);
+        Task.Status[] statuses = Task.Status.values();
+        int writers = 4;
+        ExecutorService executor = Executors.newFixedThreadPool(writers);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int w = 0; w < writers; w++) {
+                int writer = w;
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < 5_000; i++) {
+                        contended.updateTask(1 + i % 2,
+                                new Task(0, null, statuses[(i + writer) % statuses.length], 1 + (i * 7 + writer) % 3));
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+            feed.close();
+        }
+
+        Map<Integer, Task.Status> last = new ConcurrentHashMap<>();
+        last.put(1, Task.Status.PENDING);
+        last.put(2, Task.Status.IN_PROGRESS);
+        for (int i = 0; i < published.size(); i++) {
+            int id = published.get(i).getId();
+            // Each event must start from the state the previous event for that task ended in.
+            assertEquals(last.get(id), transitions.get(i)[0]);
+            last.put(id, transitions.get(i)[1]);
+        }
+        for (int id = 1; id <= 2; id++) {
+            Task stored = contended.getTasks(null, null).get(id - 1);
+            assertEquals(stored.getStatus(), last.get(id));
+            for (Task.Status status : statuses) {
+                assertEquals(status == stored.getStatus(),
+                        ids(contended.getTasks(status.getValue(), null)).contains(id));
+            }
+            for (int userId = 1; userId <= 3; userId++) {
+                assertEquals(userId == stored.getUserId(),
+                        ids(contended.getTasks(null, String.valueOf(userId))).contains(id));
+            }
+        }
+        StatsResponse.TasksStats stats = contended.getStats().getTasks();
+        assertEquals(3, stats.getPending() + stats.getInProgress() + stats.getCompleted());
+    }
+
+    @Test
+    void testVersionsAdvanceOnWrites() {
+        long users = dataStore.getUsersVersion();
+        long tasks = dataStore.getTasksVersion();
+        long global = dataStore.getVersion();
+
+        dataStore.createTask(new Task(0, "Versioned", Task.Status.PENDING, 1));
+        assertEquals(users, dataStore.getUsersVersion());
+        assertEquals(tasks + 1, dataStore.getTasksVersion());
+
+        dataStore.updateTask(1, new Task(0, null, Task.Status.COMPLETED, 0));
+        dataStore.createUsers(List.of(new User(0, "Ann", "ann@example.com", "developer")));
+        assertEquals(users + 1, dataStore.getUsersVersion());
+        assertEquals(tasks + 2, dataStore.getTasksVersion());
+        assertEquals(global + 3, dataStore.getVersion());
+
+        // Reads and rejected writes leave every version unchanged.
+        dataStore.getTasks(null, null);
+        assertThrows(DuplicateException.class,
+                () -> dataStore.createTask(new Task(0, "Versioned", Task.Status.PENDING, 1)));
+        assertEquals(global + 3, dataStore.getVersion());
+    }
+
+    @Test
+    void testSnapshotReadsIgnoreLaterWrites() {
+        try (ReadSnapshot snapshot = dataStore.openSnapshot()) {
+            dataStore.createTask(new Task(0, "After snapshot", Task.Status.PENDING, 1));
+            dataStore.updateTask(1, new Task(0, "Renamed", Task.Status.COMPLETED, 0));
+            dataStore.updateTask(1, new Task(0, null, Task.Status.IN_PROGRESS, 0));
+            dataStore.createUser(new User(0, "Late", "late@example.com", "developer"));
+
+            assertEquals(3, snapshot.getUsers().size());
+            assertEquals(List.of(1, 2, 3), ids(snapshot.getTasks(null, null)));
+            assertEquals("Implement authentication", snapshot.getTasks("pending", null).get(0).getTitle());
+            assertTrue(snapshot.getTasks("completed", null).stream().noneMatch(task -> task.getId() == 1));
+            assertEquals(List.of(2), ids(snapshot.getTasksPage(null, "2", null, 10, false).getItems()));
+            StatsResponse stats = snapshot.getStats();
+            assertEquals(3, stats.getUsers().getTotal());
+            assertEquals(3, stats.getTasks().getTotal());
+            assertEquals(1, stats.getTasks().getPending());
+            assertEquals(1, stats.getTasks().getInProgress());
+
+            // The live store has moved on.
+            assertEquals(4, dataStore.getStats().getTasks().getTotal());
+            assertEquals("Renamed", dataStore.getTasks("in-progress", "1").get(0).getTitle());
+        }
+
+        try (ReadSnapshot latest = dataStore.openSnapshot()) {
+            assertEquals(4, latest.getUsers().size());
+            assertEquals(2, latest.getStats().getTasks().getInProgress());
+        }
+    }
+
+    @Test
+    void testSnapshotStatsMatchSnapshotTasksUnderConcurrentWrites() throws Exception {
+        for (int i = 0; i < 200; i++) {
+            dataStore.createTask(new Task(0, "Bulk " + i, Task.Status.PENDING, 1 + i % 3));
+        }
+        Task.Status[] statuses = Task.Status.values();
+        AtomicBoolean done = new AtomicBoolean();
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        try {
+            List<Future<?>> writers = new ArrayList<>();
+            for (int w = 0; w < 2; w++) {
+                int writer = w;
+                writers.add(executor.submit(() -> {
+                    for (int i = 0; i < 5_000; i++) {
+                        int id = 4 + (i * 7 + writer) % 200;
+                        dataStore.updateTask(id, new Task(0, "Bulk " + writer + ":" + i, statuses[i % 3], 0));
+                        if (i % 50 == 0) {
+                            dataStore.createTask(new Task(0, "New " + writer + ":" + i, Task.Status.PENDING, 1));
+                        }
+                    }
+                }));
+            }
+            Future<Integer> reader = executor.submit(() -> {
+                int mismatches = 0;
+                while (!done.get()) {
+                    try (ReadSnapshot snapshot = dataStore.openSnapshot()) {
+                        StatsResponse.TasksStats stats = snapshot.getStats().getTasks();
+                        List<Task> tasks = snapshot.getTasks(null, null);
+                        int pending = snapshot.getTasks("pending", null).size();
+                        if (stats.getTotal() != tasks.size() || stats.getPending() != pending
+                                || tasks.size() != snapshot.getTasks(null, null).size()) {
+                            mismatches++;
+                        }
+                    }
+                }
+                return mismatches;
+            });
+            for (Future<?> writer : writers) {
+                writer.get();
+            }
+            done.set(true);
+            assertEquals(0, (int) reader.get());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void testLeasedSnapshotsAreSharedAndExpire() throws Exception {
+        ReadSnapshot leased = dataStore.leaseSnapshot();
+        assertSame(leased, dataStore.leaseSnapshot());
+        assertSame(leased, dataStore.leasedSnapshot(leased.getVersion()));
+
+        dataStore.createTask(new Task(0, "After lease", Task.Status.PENDING, 1));
+        assertEquals(3, dataStore.leasedSnapshot(leased.getVersion()).getStats().getTasks().getTotal());
+        assertThrows(SnapshotExpiredException.class, () -> dataStore.leasedSnapshot(leased.getVersion() + 1));
+
+        dataStore.setSnapshotLeaseMillis(1);
+        ReadSnapshot shortLived = dataStore.leaseSnapshot();
+        TimeUnit.MILLISECONDS.sleep(5);
+        assertThrows(SnapshotExpiredException.class, () -> dataStore.leasedSnapshot(shortLived.getVersion()));
+        leased.close();
+        assertThrows(SnapshotExpiredException.class, () -> dataStore.leasedSnapshot(leased.getVersion()));
+    }
+
+    @Test
+    void testRestoredRecordsKeepHistoryForSnapshots() {
+        ReadSnapshot leased = dataStore.leaseSnapshot();
+        try (ReadSnapshot snapshot = dataStore.openSnapshot()) {
+            dataStore.restoreTask(new Task(1, "Replayed", Task.Status.COMPLETED, 2));
+            dataStore.restoreUser(new User(2, "Replayed", "replayed@example.com", "designer"));
+
+            assertEquals(List.of(1, 2, 3), ids(snapshot.getTasks(null, null)));
+            assertEquals("Implement authentication", snapshot.getTasks("pending", null).get(0).getTitle());
+            assertEquals("Jane Smith", snapshot.getUsers().get(1).getName());
+            assertEquals(1, snapshot.getStats().getTasks().getPending());
+            assertEquals("Replayed", dataStore.getTasks("completed", "2").get(0).getTitle());
+        }
+
+        // A rebuild expires leased versions rather than serving them from the emptied store.
+        dataStore.clear();
+        assertThrows(SnapshotExpiredException.class, () -> dataStore.leasedSnapshot(leased.getVersion()));
+    }
+
+    @Test
+    void testShardedStoresAnswerInIdOrder() {
+        DataStore sharded = new DataStore(new NoOpCacheManager(), new ChangeFeed(), 7);
+        int count = ShardedIntObjectMap.PARALLEL_THRESHOLD + 100;
+        List<Task> batch = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            batch.add(new Task(0, "Sharded " + i, i % 2 == 0 ? Task.Status.PENDING : Task.Status.COMPLETED, 1));
+        }
+        sharded.createTasks(batch);
+        sharded.updateTask(10, new Task(0, null, Task.Status.IN_PROGRESS, 0));
+
+        List<Task> all = sharded.getTasks(null, null);
+        assertEquals(count + 3, all.size());
+        for (int i = 0; i < all.size(); i++) {
+            assertEquals(i + 1, all.get(i).getId());
+        }
+        try (ReadSnapshot snapshot = sharded.openSnapshot()) {
+            StatsResponse.TasksStats stats = snapshot.getStats().getTasks();
+            StatsResponse.TasksStats live = sharded.getStats().getTasks();
+            assertEquals(live.getTotal(), stats.getTotal());
+            assertEquals(live.getPending(), stats.getPending());
+            assertEquals(live.getInProgress(), stats.getInProgress());
+            assertEquals(live.getCompleted(), stats.getCompleted());
+            assertEquals(sharded.getTasks("completed", null), snapshot.getTasks("completed", null));
+        }
+    }
+
+    private static List<Integer> ids(List<Task> tasks) {
+        return tasks.stream().map(Task::getId).sorted().collect(Collectors.toList());
+    }
+}
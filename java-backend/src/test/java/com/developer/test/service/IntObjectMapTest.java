@@ -0,0 +1,160 @@
+package com.developer.test.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.PrimitiveIterator;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class IntObjectMapTest {
+
+    @Test
+    void testPutGetAcrossResizes() {
+        IntObjectMap<String> map = new IntObjectMap<>();
+        for (int key = 1; key <= 10_000; key++) {
+            assertNull(map.put(key, "v" + key));
+        }
+        assertEquals("v1", map.put(1, "replaced"));
+
+        assertEquals(10_000, map.size());
+        assertEquals(10_000, map.maxKey());
+        assertEquals("replaced", map.get(1));
+        assertEquals("v9999", map.get(9999));
+        assertNull(map.get(10_001));
+        assertFalse(map.containsKey(0));
+        assertThrows(IllegalArgumentException.class, () -> map.put(0, "zero"));
+
+        map.clear();
+        assertEquals(0, map.size());
+        assertNull(map.get(5));
+    }
+
+    @Test
+    void testOrderedKeysSkipGapsAndHonorCursor() {
+        IntObjectMap<String> map = new IntObjectMap<>();
+        for (int key : new int[]{7, 2, 3, 10}) {
+            map.put(key, "v" + key);
+        }
+        List<String> values = new ArrayList<>();
+        map.forEachInOrder(values::add);
+
+        assertEquals(List.of("v2", "v3", "v7", "v10"), values);
+        assertEquals(List.of(2, 3, 7, 10), drain(map.keys(null, false)));
+        assertEquals(List.of(7, 10), drain(map.keys(3, false)));
+        assertEquals(List.of(10, 7, 3, 2), drain(map.keys(null, true)));
+        assertEquals(List.of(3, 2), drain(map.keys(7, true)));
+        assertEquals(List.of(10, 7, 3, 2), drain(map.keys(99, true)));
+    }
+
+    @Test
+    void testReadersSeeCompleteEntriesDuringWrites() throws Exception {
+        IntObjectMap<Integer> map = new IntObjectMap<>();
+        int count = 200_000;
+        AtomicBoolean done = new AtomicBoolean();
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        try {
+            List<Future<Integer>> readers = new ArrayList<>();
+            for (int r = 0; r < 2; r++) {
+                readers.add(executor.submit(() -> {
+                    int mismatches = 0;
+                    while (!done.get()) {
+                        int last = map.maxKey();
+                        for (int key = Math.max(1, last - 1000); key <= last; key++) {
+                            Integer value = map.get(key);
+                            if (value == null || value != key) {
+                                mismatches++;
+                            }
+                        }
+                    }
+                    return mismatches;
+                }));
+            }
+            for (int key = 1; key <= count; key++) {
+                map.put(key, key);
+            }
+            done.set(true);
+            for (Future<Integer> reader : readers) {
+                assertEquals(0, (int) reader.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+        assertEquals(count, map.size());
+    }
+
+    @Test
+    void testReplaceSwapsOnlyTheExpectedValue() {
+        IntObjectMap<String> map = new IntObjectMap<>();
+        String first = new String("v");
+        map.put(1, first);
+
+        assertFalse(map.replace(2, first, "absent"));
+        assertFalse(map.replace(1, new String("v"), "equal but not identical"));
+        assertTrue(map.replace(1, first, "second"));
+        assertEquals("second", map.get(1));
+    }
+
+    @Test
+    void testConcurrentReplacesAreNotLostAcrossResizes() throws Exception {
+        IntObjectMap<Integer> map = new IntObjectMap<>();
+        int hotKeys = 8;
+        // Start past the Integer cache so every increment boxes a fresh instance, as replace()
+        // compares by identity.
+        int base = 1_000;
+        for (int key = 1; key <= hotKeys; key++) {
+            map.put(key, base);
+        }
+        int threads = 4;
+        int increments = 50_000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads + 1);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                int seed = t;
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < increments; i++) {
+                        int key = 1 + (i + seed) % hotKeys;
+                        while (true) {
+                            Integer current = map.get(key);
+                            if (map.replace(key, current, current + 1)) {
+                                break;
+                            }
+                        }
+                    }
+                }));
+            }
+            // Grow the table underneath the writers so some swaps race a resize.
+            futures.add(executor.submit(() -> {
+                for (int key = hotKeys + 1; key <= 200_000; key++) {
+                    map.put(key, -1);
+                }
+            }));
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+        int total = 0;
+        for (int key = 1; key <= hotKeys; key++) {
+            total += map.get(key) - base;
+        }
+        assertEquals(threads * increments, total);
+    }
+
+    private static List<Integer> drain(PrimitiveIterator.OfInt keys) {
+        List<Integer> result = new ArrayList<>();
+        keys.forEachRemaining((int key) -> result.add(key));
+        return result;
+    }
+}
@@ -0,0 +1,73 @@
+package com.developer.test.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.PrimitiveIterator;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ShardedIntObjectMapTest {
+
+    @Test
+    void testKeysAreOrderedAcrossShards() {
+        ShardedIntObjectMap<String> map = new ShardedIntObjectMap<>(3);
+        for (int key : new int[]{7, 2, 3, 10, 6}) {
+            map.put(key, "v" + key);
+        }
+        List<String> values = new ArrayList<>();
+        map.forEachInOrder(values::add);
+
+        assertEquals(List.of("v2", "v3", "v6", "v7", "v10"), values);
+        assertEquals(5, map.size());
+        assertEquals(10, map.maxKey());
+        assertEquals(List.of(7, 10), drain(map.keys(6, false)));
+        assertEquals(List.of(6, 3, 2), drain(map.keys(7, true)));
+        assertTrue(map.replace(6, map.get(6), "six"));
+        assertEquals("six", map.get(6));
+        assertNull(map.get(4));
+        assertThrows(IllegalArgumentException.class, () -> new ShardedIntObjectMap<>(0));
+    }
+
+    @Test
+    void testParallelScansMatchSequentialOrder() {
+        int keys = ShardedIntObjectMap.PARALLEL_THRESHOLD * 4 + 17;
+        ShardedIntObjectMap<Integer> map = new ShardedIntObjectMap<>(5);
+        List<Integer> expected = new ArrayList<>();
+        for (int key = 1; key <= keys; key++) {
+            // Leave gaps so every shard has holes to skip.
+            if (key % 11 != 0) {
+                map.put(key, key);
+                if (key % 2 == 0) {
+                    expected.add(key);
+                }
+            }
+        }
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            assertEquals(expected, map.collectInOrder(pool, value -> value % 2 == 0 ? value : null));
+
+            long[] sum = map.aggregate(pool, () -> new long[2], (partial, value) -> {
+                partial[0]++;
+                partial[1] += value;
+            }, (left, right) -> new long[]{left[0] + right[0], left[1] + right[1]});
+            long count = keys - keys / 11;
+            long total = (long) keys * (keys + 1) / 2 - 11L * (keys / 11) * (keys / 11 + 1) / 2;
+            assertEquals(count, sum[0]);
+            assertEquals(total, sum[1]);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private static List<Integer> drain(PrimitiveIterator.OfInt keys) {
+        List<Integer> result = new ArrayList<>();
+        keys.forEachRemaining((int key) -> result.add(key));
+        return result;
+    }
+}
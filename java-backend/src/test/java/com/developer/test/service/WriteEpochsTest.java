@@ -0,0 +1,85 @@
+package com.developer.test.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class WriteEpochsTest {
+
+    @Test
+    void testAdvanceWaitsOnlyForWritersAlreadyInside() throws Exception {
+        WriteEpochs epochs = new WriteEpochs();
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            int inside = epochs.enter();
+            Future<?> advance = executor.submit(epochs::advance);
+            assertThrows(TimeoutException.class, () -> advance.get(50, TimeUnit.MILLISECONDS));
+
+            // A writer arriving after the flip neither delays nor is waited for.
+            int later = epochs.enter();
+            epochs.exit(inside);
+            advance.get(5, TimeUnit.SECONDS);
+            epochs.exit(later);
+            epochs.advance();
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void testConcurrentAdvancesSeeEveryEarlierWrite() throws Exception {
+        WriteEpochs epochs = new WriteEpochs();
+        AtomicInteger started = new AtomicInteger();
+        AtomicInteger finished = new AtomicInteger();
+        AtomicBoolean done = new AtomicBoolean();
+        ExecutorService executor = Executors.newFixedThreadPool(6);
+        try {
+            List<Future<?>> writers = new ArrayList<>();
+            for (int w = 0; w < 3; w++) {
+                writers.add(executor.submit(() -> {
+                    while (!done.get()) {
+                        int epoch = epochs.enter();
+                        started.incrementAndGet();
+                        finished.incrementAndGet();
+                        epochs.exit(epoch);
+                    }
+                }));
+            }
+            List<Future<Integer>> advancers = new ArrayList<>();
+            for (int a = 0; a < 3; a++) {
+                advancers.add(executor.submit(() -> {
+                    int missed = 0;
+                    for (int i = 0; i < 2_000; i++) {
+                        int before = started.get();
+                        epochs.advance();
+                        // Every write that had started by the call has finished by the return.
+                        if (finished.get() < before) {
+                            missed++;
+                        }
+                    }
+                    return missed;
+                }));
+            }
+            for (Future<Integer> advancer : advancers) {
+                assertEquals(0, (int) advancer.get(30, TimeUnit.SECONDS));
+            }
+            done.set(true);
+            for (Future<?> writer : writers) {
+                writer.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
@@ -51,8 +51,11 @@ export const checkHealth = async () => {
   }
 }
 
-export const getUsers = async () => {
-  const response = await apiClient.get('/api/users')
+export const getUsers = async (asOf) => {
+  const params = {}
+  if (asOf != null) params.asOf = asOf
+
+  const response = await apiClient.get('/api/users', { params })
   return response.data
 }
 
@@ -61,10 +64,11 @@ export const getUserById = async (id) => {
   return response.data
 }
 
-export const getTasks = async (status = '', userId = '') => {
+export const getTasks = async (status = '', userId = '', asOf) => {
   const params = {}
   if (status) params.status = status
   if (userId) params.userId = userId
+  if (asOf != null) params.asOf = asOf
   
   const response = await apiClient.get('/api/tasks', { params })
   return response.data
@@ -75,7 +79,31 @@ export const getTaskById = async (id) => {
   return response.data
 }
 
-export const getStats = async () => {
-  const response = await apiClient.get('/api/stats')
+export const getStats = async (asOf) => {
+  const params = {}
+  if (asOf != null) params.asOf = asOf
+
+  const response = await apiClient.get('/api/stats', { params })
+  return response.data
+}
+
+// Pins one store version; pass its `version` as `asOf` to read users, tasks and stats consistently
+export const openSnapshot = async () => {
+  const response = await apiClient.post('/api/snapshots')
   return response.data
 }
+
+// Subscribes to the backend's Server-Sent Events change feed. `onEvent(type, data)` receives
+// 'task.created', 'task.updated', 'user.created', 'stats' (count deltas) and 'resync'; on
+// 'resync' reload users, tasks and stats. Returns a function that closes the stream.
+export const subscribeToChanges = (onEvent, types = []) => {
+  const url = new URL('/api/changes', API_BASE_URL)
+  if (types.length) url.searchParams.set('types', types.join(','))
+
+  const source = new EventSource(url)
+  const eventTypes = ['task.created', 'task.updated', 'user.created', 'stats', 'resync']
+  eventTypes.forEach((type) => {
+    source.addEventListener(type, (event) => onEvent(type, JSON.parse(event.data)))
+  })
+  return () => source.close()
+}